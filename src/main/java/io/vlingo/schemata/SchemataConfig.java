@@ -28,6 +28,17 @@ public class SchemataConfig {
     public final String runtimeType;
     public final long confirmationExpirationInterval;
     public final long confirmationExpiration;
+    public final long codeCacheMaximumEntries;
+    public final long codeCacheMaximumWeight;
+    public final long classFileCacheMaximumEntries;
+    public final long classFileCacheMaximumWeight;
+    public final long typeDefinitionCacheMaximumEntries;
+    public final long typeDefinitionCacheLatestMaximumEntries;
+    public final int changeFeedRetainedChanges;
+    public final String codegenParser;
+    public final int codegenWorkers;
+    public final int codegenWorkerQueueCapacity;
+    public final int codegenResolutionMaximumDepth;
 
 
     public static SchemataConfig forRuntime(String runtimeType) throws IOException {
@@ -57,6 +68,17 @@ public class SchemataConfig {
                 props.getProperty("database.originator"),
                 Long.parseLong(props.getProperty("dispatcher.control.confirmation_expiration_interval", "2000")),
                 Long.parseLong(props.getProperty("dispatcher.control.confirmation_expiration", "1000")),
+                Long.parseLong(props.getProperty("cache.code.maximum_entries", "1000")),
+                Long.parseLong(props.getProperty("cache.code.maximum_weight", "16777216")),
+                Long.parseLong(props.getProperty("cache.class_files.maximum_entries", "1000")),
+                Long.parseLong(props.getProperty("cache.class_files.maximum_weight", "67108864")),
+                Long.parseLong(props.getProperty("cache.type_definition.maximum_entries", "1000")),
+                Long.parseLong(props.getProperty("cache.type_definition.latest.maximum_entries", "100")),
+                Integer.parseInt(props.getProperty("changes.feed.retained", "10000")),
+                props.getProperty("codegen.parser", "antlr"),
+                Integer.parseInt(props.getProperty("codegen.workers", "0")),
+                Integer.parseInt(props.getProperty("codegen.worker.queue_capacity", "64")),
+                Integer.parseInt(props.getProperty("codegen.resolution.maximum_depth", "32")),
                 runtimeType
         );
     }
@@ -84,6 +106,17 @@ public class SchemataConfig {
             String databaseOriginator,
             long confirmationExpirationInterval,
             long confirmationExpiration,
+            long codeCacheMaximumEntries,
+            long codeCacheMaximumWeight,
+            long classFileCacheMaximumEntries,
+            long classFileCacheMaximumWeight,
+            long typeDefinitionCacheMaximumEntries,
+            long typeDefinitionCacheLatestMaximumEntries,
+            int changeFeedRetainedChanges,
+            String codegenParser,
+            int codegenWorkers,
+            int codegenWorkerQueueCapacity,
+            int codegenResolutionMaximumDepth,
             final String runtimeType
     ) {
         this.randomPort = randomPort;
@@ -96,6 +129,17 @@ public class SchemataConfig {
         this.databaseOriginator = databaseOriginator;
         this.confirmationExpirationInterval = confirmationExpirationInterval;
         this.confirmationExpiration = confirmationExpiration;
+        this.codeCacheMaximumEntries = codeCacheMaximumEntries;
+        this.codeCacheMaximumWeight = codeCacheMaximumWeight;
+        this.classFileCacheMaximumEntries = classFileCacheMaximumEntries;
+        this.classFileCacheMaximumWeight = classFileCacheMaximumWeight;
+        this.typeDefinitionCacheMaximumEntries = typeDefinitionCacheMaximumEntries;
+        this.typeDefinitionCacheLatestMaximumEntries = typeDefinitionCacheLatestMaximumEntries;
+        this.changeFeedRetainedChanges = changeFeedRetainedChanges;
+        this.codegenParser = codegenParser;
+        this.codegenWorkers = codegenWorkers;
+        this.codegenWorkerQueueCapacity = codegenWorkerQueueCapacity;
+        this.codegenResolutionMaximumDepth = codegenResolutionMaximumDepth;
         this.runtimeType = runtimeType;
     }
 }
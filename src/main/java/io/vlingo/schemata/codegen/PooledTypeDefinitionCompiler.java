@@ -0,0 +1,175 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen;
+
+import io.vlingo.actors.Stage;
+import io.vlingo.common.Cancellable;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.common.Scheduled;
+import io.vlingo.common.Scheduler;
+import io.vlingo.schemata.codegen.TypeDefinitionCompilerWorker.Compilation;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.parser.TypeParser;
+import io.vlingo.schemata.codegen.processor.types.TypeResolver;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A {@code TypeDefinitionCompiler} backed by a pool of {@link TypeDefinitionCompilerWorker}s
+ * behind a {@link TypeDefinitionCompilerRouter}. At most {@code workers * queueCapacity}
+ * compilations are in flight; any compilation beyond that is answered with a
+ * {@code CAPACITY_EXCEEDED} failure right away instead of being queued. A compilation
+ * that is not answered within the admission timeout is answered with a
+ * {@code CODE_GENERATION_ERROR} failure, so a lost reply never holds its slot.
+ */
+public class PooledTypeDefinitionCompiler implements TypeDefinitionCompiler, TypeDefinitionMiddleware {
+    public static final long DefaultAdmissionTimeout = 30_000L;
+
+    private final TypeDefinitionCompilerWorker router;
+    private final Scheduler scheduler;
+    private final int capacity;
+    private final long admissionTimeout;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    /**
+     * Answer the number of workers for {@code configuredWorkers}, where zero or less
+     * means one worker per available processor.
+     * @param configuredWorkers the int number of configured workers
+     * @return int
+     */
+    public static int workersFor(final int configuredWorkers) {
+        return configuredWorkers > 0 ? configuredWorkers : Runtime.getRuntime().availableProcessors();
+    }
+
+    public PooledTypeDefinitionCompiler(final Stage stage, final TypeParser parser, final TypeResolver resolver,
+                                        final String language, final int workers, final int queueCapacity) {
+        this(stage, parser, resolver, language, workers, queueCapacity, TypeResolutionContext.DefaultMaximumDepth);
+    }
+
+    public PooledTypeDefinitionCompiler(final Stage stage, final TypeParser parser, final TypeResolver resolver,
+                                        final String language, final int workers, final int queueCapacity, final int maximumResolutionDepth) {
+        this(stage, parser, resolver, language, workers, queueCapacity, maximumResolutionDepth, DefaultAdmissionTimeout);
+    }
+
+    public PooledTypeDefinitionCompiler(final Stage stage, final TypeParser parser, final TypeResolver resolver,
+                                        final String language, final int workers, final int queueCapacity, final int maximumResolutionDepth,
+                                        final long admissionTimeout) {
+        final int poolSize = workersFor(workers);
+        this.router = stage.actorFor(TypeDefinitionCompilerWorker.class, TypeDefinitionCompilerRouter.class,
+                poolSize, parser, resolver, language, maximumResolutionDepth);
+        this.scheduler = stage.scheduler();
+        this.capacity = poolSize * Math.max(1, queueCapacity);
+        this.admissionTimeout = admissionTimeout;
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, String>> compile(final InputStream typeDefinition, final String fullyQualifiedTypeName, final String version) {
+        try {
+            return compile(read(typeDefinition), fullyQualifiedTypeName, version);
+        } catch (IOException e) {
+            return Completes.withSuccess(Failure.of(SchemataBusinessException.invalidSchemaDefinition("Reading schema failed", e)));
+        }
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, String>> compile(final String specification, final String fullyQualifiedTypeName, final String version) {
+        return admitted(() -> router.compile(Compilation.of(specification, fullyQualifiedTypeName, version)));
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final InputStream typeDefinition, final String fullyQualifiedTypeName) {
+        try {
+            return compileToAST(read(typeDefinition), fullyQualifiedTypeName);
+        } catch (IOException e) {
+            return Completes.withSuccess(Failure.of(SchemataBusinessException.invalidSchemaDefinition("Reading schema failed", e)));
+        }
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final String specification, final String fullyQualifiedTypeName) {
+        return admitted(() -> router.compileToAST(Compilation.of(specification, fullyQualifiedTypeName)));
+    }
+
+    @Override
+    public TypeDefinitionMiddleware middleware() {
+        return this;
+    }
+
+    /**
+     * Answer the number of compilations currently in flight.
+     * @return int
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Answer the maximum number of compilations in flight.
+     * @return int
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    private <T> Completes<Outcome<SchemataBusinessException, T>> admitted(final Supplier<Completes<Outcome<SchemataBusinessException, T>>> compilation) {
+        if (inFlight.incrementAndGet() > capacity) {
+            inFlight.decrementAndGet();
+            return Completes.withSuccess(Failure.of(SchemataBusinessException.capacityExceeded("Type definition compiler", capacity)));
+        }
+
+        final Completes<Outcome<SchemataBusinessException, T>> answer = Completes.using(scheduler);
+        final AtomicBoolean released = new AtomicBoolean(false);
+        final Cancellable timeout = scheduler.scheduleOnce((Scheduled<Object>) (scheduled, data) ->
+                release(released, answer, Failure.of(SchemataBusinessException.codeGenerationError(
+                        new TimeoutException("Compilation not answered within " + admissionTimeout + " ms")))),
+                null, admissionTimeout, 0);
+
+        compilation.get()
+                .andThenConsume(outcome -> {
+                    timeout.cancel();
+                    release(released, answer, outcome);
+                })
+                .recoverFrom(e -> {
+                    timeout.cancel();
+                    release(released, answer, Failure.of(SchemataBusinessException.codeGenerationError(e)));
+                    return null;
+                });
+
+        return answer;
+    }
+
+    private <T> void release(final AtomicBoolean released, final Completes<Outcome<SchemataBusinessException, T>> answer,
+                             final Outcome<SchemataBusinessException, T> outcome) {
+        if (released.compareAndSet(false, true)) {
+            inFlight.decrementAndGet();
+            answer.with(outcome);
+        }
+    }
+
+    private String read(final InputStream inputStream) throws IOException {
+        final Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        final StringBuilder builder = new StringBuilder();
+        final char[] buffer = new char[1024];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+        return builder.toString();
+    }
+}
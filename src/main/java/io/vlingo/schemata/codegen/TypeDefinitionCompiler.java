@@ -12,7 +12,6 @@ import io.vlingo.common.Completes;
 import io.vlingo.common.Outcome;
 import io.vlingo.schemata.codegen.backend.Backend;
 import io.vlingo.schemata.codegen.backend.java.JavaBackend;
-import io.vlingo.schemata.codegen.parser.AntlrTypeParser;
 import io.vlingo.schemata.codegen.parser.TypeParser;
 import io.vlingo.schemata.codegen.processor.Processor;
 import io.vlingo.schemata.codegen.processor.types.ComputableTypeProcessor;
@@ -23,6 +22,9 @@ import io.vlingo.schemata.infra.persistence.StorageProvider;
 
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -31,16 +33,43 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public interface TypeDefinitionCompiler {
   /**
-   * Answer a cached {@code TypeDefinitionCompiler} for a given {@code language},
-   * or a new one if one is not currently cached.
-   * @param stage the Stage in which to create the compiler actor
+   * The languages for which {@link #newCompilerFor(Stage, String)} answers a compiler.
+   */
+  public static final List<String> SupportedLanguages = Collections.unmodifiableList(Arrays.asList("java", "java-binary", "java-flyweight", "java-json"));
+
+  /**
+   * The version of the code generators, to be incremented whenever a backend generates different
+   * code for an unchanged specification. It is part of the entity tags of generated code, and the
+   * materialized artifacts of another version are not served.
+   */
+  public static final int GeneratorVersion = 1;
+
+  /**
+   * The languages materialized for every schema version as it is defined; the
+   * others, such as the codec variants of a language, are compiled on request.
+   */
+  public static final List<String> MaterializedLanguages = Collections.unmodifiableList(Arrays.asList("java"));
+
+  /**
+   * Answer a cached, pooled {@code TypeDefinitionCompiler} for a given {@code language},
+   * or a new one if one is not currently cached. The pool is sized by the configured
+   * number of workers and their queue capacity.
+   * @param stage the Stage in which to create the compiler actors
    * @param language the String identifying the language
    * @return TypeDefinitionCompiler
    */
   public static TypeDefinitionCompiler compilerFor(final Stage stage, final String language) {
     return __TypeDefinitionCompiler__Holder.__internal__compilers.computeIfAbsent(
             language,
-            (key) -> TypeDefinitionCompiler.newCompilerFor(stage, language));
+            (key) -> {
+              if (!SupportedLanguages.contains(language)) {
+                throw new IllegalArgumentException("Unsupported language: " + language);
+              }
+              final StorageProvider storageProvider = StorageProvider.instance();
+              return new PooledTypeDefinitionCompiler(stage, storageProvider.typeParser, storageProvider.typeResolverQueries,
+                      language, storageProvider.compilerWorkers, storageProvider.compilerQueueCapacity,
+                      storageProvider.compilerResolutionMaximumDepth);
+            });
   }
 
   /**
@@ -50,9 +79,24 @@ public interface TypeDefinitionCompiler {
    * @return TypeDefinitionCompiler
    */
   public static TypeDefinitionCompiler newCompilerFor(final Stage stage, final String language) {
+    return forBackend(stage, backendFor(language));
+  }
+
+  /**
+   * Answer a new {@code Backend} for a given {@code language}.
+   * @param language the String identifying the language
+   * @return Backend
+   */
+  static Backend backendFor(final String language) {
     switch (language) {
     case "java":
-      return forBackend(stage, new JavaBackend());
+      return new JavaBackend();
+    case "java-binary":
+      return new JavaBackend(EnumSet.of(JavaBackend.Codec.Binary));
+    case "java-flyweight":
+      return new JavaBackend(EnumSet.of(JavaBackend.Codec.Flyweight));
+    case "java-json":
+      return new JavaBackend(EnumSet.of(JavaBackend.Codec.Json));
     default:
       throw new IllegalArgumentException("Unsupported language: " + language);
     }
@@ -65,7 +109,7 @@ public interface TypeDefinitionCompiler {
    * @return TypeDefinitionCompiler
    */
   static TypeDefinitionCompiler forBackend(final Stage stage, Backend backend) {
-    final TypeParser typeParser =  new AntlrTypeParser();
+    final TypeParser typeParser = StorageProvider.instance().typeParser;
     final TypeResolver typeResolver = StorageProvider.instance().typeResolverQueries;
 
     return new TypeDefinitionCompilerActor(typeParser,
@@ -84,6 +128,15 @@ public interface TypeDefinitionCompiler {
    */
   Completes<Outcome<SchemataBusinessException,String>> compile(final InputStream typeDefinition, final String fullyQualifiedTypeName, final String version);
 
+  /**
+   * Answer the eventually generated source code given the {@code specification} and {@code version}.
+   * @param specification the String schema type definition
+   * @param fullyQualifiedTypeName the String FQTN of the type to be compiled
+   * @param version the String version of the definition
+   * @return {@code Completes<String>}
+   */
+  Completes<Outcome<SchemataBusinessException,String>> compile(final String specification, final String fullyQualifiedTypeName, final String version);
+
   /**
    * Answer this compiler's middleware.
    * @return {@code TypeDefinitionMiddleware}
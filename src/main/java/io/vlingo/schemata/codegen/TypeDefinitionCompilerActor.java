@@ -8,7 +8,9 @@
 package io.vlingo.schemata.codegen;
 
 import io.vlingo.common.Completes;
+import io.vlingo.common.Failure;
 import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
 import io.vlingo.schemata.codegen.ast.Node;
 import io.vlingo.schemata.codegen.backend.Backend;
 import io.vlingo.schemata.codegen.parser.TypeParser;
@@ -17,47 +19,83 @@ import io.vlingo.schemata.errors.SchemataBusinessException;
 
 import java.io.InputStream;
 import java.util.List;
-import java.util.function.Function;
 
 public class TypeDefinitionCompilerActor implements TypeDefinitionCompiler, TypeDefinitionMiddleware {
     private final TypeParser parser;
     private final List<Processor> processors;
     private final Backend backend;
+    private final int maximumResolutionDepth;
 
     public TypeDefinitionCompilerActor(final TypeParser parser, final List<Processor> processors, final Backend backend) {
+        this(parser, processors, backend, TypeResolutionContext.DefaultMaximumDepth);
+    }
+
+    public TypeDefinitionCompilerActor(final TypeParser parser, final List<Processor> processors, final Backend backend, final int maximumResolutionDepth) {
         this.parser = parser;
         this.processors = processors;
         this.backend = backend;
+        this.maximumResolutionDepth = maximumResolutionDepth;
     }
 
     @Override
     public Completes<Outcome<SchemataBusinessException, String>> compile(final InputStream typeDefinition, final String fullyQualifiedTypeName, final String version) {
-        return Completes.withSuccess(
-                parser.parseTypeDefinition(typeDefinition, fullyQualifiedTypeName)
-                    .andThen(node -> this.process(fullyQualifiedTypeName).apply(node))
-                    .andThenTo(node -> backend.generateOutput(node, version))
-                    .otherwiseFail(ex -> ex)
-                );
+        return generated(compileToAST(typeDefinition, fullyQualifiedTypeName), version);
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, String>> compile(final String specification, final String fullyQualifiedTypeName, final String version) {
+        return generated(compileToAST(specification, fullyQualifiedTypeName), version);
     }
 
     @Override
     public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final InputStream typeDefinition, final String fullyQualifiedTypeName) {
-        return Completes.withSuccess(
-                parser.parseTypeDefinition(typeDefinition, fullyQualifiedTypeName)
-                        .andThen(this.process(fullyQualifiedTypeName))
-                        .otherwiseFail(ex -> ex)
-        );
+        return processed(parser.parseTypeDefinition(typeDefinition, fullyQualifiedTypeName), fullyQualifiedTypeName, rootContextOf(fullyQualifiedTypeName));
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final String specification, final String fullyQualifiedTypeName) {
+        return compileToAST(specification, fullyQualifiedTypeName, rootContextOf(fullyQualifiedTypeName));
     }
 
-    private Function<Node, Node> process(final String fullyQualifiedTypeName) {
-        return node -> {
-            Completes<Node> result = Completes.withSuccess(node);
-            for (Processor p : processors) {
-                result = result.andThenTo(n -> p.process(n, this, fullyQualifiedTypeName));
-            }
+    /**
+     * Answer the eventual AST of {@code specification} as one of the types resolved within {@code context}.
+     * @param specification the String schema type definition
+     * @param fullyQualifiedTypeName the String FQTN of the type to be compiled
+     * @param context the TypeResolutionContext of the compilation that references this type
+     * @return {@code Completes<Outcome<SchemataBusinessException, Node>>}
+     */
+    public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final String specification, final String fullyQualifiedTypeName, final TypeResolutionContext context) {
+        return processed(parser.parseTypeDefinition(specification, fullyQualifiedTypeName), fullyQualifiedTypeName, context);
+    }
+
+    private TypeResolutionContext rootContextOf(final String fullyQualifiedTypeName) {
+        return TypeResolutionContext.root(this::compileToAST, fullyQualifiedTypeName, maximumResolutionDepth);
+    }
+
+    private Completes<Outcome<SchemataBusinessException, String>> generated(final Completes<Outcome<SchemataBusinessException, Node>> ast, final String version) {
+        return ast.andThen(outcome -> outcome.andThenTo(node -> backend.generateOutput(node, version)));
+    }
+
+    private Completes<Outcome<SchemataBusinessException, Node>> processed(final Outcome<SchemataBusinessException, Node> parsed, final String fullyQualifiedTypeName, final TypeResolutionContext context) {
+        return parsed.resolve(
+                ex -> Completes.withSuccess(Failure.<SchemataBusinessException, Node>of(ex)),
+                node -> process(node, fullyQualifiedTypeName, context)
+                        .andThen(processed -> Success.<SchemataBusinessException, Node>of(processed))
+                        .recoverFrom(ex -> Failure.of(SchemataBusinessException.codeGenerationError(ex))));
+    }
 
-            return result.await();
-        };
+    /**
+     * Answer the eventual {@code Node} after it passed every {@code Processor} in order.
+     * Each processor is only asked once its predecessor completed; nothing blocks.
+     * The {@code context} is the middleware of the processors, so that the types they
+     * resolve are compiled within it.
+     */
+    private Completes<Node> process(final Node node, final String fullyQualifiedTypeName, final TypeResolutionContext context) {
+        Completes<Node> result = Completes.withSuccess(node);
+        for (final Processor processor : processors) {
+            result = result.andThenTo(n -> processor.process(n, context, fullyQualifiedTypeName));
+        }
+        return result;
     }
 
     @Override
@@ -0,0 +1,42 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen;
+
+import io.vlingo.actors.Definition;
+import io.vlingo.actors.RouterSpecification;
+import io.vlingo.actors.SmallestMailboxRouter;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.parser.TypeParser;
+import io.vlingo.schemata.codegen.processor.types.TypeResolver;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+/**
+ * Routes each {@code Compilation} to the {@link TypeDefinitionCompilerWorkerActor}
+ * with the fewest pending messages.
+ */
+public class TypeDefinitionCompilerRouter extends SmallestMailboxRouter<TypeDefinitionCompilerWorker> implements TypeDefinitionCompilerWorker {
+
+    public TypeDefinitionCompilerRouter(final int workers, final TypeParser parser, final TypeResolver resolver, final String language, final int maximumResolutionDepth) {
+        super(new RouterSpecification<>(
+                workers,
+                Definition.has(TypeDefinitionCompilerWorkerActor.class, Definition.parameters(parser, resolver, language, maximumResolutionDepth)),
+                TypeDefinitionCompilerWorker.class));
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, String>> compile(final Compilation compilation) {
+        return dispatchQuery(TypeDefinitionCompilerWorker::compile, compilation);
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final Compilation compilation) {
+        return dispatchQuery(TypeDefinitionCompilerWorker::compileToAST, compilation);
+    }
+}
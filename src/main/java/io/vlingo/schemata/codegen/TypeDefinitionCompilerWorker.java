@@ -0,0 +1,61 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen;
+
+import io.vlingo.common.Completes;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+/**
+ * The actor protocol of one compiler in the pool behind {@link PooledTypeDefinitionCompiler}.
+ * Each worker owns its own backend and processors, so workers never contend with each other.
+ */
+public interface TypeDefinitionCompilerWorker {
+    /**
+     * Answer the eventually generated source code of the {@code compilation}.
+     * @param compilation the Compilation to perform
+     * @return {@code Completes<Outcome<SchemataBusinessException, String>>}
+     */
+    Completes<Outcome<SchemataBusinessException, String>> compile(final Compilation compilation);
+
+    /**
+     * Answer the eventually processed AST of the {@code compilation}; its version is ignored.
+     * @param compilation the Compilation to perform
+     * @return {@code Completes<Outcome<SchemataBusinessException, Node>>}
+     */
+    Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final Compilation compilation);
+
+    /**
+     * The routable request of one compilation.
+     */
+    final class Compilation {
+        public final String specification;
+        public final String fullyQualifiedTypeName;
+        public final String version;
+
+        public static Compilation of(final String specification, final String fullyQualifiedTypeName, final String version) {
+            return new Compilation(specification, fullyQualifiedTypeName, version);
+        }
+
+        public static Compilation of(final String specification, final String fullyQualifiedTypeName) {
+            return new Compilation(specification, fullyQualifiedTypeName, null);
+        }
+
+        private Compilation(final String specification, final String fullyQualifiedTypeName, final String version) {
+            this.specification = specification;
+            this.fullyQualifiedTypeName = fullyQualifiedTypeName;
+            this.version = version;
+        }
+
+        @Override
+        public String toString() {
+            return "Compilation [fullyQualifiedTypeName=" + fullyQualifiedTypeName + ", version=" + version + "]";
+        }
+    }
+}
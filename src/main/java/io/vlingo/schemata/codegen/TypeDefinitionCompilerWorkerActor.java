@@ -0,0 +1,73 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen;
+
+import io.vlingo.actors.Actor;
+import io.vlingo.actors.CompletesEventually;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.parser.TypeParser;
+import io.vlingo.schemata.codegen.processor.Processor;
+import io.vlingo.schemata.codegen.processor.types.ComputableTypeProcessor;
+import io.vlingo.schemata.codegen.processor.types.TypeResolver;
+import io.vlingo.schemata.codegen.processor.types.TypeResolverProcessor;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * A routee of the {@link TypeDefinitionCompilerRouter}. The specification is parsed on this
+ * actor's thread; the worker is free for its next compilation as soon as the processors took over.
+ * Every compilation is answered, with a {@code CODE_GENERATION_ERROR} failure if the parser,
+ * a processor or the backend failed.
+ */
+public class TypeDefinitionCompilerWorkerActor extends Actor implements TypeDefinitionCompilerWorker {
+    private final TypeDefinitionCompiler compiler;
+
+    public TypeDefinitionCompilerWorkerActor(final TypeParser parser, final TypeResolver resolver, final String language, final int maximumResolutionDepth) {
+        this.compiler = new TypeDefinitionCompilerActor(parser,
+                Arrays.asList(
+                        stage().actorFor(Processor.class, ComputableTypeProcessor.class),
+                        stage().actorFor(Processor.class, TypeResolverProcessor.class, resolver)
+                ), TypeDefinitionCompiler.backendFor(language), maximumResolutionDepth);
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, String>> compile(final Compilation compilation) {
+        answer(completesEventually(), () -> compiler.compile(compilation.specification, compilation.fullyQualifiedTypeName, compilation.version));
+        return completes();
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final Compilation compilation) {
+        answer(completesEventually(), () -> compiler.middleware().compileToAST(compilation.specification, compilation.fullyQualifiedTypeName));
+        return completes();
+    }
+
+    private <T> void answer(final CompletesEventually eventually, final Supplier<Completes<Outcome<SchemataBusinessException, T>>> compilation) {
+        try {
+            compilation.get()
+                    .andThenConsume(eventually::with)
+                    .otherwise(failed -> {
+                        eventually.with(failed != null ? failed : Failure.of(SchemataBusinessException.codeGenerationError(new IllegalStateException("Compilation failed"))));
+                        return failed;
+                    })
+                    .recoverFrom(e -> {
+                        logger().error("Compilation failed", e);
+                        eventually.with(Failure.of(SchemataBusinessException.codeGenerationError(e)));
+                        return null;
+                    });
+        } catch (Exception e) {
+            logger().error("Compilation failed", e);
+            eventually.with(Failure.of(SchemataBusinessException.codeGenerationError(e)));
+        }
+    }
+}
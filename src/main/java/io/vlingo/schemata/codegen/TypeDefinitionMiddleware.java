@@ -10,6 +10,18 @@ import java.io.InputStream;
 
 public interface TypeDefinitionMiddleware {
     Completes<Outcome<SchemataBusinessException,Node>> compileToAST(final InputStream typeDefinition, final String fullyQualifiedTypeName);
+    Completes<Outcome<SchemataBusinessException,Node>> compileToAST(final String specification, final String fullyQualifiedTypeName);
+
+    /**
+     * Answer whether the definition compiled for {@code fullyQualifiedTypeName} has its whole
+     * type graph resolved, i.e. no reference of it was cut short. Only complete definitions
+     * may be shared beyond the compilation that produced them.
+     * @param fullyQualifiedTypeName the String FQTN of the compiled type
+     * @return boolean
+     */
+    default boolean isComplete(final String fullyQualifiedTypeName) {
+        return true;
+    }
 
     public static TypeDefinitionMiddleware middlewareFor(final Stage stage) {
         //TODO: factor out Middleware from compiler actor to be able to retrieve it w/o language
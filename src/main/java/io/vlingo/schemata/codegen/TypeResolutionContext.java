@@ -0,0 +1,259 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen;
+
+import io.vlingo.common.Completes;
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.codegen.processor.types.TypeResolver;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The state of resolving the type graph of one compilation, handed through the pipeline
+ * as its {@code TypeDefinitionMiddleware}. Every referenced type is resolved at most once
+ * per compilation; later references to it wait for or reuse that resolution. A reference
+ * that would wait on a type that is itself waiting on the referrer, i.e. a cycle, is
+ * answered as unresolved, as is any reference nested deeper than the maximum depth.
+ * A type whose graph was cut short that way, directly or through any type it references,
+ * is incomplete; its definition is only valid within this compilation.
+ */
+public class TypeResolutionContext implements TypeDefinitionMiddleware {
+    public static final int DefaultMaximumDepth = 32;
+
+    private final Compiler compiler;
+    private final Graph graph;
+    private final String fullyQualifiedTypeName;
+    private final int depth;
+
+    /**
+     * The compiler of the types of the graph, given the context in which to process them.
+     */
+    @FunctionalInterface
+    public interface Compiler {
+        Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final String specification, final String fullyQualifiedTypeName, final TypeResolutionContext context);
+    }
+
+    /**
+     * Answer a new {@code TypeResolutionContext} for the compilation of {@code fullyQualifiedTypeName}.
+     * @param compiler the Compiler of referenced types
+     * @param fullyQualifiedTypeName the String FQTN of the type being compiled
+     * @param maximumDepth the int maximum depth of nested references
+     * @return TypeResolutionContext
+     */
+    public static TypeResolutionContext root(final Compiler compiler, final String fullyQualifiedTypeName, final int maximumDepth) {
+        final Graph graph = new Graph(maximumDepth);
+        // the type being compiled is in progress until the compilation completes
+        graph.resolutions.put(fullyQualifiedTypeName, new Resolution());
+        return new TypeResolutionContext(compiler, graph, fullyQualifiedTypeName, 0);
+    }
+
+    private TypeResolutionContext(final Compiler compiler, final Graph graph, final String fullyQualifiedTypeName, final int depth) {
+        this.compiler = compiler;
+        this.graph = graph;
+        this.fullyQualifiedTypeName = fullyQualifiedTypeName;
+        this.depth = depth;
+    }
+
+    /**
+     * Resolve {@code reference}, a type referenced by the type of this context, and hand
+     * its resolution to {@code resolved} once known, possibly right away.
+     * @param resolver the TypeResolver to use when the reference is not yet resolved in this compilation
+     * @param reference the String FQTN of the referenced type
+     * @param resolved the Consumer of the resolution, empty when unresolved
+     */
+    public void resolve(final TypeResolver resolver, final String reference, final Consumer<Optional<TypeDefinition>> resolved) {
+        if (depth >= graph.maximumDepth) {
+            truncated(fullyQualifiedTypeName);
+            resolved.accept(Optional.empty());
+            return;
+        }
+
+        final Consumer<Optional<TypeDefinition>> completing = definition -> {
+            if (!isComplete(reference)) {
+                truncated(fullyQualifiedTypeName);
+            }
+            resolved.accept(definition);
+        };
+
+        final Resolution resolution = new Resolution();
+        final Optional<TypeDefinition> known;
+        synchronized (graph) {
+            final Resolution existing = graph.resolutions.get(reference);
+            if (existing == null) {
+                graph.resolutions.put(reference, resolution);
+                graph.awaits(fullyQualifiedTypeName, reference);
+                resolution.waiting.add(completing);
+                known = null;
+            } else if (existing.isResolved()) {
+                known = existing.resolved;
+            } else if (graph.waitsOn(reference, fullyQualifiedTypeName)) {
+                // waiting would close a cycle; the reference stays unresolved
+                graph.incomplete.add(fullyQualifiedTypeName);
+                known = Optional.empty();
+            } else {
+                graph.awaits(fullyQualifiedTypeName, reference);
+                existing.waiting.add(completing);
+                return;
+            }
+        }
+
+        if (known != null) {
+            completing.accept(known);
+            return;
+        }
+
+        resolver.resolve(new TypeResolutionContext(compiler, graph, reference, depth + 1), reference)
+                .andThenConsume(definition -> resolved(reference, resolution, definition))
+                .otherwiseConsume(ignored -> {
+                    truncated(reference);
+                    resolved(reference, resolution, Optional.empty());
+                })
+                .recoverFrom(e -> {
+                    truncated(reference);
+                    resolved(reference, resolution, Optional.empty());
+                    return Optional.empty();
+                });
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final String specification, final String fullyQualifiedTypeName) {
+        return compiler.compileToAST(specification, fullyQualifiedTypeName, this);
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final InputStream typeDefinition, final String fullyQualifiedTypeName) {
+        try {
+            return compileToAST(read(typeDefinition), fullyQualifiedTypeName);
+        } catch (IOException e) {
+            return Completes.withSuccess(Failure.of(SchemataBusinessException.invalidSchemaDefinition("Reading schema failed", e)));
+        }
+    }
+
+    @Override
+    public boolean isComplete(final String fullyQualifiedTypeName) {
+        synchronized (graph) {
+            return !graph.incomplete.contains(fullyQualifiedTypeName);
+        }
+    }
+
+    /**
+     * Answer the number of types resolved or being resolved in this compilation, the compiled one included.
+     * @return int
+     */
+    public int resolutions() {
+        synchronized (graph) {
+            return graph.resolutions.size();
+        }
+    }
+
+    private void truncated(final String fullyQualifiedTypeName) {
+        synchronized (graph) {
+            graph.incomplete.add(fullyQualifiedTypeName);
+        }
+    }
+
+    private void resolved(final String reference, final Resolution resolution, final Optional<TypeDefinition> definition) {
+        final List<Consumer<Optional<TypeDefinition>>> waiting;
+        synchronized (graph) {
+            if (resolution.isResolved()) {
+                return;
+            }
+            waiting = resolution.resolve(definition == null ? Optional.empty() : definition);
+            graph.waiting.remove(reference);
+        }
+        waiting.forEach(consumer -> consumer.accept(resolution.resolved));
+    }
+
+    private String read(final InputStream inputStream) throws IOException {
+        final Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        final StringBuilder builder = new StringBuilder();
+        final char[] buffer = new char[1024];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The resolutions of one compilation and which types are waiting on which. Guarded by itself.
+     */
+    private static final class Graph {
+        final int maximumDepth;
+        final Map<String, Resolution> resolutions = new HashMap<>();
+        final Map<String, Set<String>> waiting = new HashMap<>();
+        final Set<String> incomplete = new HashSet<>();
+
+        Graph(final int maximumDepth) {
+            this.maximumDepth = maximumDepth;
+        }
+
+        void awaits(final String waiter, final String awaited) {
+            waiting.computeIfAbsent(waiter, key -> new HashSet<>()).add(awaited);
+        }
+
+        /**
+         * Answer whether {@code from} is, directly or not, waiting on {@code to}.
+         */
+        boolean waitsOn(final String from, final String to) {
+            if (from.equals(to)) {
+                return true;
+            }
+            final Set<String> seen = new HashSet<>();
+            final Deque<String> pending = new ArrayDeque<>();
+            pending.push(from);
+            while (!pending.isEmpty()) {
+                final String current = pending.pop();
+                for (final String awaited : waiting.getOrDefault(current, Collections.emptySet())) {
+                    if (awaited.equals(to)) {
+                        return true;
+                    }
+                    if (seen.add(awaited)) {
+                        pending.push(awaited);
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Resolution {
+        Optional<TypeDefinition> resolved;
+        final List<Consumer<Optional<TypeDefinition>>> waiting = new ArrayList<>(1);
+
+        boolean isResolved() {
+            return resolved != null;
+        }
+
+        List<Consumer<Optional<TypeDefinition>>> resolve(final Optional<TypeDefinition> resolved) {
+            this.resolved = resolved;
+            final List<Consumer<Optional<TypeDefinition>>> waited = new ArrayList<>(waiting);
+            waiting.clear();
+            return waited;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.archive;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@code ZipSourceArchive} that starts with a manifest, so it can be put on a
+ * class path as is. The manifest is not counted as an entry.
+ */
+public class JarSourceArchive extends ZipSourceArchive {
+    static final String ManifestPath = "META-INF/MANIFEST.MF";
+    private static final String Manifest = "Manifest-Version: 1.0\r\nCreated-By: vlingo-schemata\r\n\r\n";
+
+    public JarSourceArchive() {
+        super(Format.jar);
+        write(ManifestPath, Manifest.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,148 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.archive;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An archive of generated source files, or of the class files compiled from them.
+ * Each file is written into the archive as soon as it is added, so only the archive
+ * itself is held rather than every file plus the archive. Adding is safe from
+ * concurrent completions.
+ */
+public abstract class SourceArchive {
+    private static final Pattern JavaPackage = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+    public enum Format {
+        jar("application/java-archive"),
+        tar("application/x-tar"),
+        zip("application/zip");
+
+        public final String contentType;
+
+        Format(final String contentType) {
+            this.contentType = contentType;
+        }
+    }
+
+    protected final Format format;
+    private int entries;
+    private boolean finished;
+
+    /**
+     * Answer a new {@code SourceArchive} in the given {@code format}.
+     * @param format the String name of the Format, either "zip", "tar" or "jar"
+     * @return SourceArchive
+     */
+    public static SourceArchive of(final String format) {
+        switch (Format.valueOf(format)) {
+        case jar:
+            return new JarSourceArchive();
+        case tar:
+            return new TarSourceArchive();
+        case zip:
+        default:
+            return new ZipSourceArchive();
+        }
+    }
+
+    /**
+     * Answer whether {@code format} names a supported Format.
+     * @param format the String to check
+     * @return boolean
+     */
+    public static boolean isSupported(final String format) {
+        for (final Format supported : Format.values()) {
+            if (supported.name().equals(format)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Answer the archive path of a generated Java {@code source} of the type {@code typeName},
+     * following its package declaration.
+     * @param typeName the String name of the type, possibly dot-qualified
+     * @param source the String generated source
+     * @return String
+     */
+    public static String javaPathOf(final String typeName, final String source) {
+        final String simpleName = typeName.substring(typeName.lastIndexOf('.') + 1);
+        final Matcher matcher = JavaPackage.matcher(source);
+        return matcher.find()
+                ? matcher.group(1).replace('.', '/') + "/" + simpleName + ".java"
+                : simpleName + ".java";
+    }
+
+    protected SourceArchive(final Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Write {@code source} as the entry at {@code path}.
+     * @param path the String path of the entry inside the archive
+     * @param source the String content of the entry
+     */
+    public void add(final String path, final String source) {
+        add(path, source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write {@code content}, such as a class file, as the entry at {@code path}.
+     * @param path the String path of the entry inside the archive
+     * @param content the byte[] content of the entry
+     */
+    public synchronized void add(final String path, final byte[] content) {
+        if (finished) {
+            throw new IllegalStateException("Archive is already finished.");
+        }
+        write(path, content);
+        ++entries;
+    }
+
+    /**
+     * Answer the bytes of the completed archive; no entry can be added afterwards.
+     * @return byte[]
+     */
+    public synchronized byte[] finish() {
+        finished = true;
+        return close();
+    }
+
+    /**
+     * Answer the MIME type of this archive.
+     * @return String
+     */
+    public String contentType() {
+        return format.contentType;
+    }
+
+    /**
+     * Answer the file name of this archive given its {@code baseName}.
+     * @param baseName the String name without extension
+     * @return String
+     */
+    public String fileName(final String baseName) {
+        return baseName + "." + format.name();
+    }
+
+    /**
+     * Answer the number of entries added so far.
+     * @return int
+     */
+    public synchronized int entries() {
+        return entries;
+    }
+
+    protected abstract void write(final String path, final byte[] content);
+
+    protected abstract byte[] close();
+}
@@ -0,0 +1,113 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@code SourceArchive} in the POSIX ustar format, without compression.
+ */
+public class TarSourceArchive extends SourceArchive {
+    private static final int BlockSize = 512;
+    private static final int NameLength = 100;
+    private static final int PrefixLength = 155;
+
+    private final ByteArrayOutputStream bytes;
+    private final long modified;
+
+    public TarSourceArchive() {
+        super(Format.tar);
+        this.bytes = new ByteArrayOutputStream();
+        this.modified = System.currentTimeMillis() / 1000L;
+    }
+
+    @Override
+    protected void write(final String path, final byte[] content) {
+        bytes.write(header(path, content.length), 0, BlockSize);
+        bytes.write(content, 0, content.length);
+        pad(content.length);
+    }
+
+    @Override
+    protected byte[] close() {
+        // two zero blocks mark the end of the archive
+        bytes.write(new byte[BlockSize * 2], 0, BlockSize * 2);
+        return bytes.toByteArray();
+    }
+
+    private byte[] header(final String path, final long size) {
+        final byte[] header = new byte[BlockSize];
+
+        String name = path;
+        String prefix = "";
+        if (utf8Length(path) > NameLength) {
+            final int split = path.lastIndexOf('/', path.length() - 2);
+            if (split <= 0) {
+                throw new IllegalArgumentException("Archive path is too long: " + path);
+            }
+            prefix = path.substring(0, split);
+            name = path.substring(split + 1);
+            if (utf8Length(name) > NameLength || utf8Length(prefix) > PrefixLength) {
+                throw new IllegalArgumentException("Archive path is too long: " + path);
+            }
+        }
+
+        put(header, 0, NameLength, name);
+        putOctal(header, 100, 8, 0644);
+        putOctal(header, 108, 8, 0);
+        putOctal(header, 116, 8, 0);
+        putOctal(header, 124, 12, size);
+        putOctal(header, 136, 12, modified);
+        header[156] = '0';
+        put(header, 257, 6, "ustar");
+        put(header, 263, 2, "00");
+        put(header, 345, PrefixLength, prefix);
+
+        // the checksum is computed with its own field taken as spaces
+        for (int index = 148; index < 156; ++index) {
+            header[index] = ' ';
+        }
+        long checksum = 0;
+        for (final byte b : header) {
+            checksum += b & 0xff;
+        }
+        putOctal(header, 148, 7, checksum);
+        header[155] = ' ';
+
+        return header;
+    }
+
+    private void pad(final int length) {
+        final int remainder = length % BlockSize;
+        if (remainder > 0) {
+            bytes.write(new byte[BlockSize - remainder], 0, BlockSize - remainder);
+        }
+    }
+
+    private void put(final byte[] header, final int offset, final int length, final String value) {
+        final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(encoded, 0, header, offset, Math.min(length, encoded.length));
+    }
+
+    private void putOctal(final byte[] header, final int offset, final int length, final long value) {
+        // zero-padded digits followed by a NUL terminator
+        final String octal = Long.toOctalString(value);
+        final StringBuilder field = new StringBuilder(length);
+        for (int pad = length - 1 - octal.length(); pad > 0; --pad) {
+            field.append('0');
+        }
+        field.append(octal);
+        put(header, offset, length - 1, field.toString());
+        header[offset + length - 1] = 0;
+    }
+
+    private int utf8Length(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
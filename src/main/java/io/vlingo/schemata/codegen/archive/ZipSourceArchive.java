@@ -0,0 +1,54 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A {@code SourceArchive} that deflates each file into a zip entry as it is added.
+ */
+public class ZipSourceArchive extends SourceArchive {
+    private final ByteArrayOutputStream bytes;
+    private final ZipOutputStream zip;
+
+    public ZipSourceArchive() {
+        this(Format.zip);
+    }
+
+    protected ZipSourceArchive(final Format format) {
+        super(format);
+        this.bytes = new ByteArrayOutputStream();
+        this.zip = new ZipOutputStream(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void write(final String path, final byte[] content) {
+        try {
+            zip.putNextEntry(new ZipEntry(path));
+            zip.write(content);
+            zip.closeEntry();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected byte[] close() {
+        try {
+            zip.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
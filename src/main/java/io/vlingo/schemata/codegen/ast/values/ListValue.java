@@ -1,6 +1,7 @@
 package io.vlingo.schemata.codegen.ast.values;
 
 import java.util.List;
+import java.util.Objects;
 
 @SuppressWarnings("rawtypes")
 public class ListValue<T extends List<? extends SingleValue>> implements Value<T> {
@@ -19,4 +20,16 @@ public class ListValue<T extends List<? extends SingleValue>> implements Value<T
   public T value() {
     return value;
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    return Objects.equals(value, ((ListValue<?>) o).value);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(value);
+  }
 }
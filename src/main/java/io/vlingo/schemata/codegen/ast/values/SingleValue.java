@@ -1,5 +1,7 @@
 package io.vlingo.schemata.codegen.ast.values;
 
+import java.util.Objects;
+
 public class SingleValue<T> implements Value<T> {
   public final T value;
 
@@ -16,4 +18,16 @@ public class SingleValue<T> implements Value<T> {
   public T value() {
     return value;
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    return Objects.equals(value, ((SingleValue<?>) o).value);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(value);
+  }
 }
@@ -0,0 +1,342 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import io.vlingo.schemata.codegen.backend.java.CodecField.Element;
+
+/**
+ * Generates the binary codec of a type: {@code writeTo(ByteBuffer)}, {@code readFrom(ByteBuffer)}
+ * and {@code sizeInBytes()}, without reflection or any runtime library.
+ * <p>
+ * The encoding starts with an {@code int} header holding the {@code SemanticVersion} of the schema,
+ * followed by every field in declaration order. Numbers are written in the byte order of the buffer;
+ * booleans as one byte; strings as length-prefixed UTF-8; arrays prefixed by their length, with
+ * primitive arrays copied in bulk through a view of the buffer; composed types as a presence byte
+ * followed by their own encoding. A length of {@code -1} stands for {@code null}. A layout belongs
+ * to exactly one schema version, so reading the bytes of another version fails instead of
+ * misinterpreting them.
+ */
+final class BinaryCodecGenerator {
+    static final String VersionConstant = "BINARY_SCHEMA_VERSION";
+
+    private static final ClassName SemanticVersion = ClassName.get("io.vlingo.common.version", "SemanticVersion");
+
+    private final ClassName type;
+    private final List<CodecField> fields;
+    // helper methods by name, emitted once each and in a stable order
+    private final Set<String> helpers = new TreeSet<>();
+
+    BinaryCodecGenerator(final ClassName type, final List<CodecField> fields) {
+        this.type = type;
+        this.fields = fields;
+    }
+
+    void addTo(final TypeSpec.Builder spec, final String version) {
+        spec.addField(FieldSpec.builder(TypeName.INT, VersionConstant, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$T.toValue($S)", SemanticVersion, version)
+                .build());
+
+        spec.addMethod(writeTo());
+        spec.addMethod(sizeInBytes());
+        spec.addMethod(readFrom());
+        spec.addMethod(readingConstructor());
+
+        for (final String helper : helpers) {
+            spec.addMethod(helper(helper));
+        }
+    }
+
+    private MethodSpec writeTo() {
+        final MethodSpec.Builder method = MethodSpec.methodBuilder("writeTo")
+                .addJavadoc("Writes this $L into {@code buffer} at its position, which is advanced by {@link #sizeInBytes()}.\n", type.simpleName())
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                .addStatement("buffer.putInt($N)", VersionConstant);
+
+        for (final CodecField field : fields) {
+            if (field.array) {
+                method.addStatement("put$Ls(buffer, this.$N)", field.element.accessor, field.name);
+                helpers.add("put" + field.element.accessor + "s");
+                if (field.element == Element.STRING) {
+                    helpers.add("putString");
+                }
+                continue;
+            }
+            switch (field.element) {
+            case BOOLEAN:
+                method.addStatement("buffer.put(this.$N ? (byte) 1 : (byte) 0)", field.name);
+                break;
+            case BYTE:
+                method.addStatement("buffer.put(this.$N)", field.name);
+                break;
+            case STRING:
+                method.addStatement("putString(buffer, this.$N)", field.name);
+                helpers.add("putString");
+                break;
+            case TYPE:
+                method.beginControlFlow("if (this.$N == null)", field.name)
+                        .addStatement("buffer.put((byte) 0)")
+                        .nextControlFlow("else")
+                        .addStatement("buffer.put((byte) 1)")
+                        .addStatement("this.$N.writeTo(buffer)", field.name)
+                        .endControlFlow();
+                break;
+            default:
+                method.addStatement("buffer.put$L(this.$N)", field.element.accessor, field.name);
+            }
+        }
+        return method.build();
+    }
+
+    private MethodSpec sizeInBytes() {
+        int fixed = Integer.BYTES;
+        final CodeBlock.Builder variable = CodeBlock.builder();
+
+        for (final CodecField field : fields) {
+            if (field.array) {
+                if (field.element == Element.STRING) {
+                    variable.addStatement("size += sizeOfStrings(this.$N)", field.name);
+                    helpers.add("sizeOfStrings");
+                    helpers.add("sizeOfString");
+                } else {
+                    fixed += Integer.BYTES;
+                    variable.addStatement("size += this.$N == null ? 0 : this.$N.length * $L", field.name, field.name, field.element.size);
+                }
+            } else if (field.element.isFixedSize()) {
+                fixed += field.element.size;
+            } else if (field.element == Element.STRING) {
+                variable.addStatement("size += sizeOfString(this.$N)", field.name);
+                helpers.add("sizeOfString");
+            } else {
+                fixed += 1;
+                variable.addStatement("size += this.$N == null ? 0 : this.$N.sizeInBytes()", field.name, field.name);
+            }
+        }
+
+        return MethodSpec.methodBuilder("sizeInBytes")
+                .addJavadoc("Answers the exact number of bytes {@link #writeTo(ByteBuffer)} writes.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(TypeName.INT)
+                .addStatement("int size = $L", fixed)
+                .addCode(variable.build())
+                .addStatement("return size")
+                .build();
+    }
+
+    private MethodSpec readFrom() {
+        return MethodSpec.methodBuilder("readFrom")
+                .addJavadoc("Answers the $L read from {@code buffer} at its position, which is advanced past it.\n", type.simpleName())
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(type)
+                .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                .addStatement("return new $T(buffer)", type)
+                .build();
+    }
+
+    private MethodSpec readingConstructor() {
+        final MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                .addStatement("final int encodedVersion = buffer.getInt()")
+                .beginControlFlow("if (encodedVersion != $N)", VersionConstant)
+                .addStatement("throw new $T($S + encodedVersion + $S + $N)", IllegalArgumentException.class,
+                        "Cannot read schema version ", " as ", VersionConstant)
+                .endControlFlow();
+
+        for (final CodecField field : fields) {
+            if (field.array) {
+                constructor.addStatement("this.$N = get$Ls(buffer)", field.name, field.element.accessor);
+                helpers.add("get" + field.element.accessor + "s");
+                if (field.element == Element.STRING) {
+                    helpers.add("getString");
+                }
+                continue;
+            }
+            switch (field.element) {
+            case BOOLEAN:
+                constructor.addStatement("this.$N = buffer.get() != 0", field.name);
+                break;
+            case BYTE:
+                constructor.addStatement("this.$N = buffer.get()", field.name);
+                break;
+            case STRING:
+                constructor.addStatement("this.$N = getString(buffer)", field.name);
+                helpers.add("getString");
+                break;
+            case TYPE:
+                constructor.addStatement("this.$N = buffer.get() == 0 ? null : $T.readFrom(buffer)", field.name, field.typeName);
+                break;
+            default:
+                constructor.addStatement("this.$N = buffer.get$L()", field.name, field.element.accessor);
+            }
+        }
+        return constructor.build();
+    }
+
+    private MethodSpec helper(final String name) {
+        switch (name) {
+        case "putString":
+            return MethodSpec.methodBuilder(name)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                    .addParameter(String.class, "value", Modifier.FINAL)
+                    .beginControlFlow("if (value == null)")
+                    .addStatement("buffer.putInt(-1)")
+                    .addStatement("return")
+                    .endControlFlow()
+                    .addStatement("final byte[] bytes = value.getBytes($T.UTF_8)", StandardCharsets.class)
+                    .addStatement("buffer.putInt(bytes.length)")
+                    .addStatement("buffer.put(bytes)")
+                    .build();
+        case "getString":
+            return MethodSpec.methodBuilder(name)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(String.class)
+                    .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                    .addStatement("final int length = buffer.getInt()")
+                    .beginControlFlow("if (length < 0)")
+                    .addStatement("return null")
+                    .endControlFlow()
+                    .beginControlFlow("if (buffer.hasArray())")
+                    .addComment("decode in place rather than copying first")
+                    .addStatement("final String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, $T.UTF_8)", StandardCharsets.class)
+                    .addStatement("buffer.position(buffer.position() + length)")
+                    .addStatement("return value")
+                    .endControlFlow()
+                    .addStatement("final byte[] bytes = new byte[length]")
+                    .addStatement("buffer.get(bytes)")
+                    .addStatement("return new String(bytes, $T.UTF_8)", StandardCharsets.class)
+                    .build();
+        case "sizeOfString":
+            return MethodSpec.methodBuilder(name)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(TypeName.INT)
+                    .addParameter(String.class, "value", Modifier.FINAL)
+                    .beginControlFlow("if (value == null)")
+                    .addStatement("return $L", Integer.BYTES)
+                    .endControlFlow()
+                    .addComment("the UTF-8 length without encoding; a lone surrogate is encoded as '?'")
+                    .addStatement("int size = $L", Integer.BYTES)
+                    .beginControlFlow("for (int index = 0; index < value.length(); ++index)")
+                    .addStatement("final char c = value.charAt(index)")
+                    .beginControlFlow("if (c < 0x80)")
+                    .addStatement("size += 1")
+                    .nextControlFlow("else if (c < 0x800)")
+                    .addStatement("size += 2")
+                    .nextControlFlow("else if (Character.isHighSurrogate(c) && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1)))")
+                    .addStatement("size += 4")
+                    .addStatement("++index")
+                    .nextControlFlow("else if (Character.isSurrogate(c))")
+                    .addStatement("size += 1")
+                    .nextControlFlow("else")
+                    .addStatement("size += 3")
+                    .endControlFlow()
+                    .endControlFlow()
+                    .addStatement("return size")
+                    .build();
+        case "sizeOfStrings":
+            return MethodSpec.methodBuilder(name)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(TypeName.INT)
+                    .addParameter(String[].class, "values", Modifier.FINAL)
+                    .addStatement("int size = $L", Integer.BYTES)
+                    .beginControlFlow("if (values != null)")
+                    .beginControlFlow("for (final String value : values)")
+                    .addStatement("size += sizeOfString(value)")
+                    .endControlFlow()
+                    .endControlFlow()
+                    .addStatement("return size")
+                    .build();
+        }
+
+        final boolean put = name.startsWith("put");
+        final Element element = Element.valueOf(name.substring(3, name.length() - 1).toUpperCase());
+        return put ? arrayWriter(name, element) : arrayReader(name, element);
+    }
+
+    private MethodSpec arrayWriter(final String name, final Element element) {
+        final MethodSpec.Builder method = MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                .addParameter(ArrayTypeName.of(element.type), "values", Modifier.FINAL)
+                .beginControlFlow("if (values == null)")
+                .addStatement("buffer.putInt(-1)")
+                .addStatement("return")
+                .endControlFlow()
+                .addStatement("buffer.putInt(values.length)");
+
+        switch (element) {
+        case BOOLEAN:
+            method.beginControlFlow("for (final boolean value : values)")
+                    .addStatement("buffer.put(value ? (byte) 1 : (byte) 0)")
+                    .endControlFlow();
+            break;
+        case BYTE:
+            method.addStatement("buffer.put(values)");
+            break;
+        case STRING:
+            method.beginControlFlow("for (final String value : values)")
+                    .addStatement("putString(buffer, value)")
+                    .endControlFlow();
+            break;
+        default:
+            method.addStatement("buffer.as$LBuffer().put(values)", element.accessor)
+                    .addStatement("buffer.position(buffer.position() + values.length * $L)", element.size);
+        }
+        return method.build();
+    }
+
+    private MethodSpec arrayReader(final String name, final Element element) {
+        final TypeName elementType = element.type;
+        final MethodSpec.Builder method = MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(ArrayTypeName.of(elementType))
+                .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                .addStatement("final int length = buffer.getInt()")
+                .beginControlFlow("if (length < 0)")
+                .addStatement("return null")
+                .endControlFlow()
+                .addStatement("final $T[] values = new $T[length]", elementType, elementType);
+
+        switch (element) {
+        case BOOLEAN:
+            method.beginControlFlow("for (int index = 0; index < length; ++index)")
+                    .addStatement("values[index] = buffer.get() != 0")
+                    .endControlFlow();
+            break;
+        case BYTE:
+            method.addStatement("buffer.get(values)");
+            break;
+        case STRING:
+            method.beginControlFlow("for (int index = 0; index < length; ++index)")
+                    .addStatement("values[index] = getString(buffer)")
+                    .endControlFlow();
+            break;
+        default:
+            method.addStatement("buffer.as$LBuffer().get(values)", element.accessor)
+                    .addStatement("buffer.position(buffer.position() + length * $L)", element.size);
+        }
+        return method.addStatement("return values").build();
+    }
+}
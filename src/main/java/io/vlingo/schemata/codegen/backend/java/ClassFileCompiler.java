@@ -0,0 +1,35 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import java.util.Map;
+
+import io.vlingo.common.Completes;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+/**
+ * The actor protocol compiling generated Java sources into class files.
+ */
+public interface ClassFileCompiler {
+    /**
+     * Answer the eventual class files of the generated {@code source} of the type {@code typeName}.
+     * @param typeName the String simple name of the generated type
+     * @param source the String generated Java source
+     * @return {@code Completes<Outcome<SchemataBusinessException, ClassFiles>>}
+     */
+    Completes<Outcome<SchemataBusinessException, ClassFiles>> compile(final String typeName, final String source);
+
+    /**
+     * Answer the eventual class files of the generated {@code sources}, compiled together so
+     * that they may refer to each other.
+     * @param sources the {@code Map<String, String>} of generated Java sources by their path
+     * @return {@code Completes<Outcome<SchemataBusinessException, ClassFiles>>}
+     */
+    Completes<Outcome<SchemataBusinessException, ClassFiles>> compile(final Map<String, String> sources);
+}
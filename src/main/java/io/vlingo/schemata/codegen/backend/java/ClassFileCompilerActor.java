@@ -0,0 +1,37 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import java.util.Map;
+
+import io.vlingo.actors.Actor;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+/**
+ * Confines an {@link InMemoryJavaCompiler} to one actor, so its file manager is
+ * reused and compilations never run on the threads of the HTTP resources.
+ */
+public class ClassFileCompilerActor extends Actor implements ClassFileCompiler {
+    private final InMemoryJavaCompiler compiler;
+
+    public ClassFileCompilerActor() {
+        this.compiler = new InMemoryJavaCompiler();
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, ClassFiles>> compile(final String typeName, final String source) {
+        return completes().with(compiler.compile(typeName, source));
+    }
+
+    @Override
+    public Completes<Outcome<SchemataBusinessException, ClassFiles>> compile(final Map<String, String> sources) {
+        return completes().with(compiler.compile(sources));
+    }
+}
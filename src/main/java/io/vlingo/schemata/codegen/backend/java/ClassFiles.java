@@ -0,0 +1,56 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The class files compiled from one generated source, keyed by their path
+ * inside a jar, such as {@code io/vlingo/schemata/event/SchemaDefined.class}.
+ * Nested classes are held along with their enclosing class.
+ */
+public final class ClassFiles {
+    private final Map<String, byte[]> files;
+    private final long size;
+
+    public static ClassFiles of(final Map<String, byte[]> files) {
+        return new ClassFiles(files);
+    }
+
+    private ClassFiles(final Map<String, byte[]> files) {
+        this.files = Collections.unmodifiableMap(new LinkedHashMap<>(files));
+        long size = 0;
+        for (final byte[] file : files.values()) {
+            size += file.length;
+        }
+        this.size = size;
+    }
+
+    /**
+     * Answer the bytes of every class file by its path.
+     * @return {@code Map<String, byte[]>}
+     */
+    public Map<String, byte[]> files() {
+        return files;
+    }
+
+    /**
+     * Answer the total number of bytes of all class files.
+     * @return long
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFiles [paths=" + files.keySet() + ", size=" + size + "]";
+    }
+}
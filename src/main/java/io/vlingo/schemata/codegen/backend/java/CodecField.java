@@ -0,0 +1,120 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+
+import io.vlingo.schemata.codegen.ast.FieldDefinition;
+import io.vlingo.schemata.codegen.ast.types.BasicType;
+import io.vlingo.schemata.codegen.ast.types.ComputableType;
+import io.vlingo.schemata.codegen.ast.types.Type;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+
+/**
+ * A field of a generated class as seen by the generated codecs: its element,
+ * whether it is an array of them and, for a composed type, the class of it.
+ */
+final class CodecField {
+    enum Element {
+        BOOLEAN("Boolean", 1, TypeName.BOOLEAN),
+        BYTE("Byte", 1, TypeName.BYTE),
+        CHAR("Char", 2, TypeName.CHAR),
+        SHORT("Short", 2, TypeName.SHORT),
+        INT("Int", 4, TypeName.INT),
+        LONG("Long", 8, TypeName.LONG),
+        FLOAT("Float", 4, TypeName.FLOAT),
+        DOUBLE("Double", 8, TypeName.DOUBLE),
+        STRING("String", -1, TypeName.get(String.class)),
+        TYPE("Type", -1, null);
+
+        /** The suffix of the {@code ByteBuffer} accessors, such as {@code getInt}. */
+        final String accessor;
+        /** The encoded size, or {@code -1} when it varies. */
+        final int size;
+        /** The Java type of a value, or {@code null} for a composed type. */
+        final TypeName type;
+
+        Element(final String accessor, final int size, final TypeName type) {
+            this.accessor = accessor;
+            this.size = size;
+            this.type = type;
+        }
+
+        boolean isFixedSize() {
+            return size > 0;
+        }
+    }
+
+    final String name;
+    final Element element;
+    final boolean array;
+    final ClassName typeName;
+    /** The name of the {@code ComputableType} of a computed field, such as {@code "timestamp"}, or {@code null}. */
+    final String computed;
+
+    /**
+     * Answer the {@code CodecField}s of {@code fields}, in order.
+     * @param fields the FieldDefinitions of a TypeDefinition
+     * @return {@code List<CodecField>}
+     * @throws IllegalArgumentException if a field is of an unresolved type, which cannot be encoded
+     */
+    static List<CodecField> of(final List<FieldDefinition> fields) {
+        return fields.stream().map(CodecField::of).collect(Collectors.toList());
+    }
+
+    static CodecField of(final FieldDefinition field) {
+        final Type type = field.type;
+        if (type instanceof ComputableType) {
+            final String computed = ((ComputableType) type).typeName;
+            switch (computed) {
+            case "type":
+                return new CodecField(field.name, Element.STRING, false, null, computed);
+            case "timestamp":
+                return new CodecField(field.name, Element.LONG, false, null, computed);
+            case "version":
+                return new CodecField(field.name, Element.INT, false, null, computed);
+            }
+        } else if (type instanceof TypeDefinition) {
+            return new CodecField(field.name, Element.TYPE, false, JavaBackend.classNameOf((TypeDefinition) type), null);
+        } else if (type instanceof BasicType) {
+            final BasicType basicType = (BasicType) type;
+            final Element element = elementOf(basicType.typeName);
+            if (element != null) {
+                return new CodecField(field.name, element, basicType.isArrayType(), null, null);
+            }
+        }
+        throw new IllegalArgumentException("Cannot encode field " + field.name + " of unresolved type " + type.name());
+    }
+
+    private static Element elementOf(final String typeName) {
+        switch (typeName) {
+        case "boolean": return Element.BOOLEAN;
+        case "byte": return Element.BYTE;
+        case "char": return Element.CHAR;
+        case "short": return Element.SHORT;
+        case "int": return Element.INT;
+        case "long": return Element.LONG;
+        case "float": return Element.FLOAT;
+        case "double": return Element.DOUBLE;
+        case "string": return Element.STRING;
+        default: return null;
+        }
+    }
+
+    private CodecField(final String name, final Element element, final boolean array, final ClassName typeName, final String computed) {
+        this.name = name;
+        this.element = element;
+        this.array = array;
+        this.typeName = typeName;
+        this.computed = computed;
+    }
+}
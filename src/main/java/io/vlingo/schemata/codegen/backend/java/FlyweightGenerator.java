@@ -0,0 +1,418 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import io.vlingo.schemata.codegen.backend.java.CodecField.Element;
+
+/**
+ * Generates the nested {@code Flyweight} of a type: a reusable view over a {@code ByteBuffer}
+ * at an offset, with typed getters and setters that read and write the buffer in place. Wrapping
+ * a buffer neither copies nor allocates, so a single flyweight may decode any number of events,
+ * on or off the heap.
+ * <p>
+ * The layout starts with an {@code int} holding the {@code SemanticVersion} of the schema and an
+ * {@code int} holding the encoded length, followed by one fixed slot per field. The slots are
+ * ordered by decreasing size, which keeps them naturally aligned. Numbers and booleans live in their
+ * slot; strings and arrays, whose size varies, are appended behind the slots, and their slot holds
+ * where, or {@code -1} for {@code null}. Setting a string or an array again appends it again.
+ */
+final class FlyweightGenerator {
+    static final String FlyweightClass = "Flyweight";
+
+    private static final ClassName SemanticVersion = ClassName.get("io.vlingo.common.version", "SemanticVersion");
+    private static final int VersionSlot = 0;
+    private static final int LengthSlot = Integer.BYTES;
+    private static final int HeaderLength = 2 * Integer.BYTES;
+
+    private final ClassName flyweight;
+    private final String typeName;
+    private final List<Slot> slots;
+    private final int blockLength;
+
+    FlyweightGenerator(final ClassName type, final List<CodecField> fields) {
+        this.flyweight = type.nestedClass(FlyweightClass);
+        this.typeName = type.simpleName();
+        this.slots = layOut(fields);
+        this.blockLength = slots.isEmpty() ? HeaderLength : slots.get(slots.size() - 1).end();
+    }
+
+    void addTo(final TypeSpec.Builder spec, final String version) {
+        final TypeSpec.Builder nested = TypeSpec.classBuilder(FlyweightClass)
+                .addJavadoc("A view of an encoded $L over a {@code ByteBuffer}, read and written in place.\n", typeName)
+                .addJavadoc("Values are encoded in the byte order of the buffer.\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .addField(FieldSpec.builder(TypeName.INT, "SCHEMA_VERSION", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$T.toValue($S)", SemanticVersion, version)
+                        .build())
+                .addField(FieldSpec.builder(TypeName.INT, "BLOCK_LENGTH", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .addJavadoc("The number of bytes of the header and the slots, before any string or array.\n")
+                        .initializer("$L", blockLength)
+                        .build())
+                .addField(ByteBuffer.class, "buffer", Modifier.PRIVATE)
+                .addField(TypeName.INT, "offset", Modifier.PRIVATE)
+                .addMethod(wrap())
+                .addMethod(wrapForEncode())
+                .addMethod(MethodSpec.methodBuilder("encodedLength")
+                        .addJavadoc("Answers the number of bytes encoded so far, from the offset.\n")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.INT)
+                        .addStatement("return buffer.getInt(offset + $L)", LengthSlot)
+                        .build());
+
+        boolean variable = false;
+        boolean strings = false;
+        for (final Slot slot : slots) {
+            if (slot.isIndirect()) {
+                variable = true;
+                strings |= slot.field.element == Element.STRING;
+                addIndirectAccessors(nested, slot);
+            } else {
+                addDirectAccessors(nested, slot);
+            }
+        }
+
+        if (variable) {
+            addSlotHelpers(nested);
+        }
+        if (strings) {
+            addStringHelpers(nested);
+        }
+
+        spec.addType(nested.build());
+    }
+
+    private List<Slot> layOut(final List<CodecField> fields) {
+        final List<Slot> unordered = new ArrayList<>();
+        for (final CodecField field : fields) {
+            if (field.element == Element.TYPE) {
+                throw new IllegalArgumentException("Cannot lay out field " + field.name + " of composed type " + field.typeName + " in a flyweight");
+            }
+            unordered.add(new Slot(field));
+        }
+        // stable, so equally sized fields keep their declaration order
+        unordered.sort(Comparator.comparingInt((Slot slot) -> slot.size).reversed());
+
+        int offset = HeaderLength;
+        for (final Slot slot : unordered) {
+            slot.offset = offset;
+            offset += slot.size;
+        }
+        return unordered;
+    }
+
+    private MethodSpec wrap() {
+        return MethodSpec.methodBuilder("wrap")
+                .addJavadoc("Wraps the $L encoded in {@code buffer} at {@code offset}, to read or update it.\n", typeName)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(flyweight)
+                .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                .addParameter(TypeName.INT, "offset", Modifier.FINAL)
+                .addStatement("final int encodedVersion = buffer.getInt(offset + $L)", VersionSlot)
+                .beginControlFlow("if (encodedVersion != SCHEMA_VERSION)")
+                .addStatement("throw new $T($S + encodedVersion + $S + SCHEMA_VERSION)", IllegalArgumentException.class,
+                        "Cannot read schema version ", " as ")
+                .endControlFlow()
+                .addStatement("this.buffer = buffer")
+                .addStatement("this.offset = offset")
+                .addStatement("return this")
+                .build();
+    }
+
+    private MethodSpec wrapForEncode() {
+        final MethodSpec.Builder method = MethodSpec.methodBuilder("wrapForEncode")
+                .addJavadoc("Wraps {@code buffer} at {@code offset} to encode a new $L, with its computed fields set\n", typeName)
+                .addJavadoc("and its strings and arrays {@code null}. The buffer must have room for {@link #BLOCK_LENGTH} bytes\n")
+                .addJavadoc("and every string and array set afterwards.\n")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(flyweight)
+                .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                .addParameter(TypeName.INT, "offset", Modifier.FINAL)
+                .addStatement("this.buffer = buffer")
+                .addStatement("this.offset = offset")
+                .addStatement("buffer.putInt(offset + $L, SCHEMA_VERSION)", VersionSlot)
+                .addStatement("buffer.putInt(offset + $L, BLOCK_LENGTH)", LengthSlot);
+
+        for (final Slot slot : slots) {
+            if (slot.isIndirect()) {
+                method.addStatement("buffer.putInt(offset + $L, -1)", slot.offset);
+            }
+        }
+        for (final Slot slot : slots) {
+            if (slot.field.computed == null) {
+                continue;
+            }
+            switch (slot.field.computed) {
+            case "type":
+                method.addStatement("$N($S)", slot.field.name, typeName);
+                break;
+            case "version":
+                method.addStatement("$N(SCHEMA_VERSION)", slot.field.name);
+                break;
+            case "timestamp":
+                method.addStatement("$N(System.currentTimeMillis())", slot.field.name);
+                break;
+            }
+        }
+        return method.addStatement("return this").build();
+    }
+
+    private void addDirectAccessors(final TypeSpec.Builder nested, final Slot slot) {
+        final CodecField field = slot.field;
+        final MethodSpec.Builder getter = MethodSpec.methodBuilder(field.name)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(field.element.type);
+        final MethodSpec.Builder setter = MethodSpec.methodBuilder(field.name)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(flyweight)
+                .addParameter(field.element.type, "value", Modifier.FINAL);
+
+        switch (field.element) {
+        case BOOLEAN:
+            getter.addStatement("return buffer.get(offset + $L) != 0", slot.offset);
+            setter.addStatement("buffer.put(offset + $L, value ? (byte) 1 : (byte) 0)", slot.offset);
+            break;
+        case BYTE:
+            getter.addStatement("return buffer.get(offset + $L)", slot.offset);
+            setter.addStatement("buffer.put(offset + $L, value)", slot.offset);
+            break;
+        default:
+            getter.addStatement("return buffer.get$L(offset + $L)", field.element.accessor, slot.offset);
+            setter.addStatement("buffer.put$L(offset + $L, value)", field.element.accessor, slot.offset);
+        }
+
+        nested.addMethod(getter.build());
+        nested.addMethod(setter.addStatement("return this").build());
+    }
+
+    private void addIndirectAccessors(final TypeSpec.Builder nested, final Slot slot) {
+        final CodecField field = slot.field;
+
+        nested.addMethod(MethodSpec.methodBuilder(field.name + "Length")
+                .addJavadoc(field.array
+                        ? "Answers the number of elements of {@code $L}, or {@code -1} if it is {@code null}.\n"
+                        : "Answers the number of UTF-8 bytes of {@code $L}, or {@code -1} if it is {@code null}.\n", field.name)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(TypeName.INT)
+                .addStatement("final int at = locate($L)", slot.offset)
+                .addStatement("return at < 0 ? -1 : buffer.getInt(at)")
+                .build());
+
+        if (!field.array) {
+            nested.addMethod(MethodSpec.methodBuilder(field.name)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(String.class)
+                    .addStatement("final int at = locate($L)", slot.offset)
+                    .addStatement("return at < 0 ? null : getString(buffer, at)")
+                    .build());
+            nested.addMethod(MethodSpec.methodBuilder(field.name)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(flyweight)
+                    .addParameter(String.class, "value", Modifier.FINAL)
+                    .beginControlFlow("if (value == null)")
+                    .addStatement("buffer.putInt(offset + $L, -1)", slot.offset)
+                    .addStatement("return this")
+                    .endControlFlow()
+                    .addStatement("final byte[] bytes = value.getBytes($T.UTF_8)", StandardCharsets.class)
+                    .addStatement("putString(buffer, allocate($L, $L + bytes.length), bytes)", slot.offset, Integer.BYTES)
+                    .addStatement("return this")
+                    .build());
+            return;
+        }
+
+        if (field.element == Element.STRING) {
+            nested.addMethod(MethodSpec.methodBuilder(field.name)
+                    .addJavadoc("Answers the element at {@code index}, which is found by skipping the elements before it.\n")
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(String.class)
+                    .addParameter(TypeName.INT, "index", Modifier.FINAL)
+                    .addStatement("int at = elementOf($L, index) + $L", slot.offset, Integer.BYTES)
+                    .beginControlFlow("for (int skipped = 0; skipped < index; ++skipped)")
+                    .addStatement("at += $L + Math.max(0, buffer.getInt(at))", Integer.BYTES)
+                    .endControlFlow()
+                    .addStatement("return getString(buffer, at)")
+                    .build());
+            nested.addMethod(MethodSpec.methodBuilder(field.name)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(flyweight)
+                    .addParameter(String[].class, "values", Modifier.FINAL)
+                    .beginControlFlow("if (values == null)")
+                    .addStatement("buffer.putInt(offset + $L, -1)", slot.offset)
+                    .addStatement("return this")
+                    .endControlFlow()
+                    .addStatement("final byte[][] encoded = new byte[values.length][]")
+                    .addStatement("int size = $L", Integer.BYTES)
+                    .beginControlFlow("for (int index = 0; index < values.length; ++index)")
+                    .addStatement("encoded[index] = values[index] == null ? null : values[index].getBytes($T.UTF_8)", StandardCharsets.class)
+                    .addStatement("size += $L + (encoded[index] == null ? 0 : encoded[index].length)", Integer.BYTES)
+                    .endControlFlow()
+                    .addStatement("int at = allocate($L, size)", slot.offset)
+                    .addStatement("buffer.putInt(at, values.length)")
+                    .addStatement("at += $L", Integer.BYTES)
+                    .beginControlFlow("for (final byte[] bytes : encoded)")
+                    .addStatement("putString(buffer, at, bytes)")
+                    .addStatement("at += $L + (bytes == null ? 0 : bytes.length)", Integer.BYTES)
+                    .endControlFlow()
+                    .addStatement("return this")
+                    .build());
+            return;
+        }
+
+        final Element element = field.element;
+        final int size = element.size;
+        final String get;
+        final String put;
+        switch (element) {
+        case BOOLEAN:
+            get = "buffer.get(at) != 0";
+            put = "buffer.put($L, $L ? (byte) 1 : (byte) 0)";
+            break;
+        case BYTE:
+            get = "buffer.get(at)";
+            put = "buffer.put($L, $L)";
+            break;
+        default:
+            get = "buffer.get" + element.accessor + "(at)";
+            put = "buffer.put" + element.accessor + "($L, $L)";
+        }
+
+        nested.addMethod(MethodSpec.methodBuilder(field.name)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(element.type)
+                .addParameter(TypeName.INT, "index", Modifier.FINAL)
+                .addStatement("final int at = elementOf($L, index) + $L + index * $L", slot.offset, Integer.BYTES, size)
+                .addStatement("return " + get)
+                .build());
+        nested.addMethod(MethodSpec.methodBuilder(field.name)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(flyweight)
+                .addParameter(TypeName.INT, "index", Modifier.FINAL)
+                .addParameter(element.type, "value", Modifier.FINAL)
+                .addStatement(put, "elementOf(" + slot.offset + ", index) + " + Integer.BYTES + " + index * " + size, "value")
+                .addStatement("return this")
+                .build());
+        nested.addMethod(MethodSpec.methodBuilder(field.name)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(flyweight)
+                .addParameter(ArrayTypeName.of(element.type), "values", Modifier.FINAL)
+                .beginControlFlow("if (values == null)")
+                .addStatement("buffer.putInt(offset + $L, -1)", slot.offset)
+                .addStatement("return this")
+                .endControlFlow()
+                .addStatement("final int at = allocate($L, $L + values.length * $L) + $L", slot.offset, Integer.BYTES, size, Integer.BYTES)
+                .addStatement("buffer.putInt(at - $L, values.length)", Integer.BYTES)
+                .beginControlFlow("for (int index = 0; index < values.length; ++index)")
+                .addStatement(put, "at + index * " + size, "values[index]")
+                .endControlFlow()
+                .addStatement("return this")
+                .build());
+    }
+
+    private void addSlotHelpers(final TypeSpec.Builder nested) {
+        nested.addMethod(MethodSpec.methodBuilder("locate")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(TypeName.INT)
+                .addParameter(TypeName.INT, "slot", Modifier.FINAL)
+                .addStatement("final int at = buffer.getInt(offset + slot)")
+                .addStatement("return at < 0 ? -1 : offset + at")
+                .build());
+        nested.addMethod(MethodSpec.methodBuilder("elementOf")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(TypeName.INT)
+                .addParameter(TypeName.INT, "slot", Modifier.FINAL)
+                .addParameter(TypeName.INT, "index", Modifier.FINAL)
+                .addStatement("final int at = locate(slot)")
+                .beginControlFlow("if (at < 0 || index < 0 || index >= buffer.getInt(at))")
+                .addStatement("throw new $T(index)", ArrayIndexOutOfBoundsException.class)
+                .endControlFlow()
+                .addStatement("return at")
+                .build());
+        nested.addMethod(MethodSpec.methodBuilder("allocate")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(TypeName.INT)
+                .addParameter(TypeName.INT, "slot", Modifier.FINAL)
+                .addParameter(TypeName.INT, "size", Modifier.FINAL)
+                .addStatement("final int at = buffer.getInt(offset + $L)", LengthSlot)
+                .addStatement("buffer.putInt(offset + slot, at)")
+                .addStatement("buffer.putInt(offset + $L, at + size)", LengthSlot)
+                .addStatement("return offset + at")
+                .build());
+    }
+
+    private void addStringHelpers(final TypeSpec.Builder nested) {
+        nested.addMethod(MethodSpec.methodBuilder("getString")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(String.class)
+                .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                .addParameter(TypeName.INT, "at", Modifier.FINAL)
+                .addStatement("final int length = buffer.getInt(at)")
+                .beginControlFlow("if (length < 0)")
+                .addStatement("return null")
+                .endControlFlow()
+                .beginControlFlow("if (buffer.hasArray())")
+                .addStatement("return new String(buffer.array(), buffer.arrayOffset() + at + $L, length, $T.UTF_8)", Integer.BYTES, StandardCharsets.class)
+                .endControlFlow()
+                .addStatement("final byte[] bytes = new byte[length]")
+                .beginControlFlow("for (int index = 0; index < length; ++index)")
+                .addStatement("bytes[index] = buffer.get(at + $L + index)", Integer.BYTES)
+                .endControlFlow()
+                .addStatement("return new String(bytes, $T.UTF_8)", StandardCharsets.class)
+                .build());
+        nested.addMethod(MethodSpec.methodBuilder("putString")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(ByteBuffer.class, "buffer", Modifier.FINAL)
+                .addParameter(TypeName.INT, "at", Modifier.FINAL)
+                .addParameter(byte[].class, "bytes", Modifier.FINAL)
+                .beginControlFlow("if (bytes == null)")
+                .addStatement("buffer.putInt(at, -1)")
+                .addStatement("return")
+                .endControlFlow()
+                .addStatement("buffer.putInt(at, bytes.length)")
+                .beginControlFlow("for (int index = 0; index < bytes.length; ++index)")
+                .addStatement("buffer.put(at + $L + index, bytes[index])", Integer.BYTES)
+                .endControlFlow()
+                .build());
+    }
+
+    private static final class Slot {
+        final CodecField field;
+        final int size;
+        int offset;
+
+        Slot(final CodecField field) {
+            this.field = field;
+            this.size = isIndirect(field) ? Integer.BYTES : field.element.size;
+        }
+
+        boolean isIndirect() {
+            return isIndirect(field);
+        }
+
+        int end() {
+            return offset + size;
+        }
+
+        private static boolean isIndirect(final CodecField field) {
+            return field.array || !field.element.isFixedSize();
+        }
+    }
+}
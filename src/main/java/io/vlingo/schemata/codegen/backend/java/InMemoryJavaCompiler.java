@@ -0,0 +1,171 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
+import io.vlingo.schemata.codegen.archive.SourceArchive;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+/**
+ * Compiles the Java source generated by the {@code JavaBackend} into class files
+ * with the {@code javax.tools} compiler of the running JDK. Neither the source nor
+ * the class files touch the file system. The classes are compiled against the class
+ * path of this process, which holds every type generated sources refer to.
+ * <p>
+ * Not thread-safe: the underlying file manager and its caches are reused from
+ * compilation to compilation, so an instance must be confined to one actor.
+ */
+public class InMemoryJavaCompiler {
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager fileManager;
+    private final List<String> options;
+
+    public InMemoryJavaCompiler() {
+        this(System.getProperty("java.class.path"));
+    }
+
+    public InMemoryJavaCompiler(final String classPath) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        this.fileManager = compiler == null ? null : compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        this.options = Arrays.asList("-classpath", classPath, "-proc:none", "-nowarn");
+    }
+
+    /**
+     * Answer whether a Java compiler is available, which requires running on a JDK.
+     * @return boolean
+     */
+    public boolean isAvailable() {
+        return compiler != null;
+    }
+
+    /**
+     * Answer the outcome of compiling the generated {@code source} of the type {@code typeName}.
+     * @param typeName the String simple name of the generated type
+     * @param source the String generated Java source
+     * @return {@code Outcome<SchemataBusinessException, ClassFiles>}
+     */
+    public Outcome<SchemataBusinessException, ClassFiles> compile(final String typeName, final String source) {
+        return compile(Collections.singletonMap(SourceArchive.javaPathOf(typeName, source), source));
+    }
+
+    /**
+     * Answer the outcome of compiling the generated {@code sources} together, as one compilation,
+     * so that sources may refer to each other, such as a composed type to the types it is composed of.
+     * @param sources the {@code Map<String, String>} of generated Java sources by their path, as by {@code SourceArchive.javaPathOf()}
+     * @return {@code Outcome<SchemataBusinessException, ClassFiles>}
+     */
+    public Outcome<SchemataBusinessException, ClassFiles> compile(final Map<String, String> sources) {
+        if (!isAvailable()) {
+            return Failure.of(SchemataBusinessException.codeGenerationError(
+                    new IllegalStateException("No Java compiler available; schemata must run on a JDK.")));
+        }
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final ClassOutput output = new ClassOutput(fileManager);
+        final List<Source> compilationUnits = sources.entrySet().stream()
+                .map(source -> new Source(source.getKey(), source.getValue()))
+                .collect(Collectors.toList());
+
+        try {
+            final boolean compiled = compiler.getTask(null, output, diagnostics, options, null, compilationUnits).call();
+            if (!compiled) {
+                return Failure.of(SchemataBusinessException.codeGenerationError(new IllegalArgumentException(errorsOf(diagnostics))));
+            }
+            return Success.of(ClassFiles.of(output.classFiles()));
+        } catch (RuntimeException e) {
+            return Failure.of(SchemataBusinessException.codeGenerationError(e));
+        }
+    }
+
+    private String errorsOf(final DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> sourceOf(diagnostic) + diagnostic.getLineNumber() + ": " + diagnostic.getMessage(null))
+                .collect(Collectors.joining("\n", "Compiling generated source failed:\n", ""));
+    }
+
+    private String sourceOf(final Diagnostic<? extends JavaFileObject> diagnostic) {
+        return diagnostic.getSource() == null ? "" : diagnostic.getSource().getName() + ":";
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private final String source;
+
+        Source(final String path, final String source) {
+            super(URI.create("string:///" + path), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ClassFile(final String path) {
+            super(URI.create("bytes:///" + path), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Keeps every class file written by the compiler in memory; everything else,
+     * such as reading the class path, is left to the standard file manager.
+     */
+    private static final class ClassOutput extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ClassFile> classFiles = new LinkedHashMap<>();
+
+        ClassOutput(final StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(final Location location, final String className, final JavaFileObject.Kind kind, final FileObject sibling) {
+            final String path = className.replace('.', '/') + kind.extension;
+            final ClassFile classFile = new ClassFile(path);
+            classFiles.put(path, classFile);
+            return classFile;
+        }
+
+        Map<String, byte[]> classFiles() {
+            final Map<String, byte[]> files = new LinkedHashMap<>();
+            classFiles.forEach((path, classFile) -> files.put(path, classFile.bytes.toByteArray()));
+            return files;
+        }
+    }
+}
@@ -12,7 +12,11 @@ import static java.util.stream.Collectors.joining;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.lang.model.element.Modifier;
@@ -48,7 +52,26 @@ import io.vlingo.schemata.errors.SchemataBusinessException;
 
 @SuppressWarnings("rawtypes")
 public class JavaBackend implements Backend {
+    /**
+     * The codecs generated in addition to the plain class, on request only.
+     */
+    public enum Codec {
+        /** {@code writeTo(ByteBuffer)}, {@code readFrom(ByteBuffer)} and {@code sizeInBytes()}. */
+        Binary,
+        /** A nested {@code Flyweight} reading and writing the fields in place in a {@code ByteBuffer}. */
+        Flyweight,
+        /** {@code writeJson(StringBuilder)}, {@code toJson()} and {@code fromJson(CharSequence)}. */
+        Json
+    }
+
+    private final Set<Codec> codecs;
+
     public JavaBackend() {
+        this(Collections.emptySet());
+    }
+
+    public JavaBackend(final Set<Codec> codecs) {
+        this.codecs = codecs.isEmpty() ? EnumSet.noneOf(Codec.class) : EnumSet.copyOf(codecs);
     }
 
     @Override
@@ -63,7 +86,12 @@ public class JavaBackend implements Backend {
         final String typeReference = type.fullyQualifiedTypeName;
         final String category = type.category.name().toLowerCase();
 
-        final TypeSpec eventClass = getTypeSpec(type, version, baseClass, typeName);
+        final TypeSpec eventClass;
+        try {
+            eventClass = getTypeSpec(type, version, baseClass, typeName);
+        } catch (IllegalArgumentException e) {
+            return Failure.of(SchemataBusinessException.codeGenerationError(e));
+        }
         JavaFile javaFile = JavaFile.builder(packageOf(category, typeReference), eventClass).build();
 
         ByteArrayOutputStream os = new ByteArrayOutputStream();
@@ -114,7 +142,22 @@ public class JavaBackend implements Backend {
             spec.addMethod(noArgConstructor);
         }
 
-
+        if (!codecs.isEmpty()) {
+            final ClassName className = classNameOf(type);
+            final List<CodecField> codecFields = CodecField.of(fields);
+            if (codecs.contains(Codec.Binary)) {
+                new BinaryCodecGenerator(className, codecFields).addTo(spec, version);
+            }
+            if (codecs.contains(Codec.Flyweight)) {
+                new FlyweightGenerator(className, codecFields).addTo(spec, version);
+            }
+            if (codecs.contains(Codec.Json)) {
+                final Map<String, String> defaults = fields.stream()
+                        .filter(FieldDefinition::hasDefaultValue)
+                        .collect(Collectors.toMap(field -> field.name, this::javaLiteralOf));
+                new JsonCodecGenerator(className, codecFields, defaults).addTo(spec, version);
+            }
+        }
 
         return spec.addFields(classFields).build();
     }
@@ -161,7 +204,7 @@ public class JavaBackend implements Backend {
         }
 
         if (type instanceof TypeDefinition) {
-            ClassName className = ClassName.bestGuess(((TypeDefinition) type).typeName);
+            ClassName className = classNameOf((TypeDefinition) type);
             return FieldSpec.builder(className, definition.name, Modifier.FINAL, Modifier.PUBLIC).build();
         }
 
@@ -209,11 +252,22 @@ public class JavaBackend implements Backend {
         if (type instanceof BasicType) {
             return primitive((BasicType) type);
         } else {
-            return ClassName.bestGuess(((TypeDefinition) type).typeName);
+            return classNameOf((TypeDefinition) type);
+        }
+    }
+
+    /**
+     * Answer the {@code ClassName} of the class generated for {@code type}, in the package of
+     * its category and context, so that a composed type imports the types it is composed of.
+     */
+    static ClassName classNameOf(final TypeDefinition type) {
+        if (type.fullyQualifiedTypeName.split(Schemata.ReferenceSeparator).length < Schemata.MinReferenceParts) {
+            return ClassName.bestGuess(type.typeName);
         }
+        return ClassName.get(packageOf(type.category.name().toLowerCase(), type.fullyQualifiedTypeName), unqualifiedName(type.typeName));
     }
 
-    private String packageOf(String category, String reference) {
+    private static String packageOf(String category, String reference) {
         String[] referenceParts = reference.split(Schemata.ReferenceSeparator);
         if (referenceParts.length < Schemata.MinReferenceParts) {
             throw new IllegalArgumentException("Invalid fully qualified type name. Valid type names look like this <organization>:<unit>:<context namespace>:<type name>[:<version>].");
@@ -228,7 +282,7 @@ public class JavaBackend implements Backend {
                 : basePackage;
     }
 
-    private String unqualifiedName(String className) {
+    private static String unqualifiedName(String className) {
         return className.substring(className.lastIndexOf('.') + 1);
     }
 
@@ -0,0 +1,541 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import io.vlingo.schemata.codegen.backend.java.CodecField.Element;
+
+/**
+ * Generates the JSON codec of a type: {@code writeJson(StringBuilder)}, {@code toJson()} and
+ * {@code fromJson(CharSequence)}, specialized for its fields, without reflection or any runtime library.
+ * <p>
+ * An object is written with every field by its name, as Gson would. It is read in a single pass
+ * by a small nested {@code JsonReader}: each known field is parsed straight into its value, any
+ * other field is skipped, and a missing field takes the default value of the schema, or the value
+ * its constructor would compute. Composed types delegate to their own codec.
+ */
+final class JsonCodecGenerator {
+    private static final ClassName SemanticVersion = ClassName.get("io.vlingo.common.version", "SemanticVersion");
+    private static final String Reader = "JsonReader";
+
+    private final ClassName type;
+    private final ClassName reader;
+    private final List<CodecField> fields;
+    private final Map<String, String> defaults;
+    // helper methods by name, emitted once each and in a stable order
+    private final Set<String> helpers = new TreeSet<>();
+
+    /**
+     * @param type the ClassName of the generated type
+     * @param fields the CodecFields of the type
+     * @param defaults the Java literal of the default value of each field with one, by field name
+     */
+    JsonCodecGenerator(final ClassName type, final List<CodecField> fields, final Map<String, String> defaults) {
+        this.type = type;
+        this.reader = type.nestedClass(Reader);
+        this.fields = fields;
+        this.defaults = defaults;
+    }
+
+    void addTo(final TypeSpec.Builder spec, final String version) {
+        spec.addMethod(writeJson());
+        spec.addMethod(MethodSpec.methodBuilder("toJson")
+                .addJavadoc("Answers this $L as a JSON object.\n", type.simpleName())
+                .addModifiers(Modifier.PUBLIC)
+                .returns(String.class)
+                .addStatement("final $T json = new $T()", StringBuilder.class, StringBuilder.class)
+                .addStatement("writeJson(json)")
+                .addStatement("return json.toString()")
+                .build());
+        spec.addMethod(MethodSpec.methodBuilder("fromJson")
+                .addJavadoc("Answers the $L read from the JSON object {@code json}, skipping any unknown field\n", type.simpleName())
+                .addJavadoc("and defaulting any missing one.\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(type)
+                .addParameter(CharSequence.class, "json", Modifier.FINAL)
+                .addStatement("final $T jsonReader = new $T(json)", reader, reader)
+                .addStatement("final $T value = new $T(jsonReader)", type, type)
+                .addStatement("jsonReader.expectEnd()")
+                .addStatement("return value")
+                .build());
+        spec.addMethod(readingConstructor(version));
+
+        for (final String helper : helpers) {
+            spec.addMethod(helper(helper));
+        }
+        spec.addType(jsonReader());
+    }
+
+    private MethodSpec writeJson() {
+        final MethodSpec.Builder method = MethodSpec.methodBuilder("writeJson")
+                .addJavadoc("Appends this $L to {@code json} as a JSON object.\n", type.simpleName())
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(StringBuilder.class, "json", Modifier.FINAL);
+
+        String separator = "{";
+        for (final CodecField field : fields) {
+            method.addStatement("json.append($S)", separator + "\"" + field.name + "\":");
+            separator = ",";
+
+            if (field.array) {
+                method.addStatement("write$Ls(json, this.$N)", field.element.accessor, field.name);
+                helpers.add("write" + field.element.accessor + "s");
+                if (field.element == Element.STRING || field.element == Element.CHAR) {
+                    helpers.add("writeString");
+                }
+                if (field.element == Element.FLOAT || field.element == Element.DOUBLE) {
+                    helpers.add("writeNumber");
+                }
+                continue;
+            }
+            switch (field.element) {
+            case CHAR:
+                method.addStatement("writeString(json, String.valueOf(this.$N))", field.name);
+                helpers.add("writeString");
+                break;
+            case FLOAT:
+            case DOUBLE:
+                method.addStatement("writeNumber(json, this.$N)", field.name);
+                helpers.add("writeNumber");
+                break;
+            case STRING:
+                method.addStatement("writeString(json, this.$N)", field.name);
+                helpers.add("writeString");
+                break;
+            case TYPE:
+                method.beginControlFlow("if (this.$N == null)", field.name)
+                        .addStatement("json.append($S)", "null")
+                        .nextControlFlow("else")
+                        .addStatement("this.$N.writeJson(json)", field.name)
+                        .endControlFlow();
+                break;
+            default:
+                method.addStatement("json.append(this.$N)", field.name);
+            }
+        }
+        return method.addStatement("json.append($S)", fields.isEmpty() ? "{}" : "}").build();
+    }
+
+    private MethodSpec readingConstructor(final String version) {
+        final MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(reader, "jsonReader", Modifier.FINAL);
+
+        for (final CodecField field : fields) {
+            constructor.addStatement("$T $N = $L", typeOf(field), field.name, defaultOf(field, version));
+        }
+
+        final CodeBlock.Builder cases = CodeBlock.builder();
+        for (final CodecField field : fields) {
+            cases.add("case $S:\n", field.name).indent();
+            if (!field.array && field.element.isFixedSize()) {
+                // null leaves a primitive at its default
+                cases.beginControlFlow("if (!jsonReader.consumeNull())")
+                        .addStatement("$N = $L", field.name, readOf(field))
+                        .endControlFlow();
+            } else {
+                cases.addStatement("$N = $L", field.name, readOf(field));
+            }
+            cases.addStatement("break").unindent();
+        }
+
+        constructor.addStatement("jsonReader.expect('{')")
+                .beginControlFlow("if (!jsonReader.consume('}'))")
+                .beginControlFlow("do")
+                .beginControlFlow("switch (jsonReader.readName())")
+                .addCode(cases.build())
+                .addCode("default:\n").addCode(CodeBlock.builder().indent().addStatement("jsonReader.skipValue()").unindent().build())
+                .endControlFlow()
+                .endControlFlow("while (jsonReader.consume(','))")
+                .addStatement("jsonReader.expect('}')")
+                .endControlFlow();
+
+        for (final CodecField field : fields) {
+            constructor.addStatement("this.$N = $N", field.name, field.name);
+        }
+        return constructor.build();
+    }
+
+    private TypeName typeOf(final CodecField field) {
+        final TypeName element = field.element == Element.TYPE ? field.typeName : field.element.type;
+        return field.array ? ArrayTypeName.of(element) : element;
+    }
+
+    private String defaultOf(final CodecField field, final String version) {
+        if (field.computed != null) {
+            switch (field.computed) {
+            case "type":
+                return CodeBlock.of("$S", type.simpleName()).toString();
+            case "version":
+                return CodeBlock.of("$T.toValue($S)", SemanticVersion, version).toString();
+            case "timestamp":
+                return "System.currentTimeMillis()";
+            }
+        }
+        final String literal = defaults.get(field.name);
+        if (literal != null) {
+            return literal;
+        }
+        if (field.array || !field.element.isFixedSize()) {
+            return "null";
+        }
+        switch (field.element) {
+        case BOOLEAN: return "false";
+        case CHAR: return "'\\0'";
+        case FLOAT: return "0.0f";
+        case DOUBLE: return "0.0";
+        case LONG: return "0L";
+        case INT: return "0";
+        default: return "(" + field.element.type + ") 0";
+        }
+    }
+
+    private CodeBlock readOf(final CodecField field) {
+        if (field.array) {
+            helpers.add("read" + field.element.accessor + "s");
+            return CodeBlock.of("read$Ls(jsonReader)", field.element.accessor);
+        }
+        if (field.element == Element.TYPE) {
+            return CodeBlock.of("jsonReader.consumeNull() ? null : $T.fromJson(jsonReader.skipValue())", field.typeName);
+        }
+        return CodeBlock.of(elementRead(field.element));
+    }
+
+    private String elementRead(final Element element) {
+        switch (element) {
+        case BOOLEAN: return "jsonReader.readBoolean()";
+        case BYTE: return "(byte) jsonReader.readLong()";
+        case CHAR: return "jsonReader.readChar()";
+        case SHORT: return "(short) jsonReader.readLong()";
+        case INT: return "(int) jsonReader.readLong()";
+        case LONG: return "jsonReader.readLong()";
+        case FLOAT: return "(float) jsonReader.readDouble()";
+        case DOUBLE: return "jsonReader.readDouble()";
+        default: return "jsonReader.readString()";
+        }
+    }
+
+    private MethodSpec helper(final String name) {
+        switch (name) {
+        case "writeString":
+            return MethodSpec.methodBuilder(name)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .addParameter(StringBuilder.class, "json", Modifier.FINAL)
+                    .addParameter(String.class, "value", Modifier.FINAL)
+                    .beginControlFlow("if (value == null)")
+                    .addStatement("json.append($S)", "null")
+                    .addStatement("return")
+                    .endControlFlow()
+                    .addStatement("json.append('\"')")
+                    .beginControlFlow("for (int index = 0; index < value.length(); ++index)")
+                    .addStatement("final char c = value.charAt(index)")
+                    .beginControlFlow("switch (c)")
+                    .addCode("case '\"': json.append($S); break;\n", "\\\"")
+                    .addCode("case '\\\\': json.append($S); break;\n", "\\\\")
+                    .addCode("case '\\n': json.append($S); break;\n", "\\n")
+                    .addCode("case '\\r': json.append($S); break;\n", "\\r")
+                    .addCode("case '\\t': json.append($S); break;\n", "\\t")
+                    .addCode("default:\n").addCode(CodeBlock.builder().indent()
+                            .beginControlFlow("if (c < 0x20)")
+                            .addStatement("json.append($S).append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16))", "\\u00")
+                            .nextControlFlow("else")
+                            .addStatement("json.append(c)")
+                            .endControlFlow()
+                            .unindent().build())
+                    .endControlFlow()
+                    .endControlFlow()
+                    .addStatement("json.append('\"')")
+                    .build();
+        case "writeNumber":
+            return MethodSpec.methodBuilder(name)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .addParameter(StringBuilder.class, "json", Modifier.FINAL)
+                    .addParameter(TypeName.DOUBLE, "value", Modifier.FINAL)
+                    .beginControlFlow("if (Double.isNaN(value) || Double.isInfinite(value))")
+                    .addStatement("throw new $T($S + value)", IllegalArgumentException.class, "JSON cannot represent ")
+                    .endControlFlow()
+                    .addStatement("json.append(value)")
+                    .build();
+        }
+
+        final Element element = Element.valueOf(name.substring(name.startsWith("read") ? 4 : 5, name.length() - 1).toUpperCase());
+        return name.startsWith("read") ? arrayReader(name, element) : arrayWriter(name, element);
+    }
+
+    private MethodSpec arrayWriter(final String name, final Element element) {
+        final String write;
+        switch (element) {
+        case CHAR: write = "writeString(json, String.valueOf(values[index]))"; break;
+        case STRING: write = "writeString(json, values[index])"; break;
+        case FLOAT:
+        case DOUBLE: write = "writeNumber(json, values[index])"; break;
+        default: write = "json.append(values[index])";
+        }
+        return MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(StringBuilder.class, "json", Modifier.FINAL)
+                .addParameter(ArrayTypeName.of(element.type), "values", Modifier.FINAL)
+                .beginControlFlow("if (values == null)")
+                .addStatement("json.append($S)", "null")
+                .addStatement("return")
+                .endControlFlow()
+                .addStatement("json.append('[')")
+                .beginControlFlow("for (int index = 0; index < values.length; ++index)")
+                .beginControlFlow("if (index > 0)")
+                .addStatement("json.append(',')")
+                .endControlFlow()
+                .addStatement(write)
+                .endControlFlow()
+                .addStatement("json.append(']')")
+                .build();
+    }
+
+    private MethodSpec arrayReader(final String name, final Element element) {
+        return MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(ArrayTypeName.of(element.type))
+                .addParameter(reader, "jsonReader", Modifier.FINAL)
+                .beginControlFlow("if (jsonReader.consumeNull())")
+                .addStatement("return null")
+                .endControlFlow()
+                .addStatement("jsonReader.expect('[')")
+                .addStatement("$T values = new $T[8]", ArrayTypeName.of(element.type), element.type)
+                .addStatement("int length = 0")
+                .beginControlFlow("if (!jsonReader.consume(']'))")
+                .beginControlFlow("do")
+                .beginControlFlow("if (length == values.length)")
+                .addStatement("values = $T.copyOf(values, length * 2)", Arrays.class)
+                .endControlFlow()
+                .addStatement("values[length++] = " + elementRead(element))
+                .endControlFlow("while (jsonReader.consume(','))")
+                .addStatement("jsonReader.expect(']')")
+                .endControlFlow()
+                .addStatement("return $T.copyOf(values, length)", Arrays.class)
+                .build();
+    }
+
+    /**
+     * The reader is emitted into every type, whichever fields it has, so that a
+     * generated class never depends on anything but itself.
+     */
+    private TypeSpec jsonReader() {
+        final TypeName json = TypeName.get(CharSequence.class);
+        final TypeName error = TypeName.get(IllegalArgumentException.class);
+
+        return TypeSpec.classBuilder(Reader)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addField(FieldSpec.builder(json, "json", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addField(FieldSpec.builder(TypeName.INT, "position", Modifier.PRIVATE).build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(json, "json", Modifier.FINAL)
+                        .addStatement("this.json = json")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("peek")
+                        .returns(TypeName.CHAR)
+                        .beginControlFlow("while (position < json.length() && Character.isWhitespace(json.charAt(position)))")
+                        .addStatement("++position")
+                        .endControlFlow()
+                        .beginControlFlow("if (position >= json.length())")
+                        .addStatement("throw error($S)", "Unexpected end of JSON")
+                        .endControlFlow()
+                        .addStatement("return json.charAt(position)")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("consume")
+                        .returns(TypeName.BOOLEAN)
+                        .addParameter(TypeName.CHAR, "c", Modifier.FINAL)
+                        .beginControlFlow("if (peek() == c)")
+                        .addStatement("++position")
+                        .addStatement("return true")
+                        .endControlFlow()
+                        .addStatement("return false")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("expect")
+                        .addParameter(TypeName.CHAR, "c", Modifier.FINAL)
+                        .beginControlFlow("if (!consume(c))")
+                        .addStatement("throw error(\"Expected '\" + c + \"'\")")
+                        .endControlFlow()
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("expectEnd")
+                        .beginControlFlow("while (position < json.length() && Character.isWhitespace(json.charAt(position)))")
+                        .addStatement("++position")
+                        .endControlFlow()
+                        .beginControlFlow("if (position < json.length())")
+                        .addStatement("throw error($S)", "Unexpected content after JSON")
+                        .endControlFlow()
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("consumeNull")
+                        .returns(TypeName.BOOLEAN)
+                        .beginControlFlow("if (peek() == 'n')")
+                        .addStatement("expectLiteral($S)", "null")
+                        .addStatement("return true")
+                        .endControlFlow()
+                        .addStatement("return false")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("expectLiteral")
+                        .addParameter(String.class, "literal", Modifier.FINAL)
+                        .beginControlFlow("for (int index = 0; index < literal.length(); ++index, ++position)")
+                        .beginControlFlow("if (position >= json.length() || json.charAt(position) != literal.charAt(index))")
+                        .addStatement("throw error(\"Expected \" + literal)")
+                        .endControlFlow()
+                        .endControlFlow()
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("readName")
+                        .returns(String.class)
+                        .addStatement("final String name = readString()")
+                        .addStatement("expect(':')")
+                        .addStatement("return name")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("readString")
+                        .returns(String.class)
+                        .beginControlFlow("if (consumeNull())")
+                        .addStatement("return null")
+                        .endControlFlow()
+                        .addStatement("expect('\"')")
+                        .addStatement("final int start = position")
+                        .beginControlFlow("while (position < json.length() && json.charAt(position) != '\"' && json.charAt(position) != '\\\\')")
+                        .addStatement("++position")
+                        .endControlFlow()
+                        .beginControlFlow("if (position < json.length() && json.charAt(position) == '\"')")
+                        .addComment("nothing escaped, so the content is used as is")
+                        .addStatement("return json.subSequence(start, position++).toString()")
+                        .endControlFlow()
+                        .addStatement("final $T value = new $T().append(json, start, position)", StringBuilder.class, StringBuilder.class)
+                        .beginControlFlow("while (true)")
+                        .beginControlFlow("if (position >= json.length())")
+                        .addStatement("throw error($S)", "Unterminated string")
+                        .endControlFlow()
+                        .addStatement("final char c = json.charAt(position++)")
+                        .beginControlFlow("if (c == '\"')")
+                        .addStatement("return value.toString()")
+                        .endControlFlow()
+                        .beginControlFlow("if (c != '\\\\')")
+                        .addStatement("value.append(c)")
+                        .addStatement("continue")
+                        .endControlFlow()
+                        .beginControlFlow("if (position >= json.length())")
+                        .addStatement("throw error($S)", "Unterminated string")
+                        .endControlFlow()
+                        .addStatement("final char escaped = json.charAt(position++)")
+                        .beginControlFlow("switch (escaped)")
+                        .addCode("case 'b': value.append('\\b'); break;\n")
+                        .addCode("case 'f': value.append('\\f'); break;\n")
+                        .addCode("case 'n': value.append('\\n'); break;\n")
+                        .addCode("case 'r': value.append('\\r'); break;\n")
+                        .addCode("case 't': value.append('\\t'); break;\n")
+                        .addCode("case 'u':\n").addCode(CodeBlock.builder().indent()
+                                .beginControlFlow("if (position + 4 > json.length())")
+                                .addStatement("throw error($S)", "Invalid unicode escape")
+                                .endControlFlow()
+                                .addStatement("value.append((char) Integer.parseInt(json.subSequence(position, position + 4).toString(), 16))")
+                                .addStatement("position += 4")
+                                .addStatement("break")
+                                .unindent().build())
+                        .addCode("default: value.append(escaped);\n")
+                        .endControlFlow()
+                        .endControlFlow()
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("readChar")
+                        .returns(TypeName.CHAR)
+                        .addStatement("final String value = readString()")
+                        .beginControlFlow("if (value == null || value.length() != 1)")
+                        .addStatement("throw error($S)", "Expected a single character")
+                        .endControlFlow()
+                        .addStatement("return value.charAt(0)")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("readBoolean")
+                        .returns(TypeName.BOOLEAN)
+                        .beginControlFlow("if (peek() == 't')")
+                        .addStatement("expectLiteral($S)", "true")
+                        .addStatement("return true")
+                        .endControlFlow()
+                        .addStatement("expectLiteral($S)", "false")
+                        .addStatement("return false")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("readLong")
+                        .returns(TypeName.LONG)
+                        .addStatement("final boolean negative = consume('-')")
+                        .addStatement("final int start = position")
+                        .addStatement("long value = 0")
+                        .beginControlFlow("while (position < json.length() && json.charAt(position) >= '0' && json.charAt(position) <= '9')")
+                        .addStatement("value = value * 10 + (json.charAt(position++) - '0')")
+                        .endControlFlow()
+                        .beginControlFlow("if (position == start)")
+                        .addStatement("throw error($S)", "Expected a number")
+                        .endControlFlow()
+                        .beginControlFlow("if (position < json.length() && (json.charAt(position) == '.' || json.charAt(position) == 'e' || json.charAt(position) == 'E'))")
+                        .addComment("a whole number in another notation, such as 1.0 or 1e3")
+                        .addStatement("position = negative ? start - 1 : start")
+                        .addStatement("return (long) readDouble()")
+                        .endControlFlow()
+                        .addStatement("return negative ? -value : value")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("readDouble")
+                        .returns(TypeName.DOUBLE)
+                        .addStatement("peek()")
+                        .addStatement("final int start = position")
+                        .beginControlFlow("while (position < json.length() && \"+-.0123456789eE\".indexOf(json.charAt(position)) >= 0)")
+                        .addStatement("++position")
+                        .endControlFlow()
+                        .beginControlFlow("if (position == start)")
+                        .addStatement("throw error($S)", "Expected a number")
+                        .endControlFlow()
+                        .addStatement("return Double.parseDouble(json.subSequence(start, position).toString())")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("skipValue")
+                        .addJavadoc("Skips the next value and answers its text, which composed types read with their own codec.\n")
+                        .returns(json)
+                        .addStatement("final char first = peek()")
+                        .addStatement("final int start = position")
+                        .beginControlFlow("if (first == '\"')")
+                        .addStatement("readString()")
+                        .nextControlFlow("else if (first == '{' || first == '[')")
+                        .addStatement("int depth = 0")
+                        .beginControlFlow("do")
+                        .addStatement("final char c = peek()")
+                        .beginControlFlow("if (c == '\"')")
+                        .addStatement("readString()")
+                        .addStatement("continue")
+                        .endControlFlow()
+                        .beginControlFlow("if (c == '{' || c == '[')")
+                        .addStatement("++depth")
+                        .nextControlFlow("else if (c == '}' || c == ']')")
+                        .addStatement("--depth")
+                        .endControlFlow()
+                        .addStatement("++position")
+                        .endControlFlow("while (depth > 0)")
+                        .nextControlFlow("else")
+                        .beginControlFlow("while (position < json.length() && \",}] \\t\\r\\n\".indexOf(json.charAt(position)) < 0)")
+                        .addStatement("++position")
+                        .endControlFlow()
+                        .endControlFlow()
+                        .addStatement("return $T.wrap(json, start, position)", CharBuffer.class)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("error")
+                        .returns(error)
+                        .addParameter(String.class, "message", Modifier.FINAL)
+                        .addStatement("return new $T(message + $S + position)", error, " at ")
+                        .build())
+                .build();
+    }
+}
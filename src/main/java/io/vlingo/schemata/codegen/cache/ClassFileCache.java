@@ -0,0 +1,64 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.cache;
+
+import java.util.Optional;
+
+import io.vlingo.schemata.codegen.backend.java.ClassFiles;
+import io.vlingo.schemata.infra.cache.BoundedCache;
+
+/**
+ * A content-addressed cache of compiled class files, keyed like the {@code CodeCache}
+ * by reference, version, language and specification hash, and weighed by the bytes
+ * of the class files.
+ */
+public class ClassFileCache {
+    private final BoundedCache<CodeCache.Key, ClassFiles> cache;
+
+    public static ClassFileCache with(final long maximumEntries, final long maximumWeight) {
+        return new ClassFileCache(maximumEntries, maximumWeight);
+    }
+
+    private ClassFileCache(final long maximumEntries, final long maximumWeight) {
+        this.cache = BoundedCache.of(maximumEntries, maximumWeight, ClassFiles::size);
+    }
+
+    public Optional<ClassFiles> classFilesFor(final CodeCache.Key key) {
+        return cache.get(key);
+    }
+
+    public void cache(final CodeCache.Key key, final ClassFiles classFiles) {
+        cache.put(key, classFiles);
+    }
+
+    /**
+     * Remove all class files compiled for the schema version identified by {@code schemaVersionId}.
+     * @param schemaVersionId the String identity of the schema version
+     * @return int the number of entries removed
+     */
+    public int invalidate(final String schemaVersionId) {
+        return cache.invalidateAll(key -> key.schemaVersionId.equals(schemaVersionId));
+    }
+
+    public long hits() {
+        return cache.hits();
+    }
+
+    public long misses() {
+        return cache.misses();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFileCache [" + cache + "]";
+    }
+}
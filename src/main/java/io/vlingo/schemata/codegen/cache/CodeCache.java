@@ -0,0 +1,197 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.Optional;
+
+import io.vlingo.schemata.infra.cache.BoundedCache;
+
+/**
+ * A content-addressed cache of generated source code. Entries are keyed by
+ * the schema version reference, its resolved version, the target language,
+ * a hash of the specification the code was generated from and a digest of the
+ * types it depends on, so neither a changed specification nor a changed or newly
+ * resolved dependency can ever be answered with stale code. Next to the code it keeps
+ * the compressed variants of it that were served, by content coding, so that
+ * a body is compressed once rather than per request.
+ */
+public class CodeCache {
+    private final BoundedCache<Key, String> cache;
+    private final BoundedCache<Variant, byte[]> compressed;
+
+    public static CodeCache with(final long maximumEntries, final long maximumWeight) {
+        return new CodeCache(maximumEntries, maximumWeight);
+    }
+
+    /**
+     * Answer the hex encoded SHA-256 hash of the {@code specification}.
+     * @param specification the String specification to hash
+     * @return String
+     */
+    public static String specificationHash(final String specification) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] hash = digest.digest(specification.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (final byte b : hash) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private CodeCache(final long maximumEntries, final long maximumWeight) {
+        this.cache = BoundedCache.of(maximumEntries, maximumWeight, String::length);
+        this.compressed = BoundedCache.of(maximumEntries, maximumWeight, bytes -> bytes.length);
+    }
+
+    public Optional<String> codeFor(final Key key) {
+        return cache.get(key);
+    }
+
+    public void cache(final Key key, final String code) {
+        cache.put(key, code);
+    }
+
+    /**
+     * Answer the code of {@code key} as compressed by {@code coding}, if it was cached.
+     * @param key the Key of the code
+     * @param coding the String content coding, such as {@code gzip}
+     * @return {@code Optional<byte[]>}
+     */
+    public Optional<byte[]> compressedFor(final Key key, final String coding) {
+        return compressed.get(new Variant(key, coding));
+    }
+
+    public void cacheCompressed(final Key key, final String coding, final byte[] body) {
+        compressed.put(new Variant(key, coding), body);
+    }
+
+    /**
+     * Remove all code generated for the schema version identified by {@code schemaVersionId},
+     * together with its compressed variants.
+     * @param schemaVersionId the String identity of the schema version
+     * @return int the number of code entries removed
+     */
+    public int invalidate(final String schemaVersionId) {
+        compressed.invalidateAll(variant -> variant.key.schemaVersionId.equals(schemaVersionId));
+        return cache.invalidateAll(key -> key.schemaVersionId.equals(schemaVersionId));
+    }
+
+    public long hits() {
+        return cache.hits();
+    }
+
+    public long misses() {
+        return cache.misses();
+    }
+
+    public long evictions() {
+        return cache.evictions();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int compressedSize() {
+        return compressed.size();
+    }
+
+    @Override
+    public String toString() {
+        return "CodeCache [" + cache + ", compressed=" + compressed + "]";
+    }
+
+    private static final class Variant {
+        private final Key key;
+        private final String coding;
+
+        private Variant(final Key key, final String coding) {
+            this.key = key;
+            this.coding = coding;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            final Variant that = (Variant) other;
+            return key.equals(that.key) && coding.equals(that.coding);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, coding);
+        }
+    }
+
+    public static final class Key {
+        public final String reference;
+        public final String version;
+        public final String language;
+        public final String specificationHash;
+        public final String dependencyDigest;
+        // not part of identity; used to invalidate by schema version events
+        public final String schemaVersionId;
+
+        /**
+         * Answer the {@code Key} of the code of {@code reference} generated from {@code specification}.
+         * @param reference the String reference of the schema version
+         * @param version the String resolved version
+         * @param language the String target language
+         * @param specification the String specification the code is generated from
+         * @param dependencyDigest the String digest of the types the code depends on, see {@code TypeDependencyClosure.digest()}
+         * @param schemaVersionId the String identity of the schema version
+         * @return Key
+         */
+        public static Key of(final String reference, final String version, final String language, final String specification,
+                             final String dependencyDigest, final String schemaVersionId) {
+            return new Key(reference, version, language, specificationHash(specification), dependencyDigest, schemaVersionId);
+        }
+
+        private Key(final String reference, final String version, final String language, final String specificationHash,
+                    final String dependencyDigest, final String schemaVersionId) {
+            this.reference = reference;
+            this.version = version;
+            this.language = language;
+            this.specificationHash = specificationHash;
+            this.dependencyDigest = dependencyDigest;
+            this.schemaVersionId = schemaVersionId;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            final Key that = (Key) other;
+            return reference.equals(that.reference) &&
+                    version.equals(that.version) &&
+                    language.equals(that.language) &&
+                    specificationHash.equals(that.specificationHash) &&
+                    dependencyDigest.equals(that.dependencyDigest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reference, version, language, specificationHash, dependencyDigest);
+        }
+
+        @Override
+        public String toString() {
+            return "Key [reference=" + reference + ", version=" + version + ", language=" + language
+                    + ", specificationHash=" + specificationHash + ", dependencyDigest=" + dependencyDigest + "]";
+        }
+    }
+}
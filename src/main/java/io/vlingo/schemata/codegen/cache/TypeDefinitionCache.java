@@ -0,0 +1,154 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.cache;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.codegen.processor.types.TypeDependencyClosure;
+import io.vlingo.schemata.infra.cache.BoundedCache;
+import io.vlingo.schemata.model.Path;
+
+/**
+ * A cache of resolved {@code TypeDefinition} ASTs keyed by type reference.
+ * Versioned references are immutable unless their specification changes and
+ * are held until evicted or invalidated by their schema version. Unversioned
+ * references name whatever version is the latest, so they are kept apart and
+ * dropped whenever any schema version changes.
+ * <p>
+ * A definition nests the definitions of the types it references, so each entry
+ * also records the references of its dependency closure. Invalidating a schema
+ * version drops every definition nesting it. A definition nesting an unversioned
+ * or an unresolved reference is dropped whenever any schema version changes.
+ */
+public class TypeDefinitionCache {
+    private final BoundedCache<Key, TypeDefinition> versioned;
+    private final BoundedCache<Key, TypeDefinition> latest;
+    // the versioned references by schema version, to find the definitions nesting an invalidated version
+    private final BoundedCache<String, String> references;
+
+    public static TypeDefinitionCache with(final long maximumEntries, final long latestMaximumEntries) {
+        return new TypeDefinitionCache(maximumEntries, latestMaximumEntries);
+    }
+
+    private TypeDefinitionCache(final long maximumEntries, final long latestMaximumEntries) {
+        this.versioned = BoundedCache.of(maximumEntries);
+        this.latest = BoundedCache.of(latestMaximumEntries);
+        this.references = BoundedCache.of(maximumEntries * 4);
+    }
+
+    public Optional<TypeDefinition> definitionFor(final String reference) {
+        return cacheOf(reference).get(Key.of(reference, null));
+    }
+
+    public void cache(final String reference, final String schemaVersionId, final TypeDefinition definition) {
+        final boolean isVersioned = Path.with(reference, true).hasVersion();
+        if (isVersioned) {
+            references.put(schemaVersionId, reference);
+        }
+        (isVersioned ? versioned : latest).put(Key.of(reference, schemaVersionId, TypeDependencyClosure.of(definition)), definition);
+    }
+
+    /**
+     * Remove the definition of the schema version identified by {@code schemaVersionId},
+     * every definition nesting it, and every definition resolved through or nesting an
+     * unversioned reference. If the reference of the schema version is no longer known,
+     * every definition nesting any versioned reference is removed.
+     * @param schemaVersionId the String identity of the schema version
+     * @return int the number of entries removed
+     */
+    public int invalidate(final String schemaVersionId) {
+        final Optional<String> reference = references.get(schemaVersionId);
+        references.invalidate(schemaVersionId);
+
+        return versioned.invalidateAll(key -> schemaVersionId.equals(key.schemaVersionId) ||
+                (reference.isPresent() ? key.dependencies.contains(reference.get()) : !key.dependencies.isEmpty())) +
+                invalidateLatest();
+    }
+
+    /**
+     * Remove every definition resolved through an unversioned reference, and every
+     * definition nesting one or leaving a reference unresolved.
+     * @return int the number of entries removed
+     */
+    public int invalidateLatest() {
+        return latest.invalidateAll(key -> true) + versioned.invalidateAll(key -> key.dependsOnLatest);
+    }
+
+    public long hits() {
+        return versioned.hits() + latest.hits();
+    }
+
+    public long misses() {
+        return versioned.misses() + latest.misses();
+    }
+
+    public long evictions() {
+        return versioned.evictions() + latest.evictions();
+    }
+
+    public int size() {
+        return versioned.size() + latest.size();
+    }
+
+    @Override
+    public String toString() {
+        return "TypeDefinitionCache [versioned=" + versioned + ", latest=" + latest + "]";
+    }
+
+    private BoundedCache<Key, TypeDefinition> cacheOf(final String reference) {
+        return Path.with(reference, true).hasVersion() ? versioned : latest;
+    }
+
+    private static final class Key {
+        final String reference;
+        // not part of identity; used to invalidate by schema version events
+        final String schemaVersionId;
+        final Set<String> dependencies;
+        final boolean dependsOnLatest;
+
+        static Key of(final String reference, final String schemaVersionId) {
+            return new Key(reference, schemaVersionId, Collections.emptySet(), false);
+        }
+
+        static Key of(final String reference, final String schemaVersionId, final TypeDependencyClosure closure) {
+            final Set<String> dependencies = new HashSet<>(closure.dependencies.size());
+            for (final TypeDefinition dependency : closure.dependencies) {
+                dependencies.add(dependency.fullyQualifiedTypeName);
+            }
+            return new Key(reference, schemaVersionId, dependencies, !closure.isPinned());
+        }
+
+        private Key(final String reference, final String schemaVersionId, final Set<String> dependencies, final boolean dependsOnLatest) {
+            this.reference = reference;
+            this.schemaVersionId = schemaVersionId;
+            this.dependencies = dependencies;
+            this.dependsOnLatest = dependsOnLatest;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) return true;
+            if (other == null || getClass() != other.getClass()) return false;
+            return reference.equals(((Key) other).reference);
+        }
+
+        @Override
+        public int hashCode() {
+            return reference.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "Key [reference=" + reference + "]";
+        }
+    }
+}
@@ -9,23 +9,27 @@ package io.vlingo.schemata.codegen.parser;
 
 import static java.util.stream.Collectors.toList;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import io.vlingo.common.Failure;
 import io.vlingo.common.Outcome;
 import io.vlingo.common.Success;
 import io.vlingo.schemata.errors.SchemataBusinessException;
-import org.antlr.v4.runtime.CodePointBuffer;
-import org.antlr.v4.runtime.CodePointCharStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.TerminalNode;
 
 import io.vlingo.schemata.codegen.antlr.SchemaVersionDefinitionLexer;
@@ -42,32 +46,72 @@ import io.vlingo.schemata.codegen.ast.values.Value;
 import io.vlingo.schemata.model.Category;
 
 
+/**
+ * A {@code TypeParser} backed by the ANTLR generated {@code SchemaVersionDefinitionParser}.
+ * It is safe to share between threads: each thread parses with its own lexer and parser,
+ * which are reset for every specification rather than created anew.
+ * <p>
+ * Parsing is attempted with the faster SLL prediction mode first, bailing out on the first
+ * syntax error. Only then is the specification parsed again in full LL mode, which is the
+ * one reporting errors through the {@code ParserErrorStrategy}.
+ */
 public class AntlrTypeParser implements TypeParser {
-    private static final int BUFFER_SIZE = 2048;
-    private final byte[] parserBuffer;
+    private static final ThreadLocal<Recognizers> recognizers = ThreadLocal.withInitial(Recognizers::new);
 
-    public AntlrTypeParser() {
-        parserBuffer = new byte[BUFFER_SIZE];
-    }
+    private final AtomicLong sllParses = new AtomicLong();
+    private final AtomicLong llParses = new AtomicLong();
 
     @Override
     public Outcome<SchemataBusinessException,Node> parseTypeDefinition(final InputStream inputStream, final String fullyQualifiedTypeName) {
-        SchemaVersionDefinitionParser tree;
-
         try {
-            ParserErrorStrategy errorStrategy = new ParserErrorStrategy();
-            tree = generateAntlrTree(inputStream, errorStrategy);
-            Node type = parseTypeDeclaration(tree.typeDeclaration(), fullyQualifiedTypeName);
-            if(errorStrategy.hasErrors()) {
-                return Failure.of(SchemataBusinessException.invalidSchemaDefinition(String.format("Parsing %s schema failed", fullyQualifiedTypeName), errorStrategy.errors()));
-            } else {
-                return Success.of(type);
-            }
+            return parse(CharStreams.fromStream(inputStream, StandardCharsets.UTF_8), fullyQualifiedTypeName);
         } catch (IOException e) {
            return Failure.of(SchemataBusinessException.invalidSchemaDefinition(String.format("Parsing %s schema failed", fullyQualifiedTypeName), e));
         }
     }
 
+    @Override
+    public Outcome<SchemataBusinessException,Node> parseTypeDefinition(final String specification, final String fullyQualifiedTypeName) {
+        return parse(CharStreams.fromString(specification), fullyQualifiedTypeName);
+    }
+
+    /**
+     * Answer the number of specifications parsed by SLL prediction alone.
+     * @return long
+     */
+    public long sllParses() {
+        return sllParses.get();
+    }
+
+    /**
+     * Answer the number of specifications that needed the full LL parse.
+     * @return long
+     */
+    public long llParses() {
+        return llParses.get();
+    }
+
+    private Outcome<SchemataBusinessException,Node> parse(final CharStream specification, final String fullyQualifiedTypeName) {
+        final Recognizers current = recognizers.get();
+
+        try {
+            final Node type = parseTypeDeclaration(current.sll(specification).typeDeclaration(), fullyQualifiedTypeName);
+            sllParses.incrementAndGet();
+            return Success.of(type);
+        } catch (ParseCancellationException e) {
+            // SLL could not decide or the specification is invalid; LL tells which
+        }
+
+        final ParserErrorStrategy errorStrategy = new ParserErrorStrategy();
+        final Node type = parseTypeDeclaration(current.ll(errorStrategy).typeDeclaration(), fullyQualifiedTypeName);
+        llParses.incrementAndGet();
+        if(errorStrategy.hasErrors()) {
+            return Failure.of(SchemataBusinessException.invalidSchemaDefinition(String.format("Parsing %s schema failed", fullyQualifiedTypeName), errorStrategy.errors()));
+        } else {
+            return Success.of(type);
+        }
+    }
+
     private Node parseTypeDeclaration(
             final SchemaVersionDefinitionParser.TypeDeclarationContext typeDeclaration,
             final String fullyQualifiedTypeName) {
@@ -174,28 +218,42 @@ public class AntlrTypeParser implements TypeParser {
                 .get();
     }
 
-    private SchemaVersionDefinitionParser generateAntlrTree(InputStream inputStream, ParserErrorStrategy errorStrategy) throws IOException {
-        CodePointBuffer buffer = CodePointBuffer.withBytes(consume(inputStream));
-        CodePointCharStream in = CodePointCharStream.fromBuffer(buffer);
-        SchemaVersionDefinitionLexer lexer = new SchemaVersionDefinitionLexer(in);
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        SchemaVersionDefinitionParser parser =new SchemaVersionDefinitionParser(tokens);
-        parser.setErrorHandler(errorStrategy);
-        return parser;
+    private String firstNotNull(final TerminalNode... nodes) {
+        return Arrays.stream(nodes).filter(Objects::nonNull).map(e -> e.getSymbol().getText()).findFirst().orElse("<unk>");
     }
 
-    private ByteBuffer consume(InputStream inputStream) throws IOException {
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        int nRead;
-
-        while ((nRead = inputStream.read(parserBuffer, 0, parserBuffer.length)) != -1) {
-            bos.write(parserBuffer, 0, nRead);
+    /**
+     * The lexer, token stream and parser of one thread, reused across parses.
+     */
+    private static final class Recognizers {
+        private final SchemaVersionDefinitionLexer lexer;
+        private final CommonTokenStream tokens;
+        private final SchemaVersionDefinitionParser parser;
+
+        Recognizers() {
+            this.lexer = new SchemaVersionDefinitionLexer(CharStreams.fromString(""));
+            this.tokens = new CommonTokenStream(lexer);
+            this.parser = new SchemaVersionDefinitionParser(tokens);
         }
 
-        return ByteBuffer.wrap(bos.toByteArray());
-    }
+        SchemaVersionDefinitionParser sll(final CharStream specification) {
+            lexer.setInputStream(specification);
+            tokens.setTokenSource(lexer);
+            parser.setTokenStream(tokens);
+            parser.removeErrorListeners();
+            parser.setErrorHandler(new BailErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            return parser;
+        }
 
-    private String firstNotNull(final TerminalNode... nodes) {
-        return Arrays.stream(nodes).filter(Objects::nonNull).map(e -> e.getSymbol().getText()).findFirst().orElse("<unk>");
+        // reparses the tokens of the last sll() without lexing them again
+        SchemaVersionDefinitionParser ll(final ParserErrorStrategy errorStrategy) {
+            tokens.seek(0);
+            parser.reset();
+            parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+            parser.setErrorHandler(errorStrategy);
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return parser;
+        }
     }
 }
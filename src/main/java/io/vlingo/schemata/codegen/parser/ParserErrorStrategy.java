@@ -1,6 +1,7 @@
 package io.vlingo.schemata.codegen.parser;
 
 import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.InputMismatchException;
 import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.RecognitionException;
 
@@ -15,6 +16,23 @@ public class ParserErrorStrategy extends DefaultErrorStrategy {
     recognitionExceptions.add(e);
   }
 
+  // single token insertion and deletion repair the input without reportError(), yet it was invalid
+  @Override
+  protected void reportUnwantedToken(Parser recognizer) {
+    if (!inErrorRecoveryMode(recognizer)) {
+      recognitionExceptions.add(new InputMismatchException(recognizer));
+    }
+    super.reportUnwantedToken(recognizer);
+  }
+
+  @Override
+  protected void reportMissingToken(Parser recognizer) {
+    if (!inErrorRecoveryMode(recognizer)) {
+      recognitionExceptions.add(new InputMismatchException(recognizer));
+    }
+    super.reportMissingToken(recognizer);
+  }
+
   public boolean hasErrors() {
     return recognitionExceptions.size() != 0;
   }
@@ -0,0 +1,706 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
+import io.vlingo.schemata.codegen.ast.FieldDefinition;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.ast.types.BasicArrayType;
+import io.vlingo.schemata.codegen.ast.types.BasicType;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.codegen.ast.values.ListValue;
+import io.vlingo.schemata.codegen.ast.values.NullValue;
+import io.vlingo.schemata.codegen.ast.values.SingleValue;
+import io.vlingo.schemata.codegen.ast.values.Value;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+import io.vlingo.schemata.model.Category;
+
+/**
+ * A {@code TypeParser} for the VSS grammar of {@code SchemaVersionDefinitionParser.g4} that
+ * builds the AST in a single pass over the specification, without a token list or parse tree.
+ * The grammar is LL(1), so every decision is made on the current token and nothing is ever
+ * backtracked. Tokens are recognized by the same longest-match rules as the ANTLR lexer, and
+ * the outcome of parsing is the same as that of the {@code AntlrTypeParser}, except that
+ * parsing stops at the first syntax error instead of recovering to find more.
+ * <p>
+ * The parser holds no state of its own and may be shared between threads.
+ */
+public class RecursiveDescentTypeParser implements TypeParser {
+
+    @Override
+    public Outcome<SchemataBusinessException, Node> parseTypeDefinition(final InputStream inputStream, final String fullyQualifiedTypeName) {
+        try {
+            return parseTypeDefinition(read(inputStream), fullyQualifiedTypeName);
+        } catch (IOException e) {
+            return Failure.of(SchemataBusinessException.invalidSchemaDefinition(String.format("Parsing %s schema failed", fullyQualifiedTypeName), e));
+        }
+    }
+
+    @Override
+    public Outcome<SchemataBusinessException, Node> parseTypeDefinition(final String specification, final String fullyQualifiedTypeName) {
+        return parseTypeDefinition((CharSequence) specification, fullyQualifiedTypeName);
+    }
+
+    public Outcome<SchemataBusinessException, Node> parseTypeDefinition(final CharSequence specification, final String fullyQualifiedTypeName) {
+        try {
+            return Success.of(new Descent(specification).typeDeclaration(fullyQualifiedTypeName));
+        } catch (SyntaxError e) {
+            return Failure.of(SchemataBusinessException.invalidSchemaDefinition(String.format("Parsing %s schema failed", fullyQualifiedTypeName), Collections.singletonList(e)));
+        }
+    }
+
+    private String read(final InputStream inputStream) throws IOException {
+        final Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        final StringBuilder builder = new StringBuilder();
+        final char[] buffer = new char[1024];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Reported for the first token that does not fit the grammar.
+     */
+    public static final class SyntaxError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public final int line;
+        public final int column;
+
+        SyntaxError(final int line, final int column, final String message) {
+            super("line " + line + ":" + column + " " + message);
+            this.line = line;
+            this.column = column;
+        }
+    }
+
+    //==============================
+    // Parser
+    //==============================
+
+    private static final class Descent {
+        private final Scanner scanner;
+        private Token current;
+
+        Descent(final CharSequence specification) {
+            this.scanner = new Scanner(specification);
+            this.current = scanner.next();
+        }
+
+        // typeDeclaration : type typeName typeBody EOF
+        TypeDefinition typeDeclaration(final String fullyQualifiedTypeName) {
+            final Category category = categoryOf(expectOneOf(Kind.Categories, "a type category"));
+            final String typeName = expect(Kind.TYPE_IDENTIFIER).text();
+            final List<Node> fields = typeBody();
+            expect(Kind.EOF);
+            return new TypeDefinition(category, fullyQualifiedTypeName, typeName, fields);
+        }
+
+        // typeBody : LBRACE attribute* RBRACE
+        private List<Node> typeBody() {
+            expect(Kind.LBRACE);
+            final List<Node> fields = new ArrayList<>();
+            while (current.kind != Kind.RBRACE) {
+                fields.add(attribute());
+            }
+            expect(Kind.RBRACE);
+            return fields;
+        }
+
+        private Node attribute() {
+            if (current.kind.isBasicType()) {
+                return basicTypeAttribute();
+            } else if (current.kind == Kind.TYPE_IDENTIFIER) {
+                return complexTypeAttribute();
+            } else if (current.kind.isSpecialType()) {
+                return specialTypeAttribute();
+            }
+            throw mismatched("an attribute or '}'");
+        }
+
+        // basicTypeAttribute : basicType ARRAY? IDENTIFIER (ASSIGN (literal | LBRACE literal (COMMA literal)* RBRACE))?
+        @SuppressWarnings("rawtypes")
+        private Node basicTypeAttribute() {
+            final Kind type = advance().kind;
+            final boolean isArrayType = accept(Kind.ARRAY);
+            final String fieldName = expect(Kind.IDENTIFIER).text();
+            final Kind literal = type.literal();
+
+            Value defaultValue = NullValue.get();
+            if (accept(Kind.ASSIGN)) {
+                if (isArrayType) {
+                    defaultValue = arrayLiteral(literal);
+                } else if (type == Kind.STRING && accept(Kind.NULL_LITERAL)) {
+                    defaultValue = NullValue.get();
+                } else {
+                    defaultValue = singleValueOf(expect(literal));
+                }
+            }
+
+            final String typeName = type.keyword;
+            return new FieldDefinition(
+                    isArrayType ? new BasicArrayType(typeName) : new BasicType(typeName),
+                    Optional.empty(),
+                    fieldName,
+                    Optional.of(defaultValue));
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Value arrayLiteral(final Kind literal) {
+            expect(Kind.LBRACE);
+            final List<SingleValue> values = new ArrayList<>();
+            values.add(singleValueOf(expect(literal)));
+            while (accept(Kind.COMMA)) {
+                values.add(singleValueOf(expect(literal)));
+            }
+            expect(Kind.RBRACE);
+            // a single element is answered as a single value, as by the AntlrTypeParser
+            return values.size() == 1 ? values.get(0) : new ListValue(values);
+        }
+
+        // complexTypeAttribute : typeName IDENTIFIER (ASSIGN NULL_LITERAL)? | typeName ARRAY IDENTIFIER
+        private Node complexTypeAttribute() {
+            final String typeName = advance().text();
+            final boolean isArrayType = accept(Kind.ARRAY);
+            final String fieldName = expect(Kind.IDENTIFIER).text();
+            if (!isArrayType && accept(Kind.ASSIGN)) {
+                expect(Kind.NULL_LITERAL);
+            }
+            return new FieldDefinition(new BasicType(typeName), Optional.empty(), fieldName, Optional.empty());
+        }
+
+        // specialTypeAttribute : (TIMESTAMP | TYPE | VERSION) IDENTIFIER
+        private Node specialTypeAttribute() {
+            final String typeName = advance().kind.keyword;
+            final String fieldName = expect(Kind.IDENTIFIER).text();
+            return new FieldDefinition(new BasicType(typeName), Optional.empty(), fieldName, Optional.empty());
+        }
+
+        @SuppressWarnings("rawtypes")
+        private SingleValue singleValueOf(final Token literal) {
+            return new SingleValue<>(literal.text());
+        }
+
+        private Category categoryOf(final Token type) {
+            return Arrays.stream(Category.values()).filter(category -> category.name().equalsIgnoreCase(type.kind.keyword))
+                    .findFirst()
+                    .get();
+        }
+
+        private Token advance() {
+            final Token consumed = current;
+            current = scanner.next();
+            return consumed;
+        }
+
+        private boolean accept(final Kind kind) {
+            if (current.kind == kind) {
+                advance();
+                return true;
+            }
+            return false;
+        }
+
+        private Token expect(final Kind kind) {
+            if (current.kind == kind) {
+                return advance();
+            }
+            throw mismatched(kind.display());
+        }
+
+        private Token expectOneOf(final Kind[] kinds, final String expected) {
+            for (final Kind kind : kinds) {
+                if (current.kind == kind) {
+                    return advance();
+                }
+            }
+            throw mismatched(expected);
+        }
+
+        private SyntaxError mismatched(final String expected) {
+            final String found = current.kind == Kind.EOF ? "<EOF>" : current.text();
+            return new SyntaxError(scanner.lineOf(current.start), scanner.columnOf(current.start),
+                    "mismatched input '" + found + "' expecting " + expected);
+        }
+    }
+
+    //==============================
+    // Lexer
+    //==============================
+
+    private enum Kind {
+        COMMAND("command"), DATA("data"), DOCUMENT("document"), ENVELOPE("envelope"), EVENT("event"), METADATA("metadata"),
+        BOOLEAN("boolean"), BYTE("byte"), CHAR("char"), DOUBLE("double"), FLOAT("float"), INT("int"), LONG("long"), SHORT("short"), STRING("string"),
+        TIMESTAMP("timestamp"), TYPE("type"), VERSION("version"),
+        ASSIGN("="), ARRAY("[]"), COMMA(","), DOT("."), MINUS("-"), LBRACE("{"), RBRACE("}"), SEMI(";"), COLON(":"),
+        BYTE_LITERAL, DECIMAL_LITERAL, HEX_LITERAL, OCT_LITERAL, BINARY_LITERAL, FLOAT_LITERAL, HEX_FLOAT_LITERAL,
+        BOOLEAN_LITERAL, CHAR_LITERAL, STRING_LITERAL, NULL_LITERAL,
+        TYPE_IDENTIFIER, IDENTIFIER, EOF;
+
+        static final Kind[] Categories = { COMMAND, DATA, DOCUMENT, ENVELOPE, EVENT, METADATA };
+        static final Kind[] Words = { COMMAND, DATA, DOCUMENT, ENVELOPE, EVENT, METADATA,
+                BOOLEAN, BYTE, CHAR, DOUBLE, FLOAT, INT, LONG, SHORT, STRING, TIMESTAMP, TYPE, VERSION };
+
+        final String keyword;
+
+        Kind() {
+            this(null);
+        }
+
+        Kind(final String keyword) {
+            this.keyword = keyword;
+        }
+
+        boolean isBasicType() {
+            return ordinal() >= BOOLEAN.ordinal() && ordinal() <= STRING.ordinal();
+        }
+
+        boolean isSpecialType() {
+            return this == TIMESTAMP || this == TYPE || this == VERSION;
+        }
+
+        Kind literal() {
+            switch (this) {
+                case BOOLEAN: return BOOLEAN_LITERAL;
+                case BYTE: return BYTE_LITERAL;
+                case CHAR: return CHAR_LITERAL;
+                case DOUBLE:
+                case FLOAT: return FLOAT_LITERAL;
+                case INT:
+                case LONG:
+                case SHORT: return DECIMAL_LITERAL;
+                default: return STRING_LITERAL;
+            }
+        }
+
+        String display() {
+            return keyword == null ? name() : "'" + keyword + "'";
+        }
+    }
+
+    private static final class Token {
+        final Kind kind;
+        final CharSequence source;
+        final int start;
+        final int end;
+
+        Token(final Kind kind, final CharSequence source, final int start, final int end) {
+            this.kind = kind;
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        String text() {
+            return source.subSequence(start, end).toString();
+        }
+    }
+
+    /**
+     * Answers tokens by the rules of {@code SchemaVersionDefinitionLexer.g4}: the longest match
+     * wins, and of equally long matches the rule declared first. Hidden whitespace and comments
+     * are skipped, as are characters no rule matches, which the ANTLR lexer drops as well.
+     */
+    private static final class Scanner {
+        private final CharSequence in;
+        private final int length;
+        private int position;
+
+        Scanner(final CharSequence in) {
+            this.in = in;
+            this.length = in.length();
+            this.position = 0;
+        }
+
+        Token next() {
+            while (position < length) {
+                final int start = position;
+                final char c = in.charAt(start);
+
+                if (c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '\f') {
+                    ++position;
+                    continue;
+                }
+                if (c == '/' && at(start + 1) == '*') {
+                    final int end = indexOf("*/", start + 2);
+                    if (end >= 0) {
+                        position = end + 2;
+                        continue;
+                    }
+                }
+                if (c == '/' && at(start + 1) == '/') {
+                    position = start + 2;
+                    while (position < length && at(position) != '\r' && at(position) != '\n') ++position;
+                    continue;
+                }
+
+                final Token token = tokenAt(start, c);
+                if (token != null) {
+                    position = token.end;
+                    return token;
+                }
+                ++position; // no rule matches; skip it as the ANTLR lexer does
+            }
+            return new Token(Kind.EOF, in, length, length);
+        }
+
+        int lineOf(final int offset) {
+            int line = 1;
+            for (int index = 0; index < offset && index < length; ++index) {
+                if (in.charAt(index) == '\n') ++line;
+            }
+            return line;
+        }
+
+        int columnOf(final int offset) {
+            int column = 0;
+            for (int index = Math.min(offset, length) - 1; index >= 0 && in.charAt(index) != '\n'; --index) {
+                ++column;
+            }
+            return column;
+        }
+
+        private Token tokenAt(final int start, final char c) {
+            if (c >= 'A' && c <= 'Z') {
+                return token(Kind.TYPE_IDENTIFIER, start, typeIdentifierEnd(start));
+            }
+            if (isLetter(c)) {
+                final int end = identifierEnd(start);
+                return token(wordKind(start, end), start, end);
+            }
+            if (isDigit(c) || (c == '.' && isDigit(at(start + 1)))) {
+                return numericLiteral(start);
+            }
+            switch (c) {
+                case '\'': return token(Kind.CHAR_LITERAL, start, quotedEnd(start, '\'', false));
+                case '"': return token(Kind.STRING_LITERAL, start, quotedEnd(start, '"', true));
+                case '=': return token(Kind.ASSIGN, start, start + 1);
+                case ',': return token(Kind.COMMA, start, start + 1);
+                case '.': return token(Kind.DOT, start, start + 1);
+                case '-': return token(Kind.MINUS, start, start + 1);
+                case '{': return token(Kind.LBRACE, start, start + 1);
+                case '}': return token(Kind.RBRACE, start, start + 1);
+                case ';': return token(Kind.SEMI, start, start + 1);
+                case ':': return token(Kind.COLON, start, start + 1);
+                case '[': return at(start + 1) == ']' ? token(Kind.ARRAY, start, start + 2) : null;
+                default: return null;
+            }
+        }
+
+        private Token token(final Kind kind, final int start, final int end) {
+            return end < 0 ? null : new Token(kind, in, start, end);
+        }
+
+        private Kind wordKind(final int start, final int end) {
+            for (final Kind kind : Kind.Words) {
+                if (regionEquals(start, end, kind.keyword)) return kind;
+            }
+            if (regionEquals(start, end, "true") || regionEquals(start, end, "false")) return Kind.BOOLEAN_LITERAL;
+            if (regionEquals(start, end, "null")) return Kind.NULL_LITERAL;
+            return Kind.IDENTIFIER;
+        }
+
+        // TYPE_IDENTIFIER : CapitalLetter LetterOrDigit* (COLON IDENTIFIER)* (COLON SEMANTIC_VERSION)?
+        private int typeIdentifierEnd(final int start) {
+            int end = identifierEnd(start);
+            while (at(end) == ':') {
+                if (isLetter(at(end + 1))) {
+                    end = identifierEnd(end + 1);
+                } else {
+                    final int version = semanticVersionEnd(end + 1);
+                    return version < 0 ? end : version;
+                }
+            }
+            return end;
+        }
+
+        // SEMANTIC_VERSION : Digits DOT Digits DOT Digits
+        private int semanticVersionEnd(final int start) {
+            final int major = digitsEnd(start);
+            if (major < 0 || at(major) != '.') return -1;
+            final int minor = digitsEnd(major + 1);
+            if (minor < 0 || at(minor) != '.') return -1;
+            return digitsEnd(minor + 1);
+        }
+
+        private int identifierEnd(final int start) {
+            int end = start + 1;
+            while (isLetter(at(end)) || isDigit(at(end))) ++end;
+            return end;
+        }
+
+        private Token numericLiteral(final int start) {
+            final int[] ends = {
+                    byteEnd(start), decimalEnd(start), hexEnd(start), octalEnd(start),
+                    binaryEnd(start), floatEnd(start), hexFloatEnd(start) };
+            final Kind[] kinds = {
+                    Kind.BYTE_LITERAL, Kind.DECIMAL_LITERAL, Kind.HEX_LITERAL, Kind.OCT_LITERAL,
+                    Kind.BINARY_LITERAL, Kind.FLOAT_LITERAL, Kind.HEX_FLOAT_LITERAL };
+
+            int longest = -1;
+            for (int index = 0; index < ends.length; ++index) {
+                if (ends[index] > 0 && (longest < 0 || ends[index] > ends[longest])) {
+                    longest = index;
+                }
+            }
+            if (longest < 0) {
+                return at(start) == '.' ? token(Kind.DOT, start, start + 1) : null;
+            }
+            return token(kinds[longest], start, ends[longest]);
+        }
+
+        // BYTE_LITERAL : '0' | [1-9] | [1-9] [1-9] | '1' [1-2] [1-9]
+        private int byteEnd(final int start) {
+            final char first = at(start);
+            if (first == '0') return start + 1;
+            if (!isNonZero(first)) return -1;
+            if (!isNonZero(at(start + 1))) return start + 1;
+            if (first == '1' && (at(start + 1) == '1' || at(start + 1) == '2') && isNonZero(at(start + 2))) return start + 3;
+            return start + 2;
+        }
+
+        // DECIMAL_LITERAL : ('0' | [1-9] (Digits? | '_'+ Digits)) [lL]?
+        private int decimalEnd(final int start) {
+            final char first = at(start);
+            int end;
+            if (first == '0') {
+                end = start + 1;
+            } else if (isNonZero(first)) {
+                end = start + 1;
+                final int digits = digitsEnd(end);
+                if (digits > 0) {
+                    end = digits;
+                } else if (at(end) == '_') {
+                    int underscores = end;
+                    while (at(underscores) == '_') ++underscores;
+                    final int separated = digitsEnd(underscores);
+                    if (separated > 0) end = separated;
+                }
+            } else {
+                return -1;
+            }
+            return suffixed(end, "lL");
+        }
+
+        // HEX_LITERAL : '0' [xX] [0-9a-fA-F] ([0-9a-fA-F_]* [0-9a-fA-F])? [lL]?
+        private int hexEnd(final int start) {
+            if (at(start) != '0' || (at(start + 1) != 'x' && at(start + 1) != 'X')) return -1;
+            final int digits = hexDigitsEnd(start + 2);
+            return digits < 0 ? -1 : suffixed(digits, "lL");
+        }
+
+        // OCT_LITERAL : '0' '_'* [0-7] ([0-7_]* [0-7])? [lL]?
+        private int octalEnd(final int start) {
+            if (at(start) != '0') return -1;
+            int end = start + 1;
+            while (at(end) == '_') ++end;
+            if (!isOctal(at(end))) return -1;
+            int last = end;
+            for (int index = end + 1; isOctal(at(index)) || at(index) == '_'; ++index) {
+                if (isOctal(at(index))) last = index;
+            }
+            return suffixed(last + 1, "lL");
+        }
+
+        // BINARY_LITERAL : '0' [bB] [01] ([01_]* [01])? [lL]?
+        private int binaryEnd(final int start) {
+            if (at(start) != '0' || (at(start + 1) != 'b' && at(start + 1) != 'B')) return -1;
+            if (at(start + 2) != '0' && at(start + 2) != '1') return -1;
+            int last = start + 2;
+            for (int index = start + 3; at(index) == '0' || at(index) == '1' || at(index) == '_'; ++index) {
+                if (at(index) != '_') last = index;
+            }
+            return suffixed(last + 1, "lL");
+        }
+
+        // FLOAT_LITERAL : (Digits '.' Digits? | '.' Digits) ExponentPart? [fFdD]?
+        //               | Digits (ExponentPart [fFdD]? | [fFdD])
+        private int floatEnd(final int start) {
+            int longest = -1;
+
+            final int digits = digitsEnd(start);
+            if (digits > 0 && at(digits) == '.') {
+                final int fraction = digitsEnd(digits + 1);
+                longest = Math.max(longest, fractionEnd(fraction > 0 ? fraction : digits + 1));
+            }
+            if (at(start) == '.') {
+                final int fraction = digitsEnd(start + 1);
+                if (fraction > 0) longest = Math.max(longest, fractionEnd(fraction));
+            }
+            if (digits > 0) {
+                final int exponent = exponentEnd(digits);
+                if (exponent > 0) {
+                    longest = Math.max(longest, suffixed(exponent, "fFdD"));
+                } else if ("fFdD".indexOf(at(digits)) >= 0 && at(digits) != 0) {
+                    longest = Math.max(longest, digits + 1);
+                }
+            }
+            return longest;
+        }
+
+        private int fractionEnd(final int end) {
+            final int exponent = exponentEnd(end);
+            return suffixed(exponent > 0 ? exponent : end, "fFdD");
+        }
+
+        // ExponentPart : [eE] [+-]? Digits
+        private int exponentEnd(final int start) {
+            if (at(start) != 'e' && at(start) != 'E') return -1;
+            final int sign = at(start + 1) == '+' || at(start + 1) == '-' ? start + 2 : start + 1;
+            return digitsEnd(sign);
+        }
+
+        // HEX_FLOAT_LITERAL : '0' [xX] (HexDigits '.'? | HexDigits? '.' HexDigits) [pP] [+-]? Digits [fFdD]?
+        private int hexFloatEnd(final int start) {
+            if (at(start) != '0' || (at(start + 1) != 'x' && at(start + 1) != 'X')) return -1;
+            int end = hexDigitsEnd(start + 2);
+            if (end > 0) {
+                if (at(end) == '.') {
+                    final int fraction = hexDigitsEnd(end + 1);
+                    end = fraction > 0 ? fraction : end + 1;
+                }
+            } else if (at(start + 2) == '.') {
+                end = hexDigitsEnd(start + 3);
+                if (end < 0) return -1;
+            } else {
+                return -1;
+            }
+            if (at(end) != 'p' && at(end) != 'P') return -1;
+            final int sign = at(end + 1) == '+' || at(end + 1) == '-' ? end + 2 : end + 1;
+            final int exponent = digitsEnd(sign);
+            return exponent < 0 ? -1 : suffixed(exponent, "fFdD");
+        }
+
+        // Digits : [0-9] ([0-9_]* [0-9])?
+        private int digitsEnd(final int start) {
+            if (!isDigit(at(start))) return -1;
+            int last = start;
+            for (int index = start + 1; isDigit(at(index)) || at(index) == '_'; ++index) {
+                if (at(index) != '_') last = index;
+            }
+            return last + 1;
+        }
+
+        // HexDigits : HexDigit ((HexDigit | '_')* HexDigit)?
+        private int hexDigitsEnd(final int start) {
+            if (!isHexDigit(at(start))) return -1;
+            int last = start;
+            for (int index = start + 1; isHexDigit(at(index)) || at(index) == '_'; ++index) {
+                if (at(index) != '_') last = index;
+            }
+            return last + 1;
+        }
+
+        // CHAR_LITERAL : '\'' (~['\\\r\n] | EscapeSequence) '\''
+        // STRING_LITERAL : '"' (~["\\\r\n] | EscapeSequence)* '"'
+        private int quotedEnd(final int start, final char quote, final boolean many) {
+            int index = start + 1;
+            int count = 0;
+            while (index < length) {
+                final char c = at(index);
+                if (c == quote) {
+                    return (many || count == 1) ? index + 1 : -1;
+                }
+                if (c == '\r' || c == '\n' || (!many && count == 1)) {
+                    return -1;
+                }
+                if (c == '\\') {
+                    index = escapeEnd(index);
+                    if (index < 0) return -1;
+                } else {
+                    ++index;
+                }
+                ++count;
+            }
+            return -1;
+        }
+
+        // EscapeSequence : '\\' [btnfr"'\\] | '\\' ([0-3]? [0-7])? [0-7] | '\\' 'u'+ HexDigit HexDigit HexDigit HexDigit
+        private int escapeEnd(final int start) {
+            final char c = at(start + 1);
+            if ("btnfr\"'\\".indexOf(c) >= 0 && c != 0) {
+                return start + 2;
+            }
+            if (isOctal(c)) {
+                int end = start + 2;
+                if (isOctal(at(end))) {
+                    ++end;
+                    if (c <= '3' && isOctal(at(end))) ++end;
+                }
+                return end;
+            }
+            if (c == 'u') {
+                int end = start + 2;
+                while (at(end) == 'u') ++end;
+                for (int digit = 0; digit < 4; ++digit, ++end) {
+                    if (!isHexDigit(at(end))) return -1;
+                }
+                return end;
+            }
+            return -1;
+        }
+
+        private int suffixed(final int end, final String suffixes) {
+            return at(end) != 0 && suffixes.indexOf(at(end)) >= 0 ? end + 1 : end;
+        }
+
+        private int indexOf(final String text, final int from) {
+            for (int index = from; index + text.length() <= length; ++index) {
+                if (regionEquals(index, index + text.length(), text)) return index;
+            }
+            return -1;
+        }
+
+        private boolean regionEquals(final int start, final int end, final String text) {
+            if (end - start != text.length()) return false;
+            for (int index = 0; index < text.length(); ++index) {
+                if (in.charAt(start + index) != text.charAt(index)) return false;
+            }
+            return true;
+        }
+
+        private char at(final int index) {
+            return index < length ? in.charAt(index) : 0;
+        }
+
+        private static boolean isLetter(final char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+        }
+
+        private static boolean isDigit(final char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private static boolean isNonZero(final char c) {
+            return c >= '1' && c <= '9';
+        }
+
+        private static boolean isOctal(final char c) {
+            return c >= '0' && c <= '7';
+        }
+
+        private static boolean isHexDigit(final char c) {
+            return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+        }
+    }
+}
@@ -14,5 +14,23 @@ import io.vlingo.schemata.codegen.ast.Node;
 import io.vlingo.schemata.errors.SchemataBusinessException;
 
 public interface TypeParser {
+    /**
+     * Answer a new {@code TypeParser} by its configured {@code name}, either
+     * {@code antlr} or {@code recursive-descent}.
+     * @param name the String name of the parser
+     * @return TypeParser
+     */
+    static TypeParser parserFor(final String name) {
+        switch (name) {
+        case "antlr":
+            return new AntlrTypeParser();
+        case "recursive-descent":
+            return new RecursiveDescentTypeParser();
+        default:
+            throw new IllegalArgumentException("Unsupported parser: " + name);
+        }
+    }
+
     Outcome<SchemataBusinessException,Node> parseTypeDefinition(final InputStream inputStream, final String fullyQualifiedTypeName);
+    Outcome<SchemataBusinessException,Node> parseTypeDefinition(final String specification, final String fullyQualifiedTypeName);
 }
@@ -11,41 +11,127 @@ import io.vlingo.common.Completes;
 import io.vlingo.schemata.codegen.TypeDefinitionMiddleware;
 import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
 
-import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
 
+/**
+ * A {@code TypeResolver} answering the {@code TypeDefinition}s it was given through
+ * {@link #produce(TypeDefinition, String)}. Definitions are indexed by their versioned
+ * and unversioned fully-qualified type names, the latter answering the most recently
+ * produced version. Once more than {@code maximumEntries} versions are held the eldest
+ * are evicted. When created with a {@code next} resolver, misses are resolved by it and
+ * its answers for versioned names are held as well, making this an in-process tier in
+ * front of it. Its answers for unversioned names are not held, because the latest
+ * version they name may change without this resolver knowing.
+ */
 public class CacheTypeResolver implements TypeResolver {
-    private final Set<TypeDefinition> types;
+    public static final int DefaultMaximumEntries = 1000;
+
+    private static final Pattern Versioned = Pattern.compile(".*:\\d+\\.\\d+\\.\\d+$");
+
+    private final int maximumEntries;
+    private final TypeResolver next;
+    private final Map<String, TypeDefinition> versioned;
+    private final Map<String, TypeDefinition> unversioned;
+    private final Queue<Produced> produced;
 
     public CacheTypeResolver() {
-        types = new HashSet<>();
+        this(null, DefaultMaximumEntries);
+    }
+
+    public CacheTypeResolver(final int maximumEntries) {
+        this(null, maximumEntries);
+    }
+
+    public CacheTypeResolver(final TypeResolver next, final int maximumEntries) {
+        if (maximumEntries <= 0) {
+            throw new IllegalArgumentException("The maximum entries must be greater than zero.");
+        }
+        this.maximumEntries = maximumEntries;
+        this.next = next;
+        this.versioned = new ConcurrentHashMap<>();
+        this.unversioned = new ConcurrentHashMap<>();
+        this.produced = new ConcurrentLinkedQueue<>();
     }
 
     @Override
     public Completes<Optional<TypeDefinition>> resolve(final TypeDefinitionMiddleware middleware, final String fullyQualifiedTypeName) {
-        for (final TypeDefinition type : types) {
-          if (doesTypeMatch(fullyQualifiedTypeName, type.fullyQualifiedTypeName)) {
+        TypeDefinition type = versioned.get(fullyQualifiedTypeName);
+        if (type == null) {
+            type = unversioned.get(fullyQualifiedTypeName);
+        }
+        if (type != null) {
             return Completes.withSuccess(Optional.of(type));
-          }
         }
-        return Completes.withSuccess(Optional.empty());
+        if (next == null) {
+            return Completes.withSuccess(Optional.empty());
+        }
+        return next.resolve(middleware, fullyQualifiedTypeName)
+                .andThen(maybeType -> {
+                    if (maybeType != null && maybeType.isPresent() && Versioned.matcher(fullyQualifiedTypeName).matches()) {
+                        remember(fullyQualifiedTypeName, null, maybeType.get());
+                    }
+                    return maybeType;
+                });
+    }
+
+    public void produce(final TypeDefinition typeDefinition, final String version) {
+        final String fullyQualifiedTypeName = typeDefinition.fullyQualifiedTypeName;
+        remember(fullyQualifiedTypeName + ":" + version, fullyQualifiedTypeName, typeDefinition);
+    }
+
+    /**
+     * Remove the definition held for {@code fullyQualifiedTypeName}, versioned or not.
+     * @param fullyQualifiedTypeName the String FQTN to forget
+     */
+    public void evict(final String fullyQualifiedTypeName) {
+        if (versioned.remove(fullyQualifiedTypeName) != null) {
+            produced.removeIf(record -> record.versionedName.equals(fullyQualifiedTypeName));
+        }
+        unversioned.remove(fullyQualifiedTypeName);
+    }
+
+    public void clear() {
+        produced.clear();
+        versioned.clear();
+        unversioned.clear();
     }
 
-    public void produce(TypeDefinition typeDefinition, String version) {
-        types.add(typeDefinition);
+    public int size() {
+        return versioned.size();
     }
 
-    private boolean doesTypeMatch(String query, String fqn) {
-        if (hasVersion(query)) {
-            String queryWithoutVersion = query.substring(0, query.lastIndexOf(":"));
-            return queryWithoutVersion.equals(fqn);
+    private void remember(final String versionedName, final String unversionedName, final TypeDefinition typeDefinition) {
+        if (versioned.put(versionedName, typeDefinition) == null) {
+            produced.add(new Produced(versionedName, unversionedName));
+        }
+        if (unversionedName != null) {
+            unversioned.put(unversionedName, typeDefinition);
         }
 
-        return query.equals(fqn);
+        while (versioned.size() > maximumEntries) {
+            final Produced eldest = produced.poll();
+            if (eldest == null) {
+                break;
+            }
+            final TypeDefinition evicted = versioned.remove(eldest.versionedName);
+            if (eldest.unversionedName != null && evicted != null) {
+                unversioned.remove(eldest.unversionedName, evicted);
+            }
+        }
     }
 
-    private boolean hasVersion(String query) {
-        return (query.length() - query.replace(":", "").length()) > 4;
+    private static final class Produced {
+        final String versionedName;
+        final String unversionedName;
+
+        Produced(final String versionedName, final String unversionedName) {
+            this.versionedName = versionedName;
+            this.unversionedName = unversionedName;
+        }
     }
 }
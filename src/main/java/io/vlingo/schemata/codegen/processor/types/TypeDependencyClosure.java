@@ -0,0 +1,184 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.processor.types;
+
+import io.vlingo.common.Completes;
+import io.vlingo.schemata.codegen.TypeDefinitionMiddleware;
+import io.vlingo.schemata.codegen.ast.FieldDefinition;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.ast.types.BasicArrayType;
+import io.vlingo.schemata.codegen.ast.types.BasicType;
+import io.vlingo.schemata.codegen.ast.types.ComputableType;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.codegen.cache.CodeCache;
+import io.vlingo.schemata.model.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The transitive closure of the types a schema type references. The type graph is
+ * resolved once through the {@code TypeResolver}, whose {@code TypeResolverProcessor}
+ * replaces each reference by its resolved {@code TypeDefinition}; the walk then only
+ * visits that resolved graph, taking every type once however often it is referenced.
+ */
+public class TypeDependencyClosure {
+    public final Optional<TypeDefinition> root;
+    public final List<TypeDefinition> dependencies;
+    public final Set<String> unresolved;
+
+    /**
+     * Answer the eventual {@code TypeDependencyClosure} of the type {@code fullyQualifiedTypeName}.
+     * @param resolver the TypeResolver of the type and, through its processing, of its dependencies
+     * @param middleware the TypeDefinitionMiddleware used to compile each resolved type
+     * @param fullyQualifiedTypeName the String reference of the root type
+     * @return {@code Completes<TypeDependencyClosure>}
+     */
+    public static Completes<TypeDependencyClosure> of(final TypeResolver resolver, final TypeDefinitionMiddleware middleware, final String fullyQualifiedTypeName) {
+        return resolver.resolve(middleware, fullyQualifiedTypeName)
+                .andThen(root -> root != null && root.isPresent()
+                        ? of(root.get())
+                        : new TypeDependencyClosure(Optional.empty(), Collections.emptyList(), Collections.singleton(fullyQualifiedTypeName)));
+    }
+
+    /**
+     * Answer the {@code TypeDependencyClosure} of the already resolved {@code root}.
+     * @param root the TypeDefinition whose references were resolved
+     * @return TypeDependencyClosure
+     */
+    public static TypeDependencyClosure of(final TypeDefinition root) {
+        final Map<String, TypeDefinition> visited = new LinkedHashMap<>();
+        final Set<String> unresolved = new LinkedHashSet<>();
+        visited.put(root.fullyQualifiedTypeName, root);
+
+        final List<TypeDefinition> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            final TypeDefinition type = pending.remove(pending.size() - 1);
+            for (final Node child : type.children) {
+                if (!(child instanceof FieldDefinition)) {
+                    continue;
+                }
+                final Node fieldType = ((FieldDefinition) child).type;
+                if (fieldType instanceof TypeDefinition) {
+                    final TypeDefinition dependency = (TypeDefinition) fieldType;
+                    if (visited.putIfAbsent(dependency.fullyQualifiedTypeName, dependency) == null) {
+                        pending.add(dependency);
+                    }
+                } else if (fieldType instanceof BasicType && Path.isValidReference(((BasicType) fieldType).typeName, true)) {
+                    unresolved.add(((BasicType) fieldType).typeName);
+                }
+            }
+        }
+
+        // a reference back into a cycle is left unresolved, but its type is in the closure
+        unresolved.removeAll(visited.keySet());
+        visited.remove(root.fullyQualifiedTypeName);
+
+        return new TypeDependencyClosure(Optional.of(root), new ArrayList<>(visited.values()), unresolved);
+    }
+
+    /**
+     * Answer the references of the root and of every dependency, root first.
+     * @return {@code List<String>}
+     */
+    public List<String> references() {
+        final List<String> references = new ArrayList<>(dependencies.size() + 1);
+        root.ifPresent(type -> references.add(type.fullyQualifiedTypeName));
+        dependencies.forEach(type -> references.add(type.fullyQualifiedTypeName));
+        return references;
+    }
+
+    /**
+     * Answer a digest of what the code of the root depends on beyond its own specification:
+     * the fields of every resolved dependency and the references left unresolved. Code generated
+     * from the same specification may differ only if this digest does.
+     * @return String
+     */
+    public String digest() {
+        final List<String> signatures = new ArrayList<>(dependencies.size() + unresolved.size());
+        for (final TypeDefinition dependency : dependencies) {
+            signatures.add(signatureOf(dependency));
+        }
+        for (final String reference : unresolved) {
+            signatures.add("unresolved " + reference);
+        }
+        Collections.sort(signatures);
+        return CodeCache.specificationHash(String.join("\n", signatures));
+    }
+
+    /**
+     * Answer whether the root depends on no other type, resolved or not.
+     * @return boolean
+     */
+    public boolean isSelfContained() {
+        return root.isPresent() && dependencies.isEmpty() && unresolved.isEmpty();
+    }
+
+    /**
+     * Answer whether what the root depends on can never change, which is when every dependency
+     * is referenced by its version and none is left unresolved.
+     * @return boolean
+     */
+    public boolean isPinned() {
+        if (!root.isPresent() || !unresolved.isEmpty()) {
+            return false;
+        }
+        for (final TypeDefinition dependency : dependencies) {
+            if (!Path.isValidReference(dependency.fullyQualifiedTypeName, false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String signatureOf(final TypeDefinition type) {
+        final StringBuilder signature = new StringBuilder()
+                .append(type.category).append(' ').append(type.fullyQualifiedTypeName).append(" {");
+        for (final Node child : type.children) {
+            if (child instanceof FieldDefinition) {
+                final FieldDefinition field = (FieldDefinition) child;
+                signature.append(' ').append(typeNameOf(field.type))
+                        .append(field.version.map(version -> ":" + version.value).orElse(""))
+                        .append(' ').append(field.name).append(';');
+            }
+        }
+        return signature.append(" }").toString();
+    }
+
+    private static String typeNameOf(final Node type) {
+        if (type instanceof TypeDefinition) {
+            return ((TypeDefinition) type).fullyQualifiedTypeName;
+        } else if (type instanceof BasicArrayType) {
+            return ((BasicArrayType) type).typeName + "[]";
+        } else if (type instanceof BasicType) {
+            return ((BasicType) type).typeName;
+        } else if (type instanceof ComputableType) {
+            return ((ComputableType) type).typeName;
+        }
+        return type.name();
+    }
+
+    private TypeDependencyClosure(final Optional<TypeDefinition> root, final List<TypeDefinition> dependencies, final Set<String> unresolved) {
+        this.root = root;
+        this.dependencies = Collections.unmodifiableList(dependencies);
+        this.unresolved = Collections.unmodifiableSet(unresolved);
+    }
+
+    @Override
+    public String toString() {
+        return "TypeDependencyClosure [root=" + root.map(type -> type.fullyQualifiedTypeName).orElse("") +
+                ", references=" + references() + ", unresolved=" + unresolved + "]";
+    }
+}
@@ -8,13 +8,20 @@
 package io.vlingo.schemata.codegen.processor.types;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 import io.vlingo.actors.Actor;
+import io.vlingo.actors.CompletesEventually;
 import io.vlingo.common.Completes;
 import io.vlingo.schemata.codegen.TypeDefinitionMiddleware;
+import io.vlingo.schemata.codegen.TypeResolutionContext;
 import io.vlingo.schemata.codegen.ast.FieldDefinition;
 import io.vlingo.schemata.codegen.ast.Node;
 import io.vlingo.schemata.codegen.ast.types.BasicType;
@@ -31,30 +38,63 @@ public class TypeResolverProcessor extends Actor implements Processor {
 
     @Override
     public Completes<Node> process(final Node node, final TypeDefinitionMiddleware middleware, final String fullyQualifiedTypeName) {
-        TypeDefinition type = Processor.requireBeing(node, TypeDefinition.class);
-
-        List<Node> processedTypeList = type.children.stream()
-                .map(e -> (FieldDefinition) e)
-                .map(fieldDefinition -> this.resolveType(middleware, fieldDefinition))
-                .collect(Collectors.toList());
-
-        completesEventually().with(new TypeDefinition(type.category, fullyQualifiedTypeName, type.typeName, processedTypeList));
+        final TypeDefinition type = Processor.requireBeing(node, TypeDefinition.class);
+        final CompletesEventually eventually = completesEventually();
+
+        final Set<String> references = new LinkedHashSet<>();
+        for (final Node child : type.children) {
+            final Type fieldType = ((FieldDefinition) child).type;
+            if (fieldType instanceof BasicType) {
+                references.add(((BasicType) fieldType).typeName);
+            }
+        }
+
+        if (references.isEmpty()) {
+            eventually.with(new TypeDefinition(type.category, fullyQualifiedTypeName, type.typeName, type.children));
+            return completes();
+        }
+
+        // every distinct reference is resolved once and all of them at the same time;
+        // the last one answering completes the type definition
+        final Map<String, Optional<TypeDefinition>> resolved = new ConcurrentHashMap<>(references.size());
+        final AtomicInteger outstanding = new AtomicInteger(references.size());
+
+        final BiConsumer<String, Optional<TypeDefinition>> join = (reference, maybeResolvedType) -> {
+            resolved.put(reference, maybeResolvedType == null ? Optional.empty() : maybeResolvedType);
+            if (outstanding.decrementAndGet() == 0) {
+                final List<Node> processedTypeList = new ArrayList<>(type.children.size());
+                for (final Node child : type.children) {
+                    processedTypeList.add(resolveType((FieldDefinition) child, resolved));
+                }
+                eventually.with(new TypeDefinition(type.category, fullyQualifiedTypeName, type.typeName, processedTypeList));
+            }
+        };
+
+        for (final String reference : references) {
+            if (middleware instanceof TypeResolutionContext) {
+                // resolved once per compilation, cycles and overly deep references left unresolved
+                ((TypeResolutionContext) middleware).resolve(resolver, reference, maybeResolvedType -> join.accept(reference, maybeResolvedType));
+            } else {
+                resolver.resolve(middleware, reference)
+                        .andThenConsume(maybeResolvedType -> join.accept(reference, maybeResolvedType))
+                        .otherwiseConsume(ignored -> join.accept(reference, Optional.empty()))
+                        .recoverFrom(e -> {
+                            join.accept(reference, Optional.empty());
+                            return null;
+                        });
+            }
+        }
 
         return completes();
-
     }
 
-    private FieldDefinition resolveType(final TypeDefinitionMiddleware middleware, final FieldDefinition fieldDefinition) {
+    private FieldDefinition resolveType(final FieldDefinition fieldDefinition, final Map<String, Optional<TypeDefinition>> resolved) {
       final Type typeNode = fieldDefinition.type;
 
       if (typeNode instanceof BasicType) {
           final BasicType basicType = (BasicType) typeNode;
 
-          Optional<TypeDefinition> maybeResolvedType = resolver.resolve(middleware, basicType.typeName).outcome();
-
-          // outcome() + null check is a temp. workaround for cases in which the resolver would hang, will be removed
-          // once the type resolver is fixed.
-          Type resolvedType = maybeResolvedType == null ? basicType : maybeResolvedType
+          final Type resolvedType = resolved.getOrDefault(basicType.typeName, Optional.empty())
                   .map(definition -> (Type) definition)
                   .orElse(basicType);
 
@@ -64,12 +104,4 @@ public class TypeResolverProcessor extends Actor implements Processor {
 
       return fieldDefinition;
     }
-
-    @SuppressWarnings({"unused"})
-    private <T> Completes<List<T>> unwrap(List<Completes<T>> completes) {
-        final List<T> result = new ArrayList<>(completes.size());
-        completes.forEach(complete -> result.add(complete.await()));
-
-        return Completes.withSuccess(result);
-    }
 }
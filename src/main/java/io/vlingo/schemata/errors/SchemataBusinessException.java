@@ -11,7 +11,9 @@ public class SchemataBusinessException extends RuntimeException {
     INVALID_REFERENCE,
     INVALID_SCHEMA_DEFINITION,
     CODE_GENERATION_ERROR,
-    NOT_AUTHORIZED
+    NOT_AUTHORIZED,
+    CAPACITY_EXCEEDED,
+    IMPORT_FAILED
   }
 
   protected final Map<String, Object> context = new HashMap<>();
@@ -63,4 +65,22 @@ public class SchemataBusinessException extends RuntimeException {
     ex.context.put("subject",subject);
     return ex;
   }
+
+  public static SchemataBusinessException capacityExceeded(String subject, int capacity) {
+    SchemataBusinessException ex = new SchemataBusinessException(Code.CAPACITY_EXCEEDED, subject + " is at capacity");
+    ex.context.put("subject",subject);
+    ex.context.put("capacity",capacity);
+    return ex;
+  }
+
+  public static SchemataBusinessException importFailed(List<String> failures, List<?> imported) {
+    SchemataBusinessException ex = new SchemataBusinessException(Code.IMPORT_FAILED, "Import failed: " + String.join(", ", failures));
+    ex.context.put("failures",failures);
+    ex.context.put("imported",imported);
+    return ex;
+  }
+
+  public Object context(String key) {
+    return context.get(key);
+  }
 }
@@ -0,0 +1,161 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.infra.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe, least-recently-used cache bounded by both the number of
+ * entries and the total weight of its values. Whichever bound is exceeded
+ * first causes the eldest entries to be evicted.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BoundedCache<K, V> {
+    private final long maximumEntries;
+    private final long maximumWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, V> entries;
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Answer a new {@code BoundedCache} that evicts by entry count only.
+     * @param maximumEntries the long maximum number of entries held
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return {@code BoundedCache<K,V>}
+     */
+    public static <K, V> BoundedCache<K, V> of(final long maximumEntries) {
+        return new BoundedCache<>(maximumEntries, Long.MAX_VALUE, value -> 1L);
+    }
+
+    /**
+     * Answer a new {@code BoundedCache} that evicts by entry count and total weight.
+     * @param maximumEntries the long maximum number of entries held
+     * @param maximumWeight the long maximum total weight of all values held
+     * @param weigher the function answering the weight of a single value
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return {@code BoundedCache<K,V>}
+     */
+    public static <K, V> BoundedCache<K, V> of(final long maximumEntries, final long maximumWeight, final ToLongFunction<V> weigher) {
+        return new BoundedCache<>(maximumEntries, maximumWeight, weigher);
+    }
+
+    private BoundedCache(final long maximumEntries, final long maximumWeight, final ToLongFunction<V> weigher) {
+        if (maximumEntries <= 0 || maximumWeight <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be greater than zero.");
+        }
+        this.maximumEntries = maximumEntries;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public synchronized Optional<V> get(final K key) {
+        final V value = entries.get(key);
+        if (value == null) {
+            ++misses;
+            return Optional.empty();
+        }
+        ++hits;
+        return Optional.of(value);
+    }
+
+    public synchronized void put(final K key, final V value) {
+        final long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maximumWeight) {
+            return; // never cacheable; don't flush everything else trying
+        }
+
+        final V previous = entries.put(key, value);
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+        weight += valueWeight;
+
+        evictExcess();
+    }
+
+    public synchronized void invalidate(final K key) {
+        final V removed = entries.remove(key);
+        if (removed != null) {
+            weight -= weigher.applyAsLong(removed);
+        }
+    }
+
+    /**
+     * Remove every entry whose key satisfies {@code predicate}.
+     * @param predicate the {@code Predicate<K>} selecting the keys to remove
+     * @return int the number of entries removed
+     */
+    public synchronized int invalidateAll(final Predicate<K> predicate) {
+        int removed = 0;
+        final Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<K, V> entry = iterator.next();
+            if (predicate.test(entry.getKey())) {
+                weight -= weigher.applyAsLong(entry.getValue());
+                iterator.remove();
+                ++removed;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BoundedCache [size=" + entries.size() + ", weight=" + weight + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+
+    private void evictExcess() {
+        final Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maximumEntries || weight > maximumWeight) && iterator.hasNext()) {
+            final Map.Entry<K, V> eldest = iterator.next();
+            weight -= weigher.applyAsLong(eldest.getValue());
+            iterator.remove();
+            ++evictions;
+        }
+    }
+}
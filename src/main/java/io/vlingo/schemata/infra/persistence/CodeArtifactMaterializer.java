@@ -0,0 +1,23 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.infra.persistence;
+
+import io.vlingo.schemata.query.view.CodeArtifactView;
+
+/**
+ * The protocol by which the {@code CodeArtifactProjection} is told that the artifacts
+ * of the projectable it is projecting were compiled, so that it writes them on its own thread.
+ */
+public interface CodeArtifactMaterializer {
+  /**
+   * Write the {@code compiled} view of the projectable being projected and confirm it,
+   * or, if it is {@code null}, leave it unconfirmed to be dispatched again.
+   * @param compiled the CodeArtifactView with the artifacts compiled, or null if projecting failed
+   */
+  void materialize(final CodeArtifactView compiled);
+}
@@ -0,0 +1,242 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.infra.persistence;
+
+import static io.vlingo.schemata.codegen.TypeDefinitionCompiler.compilerFor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vlingo.common.Completes;
+import io.vlingo.common.Success;
+import io.vlingo.lattice.model.DomainEvent;
+import io.vlingo.lattice.model.IdentifiedDomainEvent;
+import io.vlingo.lattice.model.projection.Projectable;
+import io.vlingo.lattice.model.projection.ProjectionControl;
+import io.vlingo.lattice.model.projection.StateStoreProjectionActor;
+import io.vlingo.schemata.codegen.TypeDefinitionCompiler;
+import io.vlingo.schemata.codegen.cache.CodeCache;
+import io.vlingo.schemata.model.Events;
+import io.vlingo.schemata.model.SchemaVersion.Status;
+import io.vlingo.schemata.query.view.CodeArtifactView;
+import io.vlingo.schemata.query.view.CodeArtifactView.CodeArtifact;
+import io.vlingo.symbio.Entry;
+import io.vlingo.symbio.store.state.StateStore;
+
+/**
+ * Compiles a schema version into every supported language as soon as it is
+ * defined, specified or published, so that code retrieval is a plain read.
+ * <p>
+ * The compilations are composed without awaiting them. Projectables are projected
+ * one at a time and in order: the events are merged into the view last written,
+ * the view is compiled, then written, and only the write confirms the projectable
+ * and starts the next one.
+ */
+public class CodeArtifactProjection extends StateStoreProjectionActor<CodeArtifactView> implements CodeArtifactMaterializer {
+	private final List<IdentifiedDomainEvent> events;
+	private final Queue<Pending> pending;
+	private final CodeArtifactMaterializer self;
+	private Pending projecting;
+	private CodeArtifactView compiled;
+
+	public CodeArtifactProjection(StateStore stateStore) {
+		super(stateStore);
+
+		this.events = new ArrayList<>(2);
+		this.pending = new ArrayDeque<>();
+		this.self = selfAs(CodeArtifactMaterializer.class);
+	}
+
+	@Override
+	public void projectWith(final Projectable projectable, final ProjectionControl control) {
+		pending.add(new Pending(projectable, control));
+		if (projecting == null) {
+			projectNext();
+		}
+	}
+
+	@Override
+	public void materialize(final CodeArtifactView compiled) {
+		final Pending projected = projecting;
+		if (compiled == null) {
+			// unconfirmed, so the dispatcher projects it again later
+			projectNext();
+			return;
+		}
+
+		this.compiled = compiled;
+		super.projectWith(projected.projectable, projectionId -> {
+			projected.control.confirmProjected(projectionId);
+			projectNext();
+		});
+	}
+
+	@Override
+	protected CodeArtifactView currentDataFor(Projectable projectable) {
+		return CodeArtifactView.with(projectable.dataId());
+	}
+
+	@Override
+	protected String dataIdFor(Projectable projectable) {
+		return events.get(0).identity();
+	}
+
+	@Override
+	protected CodeArtifactView merge(CodeArtifactView previousData, int previousVersion, CodeArtifactView currentData, int currentVersion) {
+		// merged and compiled before writing, see projectNext()
+		return compiled;
+	}
+
+	@Override
+	protected void prepareForMergeWith(Projectable projectable) {
+		events.clear();
+
+		for (final Entry<?> entry : projectable.entries()) {
+			events.add(entryAdapter().anyTypeFromEntry(entry));
+		}
+	}
+
+	private void projectNext() {
+		projecting = pending.poll();
+		if (projecting == null) {
+			return;
+		}
+
+		final Projectable projectable = projecting.projectable;
+		prepareForMergeWith(projectable);
+		final List<IdentifiedDomainEvent> merged = new ArrayList<>(events);
+
+		previousDataFor(dataIdFor(projectable))
+				.andThen(previousData -> mergeEventsInto(previousData.isNone() ? currentDataFor(projectable) : previousData, merged))
+				.andThenTo(this::compileArtifactsOf)
+				.andThenConsume(self::materialize)
+				.recoverFrom(e -> {
+					logger().error("Could not project " + projectable + ": " + e.getMessage(), e);
+					self.materialize(null);
+					return null;
+				});
+	}
+
+	/**
+	 * Answer the eventual view last written for {@code dataId}, which is {@code empty()} if
+	 * there is none yet; the write of the previous projectable is confirmed before this is read.
+	 */
+	private Completes<CodeArtifactView> previousDataFor(final String dataId) {
+		final Completes<CodeArtifactView> eventually = Completes.using(stage().scheduler());
+
+		StorageProvider.instance().codeQueries.codeArtifactsFor(dataId)
+				.andThenConsume(previousData -> eventually.with(previousData == null ? CodeArtifactView.empty() : previousData))
+				.otherwise(noPreviousData -> { // hit in production: the first projectable of the schema version
+					eventually.with(CodeArtifactView.empty());
+					return null;
+				});
+
+		return eventually;
+	}
+
+	private CodeArtifactView mergeEventsInto(final CodeArtifactView initialData, final List<IdentifiedDomainEvent> events) {
+		CodeArtifactView mergedData = initialData;
+		for (final DomainEvent event : events) {
+			switch (CodeArtifactViewType.match(event)) {
+				case SchemaVersionDefined:
+					final Events.SchemaVersionDefined defined = typed(event);
+					mergedData = CodeArtifactView.with(defined.schemaVersionId, CodeProjection.referenceFrom(defined),
+							defined.nextVersion, defined.specification, defined.status);
+					break;
+				case SchemaVersionSpecified:
+					final Events.SchemaVersionSpecified specified = typed(event);
+					mergedData = mergedData.mergeSpecificationWith(specified.schemaVersionId, specified.specification);
+					break;
+				case SchemaVersionPublished:
+					final Events.SchemaVersionPublished published = typed(event);
+					mergedData = mergedData.mergeStatusWith(published.schemaVersionId, Status.Published.name());
+					break;
+				case Unmatched:
+					logger().warn("Event of type " + event.typeName() + " was not matched.");
+					break;
+			}
+		}
+
+		return mergedData;
+	}
+
+	/**
+	 * Answer the eventual {@code view} with an artifact of each language it is not yet
+	 * compiled to; all of the languages are compiled at the same time.
+	 */
+	private Completes<CodeArtifactView> compileArtifactsOf(final CodeArtifactView view) {
+		if (view.isNone() || view.specification().isEmpty()) {
+			return Completes.withSuccess(view);
+		}
+
+		final String specificationHash = CodeCache.specificationHash(view.specification());
+
+		final List<String> languages = new ArrayList<>();
+		for (final String language : TypeDefinitionCompiler.MaterializedLanguages) {
+			if (view.artifactFor(language, specificationHash, TypeDefinitionCompiler.GeneratorVersion) == null) {
+				languages.add(language);
+			}
+		}
+		if (languages.isEmpty()) {
+			return Completes.withSuccess(view);
+		}
+
+		final Completes<CodeArtifactView> eventually = Completes.using(stage().scheduler());
+		final Map<String, CodeArtifact> artifacts = new ConcurrentHashMap<>(languages.size());
+		final AtomicInteger outstanding = new AtomicInteger(languages.size());
+
+		final Runnable join = () -> {
+			if (outstanding.decrementAndGet() == 0) {
+				CodeArtifactView compiled = view;
+				for (final String language : languages) {
+					final CodeArtifact artifact = artifacts.get(language);
+					if (artifact != null) {
+						compiled = compiled.withArtifact(artifact);
+					}
+				}
+				logger().info("PROJECTED: " + compiled);
+				eventually.with(compiled);
+			}
+		};
+
+		for (final String language : languages) {
+			compilerFor(stage(), language)
+					.compile(view.specification(), view.reference(), view.currentVersion())
+					.andThenConsume(outcome -> {
+						if (outcome instanceof Success) {
+							artifacts.put(language, CodeArtifact.of(language, specificationHash, TypeDefinitionCompiler.GeneratorVersion, outcome.get()));
+						} else {
+							logger().warn("Could not compile " + view.reference() + " to " + language + ": " + outcome);
+						}
+						join.run();
+					})
+					.recoverFrom(e -> {
+						logger().warn("Could not compile " + view.reference() + " to " + language + ": " + e.getMessage());
+						join.run();
+						return null;
+					});
+		}
+
+		return eventually;
+	}
+
+	private static final class Pending {
+		final Projectable projectable;
+		final ProjectionControl control;
+
+		Pending(final Projectable projectable, final ProjectionControl control) {
+			this.projectable = projectable;
+			this.control = control;
+		}
+	}
+}
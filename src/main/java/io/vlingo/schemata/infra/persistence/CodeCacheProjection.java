@@ -0,0 +1,68 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.infra.persistence;
+
+import io.vlingo.actors.Actor;
+import io.vlingo.common.serialization.JsonSerialization;
+import io.vlingo.lattice.model.projection.Projectable;
+import io.vlingo.lattice.model.projection.Projection;
+import io.vlingo.lattice.model.projection.ProjectionControl;
+import io.vlingo.schemata.codegen.cache.CodeCache;
+import io.vlingo.schemata.model.Events.SchemaVersionDefined;
+import io.vlingo.schemata.model.Events.SchemaVersionDeprecated;
+import io.vlingo.schemata.model.Events.SchemaVersionPublished;
+import io.vlingo.schemata.model.Events.SchemaVersionRemoved;
+import io.vlingo.schemata.model.Events.SchemaVersionSpecified;
+import io.vlingo.symbio.Entry;
+
+/**
+ * Evicts generated code from the {@code CodeCache}, compiled classes from the
+ * {@code ClassFileCache} and resolved ASTs from the {@code TypeDefinitionCache}
+ * when the specification of a schema version changes or the version is removed. Any lifecycle change also drops the definitions
+ * resolved through unversioned references, because the latest version may have
+ * moved. Nothing is persisted.
+ */
+public class CodeCacheProjection extends Actor implements Projection {
+    @Override
+    public void projectWith(final Projectable projectable, final ProjectionControl control) {
+        final StorageProvider storageProvider = StorageProvider.instance();
+
+        if (storageProvider != null) {
+            for (final Entry<?> entry : projectable.entries()) {
+                final String schemaVersionId = schemaVersionIdOf(entry);
+                if (schemaVersionId != null) {
+                    final int invalidatedCode = storageProvider.codeCache.invalidate(schemaVersionId);
+                    final int invalidatedClasses = storageProvider.classFileCache.invalidate(schemaVersionId);
+                    final int invalidatedTypes = storageProvider.typeDefinitionCache.invalidate(schemaVersionId);
+                    logger().debug("INVALIDATED: " + invalidatedCode + " cached code entries, " + invalidatedClasses
+                            + " cached class files and " + invalidatedTypes + " cached type definitions of " + schemaVersionId);
+                } else if (isLifecycleChange(entry)) {
+                    final int invalidatedTypes = storageProvider.typeDefinitionCache.invalidateLatest();
+                    logger().debug("INVALIDATED: " + invalidatedTypes + " cached latest type definitions");
+                }
+            }
+        }
+
+        control.confirmProjected(projectable.projectionId());
+    }
+
+    private String schemaVersionIdOf(final Entry<?> entry) {
+        if (entry.typeName().equals(SchemaVersionSpecified.class.getName())) {
+            return JsonSerialization.deserialized((String) entry.entryData(), SchemaVersionSpecified.class).schemaVersionId;
+        } else if (entry.typeName().equals(SchemaVersionRemoved.class.getName())) {
+            return JsonSerialization.deserialized((String) entry.entryData(), SchemaVersionRemoved.class).schemaVersionId;
+        }
+        return null;
+    }
+
+    private boolean isLifecycleChange(final Entry<?> entry) {
+        return entry.typeName().equals(SchemaVersionDefined.class.getName()) ||
+                entry.typeName().equals(SchemaVersionPublished.class.getName()) ||
+                entry.typeName().equals(SchemaVersionDeprecated.class.getName());
+    }
+}
@@ -60,12 +60,16 @@ public class CodeProjection extends StateStoreProjectionActor<CodeView> {
 	}
 
 	private String dataIdFrom(Events.SchemaVersionDefined event) {
+		return referenceFrom(event);
+	}
+
+	static String referenceFrom(Events.SchemaVersionDefined event) {
 		Completes<OrganizationView> organization = StorageProvider.instance().organizationQueries.organization(event.organizationId);
 		Completes<UnitView> unit = StorageProvider.instance().unitQueries.unit(event.organizationId, event.unitId);
 		Completes<ContextView> context = StorageProvider.instance().contextQueries.context(event.organizationId, event.unitId, event.contextId);
 		Completes<SchemaView> schema = StorageProvider.instance().schemaQueries.schema(event.organizationId, event.unitId, event.contextId, event.schemaId);
 
-		String result = dataIdFrom(Schemata.ReferenceSeparator,
+		String result = String.join(Schemata.ReferenceSeparator,
 				organization.<OrganizationView>await().name(),
 				unit.<UnitView>await().name(),
 				context.<ContextView>await().namespace(),
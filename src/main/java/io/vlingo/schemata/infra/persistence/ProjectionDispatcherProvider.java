@@ -116,7 +116,23 @@ public class ProjectionDispatcherProvider {
                                 SchemaDefined.class,
                                 SchemaVersionDefined.class),
                         ProjectToDescription.with(CodeProjection.class, Optional.of(stateStore),
-                                SchemaVersionDefined.class));
+                                SchemaVersionDefined.class),
+                        ProjectToDescription.with(CodeArtifactProjection.class, Optional.of(stateStore),
+                                SchemaVersionDefined.class,
+                                SchemaVersionSpecified.class,
+                                SchemaVersionPublished.class),
+                        ProjectToDescription.with(CodeCacheProjection.class, Optional.empty(),
+                                SchemaVersionDefined.class,
+                                SchemaVersionSpecified.class,
+                                SchemaVersionPublished.class,
+                                SchemaVersionDeprecated.class,
+                                SchemaVersionRemoved.class),
+                        ProjectToDescription.with(SchemaVersionChangeProjection.class, Optional.empty(),
+                                SchemaVersionDefined.class,
+                                SchemaVersionSpecified.class,
+                                SchemaVersionPublished.class,
+                                SchemaVersionDeprecated.class,
+                                SchemaVersionRemoved.class));
 
         final Protocols dispatcherProtocols =
                 stage.actorFor(
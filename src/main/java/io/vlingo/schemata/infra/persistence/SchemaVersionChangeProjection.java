@@ -0,0 +1,84 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.infra.persistence;
+
+import io.vlingo.actors.Actor;
+import io.vlingo.common.serialization.JsonSerialization;
+import io.vlingo.lattice.model.projection.Projectable;
+import io.vlingo.lattice.model.projection.Projection;
+import io.vlingo.lattice.model.projection.ProjectionControl;
+import io.vlingo.schemata.model.Events.SchemaVersionDefined;
+import io.vlingo.schemata.model.Events.SchemaVersionDeprecated;
+import io.vlingo.schemata.model.Events.SchemaVersionPublished;
+import io.vlingo.schemata.model.Events.SchemaVersionRemoved;
+import io.vlingo.schemata.model.Events.SchemaVersionSpecified;
+import io.vlingo.schemata.query.SchemaVersionChangeFeed;
+import io.vlingo.schemata.query.view.SchemaVersionChangeView;
+import io.vlingo.symbio.Entry;
+
+/**
+ * Appends the lifecycle changes of schema versions to the {@code SchemaVersionChangeFeed},
+ * which answers them to the clients following the feed, and looks up the ancestors of
+ * those the feed does not know through the {@code SchemaVersionQueries}. The position
+ * of each change is the id of its journal entry. Nothing is persisted.
+ */
+public class SchemaVersionChangeProjection extends Actor implements Projection {
+    @Override
+    public void projectWith(final Projectable projectable, final ProjectionControl control) {
+        final StorageProvider storageProvider = StorageProvider.instance();
+
+        if (storageProvider != null) {
+            final SchemaVersionChangeFeed feed = storageProvider.schemaVersionChanges;
+            for (final Entry<?> entry : projectable.entries()) {
+                final SchemaVersionChangeView change = changeOf(entry);
+                if (change != null && feed.append(change, entry.typeName().equals(SchemaVersionRemoved.class.getName()))) {
+                    feed.resolve(storageProvider.schemaVersionQueries, change, feed::resolved);
+                }
+            }
+        }
+
+        control.confirmProjected(projectable.projectionId());
+    }
+
+    /**
+     * Answer the change of the lifecycle of a schema version recorded by {@code entry},
+     * as of the ancestors it carries, or null if it records none.
+     * @param entry the {@code Entry<?>} of the journal
+     * @return SchemaVersionChangeView
+     */
+    public static SchemaVersionChangeView changeOf(final Entry<?> entry) {
+        final String data = (String) entry.entryData();
+
+        if (entry.typeName().equals(SchemaVersionDefined.class.getName())) {
+            final SchemaVersionDefined event = JsonSerialization.deserialized(data, SchemaVersionDefined.class);
+            return SchemaVersionChangeView.with(positionOf(entry), SchemaVersionDefined.class.getSimpleName(),
+                    event.organizationId, event.unitId, event.contextId, event.schemaId, event.schemaVersionId);
+        } else if (entry.typeName().equals(SchemaVersionSpecified.class.getName())) {
+            final SchemaVersionSpecified event = JsonSerialization.deserialized(data, SchemaVersionSpecified.class);
+            return changeOf(entry, SchemaVersionSpecified.class, event.schemaId, event.schemaVersionId);
+        } else if (entry.typeName().equals(SchemaVersionPublished.class.getName())) {
+            final SchemaVersionPublished event = JsonSerialization.deserialized(data, SchemaVersionPublished.class);
+            return changeOf(entry, SchemaVersionPublished.class, event.schemaId, event.schemaVersionId);
+        } else if (entry.typeName().equals(SchemaVersionDeprecated.class.getName())) {
+            final SchemaVersionDeprecated event = JsonSerialization.deserialized(data, SchemaVersionDeprecated.class);
+            return changeOf(entry, SchemaVersionDeprecated.class, event.schemaId, event.schemaVersionId);
+        } else if (entry.typeName().equals(SchemaVersionRemoved.class.getName())) {
+            final SchemaVersionRemoved event = JsonSerialization.deserialized(data, SchemaVersionRemoved.class);
+            return changeOf(entry, SchemaVersionRemoved.class, event.schemaId, event.schemaVersionId);
+        }
+        return null;
+    }
+
+    private static SchemaVersionChangeView changeOf(final Entry<?> entry, final Class<?> type, final String schemaId, final String schemaVersionId) {
+        return SchemaVersionChangeView.with(positionOf(entry), type.getSimpleName(), null, null, null, schemaId, schemaVersionId);
+    }
+
+    private static long positionOf(final Entry<?> entry) {
+        return Long.parseLong(entry.id());
+    }
+}
@@ -0,0 +1,32 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.infra.persistence;
+
+import java.util.List;
+
+import io.vlingo.common.Completes;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+import io.vlingo.schemata.resource.data.SchemaVersionData;
+
+/**
+ * Imports schema versions by appending their events to the journal directly,
+ * rather than by defining them one by one through their entities.
+ */
+public interface SchemaVersionImporter {
+  /**
+   * Answer the outcome of importing all of the validated {@code schemaVersions}, each
+   * as a new schema version of its schema, with an identity of its own and with the
+   * events leading to its status. The answer is given once every append is confirmed.
+   * The schema versions are appended independently, so a failed import may have
+   * imported some of them; see {@code SchemaVersionImporterActor}.
+   * @param schemaVersions the {@code List<SchemaVersionData>} to import
+   * @return {@code Completes<Outcome<SchemataBusinessException, List<SchemaVersionData>>>} the imported schema versions, in order
+   */
+  Completes<Outcome<SchemataBusinessException, List<SchemaVersionData>>> importAll(final List<SchemaVersionData> schemaVersions);
+}
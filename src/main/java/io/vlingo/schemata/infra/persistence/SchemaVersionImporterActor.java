@@ -0,0 +1,170 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.infra.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import io.vlingo.actors.Actor;
+import io.vlingo.actors.CompletesEventually;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+import io.vlingo.schemata.model.Events.SchemaVersionDefined;
+import io.vlingo.schemata.model.Events.SchemaVersionDeprecated;
+import io.vlingo.schemata.model.Events.SchemaVersionPublished;
+import io.vlingo.schemata.model.Events.SchemaVersionRemoved;
+import io.vlingo.schemata.model.Id.SchemaId;
+import io.vlingo.schemata.model.Id.SchemaVersionId;
+import io.vlingo.schemata.model.SchemaVersion;
+import io.vlingo.schemata.model.SchemaVersion.Specification;
+import io.vlingo.schemata.model.SchemaVersion.Status;
+import io.vlingo.schemata.model.SchemaVersion.Version;
+import io.vlingo.schemata.resource.data.SchemaVersionData;
+import io.vlingo.symbio.Metadata;
+import io.vlingo.symbio.Source;
+import io.vlingo.symbio.store.Result;
+import io.vlingo.symbio.store.StorageException;
+import io.vlingo.symbio.store.journal.Journal;
+import io.vlingo.symbio.store.journal.Journal.AppendResultInterest;
+
+/**
+ * Imports one batch of schema versions and then stops. All events of a schema version,
+ * its definition followed by the transitions to its status, are appended to its stream
+ * with a single {@code Journal.appendAll}, so each schema version takes one journal write
+ * and is dispatched to the projections once, complete. The appends of all schema versions
+ * are sent at once and confirmed through {@code AppendResultInterest}.
+ * <p>
+ * The appends are independent of each other: if any of them fails, the others stay
+ * appended and projected. The import then fails with {@code IMPORT_FAILED}, whose
+ * {@code "failures"} list each failed schema version by its index in the batch and
+ * whose {@code "imported"} are the schema versions appended nonetheless, so that
+ * only the failed ones need to be imported again.
+ */
+public class SchemaVersionImporterActor extends Actor implements SchemaVersionImporter, AppendResultInterest {
+  private final Journal<String> journal;
+  private final AppendResultInterest interest;
+  private final Map<String, Integer> indexes;
+  private final SortedMap<Integer, String> failures;
+  private List<SchemaVersionData> imported;
+  private CompletesEventually eventually;
+  private int pending;
+
+  public SchemaVersionImporterActor(final Journal<String> journal) {
+    this.journal = journal;
+    this.interest = selfAs(AppendResultInterest.class);
+    this.indexes = new HashMap<>();
+    this.failures = new TreeMap<>();
+  }
+
+  @Override
+  public Completes<Outcome<SchemataBusinessException, List<SchemaVersionData>>> importAll(final List<SchemaVersionData> schemaVersions) {
+    this.imported = new ArrayList<>(schemaVersions.size());
+    this.pending = schemaVersions.size();
+    this.eventually = completesEventually();
+
+    if (schemaVersions.isEmpty()) {
+      answer();
+      return completes();
+    }
+
+    for (final SchemaVersionData data : schemaVersions) {
+      final SchemaVersionId schemaVersionId = SchemaVersion.uniqueId(SchemaId.existing(data.organizationId, data.unitId, data.contextId, data.schemaId));
+      indexes.put(schemaVersionId.value, imported.size());
+      journal.appendAll(schemaVersionId.value, 1, eventsOf(schemaVersionId, data), interest, schemaVersionId.value);
+      imported.add(SchemaVersionData.from(data.organizationId, data.unitId, data.contextId, data.schemaId, schemaVersionId.value,
+              data.specification, data.description, statusOf(data).value, data.previousVersion, data.currentVersion));
+    }
+
+    return completes();
+  }
+
+  @Override
+  public <S, ST> void appendResultedIn(final Outcome<StorageException, Result> outcome, final String streamName, final int streamVersion,
+                                       final Source<S> source, final Optional<ST> snapshot, final Object object) {
+    appended(outcome, streamName);
+  }
+
+  @Override
+  public <S, ST> void appendResultedIn(final Outcome<StorageException, Result> outcome, final String streamName, final int streamVersion,
+                                       final Source<S> source, final Metadata metadata, final Optional<ST> snapshot, final Object object) {
+    appended(outcome, streamName);
+  }
+
+  @Override
+  public <S, ST> void appendAllResultedIn(final Outcome<StorageException, Result> outcome, final String streamName, final int streamVersion,
+                                          final List<Source<S>> sources, final Optional<ST> snapshot, final Object object) {
+    appended(outcome, streamName);
+  }
+
+  @Override
+  public <S, ST> void appendAllResultedIn(final Outcome<StorageException, Result> outcome, final String streamName, final int streamVersion,
+                                          final List<Source<S>> sources, final Metadata metadata, final Optional<ST> snapshot, final Object object) {
+    appended(outcome, streamName);
+  }
+
+  private void appended(final Outcome<StorageException, Result> outcome, final String streamName) {
+    outcome.resolve(cause -> failures.put(indexes.get(streamName), cause.getMessage()), result -> null);
+
+    if (--pending == 0) {
+      answer();
+    }
+  }
+
+  private void answer() {
+    if (failures.isEmpty()) {
+      eventually.with(Success.of(imported));
+    } else {
+      final List<SchemaVersionData> appended = new ArrayList<>(imported.size() - failures.size());
+      for (int index = 0; index < imported.size(); ++index) {
+        if (!failures.containsKey(index)) {
+          appended.add(imported.get(index));
+        }
+      }
+      final List<String> failed = new ArrayList<>(failures.size());
+      failures.forEach((index, message) -> failed.add(index + ": " + message));
+      eventually.with(Failure.of(SchemataBusinessException.importFailed(failed, appended)));
+    }
+    stop();
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private List<Source<String>> eventsOf(final SchemaVersionId schemaVersionId, final SchemaVersionData data) {
+    final List sources = new ArrayList<>(4);
+    sources.add(SchemaVersionDefined.with(schemaVersionId, Specification.of(data.specification), data.description,
+            Status.Draft, Version.of(data.previousVersion), Version.of(data.currentVersion)));
+
+    final Status status = statusOf(data);
+    if (status.isPublished() || status.isDeprecated()) {
+      sources.add(SchemaVersionPublished.with(schemaVersionId));
+    }
+    if (status.isDeprecated()) {
+      sources.add(SchemaVersionDeprecated.with(schemaVersionId));
+    }
+    if (status.isRemoved()) {
+      sources.add(SchemaVersionRemoved.with(schemaVersionId));
+    }
+    return sources;
+  }
+
+  /**
+   * Answer the status of {@code data}, which defaults to {@code Draft}.
+   * @param data the SchemaVersionData
+   * @return Status
+   */
+  static Status statusOf(final SchemaVersionData data) {
+    return data.status == null || data.status.isEmpty() ? Status.Draft : Status.valueOf(data.status);
+  }
+}
@@ -15,6 +15,10 @@ import io.vlingo.actors.Definition;
 import io.vlingo.actors.World;
 import io.vlingo.lattice.model.sourcing.SourcedTypeRegistry;
 import io.vlingo.schemata.SchemataConfig;
+import io.vlingo.schemata.codegen.cache.ClassFileCache;
+import io.vlingo.schemata.codegen.cache.CodeCache;
+import io.vlingo.schemata.codegen.cache.TypeDefinitionCache;
+import io.vlingo.schemata.codegen.parser.TypeParser;
 import io.vlingo.schemata.model.ContextEntity;
 import io.vlingo.schemata.model.Events.ContextDefined;
 import io.vlingo.schemata.model.Events.ContextDescribed;
@@ -47,12 +51,15 @@ import io.vlingo.schemata.model.SchemaVersionEntity;
 import io.vlingo.schemata.model.UnitEntity;
 import io.vlingo.schemata.query.CodeQueries;
 import io.vlingo.schemata.query.CodeQueriesActor;
+import io.vlingo.schemata.query.JournalQueries;
+import io.vlingo.schemata.query.JournalQueriesActor;
 import io.vlingo.schemata.query.ContextQueries;
 import io.vlingo.schemata.query.ContextQueriesActor;
 import io.vlingo.schemata.query.OrganizationQueries;
 import io.vlingo.schemata.query.OrganizationQueriesActor;
 import io.vlingo.schemata.query.SchemaQueries;
 import io.vlingo.schemata.query.SchemaQueriesActor;
+import io.vlingo.schemata.query.SchemaVersionChangeFeed;
 import io.vlingo.schemata.query.SchemaVersionQueries;
 import io.vlingo.schemata.query.SchemaVersionQueriesActor;
 import io.vlingo.schemata.query.TypeResolverQueries;
@@ -69,6 +76,7 @@ import io.vlingo.symbio.store.dispatch.Dispatcher;
 import io.vlingo.symbio.store.dispatch.DispatcherControl;
 import io.vlingo.symbio.store.dispatch.control.DispatcherControlActor;
 import io.vlingo.symbio.store.journal.Journal;
+import io.vlingo.symbio.store.journal.JournalReader;
 import io.vlingo.symbio.store.journal.inmemory.InMemoryJournalActor;
 import io.vlingo.symbio.store.journal.jdbc.JDBCDispatcherControlDelegate;
 import io.vlingo.symbio.store.journal.jdbc.JDBCJournalActor;
@@ -77,6 +85,8 @@ import io.vlingo.symbio.store.journal.jdbc.JDBCJournalWriter;
 import io.vlingo.symbio.store.state.StateStore;
 
 public class StorageProvider {
+    private static final int LatestEntryIdPageSize = 1000;
+
     private static StorageProvider instance;
 
     public final Journal<String> journal;
@@ -86,7 +96,16 @@ public class StorageProvider {
     public final SchemaQueries schemaQueries;
     public final SchemaVersionQueries schemaVersionQueries;
     public final CodeQueries codeQueries;
+    public final JournalQueries journalQueries;
+    public final SchemaVersionChangeFeed schemaVersionChanges;
     public final TypeResolverQueries typeResolverQueries;
+    public final CodeCache codeCache;
+    public final ClassFileCache classFileCache;
+    public final TypeDefinitionCache typeDefinitionCache;
+    public final TypeParser typeParser;
+    public final int compilerWorkers;
+    public final int compilerQueueCapacity;
+    public final int compilerResolutionMaximumDepth;
 
     @SuppressWarnings({"rawtypes"})
     public static StorageProvider with(final World world, StateStore stateStore, final Dispatcher dispatcher, final SchemataConfig config) throws Exception {
@@ -148,9 +167,20 @@ public class StorageProvider {
         SchemaQueries schemaQueries = world.stage().actorFor(SchemaQueries.class, SchemaQueriesActor.class, stateStore);
         SchemaVersionQueries schemaVersionQueries = world.stage().actorFor(SchemaVersionQueries.class, SchemaVersionQueriesActor.class, stateStore);
         CodeQueries codeQueries = world.stage().actorFor(CodeQueries.class, CodeQueriesActor.class, stateStore);
-        TypeResolverQueries typeResolverQueries = world.stage().actorFor(TypeResolverQueries.class, TypeResolverQueriesActor.class, codeQueries);
+        JournalReader<Entry<String>> exportReader = journal.<Entry<String>>journalReader(JournalQueriesActor.ReaderName).await();
+        JournalQueries journalQueries = world.stage().actorFor(JournalQueries.class, JournalQueriesActor.class, exportReader);
+        TypeDefinitionCache typeDefinitionCache = TypeDefinitionCache.with(config.typeDefinitionCacheMaximumEntries, config.typeDefinitionCacheLatestMaximumEntries);
+        TypeResolverQueries typeResolverQueries = world.stage().actorFor(TypeResolverQueries.class, TypeResolverQueriesActor.class, codeQueries, typeDefinitionCache);
+
+        CodeCache codeCache = CodeCache.with(config.codeCacheMaximumEntries, config.codeCacheMaximumWeight);
+        ClassFileCache classFileCache = ClassFileCache.with(config.classFileCacheMaximumEntries, config.classFileCacheMaximumWeight);
+
+        TypeParser typeParser = TypeParser.parserFor(config.codegenParser);
 
-        instance = new StorageProvider(journal, organizationQueries, unitQueries, contextQueries, schemaQueries, schemaVersionQueries, codeQueries, typeResolverQueries);
+        SchemaVersionChangeFeed schemaVersionChanges = SchemaVersionChangeFeed.retaining(config.changeFeedRetainedChanges, latestEntryIdOf(journalQueries));
+
+        instance = new StorageProvider(journal, organizationQueries, unitQueries, contextQueries, schemaQueries, schemaVersionQueries, codeQueries, journalQueries, schemaVersionChanges, typeResolverQueries, codeCache, classFileCache, typeDefinitionCache, typeParser,
+                config.codegenWorkers, config.codegenWorkerQueueCapacity, config.codegenResolutionMaximumDepth);
 
         return instance;
     }
@@ -161,7 +191,8 @@ public class StorageProvider {
 
     private StorageProvider(final Journal<String> journal, OrganizationQueries organizationQueries, UnitQueries unitQueries,
                             ContextQueries contextQueries, SchemaQueries schemaQueries, SchemaVersionQueries schemaVersionQueries, CodeQueries codeQueries,
-                            TypeResolverQueries typeResolverQueries) {
+                            JournalQueries journalQueries, SchemaVersionChangeFeed schemaVersionChanges, TypeResolverQueries typeResolverQueries, CodeCache codeCache, ClassFileCache classFileCache, TypeDefinitionCache typeDefinitionCache,
+                            TypeParser typeParser, int compilerWorkers, int compilerQueueCapacity, int compilerResolutionMaximumDepth) {
         this.journal = journal;
         this.organizationQueries = organizationQueries;
         this.unitQueries = unitQueries;
@@ -169,10 +200,33 @@ public class StorageProvider {
         this.schemaQueries = schemaQueries;
         this.schemaVersionQueries = schemaVersionQueries;
         this.codeQueries = codeQueries;
+        this.journalQueries = journalQueries;
+        this.schemaVersionChanges = schemaVersionChanges;
         this.typeResolverQueries = typeResolverQueries;
+        this.codeCache = codeCache;
+        this.classFileCache = classFileCache;
+        this.typeDefinitionCache = typeDefinitionCache;
+        this.typeParser = typeParser;
+        this.compilerWorkers = compilerWorkers;
+        this.compilerQueueCapacity = compilerQueueCapacity;
+        this.compilerResolutionMaximumDepth = compilerResolutionMaximumDepth;
     }
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
+    /**
+     * Answer the id of the latest entry of the journal, or zero if it is empty; the
+     * journal is read through once, which is done before the changes are followed.
+     */
+    private static long latestEntryIdOf(final JournalQueries journalQueries) {
+        String latest = "";
+        List<Entry<String>> entries = journalQueries.entriesAfter(latest, LatestEntryIdPageSize).await();
+        while (entries != null && !entries.isEmpty()) {
+            latest = entries.get(entries.size() - 1).id();
+            entries = journalQueries.entriesAfter(latest, LatestEntryIdPageSize).await();
+        }
+        return latest.isEmpty() ? 0 : Long.parseLong(latest);
+    }
+
     private static Journal<String> startJounral(final World world, final Dispatcher dispatcher, final SchemataConfig config) throws Exception {
       final Journal<String> journal;
 
@@ -9,8 +9,6 @@ package io.vlingo.schemata.model;
 
 import static java.util.stream.Collectors.toList;
 
-import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -96,31 +94,26 @@ public final class SchemaVersionEntity extends EventSourced implements SchemaVer
       return completes();
     }
 
-    SpecificationDiff diff = SpecificationDiff.between(state.specification.value, other.specification);
+    final String specification = state.specification.value;
+    final SpecificationDiff textualDiff = SpecificationDiff.between(specification, other.specification);
 
-    // FIXME: Make reactive, don't await() the node
-    Outcome<SchemataBusinessException,Node> leftAst = typeDefinitionMiddleware.compileToAST(
-            new ByteArrayInputStream(state.specification.value.getBytes(StandardCharsets.UTF_8)),
-            null).await();
+    typeDefinitionMiddleware
+      .compileToAST(specification, null)
+      .andThenTo(leftAst -> typeDefinitionMiddleware
+        .compileToAST(other.specification, null)
+        .andThen(rightAst -> leftAst.andThenTo(left -> rightAst.andThen(right ->
+          diffOf(textualDiff, asTypeDefinition(left), asTypeDefinition(right))))))
+      .andThenConsume(outcome -> completesEventually.with(outcome));
 
-    if(leftAst instanceof Failure) {
-      completesEventually.with(((Failure<SchemataBusinessException, Node>) leftAst).cause());
-      return completes();
-    }
-
-    TypeDefinition leftType = asTypeDefinition(leftAst.get());
-
-    Outcome<SchemataBusinessException,Node> rightAst = typeDefinitionMiddleware.compileToAST(
-            new ByteArrayInputStream(other.specification.getBytes(StandardCharsets.UTF_8)),
-            null).await();
-
-    if(rightAst instanceof Failure) {
-      completesEventually.with(((Failure<SchemataBusinessException, Node>) rightAst).cause());
-      return completes();
-    }
+    return completes();
+  }
 
-    TypeDefinition rightType = asTypeDefinition(rightAst.get());
+  //==============================
+  // Internal implementation
+  //==============================
 
+  private static SpecificationDiff diffOf(final SpecificationDiff textualDiff, final TypeDefinition leftType, final TypeDefinition rightType) {
+    SpecificationDiff diff = textualDiff;
 
     // Has the type name changed?
     if (!leftType.typeName.equals(rightType.typeName))
@@ -193,14 +186,9 @@ public final class SchemaVersionEntity extends EventSourced implements SchemaVer
       }
     }
 
-    completesEventually.with(Success.of(diff));
-    return completes();
+    return diff;
   }
 
-  //==============================
-  // Internal implementation
-  //==============================
-
   private static TypeDefinition asTypeDefinition(Node n) {
     return Processor.requireBeing(n, TypeDefinition.class);
   }
@@ -9,10 +9,12 @@ package io.vlingo.schemata.query;
 
 import io.vlingo.common.Completes;
 import io.vlingo.schemata.model.Path;
+import io.vlingo.schemata.query.view.CodeArtifactView;
 import io.vlingo.schemata.query.view.CodeView;
 
 public interface CodeQueries {
   Completes<CodeView> codeFor(final Path path);
+  Completes<CodeArtifactView> codeArtifactsFor(final String schemaVersionId);
 //  Completes<Outcome<SchemataBusinessException, SchemaVersionData>> schemaVersionFor(final AuthorizationData authorization, final PathData path);
 //  Completes<Outcome<SchemataBusinessException, SchemaVersionData>> schemaVersionFor(final AuthorizationData authorization, final PathData path, final QueryResultsCollector collector);
 //  Completes<Outcome<SchemataBusinessException, SchemaVersionData>> schemaVersionFor(final String fullQualifiedTypeName);
@@ -10,6 +10,7 @@ package io.vlingo.schemata.query;
 import io.vlingo.common.Completes;
 import io.vlingo.lattice.query.StateStoreQueryActor;
 import io.vlingo.schemata.model.Path;
+import io.vlingo.schemata.query.view.CodeArtifactView;
 import io.vlingo.schemata.query.view.CodeView;
 import io.vlingo.symbio.store.state.StateStore;
 
@@ -23,4 +24,9 @@ public class CodeQueriesActor extends StateStoreQueryActor implements CodeQuerie
     String reference = path.toReference();
     return queryStateFor(reference, CodeView.class);
   }
+
+  @Override
+  public Completes<CodeArtifactView> codeArtifactsFor(final String schemaVersionId) {
+    return queryStateFor(schemaVersionId, CodeArtifactView.class);
+  }
 }
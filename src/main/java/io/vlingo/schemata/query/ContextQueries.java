@@ -10,8 +10,16 @@ package io.vlingo.schemata.query;
 import io.vlingo.common.Completes;
 import io.vlingo.schemata.query.view.ContextView;
 import io.vlingo.schemata.query.view.ContextsView;
+import io.vlingo.schemata.query.view.Page;
 
 public interface ContextQueries {
   Completes<ContextsView> contexts(final String organizationId, final String unitId);
+
+  /**
+   * Answer the page of at most {@code limit} items of the contexts view following the cursor {@code after},
+   * or {@code null} if there is no such view; only the page is answered, never the whole view.
+   */
+  Completes<Page<ContextsView.ContextItem>> contextsPage(final String organizationId, final String unitId, final int limit, final String after);
+
   Completes<ContextView> context(final String organizationId, final String unitId, final String contextId);
 }
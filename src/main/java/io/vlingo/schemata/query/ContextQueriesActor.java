@@ -7,13 +7,17 @@
 
 package io.vlingo.schemata.query;
 
+import io.vlingo.actors.CompletesEventually;
 import io.vlingo.common.Completes;
 import io.vlingo.lattice.query.StateStoreQueryActor;
 import io.vlingo.schemata.query.view.ContextView;
 import io.vlingo.schemata.query.view.ContextsView;
+import io.vlingo.schemata.query.view.Page;
 import io.vlingo.symbio.store.state.StateStore;
 
 public class ContextQueriesActor extends StateStoreQueryActor implements ContextQueries {
+    private final ContextQueries self = selfAs(ContextQueries.class);
+
     public ContextQueriesActor(StateStore stateStore) {
         super(stateStore);
     }
@@ -28,4 +32,21 @@ public class ContextQueriesActor extends StateStoreQueryActor implements Context
         final String id = dataIdFrom(":", unitId, contextId);
         return queryStateFor(id, ContextView.class);
     }
+
+    @Override
+    public Completes<Page<ContextsView.ContextItem>> contextsPage(final String organizationId, final String unitId, final int limit, final String after) {
+        final CompletesEventually eventually = completesEventually();
+        self.contexts(organizationId, unitId)
+                .andThenConsume(view -> eventually.with(view == null ? null : view.page(limit, after)))
+                .otherwise(view -> {
+                    eventually.with(null);
+                    return view;
+                }) // no view state found in stateStore
+                .recoverFrom(e -> {
+                    logger().error("Paging contexts failed", e);
+                    eventually.with(null);
+                    return null;
+                });
+        return completes();
+    }
 }
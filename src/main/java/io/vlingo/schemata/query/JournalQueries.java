@@ -0,0 +1,24 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.query;
+
+import java.util.List;
+
+import io.vlingo.common.Completes;
+import io.vlingo.symbio.Entry;
+
+public interface JournalQueries {
+  /**
+   * Answer at most {@code limit} journal entries, in journal order, following the entry
+   * identified by {@code after}, or from the beginning of the journal if it is empty.
+   * @param after the String id of the last entry already read, or empty
+   * @param limit the int maximum number of entries
+   * @return {@code Completes<List<Entry<String>>>}
+   */
+  Completes<List<Entry<String>>> entriesAfter(final String after, final int limit);
+}
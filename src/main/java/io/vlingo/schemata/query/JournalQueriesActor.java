@@ -0,0 +1,46 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.query;
+
+import java.util.List;
+
+import io.vlingo.actors.Actor;
+import io.vlingo.common.Completes;
+import io.vlingo.symbio.Entry;
+import io.vlingo.symbio.store.EntryReader;
+import io.vlingo.symbio.store.journal.JournalReader;
+
+/**
+ * Reads the journal for exports, without involving any query model. The actor owns
+ * the only use of its reader: a seek and the read following it are sent in the same
+ * message, so the reads of concurrent exports can never interleave.
+ */
+public class JournalQueriesActor extends Actor implements JournalQueries {
+  public static final String ReaderName = "schemata-export";
+
+  private final JournalReader<Entry<String>> reader;
+
+  public JournalQueriesActor(final JournalReader<Entry<String>> reader) {
+    this.reader = reader;
+  }
+
+  @Override
+  public Completes<List<Entry<String>>> entriesAfter(final String after, final int limit) {
+    if (after.isEmpty()) {
+      reader.seekTo(EntryReader.Beginning);
+      return reader.readNext(limit);
+    }
+
+    // the reader answers from the entry sought to, inclusive
+    reader.seekTo(after);
+    return reader.readNext(limit + 1)
+            .andThen(entries -> !entries.isEmpty() && entries.get(0).id().equals(after)
+                    ? entries.subList(1, entries.size())
+                    : entries.subList(0, Math.min(limit, entries.size())));
+  }
+}
@@ -10,8 +10,16 @@ package io.vlingo.schemata.query;
 import io.vlingo.common.Completes;
 import io.vlingo.schemata.query.view.OrganizationView;
 import io.vlingo.schemata.query.view.OrganizationsView;
+import io.vlingo.schemata.query.view.Page;
 
 public interface OrganizationQueries {
   Completes<OrganizationsView> organizations();
+
+  /**
+   * Answer the page of at most {@code limit} items of the organizations view following the cursor {@code after},
+   * or {@code null} if there is no such view; only the page is answered, never the whole view.
+   */
+  Completes<Page<OrganizationsView.OrganizationItem>> organizationsPage(final int limit, final String after);
+
   Completes<OrganizationView> organization(final String organizationId);
 }
@@ -7,13 +7,17 @@
 
 package io.vlingo.schemata.query;
 
+import io.vlingo.actors.CompletesEventually;
 import io.vlingo.common.Completes;
 import io.vlingo.lattice.query.StateStoreQueryActor;
 import io.vlingo.schemata.query.view.OrganizationView;
 import io.vlingo.schemata.query.view.OrganizationsView;
+import io.vlingo.schemata.query.view.Page;
 import io.vlingo.symbio.store.state.StateStore;
 
 public class OrganizationQueriesActor extends StateStoreQueryActor implements OrganizationQueries {
+  private final OrganizationQueries self = selfAs(OrganizationQueries.class);
+
   public OrganizationQueriesActor(final StateStore stateStore) {
     super(stateStore);
   }
@@ -27,4 +31,21 @@ public class OrganizationQueriesActor extends StateStoreQueryActor implements Or
   public Completes<OrganizationView> organization(final String organizationId) {
     return queryStateFor(organizationId, OrganizationView.class);
   }
+
+  @Override
+  public Completes<Page<OrganizationsView.OrganizationItem>> organizationsPage(final int limit, final String after) {
+    final CompletesEventually eventually = completesEventually();
+    self.organizations()
+        .andThenConsume(view -> eventually.with(view == null ? null : view.page(limit, after)))
+        .otherwise(view -> {
+          eventually.with(null);
+          return view;
+        }) // no view state found in stateStore
+        .recoverFrom(e -> {
+          logger().error("Paging organizations failed", e);
+          eventually.with(null);
+          return null;
+        });
+    return completes();
+  }
 }
@@ -9,11 +9,19 @@ package io.vlingo.schemata.query;
 
 import io.vlingo.common.Completes;
 import io.vlingo.schemata.query.view.NamedSchemaView;
+import io.vlingo.schemata.query.view.Page;
 import io.vlingo.schemata.query.view.SchemaView;
 import io.vlingo.schemata.query.view.SchemasView;
 
 public interface SchemaQueries {
   Completes<SchemasView> schemas(final String organizationId, final String unitId, final String contextId);
+
+  /**
+   * Answer the page of at most {@code limit} items of the schemas view following the cursor {@code after},
+   * or {@code null} if there is no such view; only the page is answered, never the whole view.
+   */
+  Completes<Page<SchemasView.SchemaItem>> schemasPage(final String organizationId, final String unitId, final String contextId, final int limit, final String after);
+
   Completes<SchemaView> schema(final String organizationId, final String unitId, final String contextId, final String schemaId);
   Completes<NamedSchemaView> schemaByNames(final String organization, final String unit, final String context, final String schema);
 }
@@ -7,15 +7,19 @@
 
 package io.vlingo.schemata.query;
 
+import io.vlingo.actors.CompletesEventually;
 import io.vlingo.common.Completes;
 import io.vlingo.lattice.query.StateStoreQueryActor;
 import io.vlingo.schemata.model.Path;
 import io.vlingo.schemata.query.view.NamedSchemaView;
+import io.vlingo.schemata.query.view.Page;
 import io.vlingo.schemata.query.view.SchemaView;
 import io.vlingo.schemata.query.view.SchemasView;
 import io.vlingo.symbio.store.state.StateStore;
 
 public class SchemaQueriesActor extends StateStoreQueryActor implements SchemaQueries {
+    private final SchemaQueries self = selfAs(SchemaQueries.class);
+
     public SchemaQueriesActor(StateStore stateStore) {
         super(stateStore);
     }
@@ -38,4 +42,21 @@ public class SchemaQueriesActor extends StateStoreQueryActor implements SchemaQu
         String reference = path.toReference();
         return queryStateFor(reference, NamedSchemaView.class);
     }
+
+    @Override
+    public Completes<Page<SchemasView.SchemaItem>> schemasPage(final String organizationId, final String unitId, final String contextId, final int limit, final String after) {
+        final CompletesEventually eventually = completesEventually();
+        self.schemas(organizationId, unitId, contextId)
+                .andThenConsume(view -> eventually.with(view == null ? null : view.page(limit, after)))
+                .otherwise(view -> {
+                    eventually.with(null);
+                    return view;
+                }) // no view state found in stateStore
+                .recoverFrom(e -> {
+                    logger().error("Paging schemas failed", e);
+                    eventually.with(null);
+                    return null;
+                });
+        return completes();
+    }
 }
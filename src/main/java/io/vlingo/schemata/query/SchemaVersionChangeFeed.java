@@ -0,0 +1,277 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.query;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import io.vlingo.schemata.infra.cache.BoundedCache;
+import io.vlingo.schemata.query.view.SchemaVersionChangeView;
+
+/**
+ * The most recent changes in the lifecycle of schema versions, in the order they
+ * were projected. The position of each change is the id of its journal entry, so
+ * positions are not dense and keep their meaning across restarts; the feed starts
+ * from the latest entry of the journal, and an entry projected again is appended
+ * only once. At most {@code retained} changes are held, the oldest being overwritten
+ * first; the feed answers the changes following any position from its {@code floor()}
+ * on, and those following an older position must be replayed from the journal.
+ * An entry projected after one that follows it in the journal is answered only to
+ * the readers positioned before it.
+ * <p>
+ * The lifecycle events following a definition only carry the schema of a version.
+ * The feed remembers the organization, unit and context of up to {@code retained}
+ * recently changed versions, and those of any other version are looked up through
+ * the {@code SchemaVersionQueries}. A change is not answered before its ancestors
+ * are known, so that a reader filtering by them does not miss it.
+ * Nothing is persisted.
+ */
+public class SchemaVersionChangeFeed {
+    private final SchemaVersionChangeView[] changes;
+    private final BoundedCache<String, String[]> ancestors;
+    private final Set<String> unresolved;
+    private final Set<Long> positions;
+    private final Set<Runnable> listeners;
+    private int count;
+    private int next;
+    private long floor;
+    private long position;
+
+    public static SchemaVersionChangeFeed retaining(final int retained) {
+        return new SchemaVersionChangeFeed(retained, 0);
+    }
+
+    /**
+     * Answer a new {@code SchemaVersionChangeFeed} following the changes after {@code latest}.
+     * @param retained the int maximum number of changes held
+     * @param latest the long id of the latest entry of the journal, or zero if it is empty
+     * @return SchemaVersionChangeFeed
+     */
+    public static SchemaVersionChangeFeed retaining(final int retained, final long latest) {
+        return new SchemaVersionChangeFeed(retained, latest);
+    }
+
+    private SchemaVersionChangeFeed(final int retained, final long latest) {
+        this.changes = new SchemaVersionChangeView[Math.max(1, retained)];
+        this.ancestors = BoundedCache.of(changes.length);
+        this.unresolved = new HashSet<>();
+        this.positions = new HashSet<>();
+        this.listeners = new CopyOnWriteArraySet<>();
+        this.count = 0;
+        this.next = 0;
+        this.floor = Math.max(0, latest);
+        this.position = floor;
+    }
+
+    /**
+     * Append {@code change} unless a change of its position is retained already, as it
+     * is when its journal entry is dispatched again. The ancestors of a change that
+     * carries none are taken from those remembered of its version; if there are none,
+     * the change is held back until {@code resolved(...)} and the answer is {@code true},
+     * for the caller to {@code resolve(...)} them.
+     * @param change the SchemaVersionChangeView to append
+     * @param isFinal the boolean indicating whether the version can change no further
+     * @return boolean
+     */
+    public boolean append(final SchemaVersionChangeView change, final boolean isFinal) {
+        final boolean resolving;
+        synchronized (this) {
+            if (positions.contains(change.position)) {
+                return false;
+            }
+
+            SchemaVersionChangeView appended = change;
+            if (change.hasAncestors()) {
+                ancestors.put(change.schemaVersionId, new String[] { change.organizationId, change.unitId, change.contextId });
+            } else {
+                final Optional<String[]> ancestry = ancestors.get(change.schemaVersionId);
+                if (ancestry.isPresent()) {
+                    appended = change.withAncestors(ancestry.get()[0], ancestry.get()[1], ancestry.get()[2]);
+                }
+            }
+            if (isFinal) {
+                ancestors.invalidate(change.schemaVersionId);
+            }
+
+            resolving = !appended.hasAncestors() && unresolved.add(change.schemaVersionId);
+            store(appended);
+        }
+        signal();
+        return resolving;
+    }
+
+    /**
+     * Answer {@code change} to {@code resolved} as of the ancestors of its version, which
+     * are those remembered or else those of its {@code SchemaVersionView}. If the version
+     * has no view, {@code change} is answered as it is.
+     * @param queries the SchemaVersionQueries to look the ancestors up with
+     * @param change the SchemaVersionChangeView to resolve the ancestors of
+     * @param resolved the {@code Consumer<SchemaVersionChangeView>} of the resolved change
+     */
+    public void resolve(final SchemaVersionQueries queries, final SchemaVersionChangeView change, final Consumer<SchemaVersionChangeView> resolved) {
+        if (change.hasAncestors()) {
+            resolved.accept(change);
+            return;
+        }
+        final Optional<String[]> ancestry = ancestors.get(change.schemaVersionId);
+        if (ancestry.isPresent()) {
+            resolved.accept(change.withAncestors(ancestry.get()[0], ancestry.get()[1], ancestry.get()[2]));
+            return;
+        }
+
+        queries.schemaVersion("", "", "", change.schemaId, change.schemaVersionId)
+                .andThenConsume(view -> {
+                    if (view == null || view.organizationId() == null) {
+                        resolved.accept(change);
+                    } else {
+                        ancestors.put(change.schemaVersionId, new String[] { view.organizationId(), view.unitId(), view.contextId() });
+                        resolved.accept(change.withAncestors(view.organizationId(), view.unitId(), view.contextId()));
+                    }
+                })
+                .otherwiseConsume(view -> resolved.accept(change)) // no SchemaVersionView state found in stateStore
+                .recoverFrom(e -> {
+                    resolved.accept(change);
+                    return null;
+                });
+    }
+
+    /**
+     * Give the changes held back for the version of {@code change} its ancestors, which
+     * may be none if they could not be resolved, and let them be answered.
+     * @param change the SchemaVersionChangeView answered by {@code resolve(...)}
+     */
+    public void resolved(final SchemaVersionChangeView change) {
+        synchronized (this) {
+            unresolved.remove(change.schemaVersionId);
+            if (change.hasAncestors()) {
+                for (int index = 0; index < changes.length; ++index) {
+                    final SchemaVersionChangeView held = changes[index];
+                    if (held != null && !held.hasAncestors() && held.schemaVersionId.equals(change.schemaVersionId)) {
+                        changes[index] = held.withAncestors(change.organizationId, change.unitId, change.contextId);
+                    }
+                }
+            }
+        }
+        signal();
+    }
+
+    /**
+     * Answer the position of the latest change, or of the latest entry of the journal
+     * when the feed started if there is none.
+     * @return long
+     */
+    public synchronized long position() {
+        return position;
+    }
+
+    /**
+     * Answer the oldest position the changes following which are all retained.
+     * @return long
+     */
+    public synchronized long floor() {
+        return floor;
+    }
+
+    /**
+     * Answer at most {@code limit} of the changes following {@code after} that satisfy
+     * {@code filter}, up to the first one held back, or empty if {@code after} is older
+     * than the {@code floor()}.
+     * @param after the long position to answer the changes after
+     * @param filter the predicate of the changes to answer
+     * @param limit the int maximum number of changes
+     * @return {@code Optional<Changes>}
+     */
+    public synchronized Optional<Changes> changesAfter(final long after, final Predicate<SchemaVersionChangeView> filter, final int limit) {
+        if (after < floor) {
+            return Optional.empty();
+        }
+
+        final List<SchemaVersionChangeView> answered = new ArrayList<>();
+        long through = after;
+        for (int examined = 0; examined < count && answered.size() < limit; ++examined) {
+            final SchemaVersionChangeView change = changes[(next - count + examined + changes.length) % changes.length];
+            if (change.position <= after) {
+                continue;
+            }
+            if (!change.hasAncestors() && unresolved.contains(change.schemaVersionId)) {
+                break;
+            }
+            through = Math.max(through, change.position);
+            if (filter.test(change)) {
+                answered.add(change);
+            }
+        }
+        return Optional.of(new Changes(answered, through));
+    }
+
+    /**
+     * Register {@code listener} to be run after each change is appended or resolved,
+     * on the thread doing so. Listeners must not block.
+     * @param listener the Runnable to run
+     */
+    public void listen(final Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void unlisten(final Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    public int listenersCount() {
+        return listeners.size();
+    }
+
+    private void store(final SchemaVersionChangeView change) {
+        if (count == changes.length) {
+            floor = Math.max(floor, changes[next].position);
+            positions.remove(changes[next].position);
+        } else {
+            ++count;
+        }
+        changes[next] = change;
+        next = (next + 1) % changes.length;
+        positions.add(change.position);
+        position = Math.max(position, change.position);
+    }
+
+    private void signal() {
+        for (final Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * The changes answered from the feed or replayed from the journal, and the position
+     * of the last change examined for them, which is the position to continue after.
+     */
+    public static final class Changes {
+        public final List<SchemaVersionChangeView> changes;
+        public final long through;
+
+        public static Changes with(final List<SchemaVersionChangeView> changes, final long through) {
+            return new Changes(changes, through);
+        }
+
+        private Changes(final List<SchemaVersionChangeView> changes, final long through) {
+            this.changes = changes;
+            this.through = through;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SchemaVersionChangeFeed [position=" + position + ", floor=" + floor + ", retained=" + count + "/" + changes.length
+                + ", unresolved=" + unresolved.size() + ", listeners=" + listeners.size() + "]";
+    }
+}
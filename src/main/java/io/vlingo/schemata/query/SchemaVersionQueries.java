@@ -8,6 +8,7 @@
 package io.vlingo.schemata.query;
 
 import io.vlingo.common.Completes;
+import io.vlingo.schemata.query.view.Page;
 import io.vlingo.schemata.query.view.SchemaVersionView;
 import io.vlingo.schemata.query.view.SchemaVersionsView;
 
@@ -15,5 +16,12 @@ public interface SchemaVersionQueries {
   String GreatestVersion = "99999.99999.99999";
 
   Completes<SchemaVersionsView> schemaVersionsByIds(final String organizationId, final String unitId, final String contextId, final String schemaId);
+
+  /**
+   * Answer the page of at most {@code limit} items of the schema versions view following the cursor {@code after},
+   * or {@code null} if there is no such view; only the page is answered, never the whole view.
+   */
+  Completes<Page<SchemaVersionView>> schemaVersionsPage(final String organizationId, final String unitId, final String contextId, final String schemaId, final int limit, final String after);
+
   Completes<SchemaVersionView> schemaVersion(final String organizationId, final String unitId, final String contextId, final String schemaId, final String schemaVersionId);
 }
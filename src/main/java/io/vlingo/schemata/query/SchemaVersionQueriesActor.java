@@ -7,13 +7,17 @@
 
 package io.vlingo.schemata.query;
 
+import io.vlingo.actors.CompletesEventually;
 import io.vlingo.common.Completes;
 import io.vlingo.lattice.query.StateStoreQueryActor;
+import io.vlingo.schemata.query.view.Page;
 import io.vlingo.schemata.query.view.SchemaVersionView;
 import io.vlingo.schemata.query.view.SchemaVersionsView;
 import io.vlingo.symbio.store.state.StateStore;
 
 public class SchemaVersionQueriesActor extends StateStoreQueryActor implements SchemaVersionQueries {
+  private final SchemaVersionQueries self = selfAs(SchemaVersionQueries.class);
+
   public SchemaVersionQueriesActor(final StateStore stateStore) {
     super(stateStore);
   }
@@ -28,4 +32,21 @@ public class SchemaVersionQueriesActor extends StateStoreQueryActor implements S
     final String id = dataIdFrom(":", schemaId, schemaVersionId);
     return queryStateFor(id, SchemaVersionView.class);
   }
+
+  @Override
+  public Completes<Page<SchemaVersionView>> schemaVersionsPage(final String organizationId, final String unitId, final String contextId, final String schemaId, final int limit, final String after) {
+    final CompletesEventually eventually = completesEventually();
+    self.schemaVersionsByIds(organizationId, unitId, contextId, schemaId)
+        .andThenConsume(view -> eventually.with(view == null ? null : view.page(limit, after)))
+        .otherwise(view -> {
+          eventually.with(null);
+          return view;
+        }) // no view state found in stateStore
+        .recoverFrom(e -> {
+          logger().error("Paging schemaVersions failed", e);
+          eventually.with(null);
+          return null;
+        });
+    return completes();
+  }
 }
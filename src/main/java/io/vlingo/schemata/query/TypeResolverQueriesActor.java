@@ -7,36 +7,48 @@
 
 package io.vlingo.schemata.query;
 
-import java.io.ByteArrayInputStream;
 import java.util.Optional;
 
 import io.vlingo.actors.Actor;
 import io.vlingo.common.Completes;
-import io.vlingo.common.Outcome;
 import io.vlingo.schemata.codegen.TypeDefinitionMiddleware;
-import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.cache.TypeDefinitionCache;
 import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
-import io.vlingo.schemata.errors.SchemataBusinessException;
 import io.vlingo.schemata.model.Path;
 
 public class TypeResolverQueriesActor extends Actor implements TypeResolverQueries {
     private final CodeQueries codeQueries;
+    private final TypeDefinitionCache typeDefinitionCache;
 
     public TypeResolverQueriesActor(final CodeQueries codeQueries) {
+        this(codeQueries, TypeDefinitionCache.with(1000, 100));
+    }
+
+    public TypeResolverQueriesActor(final CodeQueries codeQueries, final TypeDefinitionCache typeDefinitionCache) {
         this.codeQueries = codeQueries;
+        this.typeDefinitionCache = typeDefinitionCache;
     }
 
     @Override
     public Completes<Optional<TypeDefinition>> resolve(TypeDefinitionMiddleware middleware, String fullyQualifiedTypeName) {
         if (Path.isValidReference(fullyQualifiedTypeName, true)) {
+            final Optional<TypeDefinition> cached = typeDefinitionCache.definitionFor(fullyQualifiedTypeName);
+            if (cached.isPresent()) {
+                return completes().with(cached);
+            }
+
             final Path path = Path.with(fullyQualifiedTypeName, true);
             return codeQueries.codeFor(path)
-                    .andThen(codeView -> {
-                        final ByteArrayInputStream typeDefinition = new ByteArrayInputStream(codeView.specification().getBytes());
-                        return middleware.compileToAST(typeDefinition, fullyQualifiedTypeName).<Outcome<SchemataBusinessException, Node>>await();
-                    })
-                    .andThen(outcome -> outcome.resolve(ex -> null, node -> node))
-                    .andThen(node -> Optional.ofNullable((TypeDefinition) node))
+                    .andThenTo(codeView -> middleware.compileToAST(codeView.specification(), fullyQualifiedTypeName)
+                            .andThen(outcome -> outcome.resolve(ex -> Optional.<TypeDefinition>empty(), node -> {
+                                final TypeDefinition definition = (TypeDefinition) node;
+                                if (!middleware.isComplete(fullyQualifiedTypeName)) {
+                                    // cut short by a cycle or the depth limit; valid for this compilation only
+                                    return Optional.of(definition);
+                                }
+                                typeDefinitionCache.cache(fullyQualifiedTypeName, codeView.schemaVersionView().schemaVersionId(), definition);
+                                return Optional.of(definition);
+                            })))
                     .otherwise(ex -> Optional.empty());
         } else {
             return completes().with(Optional.empty());
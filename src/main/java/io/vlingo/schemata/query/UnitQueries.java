@@ -8,10 +8,18 @@
 package io.vlingo.schemata.query;
 
 import io.vlingo.common.Completes;
+import io.vlingo.schemata.query.view.Page;
 import io.vlingo.schemata.query.view.UnitView;
 import io.vlingo.schemata.query.view.UnitsView;
 
 public interface UnitQueries {
   Completes<UnitsView> units(final String organizationId);
+
+  /**
+   * Answer the page of at most {@code limit} items of the units view following the cursor {@code after},
+   * or {@code null} if there is no such view; only the page is answered, never the whole view.
+   */
+  Completes<Page<UnitsView.UnitItem>> unitsPage(final String organizationId, final int limit, final String after);
+
   Completes<UnitView> unit(final String organizationId, final String unitId);
 }
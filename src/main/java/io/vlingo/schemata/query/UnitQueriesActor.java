@@ -7,13 +7,17 @@
 
 package io.vlingo.schemata.query;
 
+import io.vlingo.actors.CompletesEventually;
 import io.vlingo.common.Completes;
 import io.vlingo.lattice.query.StateStoreQueryActor;
+import io.vlingo.schemata.query.view.Page;
 import io.vlingo.schemata.query.view.UnitView;
 import io.vlingo.schemata.query.view.UnitsView;
 import io.vlingo.symbio.store.state.StateStore;
 
 public class UnitQueriesActor extends StateStoreQueryActor implements UnitQueries {
+  private final UnitQueries self = selfAs(UnitQueries.class);
+
   public UnitQueriesActor(final StateStore stateStore) {
     super(stateStore);
   }
@@ -28,4 +32,21 @@ public class UnitQueriesActor extends StateStoreQueryActor implements UnitQuerie
     final String id = dataIdFrom(":", organizationId, unitId);
     return queryStateFor(id, UnitView.class);
   }
+
+  @Override
+  public Completes<Page<UnitsView.UnitItem>> unitsPage(final String organizationId, final int limit, final String after) {
+    final CompletesEventually eventually = completesEventually();
+    self.units(organizationId)
+        .andThenConsume(view -> eventually.with(view == null ? null : view.page(limit, after)))
+        .otherwise(view -> {
+          eventually.with(null);
+          return view;
+        }) // no view state found in stateStore
+        .recoverFrom(e -> {
+          logger().error("Paging units failed", e);
+          eventually.with(null);
+          return null;
+        });
+    return completes();
+  }
 }
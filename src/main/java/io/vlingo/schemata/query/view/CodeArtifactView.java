@@ -0,0 +1,174 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.query.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The source code generated for one schema version in every supported language,
+ * materialized when the version is defined, specified or published.
+ */
+public class CodeArtifactView {
+	private final String schemaVersionId;
+	// reference in the form of 'org:unit:context:schema:version'
+	private final String reference;
+	private final String currentVersion;
+	private final String specification;
+	private final String status;
+	private final List<CodeArtifact> artifacts;
+
+	public static CodeArtifactView empty() {
+		return new CodeArtifactView();
+	}
+
+	public static CodeArtifactView with(final String schemaVersionId) {
+		return new CodeArtifactView(schemaVersionId, "", "", "", "", new ArrayList<>());
+	}
+
+	public static CodeArtifactView with(final String schemaVersionId, final String reference, final String currentVersion, final String specification, final String status) {
+		return new CodeArtifactView(schemaVersionId, reference, currentVersion, specification, status, new ArrayList<>());
+	}
+
+	private CodeArtifactView() {
+		this("", "", "", "", "", new ArrayList<>());
+	}
+
+	private CodeArtifactView(final String schemaVersionId, final String reference, final String currentVersion, final String specification,
+							 final String status, final List<CodeArtifact> artifacts) {
+		this.schemaVersionId = schemaVersionId;
+		this.reference = reference;
+		this.currentVersion = currentVersion;
+		this.specification = specification;
+		this.status = status;
+		this.artifacts = artifacts;
+	}
+
+	public String schemaVersionId() {
+		return schemaVersionId;
+	}
+
+	public String reference() {
+		return reference;
+	}
+
+	public String currentVersion() {
+		return currentVersion;
+	}
+
+	public String specification() {
+		return specification;
+	}
+
+	public String status() {
+		return status;
+	}
+
+	public boolean isNone() {
+		return reference.isEmpty();
+	}
+
+	public List<CodeArtifact> artifacts() {
+		return Collections.unmodifiableList(artifacts);
+	}
+
+	/**
+	 * Answer the {@code CodeArtifact} for {@code language} that was generated from
+	 * the specification with {@code specificationHash} by the code generators of
+	 * {@code generatorVersion}, or {@code null} if there is none.
+	 * @param language the String language of the artifact
+	 * @param specificationHash the String hash of the specification the artifact must be generated from
+	 * @param generatorVersion the int version of the code generators the artifact must be generated by
+	 * @return CodeArtifact
+	 */
+	public CodeArtifact artifactFor(final String language, final String specificationHash, final int generatorVersion) {
+		for (final CodeArtifact artifact : artifacts) {
+			if (artifact.language.equals(language) && artifact.specificationHash.equals(specificationHash) &&
+					artifact.generatorVersion == generatorVersion) {
+				return artifact;
+			}
+		}
+		return null;
+	}
+
+	public CodeArtifactView mergeSpecificationWith(final String schemaVersionId, final String specification) {
+		if (this.schemaVersionId.equals(schemaVersionId)) {
+			return new CodeArtifactView(this.schemaVersionId, reference, currentVersion, specification, status, artifacts);
+		} else {
+			return this;
+		}
+	}
+
+	public CodeArtifactView mergeStatusWith(final String schemaVersionId, final String status) {
+		if (this.schemaVersionId.equals(schemaVersionId)) {
+			return new CodeArtifactView(this.schemaVersionId, reference, currentVersion, specification, status, artifacts);
+		} else {
+			return this;
+		}
+	}
+
+	public CodeArtifactView withArtifact(final CodeArtifact artifact) {
+		final List<CodeArtifact> merged = new ArrayList<>(artifacts.size() + 1);
+		for (final CodeArtifact existing : artifacts) {
+			if (!existing.language.equals(artifact.language)) {
+				merged.add(existing);
+			}
+		}
+		merged.add(artifact);
+		return new CodeArtifactView(schemaVersionId, reference, currentVersion, specification, status, merged);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 + (schemaVersionId == null ? 0 : schemaVersionId.hashCode());
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (this == other) {
+			return true;
+		}
+
+		if (other == null || getClass() != other.getClass()) {
+			return false;
+		}
+
+		return schemaVersionId.equals(((CodeArtifactView) other).schemaVersionId);
+	}
+
+	@Override
+	public String toString() {
+		return "CodeArtifactView [schemaVersionId=" + schemaVersionId + ", reference=" + reference + ", currentVersion=" + currentVersion
+				+ ", status=" + status + ", artifacts=" + artifacts + "]";
+	}
+
+	public static class CodeArtifact {
+		public final String language;
+		public final String specificationHash;
+		// zero for the artifacts persisted before the version was recorded
+		public final int generatorVersion;
+		public final String code;
+
+		public static CodeArtifact of(final String language, final String specificationHash, final int generatorVersion, final String code) {
+			return new CodeArtifact(language, specificationHash, generatorVersion, code);
+		}
+
+		public CodeArtifact(final String language, final String specificationHash, final int generatorVersion, final String code) {
+			this.language = language;
+			this.specificationHash = specificationHash;
+			this.generatorVersion = generatorVersion;
+			this.code = code;
+		}
+
+		@Override
+		public String toString() {
+			return "CodeArtifact [language=" + language + ", specificationHash=" + specificationHash + ", generatorVersion=" + generatorVersion + "]";
+		}
+	}
+}
@@ -65,6 +65,16 @@ public class ContextsView {
         return Collections.unmodifiableList(contexts);
     }
 
+    /**
+     * Answer the page of at most {@code limit} items following the cursor {@code after}.
+     * @param limit the int maximum number of items, where zero or less means all of them
+     * @param after the String cursor of the previous page, or null or empty for the first page
+     * @return {@code Page<ContextItem>}
+     */
+    public Page<ContextItem> page(final int limit, final String after) {
+        return Page.of(contexts, limit, after, item -> item.contextId);
+    }
+
     @Override
     public String toString() {
         return "ContextsView [contexts=" + contexts + "]";
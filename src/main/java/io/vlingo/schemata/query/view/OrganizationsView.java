@@ -67,6 +67,16 @@ public class OrganizationsView {
         return Collections.unmodifiableList(organizations);
     }
 
+    /**
+     * Answer the page of at most {@code limit} items following the cursor {@code after}.
+     * @param limit the int maximum number of items, where zero or less means all of them
+     * @param after the String cursor of the previous page, or null or empty for the first page
+     * @return {@code Page<OrganizationItem>}
+     */
+    public Page<OrganizationItem> page(final int limit, final String after) {
+        return Page.of(organizations, limit, after, item -> item.organizationId);
+    }
+
     @Override
     public String toString() {
         return "OrganizationsView [organizations=" + organizations + "]";
@@ -0,0 +1,113 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.query.view;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of the items of a list view, and the cursor of the page following it.
+ * <p>
+ * The list views only ever append items or replace them in place, so the position
+ * of an item never changes. A cursor therefore holds the position of the last item
+ * of a page, with its identity to verify it, and the next page is found by indexing
+ * rather than by scanning the view. Should the identity not match, the view is
+ * scanned for it once, so that a cursor never skips or repeats an item.
+ */
+public final class Page<T> {
+    private static final String Separator = ":";
+
+    public final List<T> items;
+    /** The cursor of the next page, or {@code null} if this is the last one. */
+    public final String next;
+
+    /**
+     * Answer the page of at most {@code limit} of {@code all} following the cursor {@code after}.
+     * @param all the items of the view, in order
+     * @param limit the int maximum number of items, where zero or less means all of them
+     * @param after the String cursor of the previous page, or null or empty for the first page
+     * @param idOf the function answering the identity of an item
+     * @param <T> the type of the items
+     * @return {@code Page<T>}
+     * @throws IllegalArgumentException if {@code after} is not a valid cursor
+     */
+    public static <T> Page<T> of(final List<T> all, final int limit, final String after, final Function<T, String> idOf) {
+        final int start = isFirst(after) ? 0 : startAfter(all, after, idOf);
+
+        if (limit <= 0 || start + limit >= all.size()) {
+            return new Page<>(Collections.unmodifiableList(all.subList(Math.min(start, all.size()), all.size())), null);
+        }
+
+        final int end = start + limit;
+        return new Page<>(Collections.unmodifiableList(all.subList(start, end)), cursorOf(end - 1, idOf.apply(all.get(end - 1))));
+    }
+
+    /**
+     * Answer whether {@code cursor} was answered as the {@code next} of a page, or denotes the first page.
+     * @param cursor the String cursor, which may be null
+     * @return boolean
+     */
+    public static boolean isValidCursor(final String cursor) {
+        return isFirst(cursor) || decoded(cursor) != null;
+    }
+
+    private static boolean isFirst(final String cursor) {
+        return cursor == null || cursor.isEmpty();
+    }
+
+    private static <T> int startAfter(final List<T> all, final String after, final Function<T, String> idOf) {
+        final String[] position = decoded(after);
+        if (position == null) {
+            throw new IllegalArgumentException("Invalid cursor: " + after);
+        }
+
+        final int index = Integer.parseInt(position[0]);
+        final String id = position[1];
+        if (index < all.size() && id.equals(idOf.apply(all.get(index)))) {
+            return index + 1;
+        }
+        for (int scan = 0; scan < all.size(); ++scan) {
+            if (id.equals(idOf.apply(all.get(scan)))) {
+                return scan + 1;
+            }
+        }
+        return index + 1;
+    }
+
+    private static String cursorOf(final int index, final String id) {
+        final String position = index + Separator + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decoded(final String cursor) {
+        try {
+            final String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final String[] parts = position.split(Separator, 2);
+            if (parts.length != 2 || parts[1].isEmpty() || Integer.parseInt(parts[0]) < 0) {
+                return null;
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            // also NumberFormatException
+            return null;
+        }
+    }
+
+    private Page(final List<T> items, final String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    @Override
+    public String toString() {
+        return "Page [items=" + items + ", next=" + next + "]";
+    }
+}
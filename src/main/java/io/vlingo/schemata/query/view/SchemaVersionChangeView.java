@@ -0,0 +1,80 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.query.view;
+
+/**
+ * A change in the lifecycle of a schema version, as answered by the change feed.
+ * The {@code position} orders the changes and is the token to resume the feed after.
+ */
+public final class SchemaVersionChangeView {
+    public final long position;
+    /** The simple name of the event, such as {@code SchemaVersionPublished}. */
+    public final String type;
+    public final String organizationId;
+    public final String unitId;
+    public final String contextId;
+    public final String schemaId;
+    public final String schemaVersionId;
+
+    public static SchemaVersionChangeView with(final long position, final String type, final String organizationId,
+                                               final String unitId, final String contextId, final String schemaId, final String schemaVersionId) {
+        return new SchemaVersionChangeView(position, type, organizationId, unitId, contextId, schemaId, schemaVersionId);
+    }
+
+    /**
+     * Answer this change as of the given ancestors.
+     * @param organizationId the String organization id
+     * @param unitId the String unit id
+     * @param contextId the String context id
+     * @return SchemaVersionChangeView
+     */
+    public SchemaVersionChangeView withAncestors(final String organizationId, final String unitId, final String contextId) {
+        return new SchemaVersionChangeView(position, type, organizationId, unitId, contextId, schemaId, schemaVersionId);
+    }
+
+    public boolean hasAncestors() {
+        return organizationId != null;
+    }
+
+    /**
+     * Answer whether this change is of the given ancestors, where a null or empty id matches any.
+     * @param organizationId the String organization id
+     * @param unitId the String unit id
+     * @param contextId the String context id
+     * @param schemaId the String schema id
+     * @return boolean
+     */
+    public boolean isOf(final String organizationId, final String unitId, final String contextId, final String schemaId) {
+        return matches(organizationId, this.organizationId) &&
+                matches(unitId, this.unitId) &&
+                matches(contextId, this.contextId) &&
+                matches(schemaId, this.schemaId);
+    }
+
+    private static boolean matches(final String filter, final String id) {
+        return filter == null || filter.isEmpty() || filter.equals(id);
+    }
+
+    private SchemaVersionChangeView(final long position, final String type, final String organizationId,
+                                    final String unitId, final String contextId, final String schemaId, final String schemaVersionId) {
+        this.position = position;
+        this.type = type;
+        this.organizationId = organizationId;
+        this.unitId = unitId;
+        this.contextId = contextId;
+        this.schemaId = schemaId;
+        this.schemaVersionId = schemaVersionId;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaVersionChangeView [position=" + position + ", type=" + type + ", organizationId=" + organizationId
+                + ", unitId=" + unitId + ", contextId=" + contextId + ", schemaId=" + schemaId
+                + ", schemaVersionId=" + schemaVersionId + "]";
+    }
+}
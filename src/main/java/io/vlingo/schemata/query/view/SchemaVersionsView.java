@@ -123,6 +123,16 @@ public class SchemaVersionsView {
         return Collections.unmodifiableList(schemaVersions);
     }
 
+    /**
+     * Answer the page of at most {@code limit} items following the cursor {@code after}.
+     * @param limit the int maximum number of items, where zero or less means all of them
+     * @param after the String cursor of the previous page, or null or empty for the first page
+     * @return {@code Page<SchemaVersionView>}
+     */
+    public Page<SchemaVersionView> page(final int limit, final String after) {
+        return Page.of(schemaVersions, limit, after, SchemaVersionView::schemaVersionId);
+    }
+
     @Override
     public String toString() {
         return "SchemaVersionsView [views=" + schemaVersions + "]";
@@ -65,6 +65,16 @@ public class SchemasView {
         return Collections.unmodifiableList(schemas);
     }
 
+    /**
+     * Answer the page of at most {@code limit} items following the cursor {@code after}.
+     * @param limit the int maximum number of items, where zero or less means all of them
+     * @param after the String cursor of the previous page, or null or empty for the first page
+     * @return {@code Page<SchemaItem>}
+     */
+    public Page<SchemaItem> page(final int limit, final String after) {
+        return Page.of(schemas, limit, after, item -> item.schemaId);
+    }
+
     @Override
     public String toString() {
         return "SchemasView [schemas=" + schemas + "]";
@@ -65,6 +65,16 @@ public class UnitsView {
         return Collections.unmodifiableList(units);
     }
 
+    /**
+     * Answer the page of at most {@code limit} items following the cursor {@code after}.
+     * @param limit the int maximum number of items, where zero or less means all of them
+     * @param after the String cursor of the previous page, or null or empty for the first page
+     * @return {@code Page<UnitItem>}
+     */
+    public Page<UnitItem> page(final int limit, final String after) {
+        return Page.of(units, limit, after, item -> item.unitId);
+    }
+
     @Override
     public String toString() {
         return "UnitsView [units=" + units + "]";
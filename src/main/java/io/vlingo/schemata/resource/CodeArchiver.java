@@ -0,0 +1,256 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.vlingo.actors.Stage;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.Schemata;
+import io.vlingo.schemata.codegen.archive.SourceArchive;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+import io.vlingo.schemata.infra.persistence.StorageProvider;
+import io.vlingo.schemata.model.SchemaVersion;
+import io.vlingo.schemata.query.view.ContextsView.ContextItem;
+import io.vlingo.schemata.query.view.OrganizationsView.OrganizationItem;
+import io.vlingo.schemata.query.view.SchemaVersionView;
+import io.vlingo.schemata.query.view.SchemaVersionsView;
+import io.vlingo.schemata.query.view.SchemasView.SchemaItem;
+import io.vlingo.schemata.query.view.UnitsView.UnitItem;
+
+/**
+ * Compiles a number of schema versions into a {@code SourceArchive}, such as one version
+ * of every schema in a context. The {@code compiler} answers the archive entries of one
+ * schema version, its source or its class files. At most {@code window} compilations are
+ * in flight at a time, and entries are written into the archive as soon as they are compiled,
+ * unless they are to be compiled {@code together}, such as sources into class files that refer
+ * to each other, in which case all entries are collected first.
+ */
+class CodeArchiver {
+  static final String ErrorsEntry = "COMPILATION-ERRORS.txt";
+
+  private final Stage stage;
+  private final StorageProvider storage;
+  private final Function<String, Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>>> compiler;
+  private final int window;
+
+  CodeArchiver(final Stage stage, final Function<String, Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>>> compiler, final int window) {
+    this.stage = stage;
+    this.storage = StorageProvider.instance();
+    this.compiler = compiler;
+    this.window = Math.max(1, window);
+  }
+
+  /**
+   * Answer the eventual {@code archive} holding the code of the latest version of every schema
+   * in {@code organization:unit:context}, or of the latest version with {@code status} when present.
+   * Fails with a {@code NOT_FOUND} {@code SchemataBusinessException} when the context does not exist.
+   */
+  Completes<SourceArchive> archiveContext(final String organization, final String unit, final String context,
+                                          final Optional<SchemaVersion.Status> status, final SourceArchive archive) {
+    return contextReferences(organization, unit, context, status)
+            .andThenTo(references -> archive(references, Collections.emptyList(), archive));
+  }
+
+  /**
+   * Answer the eventual {@code archive} holding the entries of the latest versions of the schemas
+   * in {@code organization:unit:context}, as by {@code archiveContext()}, where the entries of all
+   * of them are turned into archive entries {@code together}, in one go.
+   */
+  Completes<SourceArchive> archiveContextTogether(final String organization, final String unit, final String context,
+                                                  final Optional<SchemaVersion.Status> status,
+                                                  final Function<Map<String, byte[]>, Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>>> together,
+                                                  final SourceArchive archive) {
+    return contextReferences(organization, unit, context, status)
+            .andThenTo(references -> {
+              final Map<String, byte[]> collected = new ConcurrentHashMap<>();
+              final Completes<Collection<String>> eventualErrors = Completes.using(stage.scheduler());
+              if (references.isEmpty()) {
+                eventualErrors.with(Collections.<String>emptyList());
+              } else {
+                collect(references, Collections.emptyList(), collected::put, eventualErrors::with);
+              }
+              return eventualErrors.andThenTo(errors -> {
+                final Queue<String> allErrors = new ConcurrentLinkedQueue<>(errors);
+                if (collected.isEmpty()) {
+                  return Completes.withSuccess(withErrors(archive, allErrors));
+                }
+                return together.apply(collected)
+                        .andThen(outcome -> {
+                          outcome.resolve(
+                                  ex -> allErrors.add(ex.getMessage()),
+                                  entries -> { entries.forEach(archive::add); return true; });
+                          return withErrors(archive, allErrors);
+                        });
+              });
+            });
+  }
+
+  private Completes<List<String>> contextReferences(final String organization, final String unit, final String context,
+                                                    final Optional<SchemaVersion.Status> status) {
+    return storage.organizationQueries.organizations()
+            .andThenTo(organizations -> {
+              final OrganizationItem org = find(organizations.all(), item -> item.name, organization, "Organization");
+              return storage.unitQueries.units(org.organizationId)
+                      .andThenTo(units -> {
+                        final UnitItem u = find(units.all(), item -> item.name, unit, "Unit");
+                        return storage.contextQueries.contexts(org.organizationId, u.unitId)
+                                .andThenTo(contexts -> {
+                                  final ContextItem c = find(contexts.all(), item -> item.namespace, context, "Context");
+                                  return references(org.organizationId, u.unitId, c.contextId, organization + Schemata.ReferenceSeparator + unit + Schemata.ReferenceSeparator + context, status);
+                                });
+                      });
+            });
+  }
+
+  /**
+   * Answer the eventual {@code archive} holding the code of every schema version of {@code references}.
+   * The {@code errors} known beforehand are listed along with those of the compilations.
+   */
+  Completes<SourceArchive> archive(final List<String> references, final Collection<String> errors, final SourceArchive archive) {
+    final Completes<SourceArchive> eventually = Completes.using(stage.scheduler());
+    if (references.isEmpty()) {
+      return eventually.with(withErrors(archive, errors));
+    }
+
+    collect(references, errors, archive::add, allErrors -> eventually.with(withErrors(archive, allErrors)));
+    return eventually;
+  }
+
+  private void collect(final List<String> references, final Collection<String> errors,
+                       final BiConsumer<String, byte[]> sink, final Consumer<Collection<String>> collected) {
+    final Lanes lanes = new Lanes(references, errors, sink, collected);
+    for (int lane = 0; lane < Math.min(window, references.size()); ++lane) {
+      lanes.next();
+    }
+  }
+
+  private <T> T find(final List<T> items, final Function<T, String> name, final String wanted, final String type) {
+    return items.stream()
+            .filter(item -> wanted.equals(name.apply(item)))
+            .findFirst()
+            .orElseThrow(() -> SchemataBusinessException.notFound(type, Collections.singletonMap("name", wanted)));
+  }
+
+  private Completes<List<String>> references(final String organizationId, final String unitId, final String contextId,
+                                             final String contextReference, final Optional<SchemaVersion.Status> status) {
+    return storage.schemaQueries.schemas(organizationId, unitId, contextId)
+            .andThenTo(schemas -> {
+              final List<SchemaItem> all = schemas.all();
+              final Completes<List<String>> eventually = Completes.using(stage.scheduler());
+              if (all.isEmpty()) {
+                return eventually.with(Collections.<String>emptyList());
+              }
+
+              final Queue<String> references = new ConcurrentLinkedQueue<>();
+              final AtomicInteger remaining = new AtomicInteger(all.size());
+              final Runnable arrived = () -> {
+                if (remaining.decrementAndGet() == 0) {
+                  eventually.with(new ArrayList<>(references));
+                }
+              };
+              for (final SchemaItem schema : all) {
+                storage.schemaVersionQueries.schemaVersionsByIds(organizationId, unitId, contextId, schema.schemaId)
+                        .andThenConsume(versions -> {
+                          selected(versions, status).ifPresent(version ->
+                                  references.add(contextReference + Schemata.ReferenceSeparator + schema.name + Schemata.ReferenceSeparator + version.currentVersion()));
+                          arrived.run();
+                        })
+                        .otherwiseConsume(versions -> arrived.run());
+              }
+              return eventually;
+            });
+  }
+
+  private Optional<SchemaVersionView> selected(final SchemaVersionsView versions, final Optional<SchemaVersion.Status> status) {
+    if (versions == null) {
+      return Optional.empty();
+    }
+    return versions.all().stream()
+            .filter(version -> status.isPresent()
+                    ? status.get().value.equals(version.status())
+                    : !SchemaVersion.Status.Removed.value.equals(version.status()))
+            .max(SchemaVersionView::compareWith);
+  }
+
+  private SourceArchive withErrors(final SourceArchive archive, final Collection<String> errors) {
+    if (!errors.isEmpty()) {
+      archive.add(ErrorsEntry, String.join("\n", errors) + "\n");
+    }
+    return archive;
+  }
+
+  /**
+   * Each lane compiles one reference at a time and takes the next when done,
+   * so the number of lanes bounds the compilations in flight.
+   */
+  private final class Lanes {
+    private final Queue<String> pending;
+    private final AtomicInteger remaining;
+    private final Queue<String> errors;
+    private final BiConsumer<String, byte[]> sink;
+    private final Consumer<Collection<String>> collected;
+
+    Lanes(final List<String> references, final Collection<String> errors, final BiConsumer<String, byte[]> sink, final Consumer<Collection<String>> collected) {
+      this.pending = new ConcurrentLinkedQueue<>(references);
+      this.remaining = new AtomicInteger(references.size());
+      this.errors = new ConcurrentLinkedQueue<>(errors);
+      this.sink = sink;
+      this.collected = collected;
+    }
+
+    void next() {
+      final String reference = pending.poll();
+      if (reference == null) {
+        return;
+      }
+
+      compiler.apply(reference)
+              .andThenConsume(outcome -> outcome.resolve(
+                      ex -> { failed(reference, ex.getMessage()); return null; },
+                      entries -> { compiled(reference, entries); return null; }))
+              .otherwiseConsume(outcome -> failed(reference, "not found"))
+              .recoverFrom(e -> { failed(reference, e.getMessage()); return null; });
+    }
+
+    private void compiled(final String reference, final Map<String, byte[]> entries) {
+      try {
+        entries.forEach(sink);
+      } catch (RuntimeException e) {
+        errors.add(reference + ": " + e.getMessage());
+      }
+      done();
+    }
+
+    private void failed(final String reference, final String reason) {
+      errors.add(reference + ": " + reason);
+      done();
+    }
+
+    private void done() {
+      if (remaining.decrementAndGet() == 0) {
+        collected.accept(errors);
+      } else {
+        next();
+      }
+    }
+  }
+}
@@ -10,19 +10,36 @@ package io.vlingo.schemata.resource;
 import static io.vlingo.http.RequestHeader.Authorization;
 import static io.vlingo.http.Response.Status.BadRequest;
 import static io.vlingo.http.Response.Status.InternalServerError;
+import static io.vlingo.http.Response.Status.NotFound;
+import static io.vlingo.http.Response.Status.NotModified;
 import static io.vlingo.http.Response.Status.Ok;
+import static io.vlingo.http.Response.Status.ServiceUnavailable;
 import static io.vlingo.http.resource.ResourceBuilder.get;
 import static io.vlingo.http.resource.ResourceBuilder.resource;
 import static io.vlingo.schemata.codegen.TypeDefinitionCompiler.compilerFor;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import io.vlingo.actors.Logger;
 import io.vlingo.actors.Stage;
 import io.vlingo.common.Completes;
+import io.vlingo.common.Failure;
 import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
 import io.vlingo.common.Tuple3;
+import io.vlingo.http.Body;
 import io.vlingo.http.Header;
 import io.vlingo.http.Request;
 import io.vlingo.http.Response;
@@ -30,11 +47,24 @@ import io.vlingo.http.ResponseHeader;
 import io.vlingo.http.resource.DynamicResourceHandler;
 import io.vlingo.http.resource.Resource;
 import io.vlingo.schemata.Schemata;
+import io.vlingo.schemata.codegen.PooledTypeDefinitionCompiler;
+import io.vlingo.schemata.codegen.TypeDefinitionCompiler;
+import io.vlingo.schemata.codegen.archive.SourceArchive;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.codegen.backend.java.ClassFileCompiler;
+import io.vlingo.schemata.codegen.backend.java.ClassFileCompilerActor;
+import io.vlingo.schemata.codegen.backend.java.ClassFiles;
+import io.vlingo.schemata.codegen.cache.ClassFileCache;
+import io.vlingo.schemata.codegen.cache.CodeCache;
+import io.vlingo.schemata.codegen.processor.types.TypeDependencyClosure;
 import io.vlingo.schemata.errors.SchemataBusinessException;
 import io.vlingo.schemata.infra.persistence.StorageProvider;
 import io.vlingo.schemata.model.Path;
+import io.vlingo.schemata.model.SchemaVersion;
 import io.vlingo.schemata.query.CodeQueries;
 import io.vlingo.schemata.query.QueryResultsCollector;
+import io.vlingo.schemata.query.view.CodeArtifactView.CodeArtifact;
+import io.vlingo.schemata.query.view.CodeView;
 import io.vlingo.schemata.resource.data.AuthorizationData;
 import io.vlingo.schemata.resource.data.ContextData;
 import io.vlingo.schemata.resource.data.OrganizationData;
@@ -54,15 +84,26 @@ import io.vlingo.schemata.resource.data.UnitData;
 // header: Authorization: VLINGO-SCHEMATA source=<some-hash-value> dependent=<some-hash-value>
 //
 public class CodeResource extends DynamicResourceHandler {
+  private static final String ClassFilesLanguage = "java";
+
   private final Logger logger;
   private final CodeQueries queries;
+  private final CodeCache codeCache;
+  private final ClassFileCache classFileCache;
+  private final ClassFileCompiler classFileCompiler;
   private final Stage stage;
+  private final int archiveWindow;
 
   public CodeResource(final Stage stage) {
     super(stage);
     this.stage = stage;
     this.logger = stage.world().defaultLogger();
     this.queries = StorageProvider.instance().codeQueries;
+    this.codeCache = StorageProvider.instance().codeCache;
+    this.classFileCache = StorageProvider.instance().classFileCache;
+    this.classFileCompiler = stage.actorFor(ClassFileCompiler.class, ClassFileCompilerActor.class);
+    // leave room in the compiler pool for single-schema requests
+    this.archiveWindow = PooledTypeDefinitionCompiler.workersFor(StorageProvider.instance().compilerWorkers) * 2;
   }
 
   private boolean isReferenceValid(final String reference) {
@@ -86,20 +127,30 @@ public class CodeResource extends DynamicResourceHandler {
     logger().debug(context().request.toString());
 
     final Path path = Path.with(reference, true);
+    final String ifNoneMatch = EntityTag.ifNoneMatchOf(context() == null ? null : context().request);
+    final String acceptEncoding = ContentEncoding.acceptEncodingOf(context() == null ? null : context().request);
 
     return queries.codeFor(path)
-            .andThenTo(codeView -> {
-              logger.debug("COMPILING: " + codeView.specification());
-              return compile(codeView.reference(), codeView.specification(), codeView.currentVersion(), language);
-            })
-            .andThenTo(code -> {
-              logger.debug("CODE: \n" + code.get());
-              return recordDependency(code.get(), null); //collector
-            })
-            .andThenTo(code -> {
-              logger.debug("SUCCESS: \n" + code);
-              return Completes.withSuccess(Response.of(Ok, code));
-            })
+            .andThenTo(codeView -> closureOf(codeView, language)
+                    .andThenTo(closure -> {
+                      final String tag = EntityTag.ofCode(codeView, language, closure);
+                      final Header.Headers<ResponseHeader> caching = EntityTag.codeHeaders(tag, codeView.status(), closure.isPinned());
+                      final Optional<String> matched = EntityTag.matchOf(ifNoneMatch, tag);
+                      if (matched.isPresent()) {
+                        logger.debug("NOT MODIFIED: " + reference + " " + language + " " + matched.get());
+                        return Completes.withSuccess(Response.of(NotModified, EntityTag.codeHeaders(matched.get(), codeView.status(), closure.isPinned())));
+                      }
+                      return materializedOrCompiled(codeView, language, closure)
+                              .andThenTo(code -> {
+                                logger.debug("CODE: \n" + code.get());
+                                return recordDependency(code.get(), null); //collector
+                              })
+                              .andThenTo(code -> {
+                                logger.debug("SUCCESS: \n" + code);
+                                return Completes.withSuccess(ContentEncoding.response(Ok, caching, code, acceptEncoding,
+                                        (coding, bytes) -> compressed(keyOf(codeView, language, closure), coding, bytes)));
+                              });
+                    }))
             .otherwise(failure -> {
               logger.error("FAILED: " + failure);
               return Response.of(
@@ -108,6 +159,14 @@ public class CodeResource extends DynamicResourceHandler {
               );
             })
             .recoverFrom(exception -> {
+              if (isCapacityExceeded(exception)) {
+                logger.warn("OVERLOADED: " + reference + " " + language);
+                return Response.of(
+                        ServiceUnavailable,
+                        Header.Headers.of(ResponseHeader.of("Retry-After", "1"), ResponseHeader.contentLength(exception.getMessage().length())),
+                        exception.getMessage()
+                );
+              }
               logger.error("EXCEPTION: " + exception, exception);
               return Response.of(
                       BadRequest,
@@ -117,22 +176,341 @@ public class CodeResource extends DynamicResourceHandler {
             });
   }
 
+  public Completes<Response> queryCodeForContext(final String reference, final String language, final String status, final String format) {
+    return contextArchived(reference, language, status, format, schemaReference -> sourceEntriesFor(schemaReference, language), Optional.empty());
+  }
+
+  public Completes<Response> queryClassesForContext(final String reference, final String language, final String status) {
+    if (!isCompiledToClassFiles(language)) {
+      return Completes.withSuccess(Response.of(BadRequest, "Class files are only compiled for " + ClassFilesLanguage + " and its variants"));
+    }
+    // the schemas of a context may be composed of each other, so all their sources are compiled together
+    return contextArchived(reference, language, status, SourceArchive.Format.jar.name(), schemaReference -> closureSourceEntriesFor(schemaReference, language),
+            Optional.of(sources -> classFileCompiler.compile(textOf(sources)).andThen(outcome -> outcome.andThen(ClassFiles::files))));
+  }
+
+  public Completes<Response> queryClassesForReference(final String reference, final String language) {
+    if (!Path.isValidReference(reference, false)) {
+      return Completes.withSuccess(Response.of(BadRequest, "Invalid reference parameter, expected organization:unit:context:schema:version!"));
+    }
+    if (!isCompiledToClassFiles(language)) {
+      return Completes.withSuccess(Response.of(BadRequest, "Class files are only compiled for " + ClassFilesLanguage + " and its variants"));
+    }
+
+    return archived(reference, classFilesFor(reference, language)
+            .andThen(outcome -> outcome.resolve(
+                    ex -> { throw ex; },
+                    classFiles -> {
+                      final SourceArchive archive = SourceArchive.of(SourceArchive.Format.jar.name());
+                      classFiles.files().forEach(archive::add);
+                      return archive;
+                    })));
+  }
+
+  public Completes<Response> queryCodeWithDependencies(final String reference, final String language, final String format) {
+    if (!Path.isValidReference(reference, false)) {
+      return Completes.withSuccess(Response.of(BadRequest, "Invalid reference parameter, expected organization:unit:context:schema:version!"));
+    }
+    if (!TypeDefinitionCompiler.SupportedLanguages.contains(language)) {
+      return Completes.withSuccess(Response.of(BadRequest, "Unsupported language: " + language));
+    }
+    if (!SourceArchive.isSupported(format)) {
+      return Completes.withSuccess(Response.of(BadRequest, "Unsupported archive format: " + format));
+    }
+
+    final CodeArchiver archiver = new CodeArchiver(stage, schemaReference -> sourceEntriesFor(schemaReference, language), archiveWindow);
+
+    return archived(reference, TypeDependencyClosure.of(StorageProvider.instance().typeResolverQueries, compilerFor(stage, language).middleware(), reference)
+            .andThenTo(closure -> {
+              if (!closure.root.isPresent()) {
+                throw SchemataBusinessException.notFound("Schema version", Collections.singletonMap("reference", reference));
+              }
+              logger.debug("DEPENDENCIES: " + closure);
+              final List<String> unresolved = closure.unresolved.stream()
+                      .map(dependency -> dependency + ": unresolved")
+                      .collect(Collectors.toList());
+              return archiver.archive(closure.references(), unresolved, SourceArchive.of(format));
+            }));
+  }
+
   @Override
   public Resource<?> routes() {
     return resource("Code Resource", this, 1,
             get("/api/code/{reference}/{language}")
                     .param(String.class)
                     .param(String.class)
-                    .handle(this::queryCodeForLanguage));
+                    .handle(this::queryCodeForLanguage),
+            get("/api/code/context/{reference}/{language}")
+                    .param(String.class)
+                    .param(String.class)
+                    .query("status", String.class, "")
+                    .query("format", String.class, "zip")
+                    .handle(this::queryCodeForContext),
+            get("/api/code/context/{reference}/{language}/jar")
+                    .param(String.class)
+                    .param(String.class)
+                    .query("status", String.class, "")
+                    .handle(this::queryClassesForContext),
+            get("/api/code/{reference}/{language}/dependencies")
+                    .param(String.class)
+                    .param(String.class)
+                    .query("format", String.class, "zip")
+                    .handle(this::queryCodeWithDependencies),
+            get("/api/code/{reference}/{language}/jar")
+                    .param(String.class)
+                    .param(String.class)
+                    .handle(this::queryClassesForReference));
   }
 
   //////////////////////////////////
   // Internal implementation
   //////////////////////////////////
 
+  private boolean isCompiledToClassFiles(final String language) {
+    return TypeDefinitionCompiler.SupportedLanguages.contains(language) &&
+            (language.equals(ClassFilesLanguage) || language.startsWith(ClassFilesLanguage + "-"));
+  }
+
+  private Completes<Response> contextArchived(final String reference, final String language, final String status, final String format,
+                                              final Function<String, Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>>> entries,
+                                              final Optional<Function<Map<String, byte[]>, Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>>>> together) {
+    final String[] parts = reference == null ? new String[0] : reference.split(Schemata.ReferenceSeparator);
+    if (parts.length != 3) {
+      return Completes.withSuccess(Response.of(BadRequest, "Invalid reference parameter, expected organization:unit:context!"));
+    }
+    if (!TypeDefinitionCompiler.SupportedLanguages.contains(language)) {
+      return Completes.withSuccess(Response.of(BadRequest, "Unsupported language: " + language));
+    }
+    if (!SourceArchive.isSupported(format)) {
+      return Completes.withSuccess(Response.of(BadRequest, "Unsupported archive format: " + format));
+    }
+    final Optional<SchemaVersion.Status> versionStatus;
+    try {
+      versionStatus = status == null || status.isEmpty() ? Optional.empty() : Optional.of(SchemaVersion.Status.valueOf(status));
+    } catch (IllegalArgumentException e) {
+      return Completes.withSuccess(Response.of(BadRequest, "Invalid status parameter: " + status));
+    }
+
+    final CodeArchiver archiver = new CodeArchiver(stage, entries, archiveWindow);
+
+    return archived(reference, together.isPresent()
+            ? archiver.archiveContextTogether(parts[0], parts[1], parts[2], versionStatus, together.get(), SourceArchive.of(format))
+            : archiver.archiveContext(parts[0], parts[1], parts[2], versionStatus, SourceArchive.of(format)));
+  }
+
+  private Completes<Response> archived(final String reference, final Completes<SourceArchive> eventualArchive) {
+    return eventualArchive
+            .andThen(archive -> {
+              final int entries = archive.entries();
+              final byte[] archived = archive.finish();
+              logger.debug("ARCHIVED: " + reference + " " + entries + " entries, " + archived.length + " bytes");
+              return Response.of(
+                      Ok,
+                      Header.Headers.of(
+                              ResponseHeader.of(ResponseHeader.ContentType, archive.contentType()),
+                              ResponseHeader.of("Content-Disposition", "attachment; filename=\"" + archive.fileName(reference.replace(':', '-')) + "\""),
+                              ResponseHeader.contentLength(archived.length)),
+                      Body.from(archived, Body.Encoding.None));
+            })
+            .otherwise(failure -> {
+              logger.error("FAILED: " + failure);
+              return Response.of(
+                      InternalServerError,
+                      Header.Headers.of(ResponseHeader.contentLength(0))
+              );
+            })
+            .recoverFrom(exception -> {
+              if (exception instanceof SchemataBusinessException &&
+                      ((SchemataBusinessException) exception).errorCode == SchemataBusinessException.Code.NOT_FOUND) {
+                return Response.of(NotFound, exception.getMessage());
+              }
+              logger.error("EXCEPTION: " + exception, exception);
+              return Response.of(
+                      InternalServerError,
+                      Header.Headers.of(ResponseHeader.contentLength(exception.getMessage().length())),
+                      exception.getMessage()
+              );
+            });
+  }
+
+  private Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>> sourceEntriesFor(final String reference, final String language) {
+    return queries.codeFor(Path.with(reference, true))
+            .andThenTo(codeView -> closureOf(codeView, language)
+                    .andThenTo(closure -> materializedOrCompiled(codeView, language, closure)))
+            .andThen(outcome -> outcome.andThen(code -> sourceEntryOf(reference, code)));
+  }
+
+  /**
+   * Answer the eventual source entries of {@code reference} and of every type it is composed of.
+   */
+  private Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>> closureSourceEntriesFor(final String reference, final String language) {
+    return queries.codeFor(Path.with(reference, true))
+            .andThenTo(codeView -> closureOf(codeView, language)
+                    .andThenTo(closure -> closureSourceEntriesOf(codeView, language, closure)));
+  }
+
+  private Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>> closureSourceEntriesOf(final CodeView codeView, final String language,
+                                                                                                   final TypeDependencyClosure closure) {
+    final List<Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>>> parts = new ArrayList<>();
+    parts.add(materializedOrCompiled(codeView, language, closure)
+            .andThen(outcome -> outcome.andThen(code -> sourceEntryOf(codeView.reference(), code))));
+    for (final TypeDefinition dependency : closure.dependencies) {
+      parts.add(sourceEntriesFor(dependency.fullyQualifiedTypeName, language));
+    }
+    return joined(parts);
+  }
+
+  private Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>> joined(final List<Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>>> parts) {
+    final Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>> eventually = Completes.using(stage.scheduler());
+    final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+    final Queue<SchemataBusinessException> failures = new ConcurrentLinkedQueue<>();
+    final AtomicInteger remaining = new AtomicInteger(parts.size());
+    final Runnable arrived = () -> {
+      if (remaining.decrementAndGet() == 0) {
+        eventually.with(failures.isEmpty()
+                ? Success.<SchemataBusinessException, Map<String, byte[]>>of(entries)
+                : Failure.<SchemataBusinessException, Map<String, byte[]>>of(failures.peek()));
+      }
+    };
+    for (final Completes<Outcome<SchemataBusinessException, Map<String, byte[]>>> part : parts) {
+      part.andThenConsume(outcome -> {
+            outcome.resolve(failures::add, compiled -> { entries.putAll(compiled); return true; });
+            arrived.run();
+          })
+          .otherwiseConsume(outcome -> {
+            failures.add(SchemataBusinessException.notFound("Code", Collections.emptyMap()));
+            arrived.run();
+          })
+          .recoverFrom(e -> {
+            failures.add(SchemataBusinessException.codeGenerationError(e));
+            arrived.run();
+            return null;
+          });
+    }
+    return eventually;
+  }
+
+  private Map<String, byte[]> sourceEntryOf(final String reference, final String code) {
+    return Collections.singletonMap(SourceArchive.javaPathOf(Path.with(reference, true).schema, code), code.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private Map<String, String> textOf(final Map<String, byte[]> sources) {
+    final Map<String, String> text = new LinkedHashMap<>();
+    sources.forEach((path, source) -> text.put(path, new String(source, StandardCharsets.UTF_8)));
+    return text;
+  }
+
+  /**
+   * Answer the eventual class files compiled from the Java source of {@code reference} in {@code language}.
+   * The sources are materialized or generated as for any other request; the source of {@code reference}
+   * is compiled together with those of the types it is composed of, whose classes are answered too.
+   * The classes are compiled once per specification and dependencies and then served from the {@code ClassFileCache}.
+   */
+  private Completes<Outcome<SchemataBusinessException, ClassFiles>> classFilesFor(final String reference, final String language) {
+    return queries.codeFor(Path.with(reference, false))
+            .andThenTo(codeView -> closureOf(codeView, language).andThenTo(closure -> {
+              final CodeCache.Key key = keyOf(codeView, language, closure);
+
+              final Optional<ClassFiles> cached = classFileCache.classFilesFor(key);
+              if (cached.isPresent()) {
+                logger.debug("CACHED CLASSES: " + key);
+                return Completes.withSuccess(Success.<SchemataBusinessException, ClassFiles>of(cached.get()));
+              }
+
+              return closureSourceEntriesOf(codeView, language, closure)
+                      .andThenTo(outcome -> outcome.resolve(
+                              ex -> Completes.withSuccess(Failure.<SchemataBusinessException, ClassFiles>of(ex)),
+                              sources -> classFileCompiler.compile(textOf(sources))))
+                      .andThen(outcome -> {
+                        if (outcome instanceof Success) {
+                          logger.debug("COMPILED CLASSES: " + outcome.get());
+                          classFileCache.cache(key, outcome.get());
+                        }
+                        return outcome;
+                      });
+            }));
+  }
+
+  /**
+   * Answer the eventual {@code TypeDependencyClosure} of the schema version of {@code codeView},
+   * whose digest tells code generated from the same specification but other dependencies apart.
+   */
+  private Completes<TypeDependencyClosure> closureOf(final CodeView codeView, final String language) {
+    return TypeDependencyClosure.of(StorageProvider.instance().typeResolverQueries, compilerFor(stage, language).middleware(), codeView.reference());
+  }
+
+  private Completes<Outcome<SchemataBusinessException, String>> materializedOrCompiled(final CodeView codeView, final String language,
+                                                                                       final TypeDependencyClosure closure) {
+    if (!closure.isSelfContained()) {
+      // the artifact was compiled against the dependencies of its time; only the cache knows the current ones
+      return cachedOrCompiled(codeView, language, closure);
+    }
+
+    final String specificationHash = CodeCache.specificationHash(codeView.specification());
+
+    return queries.codeArtifactsFor(codeView.schemaVersionView().schemaVersionId())
+            .andThenTo(artifacts -> {
+              final CodeArtifact artifact = artifacts == null ? null : artifacts.artifactFor(language, specificationHash, TypeDefinitionCompiler.GeneratorVersion);
+              if (artifact != null) {
+                logger.debug("MATERIALIZED: " + codeView.reference() + " " + language);
+                return Completes.withSuccess(Success.<SchemataBusinessException, String>of(artifact.code));
+              }
+              // not yet projected, projection failed to compile, or generated by other generators; never serve nothing
+              return cachedOrCompiled(codeView, language, closure);
+            });
+  }
+
+  private Completes<Outcome<SchemataBusinessException, String>> cachedOrCompiled(final CodeView codeView, final String language,
+                                                                                 final TypeDependencyClosure closure) {
+    if (!closure.root.isPresent()) {
+      // the dependencies are unknown, so the code cannot be keyed by them
+      logger.debug("COMPILING UNCACHED: " + codeView.specification());
+      return compile(codeView.reference(), codeView.specification(), codeView.currentVersion(), language);
+    }
+
+    final CodeCache.Key key = keyOf(codeView, language, closure);
+
+    final Optional<String> cached = codeCache.codeFor(key);
+    if (cached.isPresent()) {
+      logger.debug("CACHED: " + key);
+      return Completes.withSuccess(Success.of(cached.get()));
+    }
+
+    logger.debug("COMPILING: " + codeView.specification());
+    return compile(codeView.reference(), codeView.specification(), codeView.currentVersion(), language)
+            .andThen(outcome -> {
+              if (outcome instanceof Success) {
+                codeCache.cache(key, outcome.get());
+              }
+              return outcome;
+            });
+  }
+
+  private CodeCache.Key keyOf(final CodeView codeView, final String language, final TypeDependencyClosure closure) {
+    return CodeCache.Key.of(codeView.reference(), codeView.currentVersion(), language,
+            codeView.specification(), closure.digest(), codeView.schemaVersionView().schemaVersionId());
+  }
+
+  /**
+   * Answer the code of {@code key} compressed by {@code coding}, compressing {@code bytes}
+   * only the first time; the compressed body is kept next to the code in the {@code CodeCache}
+   * and dropped with it when the specification of the schema version changes.
+   */
+  private byte[] compressed(final CodeCache.Key key, final ContentEncoding.Coding coding, final byte[] bytes) {
+    return codeCache.compressedFor(key, coding.name()).orElseGet(() -> {
+      final byte[] compressed = coding.compress(bytes);
+      codeCache.cacheCompressed(key, coding.name(), compressed);
+      return compressed;
+    });
+  }
+
+  private boolean isCapacityExceeded(final Throwable exception) {
+    return exception instanceof SchemataBusinessException &&
+            ((SchemataBusinessException) exception).errorCode == SchemataBusinessException.Code.CAPACITY_EXCEEDED;
+  }
+
   private Completes<Outcome<SchemataBusinessException, String>> compile(final String reference, final String specification, final String currentVersion, final String language) {
-    final InputStream inputStream = new ByteArrayInputStream(specification.getBytes());
-    return compilerFor(stage, language).compile(inputStream, reference, currentVersion);
+    return compilerFor(stage, language).compile(specification, reference, currentVersion);
   }
 
   @SuppressWarnings("unused")
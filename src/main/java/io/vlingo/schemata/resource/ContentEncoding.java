@@ -0,0 +1,170 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.vlingo.http.Body;
+import io.vlingo.http.Header.Headers;
+import io.vlingo.http.Request;
+import io.vlingo.http.Response;
+import io.vlingo.http.ResponseHeader;
+
+/**
+ * Negotiation of the content coding of large response bodies. Bodies smaller than
+ * {@code MinimumLength} are always sent as they are, because compressing them saves
+ * less than it costs; larger ones are compressed by {@code gzip} or {@code deflate}
+ * when the client accepts either. Every response answered through here carries
+ * {@code Vary: Accept-Encoding}, so that shared caches keep the codings apart, and
+ * a compressed body carries the entity tag of its coding, as a different representation.
+ */
+final class ContentEncoding {
+  static final String AcceptEncoding = "Accept-Encoding";
+  static final String ContentEncodingHeader = "Content-Encoding";
+  static final String Vary = "Vary";
+
+  static final int MinimumLength = 1024;
+
+  enum Coding {
+    gzip, deflate;
+
+    /**
+     * Answer {@code body} compressed by this coding. Note that HTTP {@code deflate}
+     * is the zlib format, not raw deflate.
+     * @param body the bytes to compress
+     * @return byte[]
+     */
+    byte[] compress(final byte[] body) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 64);
+      try (final OutputStream out = this == gzip ? new GZIPOutputStream(bytes) : new DeflaterOutputStream(bytes)) {
+        out.write(body);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return bytes.toByteArray();
+    }
+  }
+
+  /**
+   * Answer the {@code Accept-Encoding} of {@code request}, or {@code null} if there is none.
+   * @param request the Request, which is null when a handler is called directly
+   * @return String
+   */
+  static String acceptEncodingOf(final Request request) {
+    return request == null ? null : request.headerValueOr(AcceptEncoding, null);
+  }
+
+  /**
+   * Answer the coding preferred by {@code acceptEncoding}, if it accepts any supported one.
+   * The coding of the highest quality value wins, and {@code gzip} wins ties; a coding
+   * with a quality of zero is refused, also when it is only matched by {@code *}.
+   * @param acceptEncoding the String value of Accept-Encoding, which may be null
+   * @return {@code Optional<Coding>}
+   */
+  static Optional<Coding> negotiate(final String acceptEncoding) {
+    if (acceptEncoding == null || acceptEncoding.trim().isEmpty()) {
+      return Optional.empty();
+    }
+
+    final float[] qualities = { -1, -1 };
+    float wildcard = -1;
+
+    for (final String element : acceptEncoding.split(",")) {
+      final String[] parts = element.split(";");
+      final String name = parts[0].trim().toLowerCase();
+      final float quality = qualityOf(parts);
+      if (name.equals("*")) {
+        wildcard = quality;
+      } else if (name.equals(Coding.gzip.name()) || name.equals("x-gzip")) {
+        qualities[Coding.gzip.ordinal()] = quality;
+      } else if (name.equals(Coding.deflate.name())) {
+        qualities[Coding.deflate.ordinal()] = quality;
+      }
+    }
+
+    Coding preferred = null;
+    float best = 0;
+    for (final Coding coding : Coding.values()) {
+      final float quality = qualities[coding.ordinal()] < 0 ? wildcard : qualities[coding.ordinal()];
+      if (quality > best) {
+        preferred = coding;
+        best = quality;
+      }
+    }
+    return Optional.ofNullable(preferred);
+  }
+
+  /**
+   * Answer a response of {@code body}, compressed on the fly if it is large enough
+   * and {@code acceptEncoding} accepts a supported coding.
+   * @param status the Response.Status
+   * @param headers the {@code Headers<ResponseHeader>} of the response
+   * @param body the String body
+   * @param acceptEncoding the String value of Accept-Encoding, which may be null
+   * @return Response
+   */
+  static Response response(final Response.Status status, final Headers<ResponseHeader> headers, final String body, final String acceptEncoding) {
+    return response(status, headers, body, acceptEncoding, (coding, bytes) -> coding.compress(bytes));
+  }
+
+  /**
+   * Answer a response of {@code body} as {@code response(status, headers, body, acceptEncoding)}
+   * does, but with the compressed body answered by {@code compressed}, which may have
+   * compressed it before.
+   * @param status the Response.Status
+   * @param headers the {@code Headers<ResponseHeader>} of the response
+   * @param body the String body
+   * @param acceptEncoding the String value of Accept-Encoding, which may be null
+   * @param compressed the function answering the bytes of the body compressed by a Coding
+   * @return Response
+   */
+  static Response response(final Response.Status status, final Headers<ResponseHeader> headers, final String body,
+                           final String acceptEncoding, final BiFunction<Coding, byte[], byte[]> compressed) {
+    final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    final Optional<Coding> coding = bytes.length < MinimumLength ? Optional.empty() : negotiate(acceptEncoding);
+
+    final Headers<ResponseHeader> varied = Headers.empty();
+    headers.forEach(header -> varied.and(coding.isPresent() && EntityTag.ETag.equals(header.name)
+            ? ResponseHeader.of(EntityTag.ETag, EntityTag.ofCoding(header.value, coding.get()))
+            : header));
+    varied.and(ResponseHeader.of(Vary, AcceptEncoding));
+
+    if (!coding.isPresent()) {
+      return Response.of(status, varied, body);
+    }
+
+    final byte[] encoded = compressed.apply(coding.get(), bytes);
+    varied.and(ResponseHeader.of(ContentEncodingHeader, coding.get().name()))
+          .and(ResponseHeader.contentLength(encoded.length));
+    return Response.of(status, varied, Body.from(encoded, Body.Encoding.None));
+  }
+
+  private static float qualityOf(final String[] parts) {
+    for (int index = 1; index < parts.length; ++index) {
+      final String parameter = parts[index].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Float.parseFloat(parameter.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  private ContentEncoding() { }
+}
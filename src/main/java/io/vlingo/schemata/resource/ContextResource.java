@@ -85,12 +85,16 @@ public class ContextResource extends DynamicResourceHandler {
             .andThenTo(state -> Completes.withSuccess(Response.of(Ok, serialized(ContextData.from(state)))));
   }
 
-  public Completes<Response> queryContexts(final String organizationId, final String unitId) {
+  public Completes<Response> queryContexts(final String organizationId, final String unitId, final Integer limit, final String after) {
+    if (!Paging.isValid(limit, after)) {
+      return Completes.withSuccess(Response.of(BadRequest, serialized(Paging.invalidMessage(limit, after))));
+    }
+
     return queries
-            .contexts(organizationId, unitId)
-            .andThenTo(contexts -> contexts == null
+            .contextsPage(organizationId, unitId, Paging.limitOf(limit), after)
+            .andThenTo(page -> page == null
                     ? Completes.withSuccess(Response.of(NotFound, serialized("Contexts not found!")))
-                    : Completes.withSuccess(Response.of(Ok, serialized(contexts.all()))))
+                    : Completes.withSuccess(Paging.response(page, Paging.limitOf(limit))))
             .otherwise(response -> Response.of(NotFound, serialized("Contexts not found!"))) // hit in production
             .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
   }
@@ -134,6 +138,8 @@ public class ContextResource extends DynamicResourceHandler {
       get("/api/organizations/{organizationId}/units/{unitId}/contexts")
         .param(String.class)
         .param(String.class)
+        .query(Paging.Limit, Integer.class, 0)
+        .query(Paging.After, String.class, "")
         .handle(this::queryContexts),
       get("/api/organizations/{organizationId}/units/{unitId}/contexts/{contextId}")
         .param(String.class)
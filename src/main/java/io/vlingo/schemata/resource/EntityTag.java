@@ -0,0 +1,152 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import java.util.Optional;
+
+import io.vlingo.http.Header.Headers;
+import io.vlingo.http.Request;
+import io.vlingo.http.ResponseHeader;
+import io.vlingo.schemata.codegen.TypeDefinitionCompiler;
+import io.vlingo.schemata.codegen.cache.CodeCache;
+import io.vlingo.schemata.codegen.processor.types.TypeDependencyClosure;
+import io.vlingo.schemata.model.SchemaVersion;
+import io.vlingo.schemata.query.view.CodeView;
+import io.vlingo.schemata.query.view.SchemaVersionView;
+
+/**
+ * Strong entity tags and caching headers of the retrieval endpoints. A tag is computed from
+ * what the response is made of, never from the response itself, so that a request carrying
+ * a matching {@code If-None-Match} is answered without compiling or serializing anything.
+ */
+final class EntityTag {
+  static final String IfNoneMatch = "If-None-Match";
+  static final String ETag = "ETag";
+  static final String CacheControl = "Cache-Control";
+
+  /** Code generated for a published specification whose dependencies are all pinned never changes. */
+  static final String Immutable = "public, max-age=31536000, immutable";
+  /** Anything else may be cached but must be revalidated. */
+  static final String Revalidate = "no-cache";
+
+  /**
+   * Answer the tag of the code generated for {@code codeView} in {@code language}. Besides the
+   * specification, generated code depends on the reference and version, which name its package
+   * and class, on the types it is composed of and on the version of the generators.
+   * @param codeView the CodeView of the schema version
+   * @param language the String language of the code
+   * @param closure the TypeDependencyClosure of the schema version
+   * @return String
+   */
+  static String ofCode(final CodeView codeView, final String language, final TypeDependencyClosure closure) {
+    final String hash = CodeCache.specificationHash(codeView.reference() + "\n" + codeView.currentVersion() + "\n" +
+            codeView.specification() + "\n" + closure.digest());
+    return quoted(hash + "-" + language + "-g" + TypeDefinitionCompiler.GeneratorVersion);
+  }
+
+  /**
+   * Answer the tag of {@code view}, from all of its values.
+   * @param view the SchemaVersionView
+   * @return String
+   */
+  static String ofSchemaVersion(final SchemaVersionView view) {
+    return quoted(CodeCache.specificationHash(view.toString()));
+  }
+
+  /**
+   * Answer the tag of the representation of {@code tag} compressed by {@code coding}. A
+   * compressed body differs from the identity body, so it must not share its strong tag.
+   * @param tag the String entity tag of the identity representation
+   * @param coding the ContentEncoding.Coding of the compressed representation
+   * @return String
+   */
+  static String ofCoding(final String tag, final ContentEncoding.Coding coding) {
+    return tag.substring(0, tag.length() - 1) + "-" + coding.name() + "\"";
+  }
+
+  /**
+   * Answer the caching headers of code generated for a schema version of {@code status}. Code is
+   * immutable only when published and {@code pinned}, since code composed of the latest version
+   * of another type changes along with it.
+   * @param tag the String entity tag
+   * @param status the String status of the schema version
+   * @param pinned the boolean whether every type the code is composed of is referenced by its version
+   * @return {@code Headers<ResponseHeader>}
+   */
+  static Headers<ResponseHeader> codeHeaders(final String tag, final String status, final boolean pinned) {
+    final String cacheControl = pinned && SchemaVersion.Status.Published.name().equals(status) ? Immutable : Revalidate;
+    return Headers.of(ResponseHeader.of(ETag, tag), ResponseHeader.of(CacheControl, cacheControl));
+  }
+
+  /**
+   * Answer the caching headers of a schema version, which must always be revalidated
+   * because even a published version may still be deprecated or removed.
+   * @param tag the String entity tag
+   * @return {@code Headers<ResponseHeader>}
+   */
+  static Headers<ResponseHeader> schemaVersionHeaders(final String tag) {
+    return Headers.of(ResponseHeader.of(ETag, tag), ResponseHeader.of(CacheControl, Revalidate));
+  }
+
+  /**
+   * Answer the {@code If-None-Match} of {@code request}, or {@code null} if there is none.
+   * @param request the Request, which is null when a handler is called directly
+   * @return String
+   */
+  static String ifNoneMatchOf(final Request request) {
+    return request == null ? null : request.headerValueOr(IfNoneMatch, null);
+  }
+
+  /**
+   * Answer whether {@code ifNoneMatch} matches {@code tag}, or the tag of any coding of it,
+   * by the weak comparison that RFC 7232 prescribes for {@code If-None-Match}.
+   * @param ifNoneMatch the String value of If-None-Match, which may be null
+   * @param tag the String entity tag of the current representation
+   * @return boolean
+   */
+  static boolean isMatchedBy(final String ifNoneMatch, final String tag) {
+    return matchOf(ifNoneMatch, tag).isPresent();
+  }
+
+  /**
+   * Answer the tag of the representation of {@code tag} that {@code ifNoneMatch} matches, which
+   * is the tag of a coding if that is what the client holds, or empty if there is no match. A
+   * {@code 304 Not Modified} carries this tag, so that the client keeps the tag of its body.
+   * @param ifNoneMatch the String value of If-None-Match, which may be null
+   * @param tag the String entity tag of the current identity representation
+   * @return {@code Optional<String>}
+   */
+  static Optional<String> matchOf(final String ifNoneMatch, final String tag) {
+    if (ifNoneMatch == null) {
+      return Optional.empty();
+    }
+    for (final String candidate : ifNoneMatch.split(",")) {
+      final String trimmed = candidate.trim();
+      if (trimmed.equals("*") || opaque(trimmed).equals(opaque(tag))) {
+        return Optional.of(tag);
+      }
+      for (final ContentEncoding.Coding coding : ContentEncoding.Coding.values()) {
+        final String coded = ofCoding(tag, coding);
+        if (opaque(trimmed).equals(opaque(coded))) {
+          return Optional.of(coded);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static String opaque(final String tag) {
+    return tag.startsWith("W/") ? tag.substring(2) : tag;
+  }
+
+  private static String quoted(final String value) {
+    return "\"" + value + "\"";
+  }
+
+  private EntityTag() { }
+}
@@ -0,0 +1,89 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import java.util.List;
+
+import io.vlingo.actors.Stage;
+import io.vlingo.common.Completes;
+import io.vlingo.http.Header.Headers;
+import io.vlingo.http.Response;
+import io.vlingo.http.ResponseHeader;
+import io.vlingo.http.resource.DynamicResourceHandler;
+import io.vlingo.http.resource.Resource;
+import io.vlingo.schemata.infra.persistence.StorageProvider;
+import io.vlingo.schemata.query.JournalQueries;
+import io.vlingo.symbio.Entry;
+
+import static io.vlingo.common.serialization.JsonSerialization.serialized;
+import static io.vlingo.http.Response.Status.*;
+import static io.vlingo.http.resource.ResourceBuilder.*;
+
+/**
+ * Exports the whole registry as newline-delimited JSON, one journal entry per line:
+ * every organization, unit, context, schema and schema version is the sum of its
+ * events, so replaying the lines in order restores it. The entries are read from
+ * the journal in pages of at most {@code limit}, never through the query models;
+ * as with the list routes, the {@code Link} header of relation {@code next} answers
+ * the page following, and its absence marks the end of the journal.
+ */
+public class ExportResource extends DynamicResourceHandler {
+  public static final String NdJson = "application/x-ndjson";
+  public static final int DefaultLimit = 1000;
+  public static final int MaximumLimit = 10000;
+
+  private final JournalQueries queries;
+
+  public ExportResource(final Stage stage) {
+    super(stage);
+    this.queries = StorageProvider.instance().journalQueries;
+  }
+
+  public Completes<Response> exportEntries(final Integer limit, final String after) {
+    final int pageLimit = limit == null || limit == 0 ? DefaultLimit : limit;
+    if (pageLimit < 0 || pageLimit > MaximumLimit) {
+      return Completes.withSuccess(Response.of(BadRequest, serialized("Invalid limit: " + limit + " must be from 1 to " + MaximumLimit)));
+    }
+
+    final String acceptEncoding = ContentEncoding.acceptEncodingOf(context() == null ? null : context().request);
+
+    return queries
+            .entriesAfter(after == null ? "" : after, pageLimit)
+            .andThenTo(entries -> {
+              final String next = entries.size() < pageLimit ? null : entries.get(entries.size() - 1).id();
+              final Headers<ResponseHeader> headers = Paging.headersOf(next, pageLimit).and(ResponseHeader.of(ResponseHeader.ContentType, NdJson));
+              return Completes.withSuccess(ContentEncoding.response(Ok, headers, ndjson(entries), acceptEncoding));
+            })
+            .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
+  }
+
+  @Override
+  public Resource<?> routes() {
+    return resource("Export Resource", 1,
+      get("/api/export")
+        .query(Paging.Limit, Integer.class, DefaultLimit)
+        .query(Paging.After, String.class, "")
+        .handle(this::exportEntries));
+  }
+
+  /**
+   * Answer {@code entries} as lines of JSON. The data of an entry is the serialized
+   * event as stored, so it is embedded as it is rather than serialized once more.
+   */
+  static String ndjson(final List<Entry<String>> entries) {
+    final StringBuilder builder = new StringBuilder(entries.size() * 256);
+    for (final Entry<String> entry : entries) {
+      builder.append("{\"id\":").append(serialized(entry.id()))
+              .append(",\"type\":").append(serialized(entry.typeName()))
+              .append(",\"typeVersion\":").append(entry.typeVersion())
+              .append(",\"data\":").append(entry.entryData())
+              .append("}\n");
+    }
+    return builder.toString();
+  }
+}
@@ -86,12 +86,16 @@ public class OrganizationResource extends DynamicResourceHandler {
             .andThenTo(state -> Completes.withSuccess(Response.of(Ok, serialized(OrganizationData.from(state)))));
   }
 
-  public Completes<Response> queryOrganizations() {
+  public Completes<Response> queryOrganizations(final Integer limit, final String after) {
+    if (!Paging.isValid(limit, after)) {
+      return Completes.withSuccess(Response.of(BadRequest, serialized(Paging.invalidMessage(limit, after))));
+    }
+
     return queries
-            .organizations()
-            .andThenTo(organizations -> organizations == null
+            .organizationsPage(Paging.limitOf(limit), after)
+            .andThenTo(page -> page == null
                     ? Completes.withSuccess(Response.of(Ok, serialized(OrganizationsView.empty().all())))
-                    : Completes.withSuccess(Response.of(Ok, serialized(organizations.all()))))
+                    : Completes.withSuccess(Paging.response(page, Paging.limitOf(limit))))
             .otherwise(response -> Response.of(Ok, serialized(OrganizationsView.empty().all()))) // no OrganizationsView state found in stateStore
             .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
   }
@@ -125,6 +129,8 @@ public class OrganizationResource extends DynamicResourceHandler {
         .body(String.class)
         .handle(this::renameTo),
       get("/api/organizations")
+        .query(Paging.Limit, Integer.class, 0)
+        .query(Paging.After, String.class, "")
         .handle(this::queryOrganizations),
       get("/api/organizations/{organizationId}")
         .param(String.class)
@@ -0,0 +1,80 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import static io.vlingo.common.serialization.JsonSerialization.serialized;
+
+import io.vlingo.http.Header.Headers;
+import io.vlingo.http.Response;
+import io.vlingo.http.ResponseHeader;
+import io.vlingo.schemata.query.view.Page;
+
+/**
+ * The {@code limit} and {@code after} query parameters of the list routes. A route
+ * answers its whole list unless a positive {@code limit} is given, and the body is a
+ * JSON array either way; the cursor of the next page is answered in a {@code Link}
+ * header of relation {@code next}, relative to the requested route.
+ */
+final class Paging {
+  static final String Link = "Link";
+  static final String Limit = "limit";
+  static final String After = "after";
+
+  /**
+   * Answer whether {@code limit} and {@code after} denote a page.
+   * @param limit the Integer limit, which may be null
+   * @param after the String cursor, which may be null
+   * @return boolean
+   */
+  static boolean isValid(final Integer limit, final String after) {
+    return (limit == null || limit >= 0) && Page.isValidCursor(after);
+  }
+
+  static String invalidMessage(final Integer limit, final String after) {
+    return "Invalid page: limit=" + limit + " after=" + after;
+  }
+
+  static int limitOf(final Integer limit) {
+    return limit == null ? 0 : limit;
+  }
+
+  /**
+   * Answer the {@code Ok} response of {@code page}.
+   * @param page the {@code Page<?>} to answer
+   * @param limit the int limit the page was taken with
+   * @return Response
+   */
+  static Response response(final Page<?> page, final int limit) {
+    return Response.of(Response.Status.Ok, headersOf(page, limit), serialized(page.items));
+  }
+
+  /**
+   * Answer the headers of {@code page}, which link the next page if there is one.
+   * @param page the {@code Page<?>} to answer
+   * @param limit the int limit the page was taken with
+   * @return {@code Headers<ResponseHeader>}
+   */
+  static Headers<ResponseHeader> headersOf(final Page<?> page, final int limit) {
+    return headersOf(page.next, limit);
+  }
+
+  /**
+   * Answer the headers of a page followed by the one of cursor {@code next}.
+   * @param next the String cursor of the next page, or null if there is none
+   * @param limit the int limit the page was taken with
+   * @return {@code Headers<ResponseHeader>}
+   */
+  static Headers<ResponseHeader> headersOf(final String next, final int limit) {
+    if (next == null) {
+      return Headers.empty();
+    }
+    return Headers.of(ResponseHeader.of(Link, "<?" + Limit + "=" + limit + "&" + After + "=" + next + ">; rel=\"next\""));
+  }
+
+  private Paging() { }
+}
@@ -100,12 +100,16 @@ public class SchemaResource extends DynamicResourceHandler {
             .andThenTo(state -> Completes.withSuccess(Response.of(Ok, serialized(SchemaData.from(state)))));
   }
 
-  public Completes<Response> querySchemas(final String organizationId, final String unitId, final String contextId) {
+  public Completes<Response> querySchemas(final String organizationId, final String unitId, final String contextId, final Integer limit, final String after) {
+    if (!Paging.isValid(limit, after)) {
+      return Completes.withSuccess(Response.of(BadRequest, serialized(Paging.invalidMessage(limit, after))));
+    }
+
     return queries
-            .schemas(organizationId, unitId, contextId)
-            .andThenTo(schemas -> schemas == null
+            .schemasPage(organizationId, unitId, contextId, Paging.limitOf(limit), after)
+            .andThenTo(page -> page == null
                     ? Completes.withSuccess(Response.of(NotFound, serialized("Schemas not found!"))) // hit in unit tests
-                    : Completes.withSuccess(Response.of(Ok, serialized(schemas.all()))))
+                    : Completes.withSuccess(Paging.response(page, Paging.limitOf(limit))))
             .otherwise(response -> Response.of(NotFound, serialized("Schemas not found!"))) // hit in production
             .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
   }
@@ -176,6 +180,8 @@ public class SchemaResource extends DynamicResourceHandler {
         .param(String.class)
         .param(String.class)
         .param(String.class)
+        .query(Paging.Limit, Integer.class, 0)
+        .query(Paging.After, String.class, "")
         .handle(this::querySchemas),
       get("/api/organizations/{organizationId}/units/{unitId}/contexts/{contextId}/schemas/{schemaId}")
         .param(String.class)
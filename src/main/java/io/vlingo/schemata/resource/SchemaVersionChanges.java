@@ -0,0 +1,266 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import static io.vlingo.common.serialization.JsonSerialization.serialized;
+import static io.vlingo.http.Response.Status.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import io.vlingo.actors.Stage;
+import io.vlingo.common.Cancellable;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Scheduled;
+import io.vlingo.http.Header.Headers;
+import io.vlingo.http.Response;
+import io.vlingo.http.ResponseHeader;
+import io.vlingo.schemata.infra.persistence.SchemaVersionChangeProjection;
+import io.vlingo.schemata.query.JournalQueries;
+import io.vlingo.schemata.query.SchemaVersionChangeFeed;
+import io.vlingo.schemata.query.SchemaVersionChangeFeed.Changes;
+import io.vlingo.schemata.query.SchemaVersionQueries;
+import io.vlingo.schemata.query.view.SchemaVersionChangeView;
+import io.vlingo.symbio.Entry;
+
+/**
+ * Long polls of the {@code SchemaVersionChangeFeed}. A poll answers the changes
+ * following its {@code after} position as soon as there is at least one of them
+ * of the requested organization, unit, context or schema, or an empty array once
+ * it has waited {@code wait} seconds. Either way the {@code Link} header of relation
+ * {@code next} answers the poll to resume with, so that no change is missed between
+ * polls. An empty {@code after} follows the changes from now on. The positions are
+ * those of the journal, so a poll may resume after any of them, even one answered
+ * before a restart; the changes following a position older than the feed retains
+ * are replayed from the journal, at most {@code limit} entries of it per poll.
+ */
+class SchemaVersionChanges {
+  static final String Wait = "wait";
+  static final String OrganizationId = "organizationId";
+  static final String UnitId = "unitId";
+  static final String ContextId = "contextId";
+  static final String SchemaId = "schemaId";
+
+  static final int DefaultLimit = 1000;
+  static final int MaximumLimit = 10000;
+  static final int DefaultWait = 25;
+  static final int MaximumWait = 60;
+
+  private final Stage stage;
+  private final SchemaVersionChangeFeed feed;
+  private final JournalQueries journalQueries;
+  private final SchemaVersionQueries schemaVersionQueries;
+
+  SchemaVersionChanges(final Stage stage, final SchemaVersionChangeFeed feed, final JournalQueries journalQueries,
+                       final SchemaVersionQueries schemaVersionQueries) {
+    this.stage = stage;
+    this.feed = feed;
+    this.journalQueries = journalQueries;
+    this.schemaVersionQueries = schemaVersionQueries;
+  }
+
+  Completes<Response> changesAfter(final String after, final String organizationId, final String unitId, final String contextId,
+                                   final String schemaId, final Integer limit, final Integer wait, final String acceptEncoding) {
+    final long position = positionOf(after);
+    if (position < 0) {
+      return Completes.withSuccess(Response.of(BadRequest, serialized("Invalid after: " + after + " must be a position answered by the feed")));
+    }
+    final int pollLimit = limit == null || limit == 0 ? DefaultLimit : limit;
+    if (pollLimit < 0 || pollLimit > MaximumLimit) {
+      return Completes.withSuccess(Response.of(BadRequest, serialized("Invalid limit: " + limit + " must be from 1 to " + MaximumLimit)));
+    }
+    final int pollWait = wait == null ? DefaultWait : wait;
+    if (pollWait < 0 || pollWait > MaximumWait) {
+      return Completes.withSuccess(Response.of(BadRequest, serialized("Invalid wait: " + wait + " must be from 0 to " + MaximumWait)));
+    }
+
+    final String query = queryOf(organizationId, unitId, contextId, schemaId, pollLimit, pollWait);
+    final Poll poll = new Poll(position, change -> change.isOf(organizationId, unitId, contextId, schemaId), pollLimit, query, acceptEncoding);
+
+    // listen before the first read, so that no change appended in between goes unseen
+    feed.listen(poll);
+    poll.run();
+    if (!poll.isAnswered()) {
+      if (pollWait == 0) {
+        poll.expire();
+      } else {
+        poll.schedule(stage.scheduler().scheduleOnce(poll, null, pollWait * 1000L, 0));
+      }
+    }
+    return poll.eventually;
+  }
+
+  /**
+   * Answer the position of {@code after}, which is the latest for an empty one,
+   * or -1 if it is not a journal position.
+   */
+  private long positionOf(final String after) {
+    if (after == null || after.isEmpty()) {
+      return feed.position();
+    }
+    try {
+      return Math.max(-1, Long.parseLong(after));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static String queryOf(final String organizationId, final String unitId, final String contextId, final String schemaId,
+                                final int limit, final int wait) {
+    final StringBuilder query = new StringBuilder();
+    appendTo(query, OrganizationId, organizationId);
+    appendTo(query, UnitId, unitId);
+    appendTo(query, ContextId, contextId);
+    appendTo(query, SchemaId, schemaId);
+    appendTo(query, Paging.Limit, String.valueOf(limit));
+    appendTo(query, Wait, String.valueOf(wait));
+    return query.toString();
+  }
+
+  private static void appendTo(final StringBuilder query, final String name, final String value) {
+    if (value != null && !value.isEmpty()) {
+      query.append(name).append('=').append(value).append('&');
+    }
+  }
+
+  private class Poll implements Runnable, Scheduled<Object> {
+    final Completes<Response> eventually;
+
+    private final long after;
+    private final Predicate<SchemaVersionChangeView> filter;
+    private final int limit;
+    private final String query;
+    private final String acceptEncoding;
+    private final AtomicBoolean answered;
+    private final AtomicBoolean replaying;
+    private volatile Cancellable timeout;
+
+    Poll(final long after, final Predicate<SchemaVersionChangeView> filter, final int limit, final String query, final String acceptEncoding) {
+      this.eventually = Completes.using(stage.scheduler());
+      this.after = after;
+      this.filter = filter;
+      this.limit = limit;
+      this.query = query;
+      this.acceptEncoding = acceptEncoding;
+      this.answered = new AtomicBoolean(false);
+      this.replaying = new AtomicBoolean(false);
+    }
+
+    /**
+     * Answer the changes following {@code after}, if there are any; run on each change appended.
+     */
+    @Override
+    public void run() {
+      if (answered.get()) {
+        return;
+      }
+      final Optional<Changes> changes = feed.changesAfter(after, filter, limit);
+      if (!changes.isPresent()) {
+        replay();
+      } else if (!changes.get().changes.isEmpty()) {
+        answer(changes.get());
+      }
+    }
+
+    /**
+     * Answer the changes following {@code after} even if there are none; run when the wait is over.
+     */
+    @Override
+    public void intervalSignal(final Scheduled<Object> scheduled, final Object data) {
+      expire();
+    }
+
+    void expire() {
+      final Optional<Changes> changes = feed.changesAfter(after, filter, limit);
+      if (!changes.isPresent()) {
+        replay();
+      } else {
+        answer(changes.get());
+      }
+    }
+
+    boolean isAnswered() {
+      return answered.get();
+    }
+
+    void schedule(final Cancellable timeout) {
+      this.timeout = timeout;
+      if (answered.get()) {
+        timeout.cancel();
+      }
+    }
+
+    /**
+     * Answer the changes recorded by the journal entries following {@code after},
+     * once the ancestors of each of them are resolved.
+     */
+    private void replay() {
+      if (!replaying.compareAndSet(false, true)) {
+        return;
+      }
+      journalQueries.entriesAfter(after == 0 ? "" : String.valueOf(after), limit)
+              .andThenConsume(this::replayed)
+              .recoverFrom(e -> {
+                answer(Response.of(InternalServerError, serialized("Changes after " + after + " cannot be replayed: " + e.getMessage())));
+                return null;
+              });
+    }
+
+    private void replayed(final List<Entry<String>> entries) {
+      final long through = entries.isEmpty() ? after : Long.parseLong(entries.get(entries.size() - 1).id());
+      final List<SchemaVersionChangeView> replayed = new ArrayList<>();
+      for (final Entry<String> entry : entries) {
+        final SchemaVersionChangeView change = SchemaVersionChangeProjection.changeOf(entry);
+        if (change != null) {
+          replayed.add(change);
+        }
+      }
+      if (replayed.isEmpty()) {
+        answer(Changes.with(Collections.emptyList(), through));
+        return;
+      }
+
+      final SchemaVersionChangeView[] resolved = new SchemaVersionChangeView[replayed.size()];
+      final AtomicInteger remaining = new AtomicInteger(resolved.length);
+      for (int index = 0; index < resolved.length; ++index) {
+        final int at = index;
+        feed.resolve(schemaVersionQueries, replayed.get(index), change -> {
+          resolved[at] = change;
+          if (remaining.decrementAndGet() == 0) {
+            answer(Changes.with(Arrays.stream(resolved).filter(filter).collect(Collectors.toList()), through));
+          }
+        });
+      }
+    }
+
+    private void answer(final Changes changes) {
+      final Headers<ResponseHeader> headers = Headers.of(ResponseHeader.of(Paging.Link,
+              "<?" + query + Paging.After + "=" + changes.through + ">; rel=\"next\""));
+      answer(ContentEncoding.response(Ok, headers, serialized(changes.changes), acceptEncoding));
+    }
+
+    private void answer(final Response response) {
+      if (!answered.compareAndSet(false, true)) {
+        return;
+      }
+      feed.unlisten(this);
+      final Cancellable timeout = this.timeout;
+      if (timeout != null) {
+        timeout.cancel();
+      }
+      eventually.with(response);
+    }
+  }
+}
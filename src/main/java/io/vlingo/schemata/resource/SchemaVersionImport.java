@@ -0,0 +1,269 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vlingo.actors.Stage;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.codegen.TypeDefinitionMiddleware;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+import io.vlingo.schemata.infra.persistence.SchemaVersionImporter;
+import io.vlingo.schemata.infra.persistence.SchemaVersionImporterActor;
+import io.vlingo.schemata.infra.persistence.StorageProvider;
+import io.vlingo.schemata.model.SchemaVersion;
+import io.vlingo.schemata.query.view.SchemaView;
+import io.vlingo.schemata.resource.data.SchemaVersionData;
+
+/**
+ * Validates a batch of schema versions as a whole and, only if every one of them is
+ * valid, imports them with a {@code SchemaVersionImporter}. Each schema version must
+ * belong to a registered schema of its organization, unit and context, and must not
+ * be registered already. The specifications are
+ * parsed in parallel by the compiler workers, with at most {@code window} parses in
+ * flight at a time. Unlike {@code defineWith}, an import does not diff a version
+ * against the one it follows: the batch is taken to be a catalog that was already
+ * checked when it was built.
+ */
+class SchemaVersionImport {
+  private final Stage stage;
+  private final TypeDefinitionMiddleware middleware;
+  private final int window;
+
+  SchemaVersionImport(final Stage stage, final int window) {
+    this.stage = stage;
+    this.middleware = TypeDefinitionMiddleware.middlewareFor(stage);
+    this.window = Math.max(1, window);
+  }
+
+  /**
+   * Answer the eventual outcome of importing {@code schemaVersions}: the imported
+   * schema versions, or an {@code INVALID_SCHEMA_DEFINITION} listing every invalid
+   * one by its index in the batch.
+   */
+  Completes<Outcome<SchemataBusinessException, List<SchemaVersionData>>> importAll(final List<SchemaVersionData> schemaVersions) {
+    final String[] problems = new String[schemaVersions.size()];
+    final Set<String> versions = new HashSet<>();
+
+    for (int index = 0; index < schemaVersions.size(); ++index) {
+      problems[index] = problemOf(schemaVersions.get(index), versions);
+    }
+
+    final Completes<Outcome<SchemataBusinessException, List<SchemaVersionData>>> eventually = Completes.using(stage.scheduler());
+    checkRegistry(schemaVersions, problems, () -> parse(schemaVersions, problems, eventually));
+    return eventually;
+  }
+
+  private void parse(final List<SchemaVersionData> schemaVersions, final String[] problems,
+                     final Completes<Outcome<SchemataBusinessException, List<SchemaVersionData>>> eventually) {
+    final Queue<Integer> parses = new ConcurrentLinkedQueue<>();
+    for (int index = 0; index < problems.length; ++index) {
+      if (problems[index] == null) {
+        parses.add(index);
+      }
+    }
+
+    final Lanes lanes = new Lanes(schemaVersions, problems, parses, eventually);
+    if (parses.isEmpty()) {
+      lanes.validated();
+    } else {
+      final int lanesCount = Math.min(window, parses.size());
+      for (int lane = 0; lane < lanesCount; ++lane) {
+        lanes.next();
+      }
+    }
+  }
+
+  /**
+   * Record the problem of every schema version whose schema is not registered in its
+   * organization, unit and context, or whose version is registered already, and then
+   * run {@code checked}. The schema and its versions are queried once per schema.
+   */
+  private void checkRegistry(final List<SchemaVersionData> schemaVersions, final String[] problems, final Runnable checked) {
+    final Map<String, List<Integer>> bySchema = new LinkedHashMap<>();
+    for (int index = 0; index < problems.length; ++index) {
+      if (problems[index] == null) {
+        bySchema.computeIfAbsent(schemaVersions.get(index).schemaId, schemaId -> new ArrayList<>()).add(index);
+      }
+    }
+    if (bySchema.isEmpty()) {
+      checked.run();
+      return;
+    }
+
+    final StorageProvider storage = StorageProvider.instance();
+    final AtomicInteger remaining = new AtomicInteger(bySchema.size() * 2);
+    final Runnable arrived = () -> {
+      if (remaining.decrementAndGet() == 0) {
+        checked.run();
+      }
+    };
+
+    bySchema.forEach((schemaId, indexes) -> {
+      final SchemaVersionData first = schemaVersions.get(indexes.get(0));
+
+      storage.schemaQueries.schema(first.organizationId, first.unitId, first.contextId, schemaId)
+              .andThenConsume(schema -> {
+                for (final int index : indexes) {
+                  if (!isRegisteredIn(schema, schemaVersions.get(index))) {
+                    problems[index] = unknownSchema(schemaVersions.get(index));
+                  }
+                }
+                arrived.run();
+              })
+              .otherwiseConsume(schema -> {
+                // no SchemaView state found in stateStore
+                indexes.forEach(index -> problems[index] = unknownSchema(schemaVersions.get(index)));
+                arrived.run();
+              })
+              .recoverFrom(e -> {
+                indexes.forEach(index -> problems[index] = e.getMessage());
+                arrived.run();
+                return null;
+              });
+
+      storage.schemaVersionQueries.schemaVersionsByIds(first.organizationId, first.unitId, first.contextId, schemaId)
+              .andThenConsume(registered -> {
+                if (registered != null) {
+                  for (final int index : indexes) {
+                    final String version = schemaVersions.get(index).currentVersion;
+                    if (registered.all().stream().anyMatch(view -> version.equals(view.currentVersion()))) {
+                      problems[index] = "Version " + version + " of schema " + schemaId + " already exists";
+                    }
+                  }
+                }
+                arrived.run();
+              })
+              .otherwiseConsume(registered -> arrived.run()) // no versions of the schema yet
+              .recoverFrom(e -> {
+                indexes.forEach(index -> problems[index] = e.getMessage());
+                arrived.run();
+                return null;
+              });
+    });
+  }
+
+  private boolean isRegisteredIn(final SchemaView schema, final SchemaVersionData data) {
+    return schema != null && data.schemaId.equals(schema.schemaId()) && data.organizationId.equals(schema.organizationId()) &&
+            data.unitId.equals(schema.unitId()) && data.contextId.equals(schema.contextId());
+  }
+
+  private String unknownSchema(final SchemaVersionData data) {
+    return "Unknown schema " + data.schemaId + " in " + data.organizationId + ":" + data.unitId + ":" + data.contextId;
+  }
+
+  private String problemOf(final SchemaVersionData data, final Set<String> versions) {
+    if (data == null) {
+      return "Missing schema version";
+    }
+    if (isEmpty(data.organizationId) || isEmpty(data.unitId) || isEmpty(data.contextId) || isEmpty(data.schemaId)) {
+      return "Missing organizationId, unitId, contextId or schemaId";
+    }
+    if (!data.hasSpecification()) {
+      return "Missing specification";
+    }
+    if (isEmpty(data.description)) {
+      return "Missing description";
+    }
+    if (!data.validVersions()) {
+      return "Conflicting versions " + data.previousVersion + " and " + data.currentVersion;
+    }
+    if (!isEmpty(data.status) && !isStatus(data.status)) {
+      return "Unknown status " + data.status;
+    }
+    if (!versions.add(data.schemaId + "@" + data.currentVersion)) {
+      return "Duplicate version " + data.currentVersion + " of schema " + data.schemaId;
+    }
+    return null;
+  }
+
+  private boolean isStatus(final String status) {
+    for (final SchemaVersion.Status candidate : SchemaVersion.Status.values()) {
+      if (candidate.value.equals(status)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isEmpty(final String value) {
+    return value == null || value.isEmpty();
+  }
+
+  /**
+   * Each lane parses one specification at a time and takes the next when done,
+   * so the number of lanes bounds the parses in flight.
+   */
+  private final class Lanes {
+    private final List<SchemaVersionData> schemaVersions;
+    private final String[] problems;
+    private final Queue<Integer> pending;
+    private final AtomicInteger remaining;
+    private final Completes<Outcome<SchemataBusinessException, List<SchemaVersionData>>> eventually;
+
+    Lanes(final List<SchemaVersionData> schemaVersions, final String[] problems, final Queue<Integer> pending,
+          final Completes<Outcome<SchemataBusinessException, List<SchemaVersionData>>> eventually) {
+      this.schemaVersions = schemaVersions;
+      this.problems = problems;
+      this.pending = pending;
+      this.remaining = new AtomicInteger(pending.size());
+      this.eventually = eventually;
+    }
+
+    void next() {
+      final Integer index = pending.poll();
+      if (index == null) {
+        return;
+      }
+
+      middleware.compileToAST(schemaVersions.get(index).specification, null)
+              .andThenConsume(outcome -> outcome.resolve(
+                      ex -> { parsed(index, ex.getMessage()); return null; },
+                      node -> { parsed(index, null); return null; }))
+              .otherwiseConsume(outcome -> parsed(index, "Specification could not be parsed"))
+              .recoverFrom(e -> { parsed(index, e.getMessage()); return null; });
+    }
+
+    private void parsed(final int index, final String problem) {
+      problems[index] = problem;
+      if (remaining.decrementAndGet() == 0) {
+        validated();
+      } else {
+        next();
+      }
+    }
+
+    void validated() {
+      final List<String> invalid = new ArrayList<>();
+      for (int index = 0; index < problems.length; ++index) {
+        if (problems[index] != null) {
+          invalid.add(index + ": " + problems[index]);
+        }
+      }
+
+      if (!invalid.isEmpty()) {
+        eventually.with(Failure.of(SchemataBusinessException.invalidSchemaDefinition(
+                "Invalid schema versions: " + String.join(", ", invalid), new ArrayList<Throwable>())));
+        return;
+      }
+
+      final SchemaVersionImporter importer = stage.actorFor(SchemaVersionImporter.class, SchemaVersionImporterActor.class, StorageProvider.instance().journal);
+      importer.importAll(schemaVersions).andThenConsume(eventually::with);
+    }
+  }
+}
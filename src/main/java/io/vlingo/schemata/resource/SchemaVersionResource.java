@@ -7,16 +7,26 @@
 
 package io.vlingo.schemata.resource;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import io.vlingo.actors.Logger;
 import io.vlingo.actors.Stage;
 import io.vlingo.common.Completes;
-import io.vlingo.common.serialization.JsonSerialization;
 import io.vlingo.common.version.SemanticVersion;
 import io.vlingo.http.Header.Headers;
 import io.vlingo.http.Response;
 import io.vlingo.http.ResponseHeader;
 import io.vlingo.http.resource.DynamicResourceHandler;
 import io.vlingo.http.resource.Resource;
+import io.vlingo.schemata.codegen.PooledTypeDefinitionCompiler;
+import io.vlingo.schemata.errors.SchemataBusinessException;
 import io.vlingo.schemata.infra.persistence.StorageProvider;
 import io.vlingo.schemata.model.FullyQualifiedReference;
 import io.vlingo.schemata.model.Id.SchemaId;
@@ -29,8 +39,14 @@ import io.vlingo.schemata.model.SchemaVersionState;
 import io.vlingo.schemata.query.CodeQueries;
 import io.vlingo.schemata.query.SchemaQueries;
 import io.vlingo.schemata.query.SchemaVersionQueries;
+import io.vlingo.schemata.query.view.Page;
 import io.vlingo.schemata.query.view.SchemaVersionView;
+import io.vlingo.schemata.query.view.SchemaVersionsView;
 import io.vlingo.schemata.resource.data.SchemaVersionData;
+import io.vlingo.schemata.resource.data.SchemaVersionLookupData;
+import io.vlingo.schemata.resource.data.SchemaVersionReferencesData;
+import io.vlingo.schemata.resource.data.SchemaVersionsImportData;
+import io.vlingo.schemata.resource.data.SchemaVersionsImportFailureData;
 
 import static io.vlingo.common.serialization.JsonSerialization.serialized;
 import static io.vlingo.http.Response.Status.*;
@@ -41,26 +57,41 @@ import static io.vlingo.schemata.Schemata.SchemaVersionsPath;
 import static io.vlingo.schemata.query.SchemaVersionQueries.GreatestVersion;
 
 public class SchemaVersionResource extends DynamicResourceHandler {
+    /** The most references a batch lookup may hold. */
+    public static final int MaximumLookupReferences = 1000;
+    /** The most schema versions a bulk import may hold. */
+    public static final int MaximumImportSchemaVersions = 10000;
+
+    private static final String InvalidReferenceMessage = "Invalid reference. Please provide the reference in the form of 'org:unit:context:schema:version'!";
+
     private final SchemaVersionCommands commands;
     private final SchemaQueries schemaQueries;
     private final SchemaVersionQueries schemaVersionQueries;
     private final CodeQueries codeQueries;
     private final Stage stage;
     private final Logger logger;
+    private final SchemaVersionImport schemaVersionImport;
+    private final SchemaVersionChanges schemaVersionChanges;
 
   public SchemaVersionResource(final Stage stage) {
+        this(stage, StorageProvider.instance().codeQueries);
+    }
+
+    SchemaVersionResource(final Stage stage, final CodeQueries codeQueries) {
         super(stage);
         this.stage = stage;
         this.commands = new SchemaVersionCommands(this.stage, 10);
         this.schemaQueries = StorageProvider.instance().schemaQueries;
         this.schemaVersionQueries = StorageProvider.instance().schemaVersionQueries;
-        this.codeQueries = StorageProvider.instance().codeQueries;
+        this.codeQueries = codeQueries;
         this.logger = stage.world().defaultLogger();
+        this.schemaVersionImport = new SchemaVersionImport(stage, PooledTypeDefinitionCompiler.workersFor(StorageProvider.instance().compilerWorkers) * 2);
+        this.schemaVersionChanges = new SchemaVersionChanges(stage, StorageProvider.instance().schemaVersionChanges,
+                StorageProvider.instance().journalQueries, StorageProvider.instance().schemaVersionQueries);
     }
 
     /*
-     * Since this has become a convoluted mess due to workarounds, framework changes and poorly understood APIs,
-     * I'll outline what is done in here as a breadcrumb trail for future refactoring me:
+     * Defining a schema version is one pipeline that never awaits:
      *
      * * Check whether the request contains a specification
      * * Check whether the version is syntactically valid (i.e. is an update to a existing version or 0.0.1)
@@ -86,62 +117,64 @@ public class SchemaVersionResource extends DynamicResourceHandler {
       final SemanticVersion previousSemantic = SemanticVersion.from(data.previousVersion);
       final SemanticVersion currentSemantic = SemanticVersion.from(data.currentVersion);
 
-      // FIXME: Refactor into one reactive pipeline without awaiting
-      // doesVersionExist
-      // true -> isSpecificationIncompatible
-      if(currentSemantic.equals(previousSemantic.nextPatch()) || currentSemantic.equals(previousSemantic.nextMinor())) {
-        SchemaVersionView previousVersion  = schemaVersionQueries.schemaVersionsByIds(organizationId, unitId, contextId, schemaId)
-                .andThen(view -> GreatestVersion.equals(data.previousVersion)
-                  ? view.greatestVersion()
-                  : view.withVersion(data.previousVersion))
-                .await();
-
-        if ((previousVersion == null || previousVersion.isNone()) && !previousSemantic.equals(SemanticVersion.from(0,0,0))) {
-          return Completes.withSuccess(Response.of(NotFound, "Tried to update non-existing version " + previousSemantic.toString()));
-        }
-
-        if(previousVersion != null && !previousVersion.isNone() ) {
-          String incompatibleDiffResult = commands
-              .diffAgainst(
-                  SchemaVersionId.existing(
-                      organizationId, unitId, contextId, schemaId,
-                      previousVersion.schemaVersionId()),
-                  data)
-              .answer()
-              .andThen(o -> o.resolve(
-                          JsonSerialization::serialized,
-                          diff -> diff.isCompatible() ? null : serialized(diff)
-                  ))
-              .await();
-
-          if (incompatibleDiffResult != null) {
-            return Completes.withSuccess(
-                    Response.of(
-                            Conflict,
-                            Headers.of(of(ContentType, "application/json; charset=UTF-8")),
-                            serialized(incompatibleDiffResult)));
-          }
-        }
+      if (!currentSemantic.equals(previousSemantic.nextPatch()) && !currentSemantic.equals(previousSemantic.nextMinor())) {
+        return define(organizationId, unitId, contextId, schemaId, data);
       }
 
-      return SchemaVersion.with(stage, SchemaId.existing(organizationId, unitId, contextId, schemaId), Specification.of(data.specification), data.description,
-              Version.of(data.previousVersion), Version.of(data.currentVersion))
-              .andThenTo(3000, state -> {
-                  final String location = schemaVersionLocation(state.schemaVersionId);
-                  final Headers<ResponseHeader> headers = Headers.of(
-                          of(Location, location),
-                          of(ContentType, "application/json; charset=UTF-8")
-                  );
-                  final String serialized = serialized(SchemaVersionData.from(state));
+      final Completes<Response> eventually = Completes.using(stage.scheduler());
 
-                  return Completes.withSuccess(Response.of(Created, headers, serialized));
+      schemaVersionQueries.schemaVersionsByIds(organizationId, unitId, contextId, schemaId)
+              .andThenConsume(view -> defineAfter(previousVersionOf(view, data.previousVersion), organizationId, unitId, contextId, schemaId, data)
+                      .andThenConsume(eventually::with))
+              .otherwise(noVersionsYet -> { // hit in production: the first version of a new schema
+                defineAfter(Optional.empty(), organizationId, unitId, contextId, schemaId, data)
+                        .andThenConsume(eventually::with);
+                return null;
               })
-              .otherwise(response -> Response.of(Conflict, serialized(SchemaVersionData.from(organizationId, unitId, contextId, schemaId, NoId, data.specification, data.description, "Draft", data.previousVersion, data.currentVersion))))
-          .recoverFrom(ex -> {
-            logger.error("{}",ex);
-            return Response.of(Conflict, serialized(SchemaVersionData.from(organizationId, unitId, contextId, schemaId, NoId, data.specification, data.description, "Draft", data.previousVersion, data.currentVersion)));
+              .recoverFrom(ex -> {
+                logger.error("{}", ex);
+                eventually.with(Response.of(InternalServerError, serialized(ex)));
+                return null;
+              });
 
-          });
+      return eventually;
+    }
+
+    private Completes<Response> defineAfter(
+            final Optional<SchemaVersionView> previousVersion,
+            final String organizationId,
+            final String unitId,
+            final String contextId,
+            final String schemaId,
+            final SchemaVersionData data) {
+
+      if (!previousVersion.isPresent()) {
+        final SemanticVersion previousSemantic = SemanticVersion.from(data.previousVersion);
+        return previousSemantic.equals(SemanticVersion.from(0, 0, 0))
+                ? define(organizationId, unitId, contextId, schemaId, data)
+                : Completes.withSuccess(Response.of(NotFound, "Tried to update non-existing version " + previousSemantic.toString()));
+      }
+
+      return commands
+              .diffAgainst(
+                      SchemaVersionId.existing(
+                              organizationId, unitId, contextId, schemaId,
+                              previousVersion.get().schemaVersionId()),
+                      data)
+              .answer()
+              .andThen(o -> o.resolve(
+                      ex -> Optional.of(serialized(ex)),
+                      diff -> diff.isCompatible() ? Optional.<String>empty() : Optional.of(serialized(diff))))
+              .andThenTo(incompatibleDiffResult -> incompatibleDiffResult.isPresent()
+                      ? Completes.withSuccess(Response.of(
+                              Conflict,
+                              Headers.of(of(ContentType, "application/json; charset=UTF-8")),
+                              serialized(incompatibleDiffResult.get())))
+                      : define(organizationId, unitId, contextId, schemaId, data))
+              .recoverFrom(ex -> {
+                logger.error("{}", ex);
+                return Response.of(InternalServerError, serialized(ex));
+              });
     }
 
     public Completes<Response> describeAs(final String organizationId, final String unitId, final String contextId, final String schemaId, final String schemaVersionId, final String description) {
@@ -187,12 +220,18 @@ public class SchemaVersionResource extends DynamicResourceHandler {
         });
     }
 
-    public Completes<Response> querySchemaVersions(final String organizationId, final String unitId, final String contextId, final String schemaId) {
+    public Completes<Response> querySchemaVersions(final String organizationId, final String unitId, final String contextId, final String schemaId,
+                                                   final Integer limit, final String after) {
+        if (!Paging.isValid(limit, after)) {
+            return Completes.withSuccess(Response.of(BadRequest, serialized(Paging.invalidMessage(limit, after))));
+        }
+
+        final String acceptEncoding = ContentEncoding.acceptEncodingOf(context() == null ? null : context().request);
         return schemaVersionQueries
-                .schemaVersionsByIds(organizationId, unitId, contextId, schemaId)
-                .andThenTo(schemaVersions -> schemaVersions == null
+                .schemaVersionsPage(organizationId, unitId, contextId, schemaId, Paging.limitOf(limit), after)
+                .andThenTo(page -> page == null
                         ? Completes.withSuccess(Response.of(NotFound, serialized("SchemaVersions not found!")))
-                        : Completes.withSuccess(Response.of(Ok, serialized(schemaVersions.all()))))
+                        : Completes.withSuccess(pageOf(page, Paging.limitOf(limit), acceptEncoding)))
                 .otherwise(response -> Response.of(NotFound, serialized("SchemaVersions not found!"))) // hit in production
                 .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
     }
@@ -254,41 +293,53 @@ public class SchemaVersionResource extends DynamicResourceHandler {
                     msg));
         }
 
-        SchemaVersionData updatedSchemaVersionData = schemaQueries.schemaByNames(fqr.organization,
-                    fqr.unit, fqr.context, fqr.schema)
-                .andThenTo(namedSchemaView -> Completes.withSuccess(SchemaVersionData.from(
-                        namedSchemaView.organizationId(),
-                        namedSchemaView.unitId(),
-                        namedSchemaView.contextId(),
-                        namedSchemaView.schemaId(),
-                        null,
-                        data.specification,
-                        data.description,
-                        SchemaVersion.Status.Draft.value,
-                        data.previousVersion,
-                        fqr.schemaVersion))
-                ).await();
-
-        return this.defineWith(
-          updatedSchemaVersionData.organizationId,
-          updatedSchemaVersionData.unitId,
-          updatedSchemaVersionData.contextId,
-          updatedSchemaVersionData.schemaId,
-          updatedSchemaVersionData
-      );
+        return schemaQueries.schemaByNames(fqr.organization, fqr.unit, fqr.context, fqr.schema)
+                .andThenTo(namedSchemaView -> {
+                    if (namedSchemaView == null) {
+                        return Completes.withSuccess(Response.of(NotFound, serialized("NamedSchema not found!")));
+                    }
+                    final SchemaVersionData updatedSchemaVersionData = SchemaVersionData.from(
+                            namedSchemaView.organizationId(),
+                            namedSchemaView.unitId(),
+                            namedSchemaView.contextId(),
+                            namedSchemaView.schemaId(),
+                            null,
+                            data.specification,
+                            data.description,
+                            SchemaVersion.Status.Draft.value,
+                            data.previousVersion,
+                            fqr.schemaVersion);
+
+                    return defineWith(
+                            updatedSchemaVersionData.organizationId,
+                            updatedSchemaVersionData.unitId,
+                            updatedSchemaVersionData.contextId,
+                            updatedSchemaVersionData.schemaId,
+                            updatedSchemaVersionData);
+                })
+                .otherwise(response -> Response.of(NotFound, serialized("NamedSchema not found!"))) // hit in production
+                .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
     }
 
     public Completes<Response> retrieveSchemaVersion(final String reference) {
         if (Path.isValidReference(reference, false)) {
             Path path = Path.with(reference, false);
+            final String ifNoneMatch = EntityTag.ifNoneMatchOf(context() == null ? null : context().request);
             return codeQueries.codeFor(path)
-                    .andThenTo(codeView -> codeView == null
-                            ? Completes.withSuccess(Response.of(NotFound, serialized("Code not found!")))
-                            : Completes.withSuccess(Response.of(Ok, serialized(codeView.schemaVersionView()))))
+                    .andThenTo(codeView -> {
+                        if (codeView == null) {
+                            return Completes.withSuccess(Response.of(NotFound, serialized("Code not found!")));
+                        }
+                        final String tag = EntityTag.ofSchemaVersion(codeView.schemaVersionView());
+                        final Headers<ResponseHeader> caching = EntityTag.schemaVersionHeaders(tag);
+                        return Completes.withSuccess(EntityTag.isMatchedBy(ifNoneMatch, tag)
+                                ? Response.of(NotModified, caching)
+                                : Response.of(Ok, caching, serialized(codeView.schemaVersionView())));
+                    })
                     .otherwise(response -> Response.of(NotFound, serialized("Code not found!"))) // hit in production
                     .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
         } else {
-            String message = "Invalid reference. Please provide the reference in the form of 'org:unit:context:schema:version'!";
+            String message = InvalidReferenceMessage;
             return Completes.withSuccess(Response.of(
                     BadRequest,
                     Headers.of(of(ContentLength, message.length())),
@@ -297,6 +348,83 @@ public class SchemaVersionResource extends DynamicResourceHandler {
         }
     }
 
+    /**
+     * Answer the schema versions of all {@code references} at once, in the order of the
+     * references and each with the status it would have been answered with by
+     * {@code retrieveSchemaVersion}. The lookups are all dispatched before any of them
+     * is awaited, and a reference given more than once is looked up only once.
+     * @param data the SchemaVersionReferencesData holding the references
+     * @return {@code Completes<Response>} of a JSON array of SchemaVersionLookupData
+     */
+    public Completes<Response> lookupSchemaVersions(final SchemaVersionReferencesData data) {
+        if (data == null || !data.hasReferences()) {
+            return Completes.withSuccess(Response.of(BadRequest, serialized("Missing references")));
+        }
+        if (data.references.size() > MaximumLookupReferences) {
+            return Completes.withSuccess(Response.of(BadRequest,
+                    serialized("Too many references: " + data.references.size() + " exceeds " + MaximumLookupReferences)));
+        }
+
+        final List<String> references = data.references;
+        final Headers<ResponseHeader> headers = Headers.of(of(ContentType, "application/json; charset=UTF-8"));
+        if (references.isEmpty()) {
+            return Completes.withSuccess(Response.of(Ok, headers, serialized(Collections.emptyList())));
+        }
+
+        final Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int index = 0; index < references.size(); ++index) {
+            positions.computeIfAbsent(references.get(index), reference -> new ArrayList<>()).add(index);
+        }
+
+        final SchemaVersionLookupData[] results = new SchemaVersionLookupData[references.size()];
+        final AtomicInteger remaining = new AtomicInteger(positions.size());
+        final Completes<Response> eventually = Completes.using(stage.scheduler());
+
+        positions.forEach((reference, indexes) -> lookup(reference).andThenConsume(result -> {
+            indexes.forEach(index -> results[index] = result);
+            if (remaining.decrementAndGet() == 0) {
+                eventually.with(Response.of(Ok, headers, serialized(Arrays.asList(results))));
+            }
+        }));
+
+        return eventually;
+    }
+
+    /**
+     * Answer the schema versions of {@code data} as imported all at once, or none of them
+     * if any is invalid, in which case every invalid one is listed by its index. The valid
+     * schema versions are appended independently; if some of the appends fail, the answer
+     * is a {@code SchemaVersionsImportFailureData} of those imported and those failed.
+     * @param data the SchemaVersionsImportData holding the schema versions
+     * @return {@code Completes<Response>} of a JSON array of the imported SchemaVersionData
+     */
+    public Completes<Response> importSchemaVersions(final SchemaVersionsImportData data) {
+        if (data == null || !data.hasSchemaVersions() || data.schemaVersions.isEmpty()) {
+            return Completes.withSuccess(Response.of(BadRequest, serialized("Missing schemaVersions")));
+        }
+        if (data.schemaVersions.size() > MaximumImportSchemaVersions) {
+            return Completes.withSuccess(Response.of(BadRequest,
+                    serialized("Too many schema versions: " + data.schemaVersions.size() + " exceeds " + MaximumImportSchemaVersions)));
+        }
+
+        final Headers<ResponseHeader> headers = Headers.of(of(ContentType, "application/json; charset=UTF-8"));
+        return schemaVersionImport.importAll(data.schemaVersions)
+                .andThen(outcome -> outcome.resolve(
+                        ex -> ex.errorCode == SchemataBusinessException.Code.INVALID_SCHEMA_DEFINITION
+                                ? Response.of(BadRequest, headers, serialized(ex.getMessage()))
+                                : Response.of(InternalServerError, headers, serialized(importFailureOf(ex))),
+                        imported -> Response.of(Created, headers, serialized(imported))))
+                .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object importFailureOf(final SchemataBusinessException ex) {
+        if (ex.errorCode != SchemataBusinessException.Code.IMPORT_FAILED) {
+            return ex.getMessage();
+        }
+        return SchemaVersionsImportFailureData.of(ex.getMessage(), (List<SchemaVersionData>) ex.context("imported"), (List<String>) ex.context("failures"));
+    }
+
     public Completes<Response> retrieveSchemaVersionStatus(final String reference) {
         if (Path.isValidReference(reference, false)) {
             Path path = Path.with(reference, false);
@@ -305,7 +433,7 @@ public class SchemaVersionResource extends DynamicResourceHandler {
                     .otherwise(response -> Response.of(NotFound, Headers.of(of(ContentType, "text/plain; charset=UTF-8")), "SchemaVersion not found!"))
                     .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
         } else {
-            String message = "Invalid reference. Please provide the reference in the form of 'org:unit:context:schema:version'!";
+            String message = InvalidReferenceMessage;
             return Completes.withSuccess(Response.of(
                     BadRequest,
                     Headers.of(of(ContentLength, message.length())),
@@ -314,6 +442,18 @@ public class SchemaVersionResource extends DynamicResourceHandler {
         }
     }
 
+    /**
+     * Answer the lifecycle changes of schema versions following the position {@code after},
+     * waiting up to {@code wait} seconds for the first of them. See {@code SchemaVersionChanges}.
+     */
+    public Completes<Response> querySchemaVersionChanges(final String after, final String organizationId, final String unitId,
+                                                         final String contextId, final String schemaId, final Integer limit, final Integer wait) {
+        final String acceptEncoding = ContentEncoding.acceptEncodingOf(context() == null ? null : context().request);
+        return schemaVersionChanges
+                .changesAfter(after, organizationId, unitId, contextId, schemaId, limit, wait, acceptEncoding)
+                .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
+    }
+
     @Override
     public Resource<?> routes() {
         return resource("SchemaVersion Resource", 1,
@@ -353,6 +493,8 @@ public class SchemaVersionResource extends DynamicResourceHandler {
                         .param(String.class)
                         .param(String.class)
                         .param(String.class)
+                        .query(Paging.Limit, Integer.class, 0)
+                        .query(Paging.After, String.class, "")
                         .handle(this::querySchemaVersions),
                 get("/api/organizations/{organizationId}/units/{unitId}/contexts/{contextId}/schemas/{schemaId}/versions/{schemaVersionId}")
                         .param(String.class)
@@ -368,6 +510,21 @@ public class SchemaVersionResource extends DynamicResourceHandler {
                         .query("context", String.class)
                         .query("schema", String.class)
                         .handle(this::searchSchemaVersions),
+                get("/api/versions/changes")
+                        .query(Paging.After, String.class, "")
+                        .query(SchemaVersionChanges.OrganizationId, String.class, "")
+                        .query(SchemaVersionChanges.UnitId, String.class, "")
+                        .query(SchemaVersionChanges.ContextId, String.class, "")
+                        .query(SchemaVersionChanges.SchemaId, String.class, "")
+                        .query(Paging.Limit, Integer.class, SchemaVersionChanges.DefaultLimit)
+                        .query(SchemaVersionChanges.Wait, Integer.class, SchemaVersionChanges.DefaultWait)
+                        .handle(this::querySchemaVersionChanges),
+                post("/api/versions/import")
+                        .body(SchemaVersionsImportData.class)
+                        .handle(this::importSchemaVersions),
+                post("/api/versions/lookup")
+                        .body(SchemaVersionReferencesData.class)
+                        .handle(this::lookupSchemaVersions),
                 post("/api/versions/{reference}")
                         .param(String.class)
                         .body(SchemaVersionData.class)
@@ -380,6 +537,51 @@ public class SchemaVersionResource extends DynamicResourceHandler {
                   .handle(this::retrieveSchemaVersionStatus));
     }
 
+    private Completes<Response> define(final String organizationId, final String unitId, final String contextId, final String schemaId, final SchemaVersionData data) {
+      return SchemaVersion.with(stage, SchemaId.existing(organizationId, unitId, contextId, schemaId), Specification.of(data.specification), data.description,
+              Version.of(data.previousVersion), Version.of(data.currentVersion))
+              .andThenTo(3000, state -> {
+                  final String location = schemaVersionLocation(state.schemaVersionId);
+                  final Headers<ResponseHeader> headers = Headers.of(
+                          of(Location, location),
+                          of(ContentType, "application/json; charset=UTF-8")
+                  );
+                  final String serialized = serialized(SchemaVersionData.from(state));
+
+                  return Completes.withSuccess(Response.of(Created, headers, serialized));
+              })
+              .otherwise(response -> Response.of(Conflict, serialized(SchemaVersionData.from(organizationId, unitId, contextId, schemaId, NoId, data.specification, data.description, "Draft", data.previousVersion, data.currentVersion))))
+          .recoverFrom(ex -> {
+            logger.error("{}",ex);
+            return Response.of(Conflict, serialized(SchemaVersionData.from(organizationId, unitId, contextId, schemaId, NoId, data.specification, data.description, "Draft", data.previousVersion, data.currentVersion)));
+
+          });
+    }
+
+    private Optional<SchemaVersionView> previousVersionOf(final SchemaVersionsView view, final String previousVersion) {
+        if (view == null) {
+            return Optional.empty();
+        }
+        final SchemaVersionView version = GreatestVersion.equals(previousVersion) ? view.greatestVersion() : view.withVersion(previousVersion);
+        return version == null || version.isNone() ? Optional.empty() : Optional.of(version);
+    }
+
+    private Completes<SchemaVersionLookupData> lookup(final String reference) {
+        if (reference == null || !Path.isValidReference(reference, false)) {
+            return Completes.withSuccess(SchemaVersionLookupData.failed(reference, BadRequest.name(), InvalidReferenceMessage));
+        }
+        return codeQueries.codeFor(Path.with(reference, false))
+                .andThen(codeView -> codeView == null
+                        ? SchemaVersionLookupData.failed(reference, NotFound.name(), "Code not found!")
+                        : SchemaVersionLookupData.found(reference, Ok.name(), codeView.schemaVersionView()))
+                .otherwise(result -> SchemaVersionLookupData.failed(reference, NotFound.name(), "Code not found!"))
+                .recoverFrom(e -> SchemaVersionLookupData.failed(reference, InternalServerError.name(), String.valueOf(e.getMessage())));
+    }
+
+    private Response pageOf(final Page<SchemaVersionView> page, final int limit, final String acceptEncoding) {
+        return ContentEncoding.response(Ok, Paging.headersOf(page, limit), serialized(page.items), acceptEncoding);
+    }
+
     private String schemaVersionLocation(final SchemaVersionId schemaVersionId) {
         return String.format(SchemaVersionsPath, schemaVersionId.organizationId().value, schemaVersionId.unitId().value, schemaVersionId.contextId().value, schemaVersionId.schemaId.value, schemaVersionId.value);
     }
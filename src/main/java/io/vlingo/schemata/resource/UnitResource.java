@@ -85,12 +85,16 @@ public class UnitResource extends DynamicResourceHandler {
             .andThenTo(state -> Completes.withSuccess(Response.of(Ok, serialized(UnitData.from(state)))));
   }
 
-  public Completes<Response> queryUnits(final String organizationId) {
+  public Completes<Response> queryUnits(final String organizationId, final Integer limit, final String after) {
+    if (!Paging.isValid(limit, after)) {
+      return Completes.withSuccess(Response.of(BadRequest, serialized(Paging.invalidMessage(limit, after))));
+    }
+
     return queries
-            .units(organizationId)
-            .andThenTo(units -> units == null
+            .unitsPage(organizationId, Paging.limitOf(limit), after)
+            .andThenTo(page -> page == null
                     ? Completes.withSuccess(Response.of(NotFound, serialized("Units not found!"))) // hit in unit tests
-                    : Completes.withSuccess(Response.of(Ok, serialized(units.all()))))
+                    : Completes.withSuccess(Paging.response(page, Paging.limitOf(limit))))
             .otherwise(response -> Response.of(NotFound, serialized("Units not found!"))) // hit in production
             .recoverFrom(e -> Response.of(InternalServerError, serialized(e)));
   }
@@ -129,6 +133,8 @@ public class UnitResource extends DynamicResourceHandler {
         .handle(this::renameTo),
       get("/api/organizations/{organizationId}/units")
         .param(String.class)
+        .query(Paging.Limit, Integer.class, 0)
+        .query(Paging.After, String.class, "")
         .handle(this::queryUnits),
       get("/api/organizations/{organizationId}/units/{unitId}")
         .param(String.class)
@@ -0,0 +1,45 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource.data;
+
+import io.vlingo.schemata.query.view.SchemaVersionView;
+
+/**
+ * The result of looking up one reference of a batch: the status it would have been
+ * answered with on its own, and either the schema version or the reason it is missing.
+ */
+public class SchemaVersionLookupData {
+  public final String reference;
+  public final String status;
+  public final SchemaVersionView schemaVersion;
+  public final String message;
+
+  public static SchemaVersionLookupData found(final String reference, final String status, final SchemaVersionView schemaVersion) {
+    return new SchemaVersionLookupData(reference, status, schemaVersion, "");
+  }
+
+  public static SchemaVersionLookupData failed(final String reference, final String status, final String message) {
+    return new SchemaVersionLookupData(reference, status, null, message);
+  }
+
+  public boolean isFound() {
+    return schemaVersion != null;
+  }
+
+  @Override
+  public String toString() {
+    return "SchemaVersionLookupData [reference=" + reference + ", status=" + status + ", message=" + message + "]";
+  }
+
+  private SchemaVersionLookupData(final String reference, final String status, final SchemaVersionView schemaVersion, final String message) {
+    this.reference = reference;
+    this.status = status;
+    this.schemaVersion = schemaVersion;
+    this.message = message;
+  }
+}
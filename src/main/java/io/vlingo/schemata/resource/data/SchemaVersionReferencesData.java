@@ -0,0 +1,40 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource.data;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The schema version references of a batch lookup, each of the form
+ * {@code org:unit:context:schema:version}.
+ */
+public class SchemaVersionReferencesData {
+  public final List<String> references;
+
+  public static SchemaVersionReferencesData of(final String... references) {
+    return new SchemaVersionReferencesData(Arrays.asList(references));
+  }
+
+  public static SchemaVersionReferencesData of(final List<String> references) {
+    return new SchemaVersionReferencesData(references);
+  }
+
+  public boolean hasReferences() {
+    return references != null;
+  }
+
+  @Override
+  public String toString() {
+    return "SchemaVersionReferencesData [references=" + references + "]";
+  }
+
+  private SchemaVersionReferencesData(final List<String> references) {
+    this.references = references;
+  }
+}
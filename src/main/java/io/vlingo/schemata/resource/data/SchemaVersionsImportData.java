@@ -0,0 +1,40 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource.data;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The schema versions of a bulk import, each naming the ids of its organization, unit,
+ * context and schema, and optionally the status it is to be imported with.
+ */
+public class SchemaVersionsImportData {
+  public final List<SchemaVersionData> schemaVersions;
+
+  public static SchemaVersionsImportData of(final SchemaVersionData... schemaVersions) {
+    return new SchemaVersionsImportData(Arrays.asList(schemaVersions));
+  }
+
+  public static SchemaVersionsImportData of(final List<SchemaVersionData> schemaVersions) {
+    return new SchemaVersionsImportData(schemaVersions);
+  }
+
+  public boolean hasSchemaVersions() {
+    return schemaVersions != null;
+  }
+
+  @Override
+  public String toString() {
+    return "SchemaVersionsImportData [schemaVersions=" + schemaVersions + "]";
+  }
+
+  private SchemaVersionsImportData(final List<SchemaVersionData> schemaVersions) {
+    this.schemaVersions = schemaVersions;
+  }
+}
@@ -0,0 +1,36 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource.data;
+
+import java.util.List;
+
+/**
+ * The answer to a bulk import that failed after it was validated: the schema versions
+ * that were imported nonetheless, and the failures of the others, each prefixed by the
+ * index of its schema version in the batch, which are the ones to import again.
+ */
+public class SchemaVersionsImportFailureData {
+  public final String message;
+  public final List<SchemaVersionData> imported;
+  public final List<String> failures;
+
+  public static SchemaVersionsImportFailureData of(final String message, final List<SchemaVersionData> imported, final List<String> failures) {
+    return new SchemaVersionsImportFailureData(message, imported, failures);
+  }
+
+  @Override
+  public String toString() {
+    return "SchemaVersionsImportFailureData [message=" + message + ", imported=" + imported + ", failures=" + failures + "]";
+  }
+
+  private SchemaVersionsImportFailureData(final String message, final List<SchemaVersionData> imported, final List<String> failures) {
+    this.message = message;
+    this.imported = imported;
+    this.failures = failures;
+  }
+}
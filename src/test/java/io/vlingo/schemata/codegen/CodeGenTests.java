@@ -12,6 +12,7 @@ import io.vlingo.actors.testkit.TestWorld;
 import io.vlingo.common.Outcome;
 import io.vlingo.schemata.codegen.ast.Node;
 import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.codegen.backend.Backend;
 import io.vlingo.schemata.codegen.backend.java.JavaBackend;
 import io.vlingo.schemata.codegen.parser.AntlrTypeParser;
 import io.vlingo.schemata.codegen.parser.TypeParser;
@@ -46,13 +47,17 @@ public abstract class CodeGenTests {
     }
 
     protected final TypeDefinitionCompiler compilerWithJavaBackend() {
+        return compilerWith(new JavaBackend());
+    }
+
+    protected final TypeDefinitionCompiler compilerWith(final Backend backend) {
         return new TypeDefinitionCompilerActor(
                 typeParser,
                 Arrays.asList(
                         world.actorFor(Processor.class, ComputableTypeProcessor.class),
                         world.actorFor(Processor.class, TypeResolverProcessor.class, typeResolver)
                 ),
-                new JavaBackend()
+                backend
         );
     }
 
@@ -0,0 +1,96 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.vlingo.actors.World;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.codegen.parser.AntlrTypeParser;
+import io.vlingo.schemata.codegen.processor.types.CacheTypeResolver;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+/**
+ * Measures the throughput of a {@code PooledTypeDefinitionCompiler} compiling the {@code basic}
+ * fixture to Java, by as many client threads as there may be workers, for each number of
+ * {@code workers} in the pool. The throughput should grow with the workers up to the number
+ * of processors. Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class PooledTypeDefinitionCompilerBenchmark {
+  private static final long Timeout = 30000;
+  private static final int QueueCapacity = 64;
+
+  @Param({ "1", "2", "4", "8", "16" })
+  public int workers;
+
+  private World world;
+  private TypeDefinitionCompiler compiler;
+  private String specification;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    world = World.startWithDefaults(getClass().getSimpleName());
+    compiler = new PooledTypeDefinitionCompiler(world.stage(), new AntlrTypeParser(), new CacheTypeResolver(), "java", workers, QueueCapacity);
+    specification = read("/io/vlingo/schemata/codegen/vss/basic.vss");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    world.terminate();
+  }
+
+  @Benchmark
+  public Outcome<SchemataBusinessException, String> compile() {
+    return compiler.compile(specification, "Org:Unit:Context:Schema:SalutationHappened", "0.0.1").await(Timeout);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(PooledTypeDefinitionCompilerBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  private String read(final String resource) throws IOException {
+    try (final InputStream stream = getClass().getResourceAsStream(resource)) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[1024];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        bytes.write(buffer, 0, read);
+      }
+      return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.actors.World;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.codegen.parser.AntlrTypeParser;
+import io.vlingo.schemata.codegen.processor.types.TypeResolver;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+public class PooledTypeDefinitionCompilerTest {
+  private static final long TIMEOUT = 5000L;
+  private static final String Basic =
+          "event SalutationHappened {\n  type eventType\n  timestamp occurredOn\n  version eventVersion\n  string toWhom\n  string text\n}";
+  private static final String PriceChanged =
+          "event PriceChanged {\n  version eventVersion\n  Org:Unit:Context:Schema:Price oldPrice\n}";
+
+  private World world;
+
+  @Before
+  public void setUp() {
+    world = World.startWithDefaults(getClass().getSimpleName());
+  }
+
+  @After
+  public void tearDown() {
+    world.terminate();
+  }
+
+  @Test
+  public void testThatPoolCompilesConcurrently() {
+    final PooledTypeDefinitionCompiler compiler = compiler((middleware, name) -> Completes.withSuccess(Optional.empty()), 4, 64);
+    final List<Completes<Outcome<SchemataBusinessException, String>>> pending = new ArrayList<>();
+
+    for (int index = 0; index < 200; ++index) {
+      pending.add(compiler.compile(Basic, "Org:Unit:Context:Schema:SalutationHappened", "0.0." + index));
+    }
+
+    for (final Completes<Outcome<SchemataBusinessException, String>> completes : pending) {
+      final String code = completes.await(TIMEOUT).resolve(ex -> null, result -> result);
+      assertTrue(code != null && code.contains("extends DomainEvent"));
+    }
+
+    assertEquals(256, compiler.capacity());
+    assertEquals(0, compiler.inFlight());
+  }
+
+  @Test
+  public void testThatSaturatedPoolAnswersCapacityExceeded() throws Exception {
+    final CountDownLatch resolving = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final TypeResolver stalled = (middleware, name) -> {
+      resolving.countDown();
+      try {
+        release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return Completes.withSuccess(Optional.empty());
+    };
+    final PooledTypeDefinitionCompiler compiler = compiler(stalled, 1, 1);
+
+    final Completes<Outcome<SchemataBusinessException, String>> first = compiler.compile(PriceChanged, "Org:Unit:Context:Schema:PriceChanged", "1.0.0");
+    assertTrue(resolving.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+    final Outcome<SchemataBusinessException, String> rejected =
+            compiler.compile(Basic, "Org:Unit:Context:Schema:SalutationHappened", "1.0.0").await(TIMEOUT);
+    assertEquals(SchemataBusinessException.Code.CAPACITY_EXCEEDED, errorCodeOf(rejected));
+
+    release.countDown();
+    first.await(TIMEOUT);
+    assertEquals(0, compiler.inFlight());
+
+    final Outcome<SchemataBusinessException, String> admitted =
+            compiler.compile(Basic, "Org:Unit:Context:Schema:SalutationHappened", "1.0.1").await(TIMEOUT);
+    assertNotEquals(SchemataBusinessException.Code.CAPACITY_EXCEEDED, errorCodeOf(admitted));
+  }
+
+  @Test
+  public void testThatFailedCompilationReleasesItsSlot() {
+    final TypeResolver failing = (middleware, name) -> {
+      throw new IllegalStateException("Resolver failed");
+    };
+    final PooledTypeDefinitionCompiler compiler = compiler(failing, 1, 1, 1000L);
+
+    final Outcome<SchemataBusinessException, String> failed =
+            compiler.compile(PriceChanged, "Org:Unit:Context:Schema:PriceChanged", "1.0.0").await(TIMEOUT);
+    assertEquals(SchemataBusinessException.Code.CODE_GENERATION_ERROR, errorCodeOf(failed));
+    assertEquals(0, compiler.inFlight());
+
+    final Outcome<SchemataBusinessException, String> admitted =
+            compiler.compile(Basic, "Org:Unit:Context:Schema:SalutationHappened", "1.0.0").await(TIMEOUT);
+    assertNull(errorCodeOf(admitted));
+  }
+
+  @Test
+  public void testThatUnansweredCompilationReleasesItsSlotAfterTimeout() {
+    final TypeResolver lost = (middleware, name) -> Completes.using(world.stage().scheduler());
+    final PooledTypeDefinitionCompiler compiler = compiler(lost, 1, 1, 200L);
+
+    final Outcome<SchemataBusinessException, String> timedOut =
+            compiler.compile(PriceChanged, "Org:Unit:Context:Schema:PriceChanged", "1.0.0").await(TIMEOUT);
+    assertEquals(SchemataBusinessException.Code.CODE_GENERATION_ERROR, errorCodeOf(timedOut));
+    assertEquals(0, compiler.inFlight());
+
+    final Outcome<SchemataBusinessException, String> admitted =
+            compiler.compile(Basic, "Org:Unit:Context:Schema:SalutationHappened", "1.0.0").await(TIMEOUT);
+    assertNotEquals(SchemataBusinessException.Code.CAPACITY_EXCEEDED, errorCodeOf(admitted));
+  }
+
+  private PooledTypeDefinitionCompiler compiler(final TypeResolver resolver, final int workers, final int queueCapacity, final long admissionTimeout) {
+    return new PooledTypeDefinitionCompiler(world.stage(), new AntlrTypeParser(), resolver, "java", workers, queueCapacity,
+            TypeResolutionContext.DefaultMaximumDepth, admissionTimeout);
+  }
+
+  private PooledTypeDefinitionCompiler compiler(final TypeResolver resolver, final int workers, final int queueCapacity) {
+    return new PooledTypeDefinitionCompiler(world.stage(), new AntlrTypeParser(), resolver, "java", workers, queueCapacity);
+  }
+
+  private SchemataBusinessException.Code errorCodeOf(final Outcome<SchemataBusinessException, String> outcome) {
+    return outcome.resolve(ex -> ex.errorCode, code -> null);
+  }
+}
@@ -0,0 +1,155 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.vlingo.common.Completes;
+import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
+import io.vlingo.schemata.codegen.ast.FieldDefinition;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.ast.types.BasicType;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.codegen.processor.types.TypeResolver;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+import io.vlingo.schemata.model.Category;
+
+public class TypeResolutionContextTest {
+  private static final String Order = "Org:Unit:Context:Schema:Order:1.0.0";
+  private static final String Line = "Org:Unit:Context:Schema:Line:1.0.0";
+  private static final String Customer = "Org:Unit:Context:Schema:Customer:1.0.0";
+  private static final String Money = "Org:Unit:Context:Schema:Money:1.0.0";
+
+  private final Map<String, String> specifications = new HashMap<>();
+  private final Map<String, AtomicInteger> resolutions = new HashMap<>();
+  private TypeResolutionContext context;
+
+  private final TypeResolver resolver = (middleware, name) -> {
+    resolutions.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+    return middleware.compileToAST(specifications.get(name), name)
+            .andThen(outcome -> outcome.resolve(ex -> Optional.<TypeDefinition>empty(), node -> Optional.of((TypeDefinition) node)));
+  };
+
+  @Test
+  public void testThatDiamondDependenciesAreResolvedOnce() {
+    references(Order, Line, Customer);
+    references(Line, Money);
+    references(Customer, Money);
+    references(Money);
+
+    final TypeDefinition order = compiled(Order, TypeResolutionContext.DefaultMaximumDepth);
+
+    final TypeDefinition line = (TypeDefinition) typeOf(order, 0);
+    final TypeDefinition customer = (TypeDefinition) typeOf(order, 1);
+    assertSame(typeOf(line, 0), typeOf(customer, 0));
+    assertEquals(1, resolutions.get(Money).get());
+    assertEquals(1, resolutions.get(Line).get());
+    assertEquals(1, resolutions.get(Customer).get());
+    assertTrue(context.isComplete(Order));
+    assertTrue(context.isComplete(Money));
+  }
+
+  @Test
+  public void testThatSelfReferenceIsLeftUnresolved() {
+    references(Order, Order);
+
+    final TypeDefinition order = compiled(Order, TypeResolutionContext.DefaultMaximumDepth);
+
+    assertUnresolved(Order, typeOf(order, 0));
+    assertFalse(resolutions.containsKey(Order));
+    assertFalse(context.isComplete(Order));
+  }
+
+  @Test
+  public void testThatMutualReferencesTerminate() {
+    references(Order, Line);
+    references(Line, Customer);
+    references(Customer, Line, Order);
+
+    final TypeDefinition order = compiled(Order, TypeResolutionContext.DefaultMaximumDepth);
+
+    final TypeDefinition line = (TypeDefinition) typeOf(order, 0);
+    final TypeDefinition customer = (TypeDefinition) typeOf(line, 0);
+    assertUnresolved(Line, typeOf(customer, 0));
+    assertUnresolved(Order, typeOf(customer, 1));
+    assertEquals(1, resolutions.get(Line).get());
+    assertEquals(1, resolutions.get(Customer).get());
+    assertFalse(context.isComplete(Customer));
+    assertFalse(context.isComplete(Line));
+    assertFalse(context.isComplete(Order));
+  }
+
+  @Test
+  public void testThatResolutionStopsAtMaximumDepth() {
+    references(Order, Line);
+    references(Line, Customer);
+    references(Customer, Money);
+    references(Money);
+
+    final TypeDefinition order = compiled(Order, 2);
+
+    final TypeDefinition line = (TypeDefinition) typeOf(order, 0);
+    final TypeDefinition customer = (TypeDefinition) typeOf(line, 0);
+    assertUnresolved(Money, typeOf(customer, 0));
+    assertFalse(resolutions.containsKey(Money));
+    assertFalse(context.isComplete(Customer));
+    assertFalse(context.isComplete(Line));
+    assertFalse(context.isComplete(Order));
+  }
+
+  private void references(final String type, final String... references) {
+    specifications.put(type, String.join(",", references));
+  }
+
+  private TypeDefinition compiled(final String type, final int maximumDepth) {
+    context = TypeResolutionContext.root(this::compileToAST, type, maximumDepth);
+    final Outcome<SchemataBusinessException, Node> outcome = context.compileToAST(specifications.get(type), type).await();
+    assertTrue(outcome instanceof Success);
+    return (TypeDefinition) outcome.get();
+  }
+
+  /**
+   * Compiles a specification, which is the references of the type, into a {@code TypeDefinition}
+   * with one field per reference. The resolver answers right away, so every field is known on return.
+   */
+  private Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final String specification, final String fullyQualifiedTypeName, final TypeResolutionContext context) {
+    final List<String> references = specification.isEmpty() ? new ArrayList<>() : Arrays.asList(specification.split(","));
+    final Node[] fields = new Node[references.size()];
+    for (int index = 0; index < references.size(); ++index) {
+      final int field = index;
+      final String reference = references.get(index);
+      context.resolve(resolver, reference, resolved -> fields[field] =
+              new FieldDefinition(resolved.isPresent() ? resolved.get() : new BasicType(reference), Optional.empty(), "field" + field, Optional.empty()));
+    }
+    final String name = fullyQualifiedTypeName.split(":")[4];
+    return Completes.withSuccess(Success.<SchemataBusinessException, Node>of(new TypeDefinition(Category.Data, fullyQualifiedTypeName, name, Arrays.asList(fields))));
+  }
+
+  private Node typeOf(final TypeDefinition type, final int field) {
+    return ((FieldDefinition) type.children.get(field)).type;
+  }
+
+  private void assertUnresolved(final String reference, final Node type) {
+    assertTrue(type instanceof BasicType);
+    assertEquals(reference, ((BasicType) type).typeName);
+  }
+}
@@ -0,0 +1,142 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.archive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.Test;
+
+public class SourceArchiveTest {
+  private static final String Source = "package io.vlingo.schemata.event;\n\npublic final class SchemaDefined {\n}\n";
+
+  @Test
+  public void testThatJavaPathFollowsPackage() {
+    assertEquals("io/vlingo/schemata/event/SchemaDefined.java", SourceArchive.javaPathOf("SchemaDefined", Source));
+    assertEquals("io/vlingo/schemata/event/SchemaDefined.java", SourceArchive.javaPathOf("nested.SchemaDefined", Source));
+    assertEquals("SchemaDefined.java", SourceArchive.javaPathOf("SchemaDefined", "public final class SchemaDefined {}"));
+  }
+
+  @Test
+  public void testThatZipHoldsEveryEntry() throws IOException {
+    final SourceArchive archive = SourceArchive.of("zip");
+    archive.add("a/A.java", "class A {}");
+    archive.add("b/B.java", Source);
+
+    final Map<String, String> entries = new LinkedHashMap<>();
+    try (final ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive.finish()))) {
+      ZipEntry entry;
+      while ((entry = zip.getNextEntry()) != null) {
+        entries.put(entry.getName(), read(zip));
+      }
+    }
+
+    assertEquals("application/zip", archive.contentType());
+    assertEquals(2, entries.size());
+    assertEquals("class A {}", entries.get("a/A.java"));
+    assertEquals(Source, entries.get("b/B.java"));
+  }
+
+  @Test
+  public void testThatTarHoldsEveryEntry() {
+    final SourceArchive archive = SourceArchive.of("tar");
+    archive.add("a/A.java", "class A {}");
+    final String longPath = "io/vlingo/schemata/a/rather/deeply/nested/package/that/goes/on/and/on/beyond/one/hundred/chars/SchemaDefined.java";
+    archive.add(longPath, Source);
+
+    final byte[] tar = archive.finish();
+
+    assertEquals(0, tar.length % 512);
+    assertEquals("a/A.java", field(tar, 0, 100));
+    assertEquals("ustar", field(tar, 257, 6));
+    assertEquals(10, Long.parseLong(field(tar, 124, 12), 8));
+    assertChecksum(tar, 0);
+    assertEquals("class A {}", new String(tar, 512, 10, StandardCharsets.UTF_8));
+
+    final int second = 1024;
+    assertEquals(longPath, field(tar, second + 345, 155) + "/" + field(tar, second, 100));
+    assertChecksum(tar, second);
+    assertEquals(Source, new String(tar, second + 512, Source.length(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testThatJarStartsWithManifest() throws IOException {
+    final SourceArchive archive = SourceArchive.of("jar");
+    final byte[] classFile = new byte[] { (byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE };
+    archive.add("a/A.class", classFile);
+
+    final Map<String, String> entries = new LinkedHashMap<>();
+    try (final ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive.finish()))) {
+      ZipEntry entry;
+      while ((entry = zip.getNextEntry()) != null) {
+        entries.put(entry.getName(), read(zip));
+      }
+    }
+
+    assertEquals("application/java-archive", archive.contentType());
+    assertEquals("A.jar", archive.fileName("A"));
+    assertEquals(1, archive.entries());
+    assertEquals(Arrays.asList("META-INF/MANIFEST.MF", "a/A.class"), new ArrayList<>(entries.keySet()));
+    assertTrue(entries.get("META-INF/MANIFEST.MF").startsWith("Manifest-Version: 1.0"));
+    assertEquals(new String(classFile, StandardCharsets.UTF_8), entries.get("a/A.class"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testThatFinishedArchiveRejectsEntries() {
+    final SourceArchive archive = SourceArchive.of("zip");
+    archive.finish();
+    archive.add("A.java", "class A {}");
+  }
+
+  @Test
+  public void testThatFormatsAreRecognized() {
+    assertTrue(SourceArchive.isSupported("zip"));
+    assertTrue(SourceArchive.isSupported("tar"));
+    assertTrue(SourceArchive.isSupported("jar"));
+    assertFalse(SourceArchive.isSupported("rar"));
+    assertFalse(SourceArchive.isSupported(null));
+  }
+
+  private void assertChecksum(final byte[] tar, final int offset) {
+    long sum = 0;
+    for (int index = 0; index < 512; ++index) {
+      sum += (index >= 148 && index < 156) ? ' ' : tar[offset + index] & 0xff;
+    }
+    assertEquals(sum, Long.parseLong(field(tar, offset + 148, 7), 8));
+  }
+
+  private String field(final byte[] tar, final int offset, final int length) {
+    int end = offset;
+    while (end < offset + length && tar[end] != 0) {
+      ++end;
+    }
+    return new String(tar, offset, end - offset, StandardCharsets.UTF_8).trim();
+  }
+
+  private String read(final ZipInputStream zip) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[1024];
+    int read;
+    while ((read = zip.read(buffer)) != -1) {
+      bytes.write(buffer, 0, read);
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
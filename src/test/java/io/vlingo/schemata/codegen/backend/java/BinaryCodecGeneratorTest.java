@@ -0,0 +1,155 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import io.vlingo.common.Outcome;
+import io.vlingo.common.version.SemanticVersion;
+import io.vlingo.schemata.codegen.CodeGenTests;
+import io.vlingo.schemata.codegen.TypeDefinitionCompiler;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+public class BinaryCodecGeneratorTest extends CodeGenTests {
+  private static final String FullyQualifiedTypeName = "Org:Unit:Context:Schema:SalutationHappened";
+  private static final String ClassName = "Context.event.SalutationHappened";
+
+  @Test
+  public void testThatBinaryCodecIsGeneratedOnRequest() {
+    final String plain = compileSpecAndUnwrap(compilerWithJavaBackend(), typeDefinition("allSingleTypes"), FullyQualifiedTypeName, "1.2.3");
+    final String binary = compileSpecAndUnwrap(binaryCompiler(), typeDefinition("allSingleTypes"), FullyQualifiedTypeName, "1.2.3");
+
+    assertFalse(plain.contains("writeTo"));
+    assertTrue(binary.contains("public static final int BINARY_SCHEMA_VERSION = SemanticVersion.toValue(\"1.2.3\");"));
+    assertTrue(binary.contains("public void writeTo(final ByteBuffer buffer) {"));
+    assertTrue(binary.contains("public int sizeInBytes() {"));
+    assertTrue(binary.contains("public static SalutationHappened readFrom(final ByteBuffer buffer) {"));
+    assertTrue(binary.contains("private SalutationHappened(final ByteBuffer buffer) {"));
+    assertFalse(binary.contains("getClass()"));
+    assertFalse(binary.contains("reflect"));
+  }
+
+  @Test
+  public void testThatComposedTypesDelegateToTheirCodec() {
+    registerType("types/price", "Org:Unit:Context:Schema:Price", "1.0.0");
+    final String result = compileSpecAndUnwrap(binaryCompiler(), typeDefinition("price-changed"), "Org:Unit:Context:Schema:PriceChanged", "0.5.1");
+
+    assertTrue(result.contains("this.oldPrice.writeTo(buffer);"));
+    assertTrue(result.contains("this.newPrice = buffer.get() == 0 ? null : Price.readFrom(buffer);"));
+    assertTrue(result.contains("size += this.oldPrice == null ? 0 : this.oldPrice.sizeInBytes();"));
+  }
+
+  @Test
+  public void testThatSingleTypesRoundTrip() throws Exception {
+    final Class<?> type = compiledClassOf("allSingleTypes");
+    final Object written = type.getConstructors()[0].newInstance(true, (byte) 7, 'é', 0.25d, 0.5f, 42, 4242L, (short) 258, "héllo 😀");
+
+    final Object read = roundTrip(type, written, ByteOrder.BIG_ENDIAN);
+
+    assertFieldsEqual(type, written, read);
+    assertEquals(SemanticVersion.toValue("1.2.3"), type.getField("eventVersion").get(read));
+  }
+
+  @Test
+  public void testThatArraysRoundTripInEitherByteOrder() throws Exception {
+    final Class<?> type = compiledClassOf("basicArrays");
+    final Object written = type.getConstructors()[0].newInstance(
+            new boolean[] { true, false, true },
+            new byte[] { 1, 2, 3 },
+            new char[] { 'x', 'ÿ' },
+            new double[] { 0.1d, -2.5d },
+            new float[] { 0.42f },
+            new int[] { 1, -1, Integer.MAX_VALUE },
+            new long[] { Long.MIN_VALUE, 0L },
+            null,
+            new String[] { "foo", null, "" });
+
+    for (final ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+      final Object read = roundTrip(type, written, order);
+
+      assertFieldsEqual(type, written, read);
+      assertNull(type.getField("shortAttribute").get(read));
+    }
+  }
+
+  @Test
+  public void testThatAnotherSchemaVersionIsRejected() throws Exception {
+    final Class<?> type = compiledClassOf("allSingleTypes");
+    final Object written = type.getConstructors()[0].newInstance(true, (byte) 7, 'c', 0.25d, 0.5f, 42, 4242L, (short) 258, "text");
+    final ByteBuffer buffer = ByteBuffer.allocate((int) type.getMethod("sizeInBytes").invoke(written));
+    type.getMethod("writeTo", ByteBuffer.class).invoke(written, buffer);
+    buffer.putInt(0, SemanticVersion.toValue("1.3.0"));
+    buffer.flip();
+
+    try {
+      type.getMethod("readFrom", ByteBuffer.class).invoke(null, buffer);
+      fail("Reading another schema version must fail");
+    } catch (InvocationTargetException e) {
+      assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+  }
+
+  private Object roundTrip(final Class<?> type, final Object written, final ByteOrder order) throws Exception {
+    final int size = (int) type.getMethod("sizeInBytes").invoke(written);
+    final ByteBuffer buffer = ByteBuffer.allocate(size).order(order);
+
+    type.getMethod("writeTo", ByteBuffer.class).invoke(written, buffer);
+    assertEquals(size, buffer.position());
+
+    buffer.flip();
+    final Object read = type.getMethod("readFrom", ByteBuffer.class).invoke(null, buffer);
+    assertFalse(buffer.hasRemaining());
+    return read;
+  }
+
+  private void assertFieldsEqual(final Class<?> type, final Object expected, final Object actual) throws IllegalAccessException {
+    for (final Field field : type.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers())) {
+        continue;
+      }
+      final Object expectedValue = field.get(expected);
+      final Object actualValue = field.get(actual);
+      if (expectedValue != null && expectedValue.getClass().isArray()) {
+        assertArrayEquals(field.getName(), new Object[] { expectedValue }, new Object[] { actualValue });
+      } else {
+        assertEquals(field.getName(), expectedValue, actualValue);
+      }
+    }
+  }
+
+  private Class<?> compiledClassOf(final String specification) throws ClassNotFoundException {
+    final InMemoryJavaCompiler compiler = new InMemoryJavaCompiler();
+    // compiling requires a JDK rather than a JRE
+    assumeTrue(compiler.isAvailable());
+
+    final String source = compileSpecAndUnwrap(binaryCompiler(), typeDefinition(specification), FullyQualifiedTypeName, "1.2.3");
+    final Outcome<SchemataBusinessException, ClassFiles> outcome = compiler.compile("SalutationHappened", source);
+    final ClassFiles classFiles = outcome.resolve(ex -> { throw new AssertionError(source, ex); }, files -> files);
+
+    return new ClassFilesClassLoader(classFiles).loadClass(ClassName);
+  }
+
+  private TypeDefinitionCompiler binaryCompiler() {
+    return compilerWith(new JavaBackend(EnumSet.of(JavaBackend.Codec.Binary)));
+  }
+}
@@ -0,0 +1,29 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+/**
+ * Loads generated classes straight from the {@code ClassFiles} compiled for them.
+ */
+class ClassFilesClassLoader extends ClassLoader {
+  private final ClassFiles classFiles;
+
+  ClassFilesClassLoader(final ClassFiles classFiles) {
+    super(ClassFilesClassLoader.class.getClassLoader());
+    this.classFiles = classFiles;
+  }
+
+  @Override
+  protected Class<?> findClass(final String name) throws ClassNotFoundException {
+    final byte[] bytes = classFiles.files().get(name.replace('.', '/') + ".class");
+    if (bytes == null) {
+      throw new ClassNotFoundException(name);
+    }
+    return defineClass(name, bytes, 0, bytes.length);
+  }
+}
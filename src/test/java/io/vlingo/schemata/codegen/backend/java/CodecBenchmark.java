@@ -0,0 +1,159 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.vlingo.actors.World;
+import io.vlingo.common.serialization.JsonSerialization;
+import io.vlingo.schemata.codegen.TypeDefinitionCompiler;
+import io.vlingo.schemata.codegen.TypeDefinitionCompilerActor;
+import io.vlingo.schemata.codegen.parser.AntlrTypeParser;
+import io.vlingo.schemata.codegen.processor.Processor;
+import io.vlingo.schemata.codegen.processor.types.CacheTypeResolver;
+import io.vlingo.schemata.codegen.processor.types.ComputableTypeProcessor;
+import io.vlingo.schemata.codegen.processor.types.TypeResolverProcessor;
+
+/**
+ * Compares the generated binary and JSON codecs of an event with its Gson serialization
+ * as used by {@code JsonSerialization}. The event is generated from a specification of single
+ * values and arrays, compiled and loaded in memory. Run with {@code main} from the test
+ * classpath on a JDK.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+  private static final String Specification =
+          "event OrderPlaced {\n" +
+          "    type orderType\n" +
+          "    timestamp occurredOn\n" +
+          "    version orderVersion\n" +
+          "    string orderId\n" +
+          "    string customer\n" +
+          "    boolean express\n" +
+          "    int quantity\n" +
+          "    long placedAt\n" +
+          "    double total\n" +
+          "    long[] productIds\n" +
+          "    double[] prices\n" +
+          "    string[] notes\n" +
+          "}";
+
+  private Class<?> type;
+  private Object event;
+  private MethodHandle writeTo;
+  private MethodHandle readFrom;
+  private MethodHandle toJson;
+  private MethodHandle fromJson;
+  private ByteBuffer buffer;
+  private ByteBuffer encoded;
+  private String json;
+
+  @Setup
+  public void setUp() throws Throwable {
+    final World world = World.startWithDefaults(getClass().getSimpleName());
+    try {
+      final TypeDefinitionCompiler compiler = new TypeDefinitionCompilerActor(
+              new AntlrTypeParser(),
+              Arrays.asList(
+                      world.actorFor(Processor.class, ComputableTypeProcessor.class),
+                      world.actorFor(Processor.class, TypeResolverProcessor.class, new CacheTypeResolver())),
+              new JavaBackend(EnumSet.of(JavaBackend.Codec.Binary, JavaBackend.Codec.Json)));
+      final String source = compiler.compile(Specification, "Org:Unit:Context:Schema:OrderPlaced", "1.0.0").await(10000).get();
+      final ClassFiles classFiles = new InMemoryJavaCompiler().compile("OrderPlaced", source).get();
+      type = new ClassFilesClassLoader(classFiles).loadClass("Context.event.OrderPlaced");
+    } finally {
+      world.terminate();
+    }
+
+    final long[] productIds = new long[16];
+    final double[] prices = new double[16];
+    for (int index = 0; index < productIds.length; ++index) {
+      productIds[index] = 1_000_000L + index;
+      prices[index] = 9.99 * index;
+    }
+    event = type.getConstructors()[0].newInstance("order-42", "Ada Lovelace", true, 16, System.currentTimeMillis(), 159.84,
+            productIds, prices, new String[] { "gift wrap", "leave at the door" });
+
+    final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    writeTo = lookup.findVirtual(type, "writeTo", MethodType.methodType(void.class, ByteBuffer.class))
+            .asType(MethodType.methodType(void.class, Object.class, ByteBuffer.class));
+    readFrom = lookup.findStatic(type, "readFrom", MethodType.methodType(type, ByteBuffer.class))
+            .asType(MethodType.methodType(Object.class, ByteBuffer.class));
+    toJson = lookup.findVirtual(type, "toJson", MethodType.methodType(String.class))
+            .asType(MethodType.methodType(String.class, Object.class));
+    fromJson = lookup.findStatic(type, "fromJson", MethodType.methodType(type, CharSequence.class))
+            .asType(MethodType.methodType(Object.class, CharSequence.class));
+
+    buffer = ByteBuffer.allocate((int) type.getMethod("sizeInBytes").invoke(event));
+    encoded = ByteBuffer.allocate(buffer.capacity());
+    writeTo.invokeExact(event, encoded);
+    encoded.flip();
+    json = JsonSerialization.serialized(event);
+  }
+
+  @Benchmark
+  public ByteBuffer binaryWrite() throws Throwable {
+    buffer.clear();
+    writeTo.invokeExact(event, buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public Object binaryRead() throws Throwable {
+    return (Object) readFrom.invokeExact(encoded.duplicate());
+  }
+
+  @Benchmark
+  public String generatedJsonWrite() throws Throwable {
+    return (String) toJson.invokeExact(event);
+  }
+
+  @Benchmark
+  public Object generatedJsonRead() throws Throwable {
+    return (Object) fromJson.invokeExact((CharSequence) json);
+  }
+
+  @Benchmark
+  public String gsonWrite() {
+    return JsonSerialization.serialized(event);
+  }
+
+  @Benchmark
+  public Object gsonRead() {
+    return JsonSerialization.deserialized(json, type);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(CodecBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,148 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import io.vlingo.common.Outcome;
+import io.vlingo.common.version.SemanticVersion;
+import io.vlingo.schemata.codegen.CodeGenTests;
+import io.vlingo.schemata.codegen.TypeDefinitionCompiler;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+public class FlyweightGeneratorTest extends CodeGenTests {
+  private static final String FullyQualifiedTypeName = "Org:Unit:Context:Schema:SalutationHappened";
+
+  @Test
+  public void testThatFlyweightIsGeneratedOnRequest() {
+    final String result = compileSpecAndUnwrap(flyweightCompiler(), typeDefinition("allSingleTypes"), FullyQualifiedTypeName, "1.2.3");
+
+    assertTrue(result.contains("public static final class Flyweight {"));
+    assertTrue(result.contains("public static final int SCHEMA_VERSION = SemanticVersion.toValue(\"1.2.3\");"));
+    assertTrue(result.contains("public Flyweight wrap(final ByteBuffer buffer, final int offset) {"));
+    // the header, then longs and doubles, ints, floats and the slot of the string, shorts and chars, bytes and booleans
+    assertTrue(result.contains("public static final int BLOCK_LENGTH = 58;"));
+    assertTrue(result.contains("return buffer.getLong(offset + 8);"));
+    assertTrue(result.contains("return buffer.get(offset + 56) != 0;"));
+  }
+
+  @Test
+  public void testThatComposedTypesAreRejected() {
+    registerType("types/price", "Org:Unit:Context:Schema:Price", "1.0.0");
+    final String result = compileSpecAndUnwrap(flyweightCompiler(), typeDefinition("price-changed"), "Org:Unit:Context:Schema:PriceChanged", "0.5.1");
+
+    assertEquals("Code generation error", result);
+  }
+
+  @Test
+  public void testThatSingleTypesAreReadInPlace() throws Exception {
+    final Class<?> flyweight = compiledFlyweightOf("allSingleTypes");
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(256).order(ByteOrder.LITTLE_ENDIAN);
+    final Object writer = flyweight.newInstance();
+    flyweight.getMethod("wrapForEncode", ByteBuffer.class, int.class).invoke(writer, buffer, 16);
+    flyweight.getMethod("booleanAttribute", boolean.class).invoke(writer, true);
+    flyweight.getMethod("byteAttribute", byte.class).invoke(writer, (byte) 7);
+    flyweight.getMethod("charAttribute", char.class).invoke(writer, 'é');
+    flyweight.getMethod("doubleAttribute", double.class).invoke(writer, 0.25d);
+    flyweight.getMethod("floatAttribute", float.class).invoke(writer, 0.5f);
+    flyweight.getMethod("intAttribute", int.class).invoke(writer, 42);
+    flyweight.getMethod("longAttribute", long.class).invoke(writer, 4242L);
+    flyweight.getMethod("shortAttribute", short.class).invoke(writer, (short) 258);
+    flyweight.getMethod("stringAttribute", String.class).invoke(writer, "héllo 😀");
+
+    final Object reader = flyweight.newInstance();
+    flyweight.getMethod("wrap", ByteBuffer.class, int.class).invoke(reader, buffer, 16);
+
+    assertEquals(true, flyweight.getMethod("booleanAttribute").invoke(reader));
+    assertEquals((byte) 7, flyweight.getMethod("byteAttribute").invoke(reader));
+    assertEquals('é', flyweight.getMethod("charAttribute").invoke(reader));
+    assertEquals(0.25d, flyweight.getMethod("doubleAttribute").invoke(reader));
+    assertEquals(0.5f, flyweight.getMethod("floatAttribute").invoke(reader));
+    assertEquals(42, flyweight.getMethod("intAttribute").invoke(reader));
+    assertEquals(4242L, flyweight.getMethod("longAttribute").invoke(reader));
+    assertEquals((short) 258, flyweight.getMethod("shortAttribute").invoke(reader));
+    assertEquals("héllo 😀", flyweight.getMethod("stringAttribute").invoke(reader));
+    assertEquals("SalutationHappened", flyweight.getMethod("eventType").invoke(reader));
+    assertEquals(SemanticVersion.toValue("1.2.3"), flyweight.getMethod("eventVersion").invoke(reader));
+    assertEquals(58 + 4 + "héllo 😀".getBytes("UTF-8").length + 4 + "SalutationHappened".length(),
+            flyweight.getMethod("encodedLength").invoke(reader));
+  }
+
+  @Test
+  public void testThatArraysAreReadAndUpdatedInPlace() throws Exception {
+    final Class<?> flyweight = compiledFlyweightOf("basicArrays");
+    final ByteBuffer buffer = ByteBuffer.allocate(512);
+    final Object writer = flyweight.newInstance();
+    flyweight.getMethod("wrapForEncode", ByteBuffer.class, int.class).invoke(writer, buffer, 0);
+    flyweight.getMethod("intAttribute", int[].class).invoke(writer, new int[] { 1, -1, Integer.MAX_VALUE });
+    flyweight.getMethod("booleanAttribute", boolean[].class).invoke(writer, new boolean[] { true, false });
+    flyweight.getMethod("stringAttribute", String[].class).invoke(writer, (Object) new String[] { "foo", null, "", "baz" });
+
+    final Object reader = flyweight.newInstance();
+    flyweight.getMethod("wrap", ByteBuffer.class, int.class).invoke(reader, buffer, 0);
+    flyweight.getMethod("intAttribute", int.class, int.class).invoke(reader, 1, 7);
+
+    assertEquals(3, flyweight.getMethod("intAttributeLength").invoke(reader));
+    assertEquals(Integer.MAX_VALUE, flyweight.getMethod("intAttribute", int.class).invoke(reader, 2));
+    assertEquals(7, flyweight.getMethod("intAttribute", int.class).invoke(reader, 1));
+    assertEquals(false, flyweight.getMethod("booleanAttribute", int.class).invoke(reader, 1));
+    assertEquals(-1, flyweight.getMethod("longAttributeLength").invoke(reader));
+    assertEquals(4, flyweight.getMethod("stringAttributeLength").invoke(reader));
+    assertNull(flyweight.getMethod("stringAttribute", int.class).invoke(reader, 1));
+    assertEquals("", flyweight.getMethod("stringAttribute", int.class).invoke(reader, 2));
+    assertEquals("baz", flyweight.getMethod("stringAttribute", int.class).invoke(reader, 3));
+
+    try {
+      flyweight.getMethod("intAttribute", int.class).invoke(reader, 3);
+      fail("Reading past the last element must fail");
+    } catch (InvocationTargetException e) {
+      assertTrue(e.getCause() instanceof ArrayIndexOutOfBoundsException);
+    }
+  }
+
+  @Test
+  public void testThatAnotherSchemaVersionIsRejected() throws Exception {
+    final Class<?> flyweight = compiledFlyweightOf("allSingleTypes");
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    buffer.putInt(0, SemanticVersion.toValue("1.3.0"));
+
+    try {
+      flyweight.getMethod("wrap", ByteBuffer.class, int.class).invoke(flyweight.newInstance(), buffer, 0);
+      fail("Wrapping another schema version must fail");
+    } catch (InvocationTargetException e) {
+      assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+  }
+
+  private Class<?> compiledFlyweightOf(final String specification) throws ClassNotFoundException {
+    final InMemoryJavaCompiler compiler = new InMemoryJavaCompiler();
+    // compiling requires a JDK rather than a JRE
+    assumeTrue(compiler.isAvailable());
+
+    final String source = compileSpecAndUnwrap(flyweightCompiler(), typeDefinition(specification), FullyQualifiedTypeName, "1.2.3");
+    final Outcome<SchemataBusinessException, ClassFiles> outcome = compiler.compile("SalutationHappened", source);
+    final ClassFiles classFiles = outcome.resolve(ex -> { throw new AssertionError(source, ex); }, files -> files);
+
+    return new ClassFilesClassLoader(classFiles).loadClass("Context.event.SalutationHappened$Flyweight");
+  }
+
+  private TypeDefinitionCompiler flyweightCompiler() {
+    return compilerWith(new JavaBackend(EnumSet.of(JavaBackend.Codec.Flyweight)));
+  }
+}
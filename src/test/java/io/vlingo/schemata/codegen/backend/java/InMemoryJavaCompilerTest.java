@@ -0,0 +1,121 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+public class InMemoryJavaCompilerTest {
+  private static final String Source =
+          "package io.vlingo.schemata.event;\n" +
+          "\n" +
+          "import io.vlingo.lattice.model.DomainEvent;\n" +
+          "\n" +
+          "public final class SchemaDefined extends DomainEvent {\n" +
+          "  public final String name;\n" +
+          "\n" +
+          "  public SchemaDefined(final String name) {\n" +
+          "    this.name = name;\n" +
+          "  }\n" +
+          "\n" +
+          "  public static final class Nested {\n" +
+          "  }\n" +
+          "}\n";
+
+  private static final String Price =
+          "package ctx.data;\n" +
+          "\n" +
+          "public final class Price {\n" +
+          "  public final double amount;\n" +
+          "\n" +
+          "  public Price(final double amount) {\n" +
+          "    this.amount = amount;\n" +
+          "  }\n" +
+          "}\n";
+
+  private static final String PriceChanged =
+          "package ctx.event;\n" +
+          "\n" +
+          "import ctx.data.Price;\n" +
+          "import io.vlingo.lattice.model.DomainEvent;\n" +
+          "\n" +
+          "public final class PriceChanged extends DomainEvent {\n" +
+          "  public final Price newPrice;\n" +
+          "\n" +
+          "  public PriceChanged(final Price newPrice) {\n" +
+          "    this.newPrice = newPrice;\n" +
+          "  }\n" +
+          "}\n";
+
+  private InMemoryJavaCompiler compiler;
+
+  @Before
+  public void setUp() {
+    compiler = new InMemoryJavaCompiler();
+    // compiling requires a JDK rather than a JRE
+    assumeTrue(compiler.isAvailable());
+  }
+
+  @Test
+  public void testThatGeneratedSourceCompilesToClassFiles() {
+    final Outcome<SchemataBusinessException, ClassFiles> outcome = compiler.compile("SchemaDefined", Source);
+
+    assertTrue(outcome instanceof Success);
+    final Map<String, byte[]> files = outcome.get().files();
+    assertEquals(new HashSet<>(Arrays.asList(
+            "io/vlingo/schemata/event/SchemaDefined.class",
+            "io/vlingo/schemata/event/SchemaDefined$Nested.class")), files.keySet());
+    for (final byte[] file : files.values()) {
+      assertEquals((byte) 0xCA, file[0]);
+      assertEquals((byte) 0xFE, file[1]);
+    }
+  }
+
+  @Test
+  public void testThatCompilerIsReusable() {
+    assertTrue(compiler.compile("SchemaDefined", Source) instanceof Success);
+    assertTrue(compiler.compile("SchemaDefined", Source.replace("SchemaDefined", "SchemaRenamed")) instanceof Success);
+  }
+
+  @Test
+  public void testThatComposedTypeCompilesTogetherWithItsParts() {
+    assertTrue(compiler.compile("PriceChanged", PriceChanged) instanceof Failure);
+
+    final Map<String, String> sources = new LinkedHashMap<>();
+    sources.put("ctx/event/PriceChanged.java", PriceChanged);
+    sources.put("ctx/data/Price.java", Price);
+    final Outcome<SchemataBusinessException, ClassFiles> outcome = compiler.compile(sources);
+
+    assertTrue(outcome instanceof Success);
+    assertEquals(new HashSet<>(Arrays.asList(
+            "ctx/event/PriceChanged.class",
+            "ctx/data/Price.class")), outcome.get().files().keySet());
+  }
+
+  @Test
+  public void testThatInvalidSourceFails() {
+    final Outcome<SchemataBusinessException, ClassFiles> outcome = compiler.compile("SchemaDefined", "package x;\n\npublic final class SchemaDefined { int }\n");
+
+    assertTrue(outcome instanceof Failure);
+    assertEquals(SchemataBusinessException.Code.CODE_GENERATION_ERROR, outcome.resolve(ex -> ex.errorCode, files -> null));
+  }
+}
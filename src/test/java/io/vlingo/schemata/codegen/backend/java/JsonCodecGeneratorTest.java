@@ -0,0 +1,149 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.backend.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import io.vlingo.common.Outcome;
+import io.vlingo.common.version.SemanticVersion;
+import io.vlingo.schemata.codegen.CodeGenTests;
+import io.vlingo.schemata.codegen.TypeDefinitionCompiler;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+public class JsonCodecGeneratorTest extends CodeGenTests {
+  private static final String FullyQualifiedTypeName = "Org:Unit:Context:Schema:SalutationHappened";
+
+  @Test
+  public void testThatJsonCodecIsGeneratedOnRequest() {
+    final String plain = compileSpecAndUnwrap(compilerWithJavaBackend(), typeDefinition("allSingleTypes"), FullyQualifiedTypeName, "1.2.3");
+    final String json = compileSpecAndUnwrap(jsonCompiler(), typeDefinition("allSingleTypes"), FullyQualifiedTypeName, "1.2.3");
+
+    assertFalse(plain.contains("toJson"));
+    assertTrue(json.contains("public void writeJson(final StringBuilder json) {"));
+    assertTrue(json.contains("public String toJson() {"));
+    assertTrue(json.contains("public static SalutationHappened fromJson(final CharSequence json) {"));
+    assertTrue(json.contains("private static final class JsonReader {"));
+    assertFalse(json.contains("reflect"));
+    assertFalse(json.contains("Map"));
+  }
+
+  @Test
+  public void testThatComposedTypesDelegateToTheirCodec() {
+    registerType("types/price", "Org:Unit:Context:Schema:Price", "1.0.0");
+    final String result = compileSpecAndUnwrap(jsonCompiler(), typeDefinition("price-changed"), "Org:Unit:Context:Schema:PriceChanged", "0.5.1");
+
+    assertTrue(result.contains("this.oldPrice.writeJson(json);"));
+    assertTrue(result.contains("newPrice = jsonReader.consumeNull() ? null : Price.fromJson(jsonReader.skipValue());"));
+  }
+
+  @Test
+  public void testThatSingleTypesRoundTrip() throws Exception {
+    final Class<?> type = compiledClassOf("allSingleTypes");
+    final Object written = type.getConstructors()[0].newInstance(true, (byte) 7, 'é', 0.25d, 0.5f, 42, -4242L, (short) 258, "\"quoted\"\n\ttabbed \\ 😀");
+
+    final String json = (String) type.getMethod("toJson").invoke(written);
+
+    assertTrue(json.startsWith("{\"eventType\":\"SalutationHappened\",\"occurredOn\":"));
+    assertFieldsEqual(type, written, fromJson(type, json));
+  }
+
+  @Test
+  public void testThatArraysRoundTrip() throws Exception {
+    final Class<?> type = compiledClassOf("basicArrays");
+    final Object written = type.getConstructors()[0].newInstance(
+            new boolean[] { true, false },
+            new byte[] { 1, -2, 3 },
+            new char[] { 'x', '"' },
+            new double[] { 0.1d, -2.5e10d },
+            new float[0],
+            new int[] { 1, -1, Integer.MAX_VALUE },
+            new long[] { Long.MIN_VALUE + 1, 0L },
+            null,
+            new String[] { "foo", null, "" });
+
+    final Object read = fromJson(type, (String) type.getMethod("toJson").invoke(written));
+
+    assertFieldsEqual(type, written, read);
+    assertNull(type.getField("shortAttribute").get(read));
+  }
+
+  @Test
+  public void testThatUnknownFieldsAreSkippedAndMissingFieldsDefaulted() throws Exception {
+    final Class<?> type = compiledClassOf("basicWithDefaultValues");
+
+    final Object read = fromJson(type,
+            " { \"unknown\" : { \"nested\" : [ 1, \"]}\\\"\", { } ], \"flag\": null },\n" +
+            "   \"intAttribute\" : 5, \"other\": -1.5e3, \"longAttribute\": null, \"stringAttribute\": \"b\\u00e4r\" } ");
+
+    assertEquals(5, type.getField("intAttribute").get(read));
+    assertEquals("bär", type.getField("stringAttribute").get(read));
+    assertEquals(42L, type.getField("longAttribute").get(read));
+    assertEquals(true, type.getField("booleanAttribute").get(read));
+    assertEquals('x', type.getField("charAttribute").get(read));
+    assertEquals(0.42f, type.getField("floatAttribute").get(read));
+    assertEquals("SalutationHappened", type.getField("eventType").get(read));
+    assertEquals(SemanticVersion.toValue("1.2.3"), type.getField("eventVersion").get(read));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatMalformedJsonIsRejected() throws Throwable {
+    final Class<?> type = compiledClassOf("basicWithDefaultValues");
+    try {
+      fromJson(type, "{\"intAttribute\": 5");
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private Object fromJson(final Class<?> type, final String json) throws Exception {
+    return type.getMethod("fromJson", CharSequence.class).invoke(null, json);
+  }
+
+  private void assertFieldsEqual(final Class<?> type, final Object expected, final Object actual) throws IllegalAccessException {
+    for (final Field field : type.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers())) {
+        continue;
+      }
+      final Object expectedValue = field.get(expected);
+      final Object actualValue = field.get(actual);
+      if (expectedValue != null && expectedValue.getClass().isArray()) {
+        assertArrayEquals(field.getName(), new Object[] { expectedValue }, new Object[] { actualValue });
+      } else {
+        assertEquals(field.getName(), expectedValue, actualValue);
+      }
+    }
+  }
+
+  private Class<?> compiledClassOf(final String specification) throws ClassNotFoundException {
+    final InMemoryJavaCompiler compiler = new InMemoryJavaCompiler();
+    // compiling requires a JDK rather than a JRE
+    assumeTrue(compiler.isAvailable());
+
+    final String source = compileSpecAndUnwrap(jsonCompiler(), typeDefinition(specification), FullyQualifiedTypeName, "1.2.3");
+    final Outcome<SchemataBusinessException, ClassFiles> outcome = compiler.compile("SalutationHappened", source);
+    final ClassFiles classFiles = outcome.resolve(ex -> { throw new AssertionError(source, ex); }, files -> files);
+
+    return new ClassFilesClassLoader(classFiles).loadClass("Context.event.SalutationHappened");
+  }
+
+  private TypeDefinitionCompiler jsonCompiler() {
+    return compilerWith(new JavaBackend(EnumSet.of(JavaBackend.Codec.Json)));
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CodeCacheTest {
+  private static final String Reference = "Org:Unit:Context:Schema:1.0.0";
+  private static final String NoDependencies = CodeCache.specificationHash("");
+
+  @Test
+  public void testThatChangedSpecificationMissesCache() {
+    final CodeCache cache = CodeCache.with(10, 1024);
+    cache.cache(CodeCache.Key.of(Reference, "1.0.0", "java", "event Foo {}", NoDependencies, "SV1"), "class Foo {}");
+
+    assertTrue(cache.codeFor(CodeCache.Key.of(Reference, "1.0.0", "java", "event Foo {}", NoDependencies, "SV1")).isPresent());
+    assertFalse(cache.codeFor(CodeCache.Key.of(Reference, "1.0.0", "java", "event Foo { int i }", NoDependencies, "SV1")).isPresent());
+    assertFalse(cache.codeFor(CodeCache.Key.of(Reference, "1.0.0", "csharp", "event Foo {}", NoDependencies, "SV1")).isPresent());
+    assertEquals(1, cache.hits());
+    assertEquals(2, cache.misses());
+  }
+
+  @Test
+  public void testThatChangedDependenciesMissCache() {
+    final CodeCache cache = CodeCache.with(10, 1024);
+    final String dependencies = CodeCache.specificationHash("Data Org:Unit:Context:Bar {  int i; }");
+    cache.cache(CodeCache.Key.of(Reference, "1.0.0", "java", "event Foo { Org:Unit:Context:Bar bar }", dependencies, "SV1"), "class Foo {}");
+
+    assertTrue(cache.codeFor(CodeCache.Key.of(Reference, "1.0.0", "java", "event Foo { Org:Unit:Context:Bar bar }", dependencies, "SV1")).isPresent());
+    assertFalse(cache.codeFor(CodeCache.Key.of(Reference, "1.0.0", "java", "event Foo { Org:Unit:Context:Bar bar }", NoDependencies, "SV1")).isPresent());
+  }
+
+  @Test
+  public void testThatSchemaVersionInvalidationRemovesAllLanguages() {
+    final CodeCache cache = CodeCache.with(10, 1024);
+    cache.cache(CodeCache.Key.of(Reference, "1.0.0", "java", "event Foo {}", NoDependencies, "SV1"), "class Foo {}");
+    cache.cache(CodeCache.Key.of(Reference, "1.0.0", "csharp", "event Foo {}", NoDependencies, "SV1"), "class Foo {}");
+    cache.cache(CodeCache.Key.of("Org:Unit:Context:Bar:1.0.0", "1.0.0", "java", "event Bar {}", NoDependencies, "SV2"), "class Bar {}");
+
+    assertEquals(2, cache.invalidate("SV1"));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testThatCompressedVariantsAreInvalidatedWithCode() {
+    final CodeCache cache = CodeCache.with(10, 1024);
+    final CodeCache.Key key = CodeCache.Key.of(Reference, "1.0.0", "java", "event Foo {}", NoDependencies, "SV1");
+    cache.cache(key, "class Foo {}");
+    cache.cacheCompressed(key, "gzip", new byte[] { 1, 2, 3 });
+
+    assertTrue(cache.compressedFor(CodeCache.Key.of(Reference, "1.0.0", "java", "event Foo {}", NoDependencies, "SV1"), "gzip").isPresent());
+    assertFalse(cache.compressedFor(key, "deflate").isPresent());
+
+    assertEquals(1, cache.invalidate("SV1"));
+    assertFalse(cache.compressedFor(key, "gzip").isPresent());
+    assertEquals(0, cache.compressedSize());
+  }
+
+  @Test
+  public void testThatSpecificationHashIsStable() {
+    assertEquals(CodeCache.specificationHash("event Foo {}"), CodeCache.specificationHash("event Foo {}"));
+    assertNotEquals(CodeCache.specificationHash("event Foo {}"), CodeCache.specificationHash("event Bar {}"));
+    assertEquals(64, CodeCache.specificationHash("event Foo {}").length());
+  }
+}
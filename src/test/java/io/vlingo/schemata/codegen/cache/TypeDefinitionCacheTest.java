@@ -0,0 +1,99 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import io.vlingo.schemata.codegen.ast.FieldDefinition;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.model.Category;
+
+public class TypeDefinitionCacheTest {
+  private static final String Versioned = "Org:Unit:Context:Price:1.0.0";
+  private static final String Latest = "Org:Unit:Context:Price";
+
+  @Test
+  public void testThatResolvedDefinitionIsCached() {
+    final TypeDefinitionCache cache = TypeDefinitionCache.with(10, 10);
+    final TypeDefinition price = definition("Price");
+    cache.cache(Versioned, "SV1", price);
+
+    assertSame(price, cache.definitionFor(Versioned).get());
+    assertFalse(cache.definitionFor("Org:Unit:Context:Price:2.0.0").isPresent());
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  public void testThatSchemaVersionInvalidationAlsoDropsLatest() {
+    final TypeDefinitionCache cache = TypeDefinitionCache.with(10, 10);
+    cache.cache(Versioned, "SV1", definition("Price"));
+    cache.cache("Org:Unit:Context:Money:1.0.0", "SV2", definition("Money"));
+    cache.cache(Latest, "SV1", definition("Price"));
+
+    assertEquals(2, cache.invalidate("SV1"));
+    assertFalse(cache.definitionFor(Versioned).isPresent());
+    assertFalse(cache.definitionFor(Latest).isPresent());
+    assertTrue(cache.definitionFor("Org:Unit:Context:Money:1.0.0").isPresent());
+  }
+
+  @Test
+  public void testThatLatestInvalidationKeepsVersioned() {
+    final TypeDefinitionCache cache = TypeDefinitionCache.with(10, 10);
+    cache.cache(Versioned, "SV1", definition("Price"));
+    cache.cache(Latest, "SV1", definition("Price"));
+
+    assertEquals(1, cache.invalidateLatest());
+    assertTrue(cache.definitionFor(Versioned).isPresent());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testThatSchemaVersionInvalidationDropsDefinitionsNestingIt() {
+    final TypeDefinitionCache cache = TypeDefinitionCache.with(10, 10);
+    final TypeDefinition money = new TypeDefinition(Category.Data, "Org:Unit:Context:Money:1.0.0", "Money", Collections.emptyList());
+    cache.cache("Org:Unit:Context:Money:1.0.0", "SV2", money);
+    cache.cache(Versioned, "SV1", nesting("Price", money));
+    cache.cache("Org:Unit:Context:Order:1.0.0", "SV3", nesting("Order", nesting("Price", money)));
+    cache.cache("Org:Unit:Context:Other:1.0.0", "SV4", definition("Other"));
+
+    assertEquals(3, cache.invalidate("SV2"));
+    assertFalse(cache.definitionFor(Versioned).isPresent());
+    assertFalse(cache.definitionFor("Org:Unit:Context:Order:1.0.0").isPresent());
+    assertTrue(cache.definitionFor("Org:Unit:Context:Other:1.0.0").isPresent());
+  }
+
+  @Test
+  public void testThatLatestInvalidationDropsDefinitionsNestingLatest() {
+    final TypeDefinitionCache cache = TypeDefinitionCache.with(10, 10);
+    final TypeDefinition money = new TypeDefinition(Category.Data, "Org:Unit:Context:Money", "Money", Collections.emptyList());
+    cache.cache(Versioned, "SV1", nesting("Price", money));
+    cache.cache("Org:Unit:Context:Other:1.0.0", "SV4", definition("Other"));
+
+    assertEquals(1, cache.invalidateLatest());
+    assertFalse(cache.definitionFor(Versioned).isPresent());
+    assertTrue(cache.definitionFor("Org:Unit:Context:Other:1.0.0").isPresent());
+  }
+
+  private TypeDefinition nesting(final String typeName, final TypeDefinition dependency) {
+    return new TypeDefinition(Category.Data, "Org:Unit:Context:" + typeName + ":1.0.0", typeName,
+            Collections.singletonList(new FieldDefinition(dependency, Optional.empty(), "nested", Optional.empty())));
+  }
+
+  private TypeDefinition definition(final String typeName) {
+    return new TypeDefinition(Category.Data, "Org:Unit:Context:" + typeName, typeName, Collections.emptyList());
+  }
+}
@@ -0,0 +1,89 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.vlingo.common.Outcome;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+/**
+ * Measures parsing of the {@code allSingleTypes} fixture by one {@code AntlrTypeParser}
+ * shared by all benchmark threads. Run with {@code main} from the test classpath, which
+ * runs one thread and then four. The parser before it was made thread-safe can only be
+ * measured by {@code parseFromInputStream} on one thread: copied there without
+ * {@code parseFromString}, which it lacks, that is the figure to compare against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AntlrTypeParserBenchmark {
+  private static final String FullyQualifiedTypeName = "Org:Unit:Context:Schema:AllSingleTypes";
+
+  private TypeParser parser;
+  private String specification;
+  private byte[] specificationBytes;
+
+  @Setup
+  public void setUp() throws IOException {
+    parser = new AntlrTypeParser();
+    specification = read("/io/vlingo/schemata/codegen/vss/allSingleTypes.vss");
+    specificationBytes = specification.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public Outcome<SchemataBusinessException, Node> parseFromString() {
+    return parser.parseTypeDefinition(specification, FullyQualifiedTypeName);
+  }
+
+  @Benchmark
+  public Outcome<SchemataBusinessException, Node> parseFromInputStream() {
+    return parser.parseTypeDefinition(new ByteArrayInputStream(specificationBytes), FullyQualifiedTypeName);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    for (final int threads : new int[] { 1, 4 }) {
+      new Runner(new OptionsBuilder().include(AntlrTypeParserBenchmark.class.getSimpleName()).threads(threads).build()).run();
+    }
+  }
+
+  private String read(final String resource) throws IOException {
+    try (final InputStream stream = getClass().getResourceAsStream(resource)) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[1024];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        bytes.write(buffer, 0, read);
+      }
+      return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+public class AntlrTypeParserTest {
+  private static final String Valid = "event PriceChanged {\n    double amount\n    string currency\n}";
+  private static final String Invalid = "event PriceChanged\n    type eventType\n    timestam [] = p occurredOn\n    version event|{}Version\n}";
+
+  @Test
+  public void testThatValidSpecificationIsParsedBySll() {
+    final AntlrTypeParser parser = new AntlrTypeParser();
+
+    final Outcome<SchemataBusinessException, Node> outcome = parser.parseTypeDefinition(Valid, "O:U:C:S:PriceChanged");
+
+    assertTrue(outcome instanceof Success);
+    assertEquals(2, ((TypeDefinition) outcome.get()).children.size());
+    assertEquals(1, parser.sllParses());
+    assertEquals(0, parser.llParses());
+  }
+
+  @Test
+  public void testThatInvalidSpecificationFallsBackToLlAndFails() {
+    final AntlrTypeParser parser = new AntlrTypeParser();
+
+    final Outcome<SchemataBusinessException, Node> outcome = parser.parseTypeDefinition(Invalid, "O:U:C:S:PriceChanged");
+
+    assertTrue(outcome instanceof Failure);
+    assertEquals(0, parser.sllParses());
+    assertEquals(1, parser.llParses());
+  }
+
+  @Test
+  public void testThatOneParserIsSafeToShareBetweenThreads() throws Exception {
+    final AntlrTypeParser parser = new AntlrTypeParser();
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    final List<Future<Outcome<SchemataBusinessException, Node>>> parsed = new ArrayList<>();
+
+    try {
+      for (int index = 0; index < 400; ++index) {
+        final String specification = index % 4 == 0 ? Invalid : Valid;
+        parsed.add(executor.submit(() -> parser.parseTypeDefinition(specification, "O:U:C:S:PriceChanged")));
+      }
+
+      for (int index = 0; index < parsed.size(); ++index) {
+        final Outcome<SchemataBusinessException, Node> outcome = parsed.get(index).get();
+        if (index % 4 == 0) {
+          assertTrue(outcome instanceof Failure);
+        } else {
+          assertEquals("PriceChanged", ((TypeDefinition) outcome.get()).typeName);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(300, parser.sllParses());
+    assertEquals(100, parser.llParses());
+  }
+}
@@ -0,0 +1,150 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+
+/**
+ * Checks that the {@code RecursiveDescentTypeParser} accepts and rejects the same
+ * specifications as the {@code AntlrTypeParser}, and builds the same AST for those
+ * it accepts. The corpus is the {@code .vss} fixtures and every prefix of them cut
+ * at whitespace, most of which are invalid.
+ */
+public class TypeParserDifferentialTest {
+  private static final String FullyQualifiedTypeName = "Org:Unit:Context:Schema:Type";
+  private static final List<String> Fixtures = Arrays.asList(
+          "allSingleTypes", "basic", "basicArrays", "basicArraysWithDefaultValues",
+          "basicWithDefaultValues", "invalid", "minimal", "price-changed", "types/price");
+
+  private final TypeParser antlr = new AntlrTypeParser();
+  private final TypeParser descent = new RecursiveDescentTypeParser();
+
+  @Test
+  public void testThatFixturesParseTheSame() throws IOException {
+    for (final String fixture : Fixtures) {
+      assertSameParse(fixture, specification(fixture));
+    }
+  }
+
+  @Test
+  public void testThatFixturePrefixesParseTheSame() throws IOException {
+    for (final String fixture : Fixtures) {
+      final String specification = specification(fixture);
+      for (final int end : whitespaceOffsets(specification)) {
+        assertSameParse(fixture + " up to " + end, specification.substring(0, end));
+      }
+    }
+  }
+
+  @Test
+  public void testThatInvalidSpecificationsAreRejectedByBoth() {
+    final List<String> invalid = Arrays.asList(
+            "",
+            "event",
+            "event Foo",
+            "event foo { }",
+            "happened Foo { }",
+            "event Foo { int }",
+            "event Foo { int x = 4 }",
+            "event Foo { byte x = 4242 }",
+            "event Foo { long[] x = { 4242, } }",
+            "event Foo { string x = 'c' }",
+            "event Foo { Org:Unit:Context:Schema:Bar[] x = null }",
+            "event Foo { timestamp }",
+            "event Foo { } }");
+
+    for (final String specification : invalid) {
+      assertSameParse(specification, specification);
+      assertFalse("Must reject: " + specification, succeeded(descent, specification));
+    }
+  }
+
+  @Test
+  public void testThatLexicalCornerCasesParseTheSame() {
+    final List<String> specifications = Arrays.asList(
+            "event Foo { /* comment */ int x = 4242 // trailing\n }",
+            "event Foo { byte b = 123 short s = 258 long l = 42L int i = 1_000 }",
+            "event Foo { double d = .5e10 float f = 1.f double e = 1e3d }",
+            "event Foo { char c = '\\u0041' string s = \"a\\\"b\" string n = null }",
+            "event Foo { boolean[] flags = { true, false } int[] one = { 4242 } }",
+            "event Foo { Org:Unit:Context:Schema:Bar:1.0.0 bar Org:Unit:Context:Schema:Bar[] bars }",
+            "data Foo { string s = \"tab\\there\" }");
+
+    for (final String specification : specifications) {
+      assertSameParse(specification, specification);
+    }
+  }
+
+  private void assertSameParse(final String label, final String specification) {
+    final Outcome<SchemataBusinessException, Node> expected = parse(antlr, specification);
+    final Outcome<SchemataBusinessException, Node> actual = parse(descent, specification);
+
+    assertEquals("Acceptance differs for " + label, expected instanceof Success, actual instanceof Success);
+    if (expected instanceof Success) {
+      assertEquals("AST differs for " + label, expected.get(), actual.get());
+    } else {
+      assertEquals("Error differs for " + label, errorCodeOf(expected), errorCodeOf(actual));
+    }
+  }
+
+  private SchemataBusinessException.Code errorCodeOf(final Outcome<SchemataBusinessException, Node> outcome) {
+    return outcome.resolve(ex -> ex.errorCode, node -> null);
+  }
+
+  private boolean succeeded(final TypeParser parser, final String specification) {
+    return parse(parser, specification) instanceof Success;
+  }
+
+  private Outcome<SchemataBusinessException, Node> parse(final TypeParser parser, final String specification) {
+    try {
+      return parser.parseTypeDefinition(specification, FullyQualifiedTypeName);
+    } catch (RuntimeException e) {
+      // the ANTLR tree walk can fail on a recovered tree; that is a rejection too
+      return Failure.of(SchemataBusinessException.invalidSchemaDefinition("Parsing failed", e));
+    }
+  }
+
+  private List<Integer> whitespaceOffsets(final String specification) {
+    final List<Integer> offsets = new ArrayList<>();
+    for (int index = 0; index < specification.length(); ++index) {
+      if (Character.isWhitespace(specification.charAt(index))) {
+        offsets.add(index);
+      }
+    }
+    return offsets;
+  }
+
+  private String specification(final String fixture) throws IOException {
+    try (final InputStream stream = getClass().getResourceAsStream("/io/vlingo/schemata/codegen/vss/" + fixture + ".vss")) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[1024];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        bytes.write(buffer, 0, read);
+      }
+      return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.processor.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.vlingo.common.Completes;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.model.Category;
+
+public class CacheTypeResolverTest {
+  private static final String Price = "Org:Unit:Context:Schema:Price";
+
+  @Test
+  public void testThatVersionedAndUnversionedNamesResolve() {
+    final CacheTypeResolver resolver = new CacheTypeResolver();
+    final TypeDefinition first = definition(Price);
+    final TypeDefinition second = definition(Price);
+    resolver.produce(first, "1.0.0");
+    resolver.produce(second, "2.0.0");
+
+    assertSame(first, resolved(resolver, Price + ":1.0.0"));
+    assertSame(second, resolved(resolver, Price + ":2.0.0"));
+    assertSame(second, resolved(resolver, Price));
+    assertFalse(resolver.resolve(null, Price + ":3.0.0").await().isPresent());
+  }
+
+  @Test
+  public void testThatEldestVersionsAreEvicted() {
+    final CacheTypeResolver resolver = new CacheTypeResolver(2);
+    resolver.produce(definition(Price), "1.0.0");
+    resolver.produce(definition(Price), "2.0.0");
+    resolver.produce(definition(Price), "3.0.0");
+
+    assertEquals(2, resolver.size());
+    assertFalse(resolver.resolve(null, Price + ":1.0.0").await().isPresent());
+    assertSame(resolved(resolver, Price + ":3.0.0"), resolved(resolver, Price));
+  }
+
+  @Test
+  public void testThatMissesAreResolvedByNextOnce() {
+    final TypeDefinition price = definition(Price);
+    final AtomicInteger calls = new AtomicInteger();
+    final CacheTypeResolver resolver = new CacheTypeResolver((middleware, name) -> {
+      calls.incrementAndGet();
+      return Completes.withSuccess(Optional.of(price));
+    }, 10);
+
+    assertSame(price, resolved(resolver, Price + ":1.0.0"));
+    assertSame(price, resolved(resolver, Price + ":1.0.0"));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void testThatUnversionedAnswersOfNextAreNotHeld() {
+    final TypeDefinition price = definition(Price);
+    final AtomicInteger calls = new AtomicInteger();
+    final CacheTypeResolver resolver = new CacheTypeResolver((middleware, name) -> {
+      calls.incrementAndGet();
+      return Completes.withSuccess(Optional.of(price));
+    }, 10);
+
+    assertSame(price, resolved(resolver, Price));
+    assertSame(price, resolved(resolver, Price));
+    assertEquals(2, calls.get());
+    assertEquals(0, resolver.size());
+  }
+
+  @Test
+  public void testThatEvictedNameReproducedIsNotEvictedAsEldest() {
+    final CacheTypeResolver resolver = new CacheTypeResolver(2);
+    resolver.produce(definition(Price), "1.0.0");
+    resolver.evict(Price + ":1.0.0");
+    resolver.produce(definition(Price), "2.0.0");
+    final TypeDefinition reproduced = definition(Price);
+    resolver.produce(reproduced, "1.0.0");
+    resolver.produce(definition(Price), "3.0.0");
+
+    assertEquals(2, resolver.size());
+    assertSame(reproduced, resolved(resolver, Price + ":1.0.0"));
+    assertFalse(resolver.resolve(null, Price + ":2.0.0").await().isPresent());
+  }
+
+  private TypeDefinition resolved(final CacheTypeResolver resolver, final String name) {
+    return resolver.resolve(null, name).await().get();
+  }
+
+  private TypeDefinition definition(final String fullyQualifiedTypeName) {
+    return new TypeDefinition(Category.Data, fullyQualifiedTypeName, "Price", Collections.emptyList());
+  }
+}
@@ -0,0 +1,113 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.processor.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.vlingo.common.Completes;
+import io.vlingo.schemata.codegen.ast.FieldDefinition;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.ast.types.BasicType;
+import io.vlingo.schemata.codegen.ast.types.Type;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.model.Category;
+
+public class TypeDependencyClosureTest {
+  private static final String Order = "Org:Unit:Context:Order:1.0.0";
+  private static final String Line = "Org:Unit:Context:Line:1.0.0";
+  private static final String Customer = "Org:Unit:Context:Customer:1.0.0";
+  private static final String Money = "Org:Unit:Context:Money:1.0.0";
+  private static final String Missing = "Org:Unit:Context:Missing:1.0.0";
+
+  @Test
+  public void testThatDiamondDependenciesAreTakenOnce() {
+    final TypeDefinition money = definition(Money, field(new BasicType("long"), "amount"));
+    final TypeDefinition line = definition(Line, field(money, "price"));
+    final TypeDefinition customer = definition(Customer, field(money, "credit"), field(new BasicType(Missing), "missing"));
+    final TypeDefinition order = definition(Order, field(line, "line"), field(customer, "customer"), field(money, "total"));
+
+    final AtomicInteger resolutions = new AtomicInteger();
+    final TypeResolver resolver = (middleware, name) -> {
+      resolutions.incrementAndGet();
+      return Completes.withSuccess(Order.equals(name) ? Optional.of(order) : Optional.empty());
+    };
+
+    final TypeDependencyClosure closure = TypeDependencyClosure.of(resolver, null, Order).await();
+
+    assertEquals(1, resolutions.get());
+    assertEquals(Order, closure.root.get().fullyQualifiedTypeName);
+    assertEquals(3, closure.dependencies.size());
+    assertEquals(4, closure.references().size());
+    assertEquals(Order, closure.references().get(0));
+    assertEquals(new HashSet<>(Arrays.asList(Line, Customer, Money)), new HashSet<>(closure.references().subList(1, 4)));
+    assertEquals(Collections.singleton(Missing), closure.unresolved);
+  }
+
+  @Test
+  public void testThatUnresolvedRootHasNoDependencies() {
+    final TypeDependencyClosure closure = TypeDependencyClosure.of((middleware, name) -> Completes.withSuccess(Optional.empty()), null, Missing).await();
+
+    assertFalse(closure.root.isPresent());
+    assertEquals(0, closure.dependencies.size());
+    assertEquals(Collections.singleton(Missing), closure.unresolved);
+  }
+
+  @Test
+  public void testThatDigestChangesWithDependenciesOnly() {
+    final TypeDefinition money = definition(Money, field(new BasicType("long"), "amount"));
+    final TypeDefinition order = definition(Order, field(money, "total"));
+    final String digest = TypeDependencyClosure.of(order).digest();
+
+    assertEquals(digest, TypeDependencyClosure.of(definition(Order, field(money, "total"))).digest());
+    assertEquals(digest, TypeDependencyClosure.of(definition(Order, field(money, "total"), field(new BasicType("int"), "count"))).digest());
+
+    final TypeDefinition changedMoney = definition(Money, field(new BasicType("long"), "amount"), field(new BasicType("string"), "currency"));
+    assertNotEquals(digest, TypeDependencyClosure.of(definition(Order, field(changedMoney, "total"))).digest());
+    assertNotEquals(digest, TypeDependencyClosure.of(definition(Order, field(new BasicType(Money), "total"))).digest());
+  }
+
+  @Test
+  public void testThatOnlyTypesWithoutReferencesAreSelfContained() {
+    final TypeDefinition money = definition(Money, field(new BasicType("long"), "amount"));
+
+    assertTrue(TypeDependencyClosure.of(money).isSelfContained());
+    assertFalse(TypeDependencyClosure.of(definition(Order, field(money, "total"))).isSelfContained());
+    assertFalse(TypeDependencyClosure.of(definition(Order, field(new BasicType(Missing), "missing"))).isSelfContained());
+  }
+
+  @Test
+  public void testThatOnlyVersionedDependenciesArePinned() {
+    final TypeDefinition money = definition(Money, field(new BasicType("long"), "amount"));
+    final TypeDefinition latestMoney = definition("Org:Unit:Context:Money", field(new BasicType("long"), "amount"));
+
+    assertTrue(TypeDependencyClosure.of(definition(Order, field(new BasicType("int"), "count"))).isPinned());
+    assertTrue(TypeDependencyClosure.of(definition(Order, field(money, "total"))).isPinned());
+    assertFalse(TypeDependencyClosure.of(definition(Order, field(latestMoney, "total"))).isPinned());
+    assertFalse(TypeDependencyClosure.of(definition(Order, field(new BasicType(Missing), "missing"))).isPinned());
+  }
+
+  private FieldDefinition field(final Type type, final String name) {
+    return new FieldDefinition(type, Optional.empty(), name, Optional.empty());
+  }
+
+  private TypeDefinition definition(final String fullyQualifiedTypeName, final Node... fields) {
+    final String[] parts = fullyQualifiedTypeName.split(":");
+    return new TypeDefinition(Category.Data, fullyQualifiedTypeName, parts[3], Arrays.asList(fields));
+  }
+}
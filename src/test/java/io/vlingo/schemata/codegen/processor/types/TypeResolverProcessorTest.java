@@ -0,0 +1,135 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.codegen.processor.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.actors.World;
+import io.vlingo.actors.testkit.TestWorld;
+import io.vlingo.common.Completes;
+import io.vlingo.schemata.codegen.TypeDefinitionMiddleware;
+import io.vlingo.schemata.codegen.ast.FieldDefinition;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.ast.types.BasicType;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.codegen.parser.AntlrTypeParser;
+import io.vlingo.schemata.codegen.processor.Processor;
+
+public class TypeResolverProcessorTest {
+  private static final String Price = "Org:Unit:Context:Schema:Price";
+  private static final String Broken = "Org:Unit:Context:Schema:Broken";
+
+  private World world;
+  private CountingTypeResolver resolver;
+  private Processor processor;
+
+  @Test
+  public void testThatDuplicateReferencesAreResolvedOnce() {
+    final TypeDefinition result = (TypeDefinition) processor.process(parsed(
+            "event PriceChanged {\n" +
+            "    " + Price + " oldPrice\n" +
+            "    " + Price + " newPrice\n" +
+            "    " + Price + " limitPrice\n" +
+            "    string reason\n" +
+            "}"), null, "Org:Unit:Context:Schema:PriceChanged").await(5000);
+
+    assertEquals(1, resolver.calls(Price));
+    assertEquals(1, resolver.calls("string"));
+    assertEquals(4, result.children.size());
+    assertSame(resolver.price, ((FieldDefinition) result.children.get(0)).type);
+    assertSame(resolver.price, ((FieldDefinition) result.children.get(1)).type);
+    assertSame(resolver.price, ((FieldDefinition) result.children.get(2)).type);
+    assertEquals("reason", ((FieldDefinition) result.children.get(3)).name);
+  }
+
+  @Test
+  public void testThatFieldOrderIsKept() {
+    final TypeDefinition result = (TypeDefinition) processor.process(parsed(
+            "event Ordered {\n" +
+            "    string first\n" +
+            "    int second\n" +
+            "    " + Price + " third\n" +
+            "    long fourth\n" +
+            "}"), null, "Org:Unit:Context:Schema:Ordered").await(5000);
+
+    assertEquals("first", ((FieldDefinition) result.children.get(0)).name);
+    assertEquals("second", ((FieldDefinition) result.children.get(1)).name);
+    assertEquals("third", ((FieldDefinition) result.children.get(2)).name);
+    assertEquals("fourth", ((FieldDefinition) result.children.get(3)).name);
+  }
+
+  @Test
+  public void testThatFailedResolutionLeavesTheTypeUnresolved() {
+    final TypeDefinition result = (TypeDefinition) processor.process(parsed(
+            "event Failing {\n" +
+            "    " + Broken + " broken\n" +
+            "    " + Price + " price\n" +
+            "}"), null, "Org:Unit:Context:Schema:Failing").await(5000);
+
+    assertEquals(1, resolver.calls(Broken));
+    assertEquals(2, result.children.size());
+    assertEquals(Broken, ((BasicType) ((FieldDefinition) result.children.get(0)).type).typeName);
+    assertSame(resolver.price, ((FieldDefinition) result.children.get(1)).type);
+  }
+
+  @Before
+  public void setUp() {
+    world = TestWorld.startWithDefaults(getClass().getSimpleName()).world();
+    resolver = new CountingTypeResolver();
+    processor = world.actorFor(Processor.class, TypeResolverProcessor.class, resolver);
+  }
+
+  @After
+  public void tearDown() {
+    world.terminate();
+  }
+
+  private Node parsed(final String specification) {
+    return new AntlrTypeParser()
+            .parseTypeDefinition(new ByteArrayInputStream(specification.getBytes()), null)
+            .getOrNull();
+  }
+
+  private static class CountingTypeResolver implements TypeResolver {
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final TypeDefinition price;
+
+    CountingTypeResolver() {
+      final Node parsed = new AntlrTypeParser()
+              .parseTypeDefinition(new ByteArrayInputStream("data Price {\n    double amount\n}".getBytes()), Price)
+              .getOrNull();
+      this.price = (TypeDefinition) parsed;
+    }
+
+    @Override
+    public Completes<Optional<TypeDefinition>> resolve(final TypeDefinitionMiddleware middleware, final String fullyQualifiedTypeName) {
+      calls.computeIfAbsent(fullyQualifiedTypeName, name -> new AtomicInteger()).incrementAndGet();
+      if (Broken.equals(fullyQualifiedTypeName)) {
+        return Completes.withSuccess(Optional.<TypeDefinition>empty()).andThen(ignored -> {
+          throw new IllegalStateException("Cannot resolve " + fullyQualifiedTypeName);
+        });
+      }
+      return Completes.withSuccess(Price.equals(fullyQualifiedTypeName) ? Optional.of(price) : Optional.empty());
+    }
+
+    int calls(final String fullyQualifiedTypeName) {
+      return calls.getOrDefault(fullyQualifiedTypeName, new AtomicInteger()).get();
+    }
+  }
+}
@@ -145,6 +145,7 @@ public class JavaCodeGenTests extends CodeGenTests {
     final String result = compileSpecAndUnwrap(compilerWithJavaBackend(),typeDefinition("price-changed"), "Org:Unit:Context:Schema:PriceChanged", "0.5.1");
 
     assertTrue(result.contains("public final class PriceChanged extends DomainEvent {"));
+    assertTrue(result.contains("import Context.data.Price;"));
     assertTrue(result.contains("public final long occurredOn;"));
     assertTrue(result.contains("public final int eventVersion;"));
     assertTrue(result.contains("public final Price oldPrice;"));
@@ -0,0 +1,79 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.infra.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BoundedCacheTest {
+  @Test
+  public void testThatHitsAndMissesAreCounted() {
+    final BoundedCache<String, String> cache = BoundedCache.of(10);
+    cache.put("a", "A");
+
+    assertEquals("A", cache.get("a").get());
+    assertFalse(cache.get("b").isPresent());
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  public void testThatLeastRecentlyUsedIsEvictedBySize() {
+    final BoundedCache<String, String> cache = BoundedCache.of(2);
+    cache.put("a", "A");
+    cache.put("b", "B");
+    cache.get("a");
+    cache.put("c", "C");
+
+    assertEquals(2, cache.size());
+    assertTrue(cache.get("a").isPresent());
+    assertFalse(cache.get("b").isPresent());
+    assertTrue(cache.get("c").isPresent());
+    assertEquals(1, cache.evictions());
+  }
+
+  @Test
+  public void testThatEntriesAreEvictedByWeight() {
+    final BoundedCache<String, String> cache = BoundedCache.of(100, 10, String::length);
+    cache.put("a", "12345");
+    cache.put("b", "12345");
+    assertEquals(10, cache.weight());
+
+    cache.put("c", "123");
+
+    assertFalse(cache.get("a").isPresent());
+    assertEquals(8, cache.weight());
+    assertEquals(1, cache.evictions());
+  }
+
+  @Test
+  public void testThatOversizedValuesAreNotCached() {
+    final BoundedCache<String, String> cache = BoundedCache.of(100, 4, String::length);
+    cache.put("a", "123");
+    cache.put("b", "12345");
+
+    assertTrue(cache.get("a").isPresent());
+    assertFalse(cache.get("b").isPresent());
+    assertEquals(0, cache.evictions());
+  }
+
+  @Test
+  public void testThatEntriesAreInvalidatedByPredicate() {
+    final BoundedCache<String, String> cache = BoundedCache.of(100, 100, String::length);
+    cache.put("x:1", "one");
+    cache.put("x:2", "two");
+    cache.put("y:1", "three");
+
+    assertEquals(2, cache.invalidateAll(key -> key.startsWith("x:")));
+    assertEquals(1, cache.size());
+    assertEquals(5, cache.weight());
+  }
+}
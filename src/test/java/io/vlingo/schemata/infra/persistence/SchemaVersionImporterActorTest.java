@@ -0,0 +1,114 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.infra.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.actors.World;
+import io.vlingo.actors.testkit.TestWorld;
+import io.vlingo.common.Failure;
+import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+import io.vlingo.schemata.model.SchemaVersion.Status;
+import io.vlingo.schemata.resource.data.SchemaVersionData;
+import io.vlingo.symbio.Source;
+import io.vlingo.symbio.store.Result;
+import io.vlingo.symbio.store.StorageException;
+import io.vlingo.symbio.store.journal.Journal;
+import io.vlingo.symbio.store.journal.Journal.AppendResultInterest;
+
+public class SchemaVersionImporterActorTest {
+  private World world;
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testThatFailedAppendAnswersImportedAndFailedSchemaVersions() {
+    final SchemaVersionImporter importer = world.actorFor(SchemaVersionImporter.class, SchemaVersionImporterActor.class, journalFailingAppend(2));
+
+    final Outcome<SchemataBusinessException, List<SchemaVersionData>> outcome = importer.importAll(Arrays.asList(
+            importData("S1", "1.0.0"),
+            importData("S2", "1.0.0"),
+            importData("S3", "1.0.0"))).await(5000);
+
+    final SchemataBusinessException ex = outcome.resolve(failure -> failure, imported -> null);
+    assertEquals(SchemataBusinessException.Code.IMPORT_FAILED, ex.errorCode);
+
+    final List<String> failures = (List<String>) ex.context("failures");
+    assertEquals(1, failures.size());
+    assertTrue(failures.get(0).startsWith("1: "));
+
+    final List<SchemaVersionData> imported = (List<SchemaVersionData>) ex.context("imported");
+    assertEquals(2, imported.size());
+    assertEquals("S1", imported.get(0).schemaId);
+    assertEquals("S3", imported.get(1).schemaId);
+  }
+
+  @Test
+  public void testThatSucceededAppendsAnswerEverySchemaVersion() {
+    final SchemaVersionImporter importer = world.actorFor(SchemaVersionImporter.class, SchemaVersionImporterActor.class, journalFailingAppend(0));
+
+    final Outcome<SchemataBusinessException, List<SchemaVersionData>> outcome = importer.importAll(Arrays.asList(
+            importData("S1", "1.0.0"),
+            importData("S2", "1.0.0"))).await(5000);
+
+    assertEquals(2, outcome.resolve(failure -> 0, imported -> imported.size()).intValue());
+  }
+
+  @Before
+  public void setUp() {
+    world = TestWorld.startWithDefaults(getClass().getSimpleName()).world();
+  }
+
+  @After
+  public void tearDown() {
+    world.terminate();
+  }
+
+  /**
+   * Answer a {@code Journal} confirming every {@code appendAll} at once, the one
+   * numbered {@code failing} from 1 as failed, and supporting nothing else.
+   */
+  @SuppressWarnings("unchecked")
+  private Journal<String> journalFailingAppend(final int failing) {
+    final AtomicInteger appends = new AtomicInteger();
+    return (Journal<String>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Journal.class }, (proxy, method, args) -> {
+      if (method.getDeclaringClass() == Object.class) {
+        return method.getName().equals("equals") ? proxy == args[0] : method.getName().equals("hashCode") ? System.identityHashCode(proxy) : "FailingJournal";
+      }
+      if (!method.getName().equals("appendAll") || args.length != 5) {
+        throw new UnsupportedOperationException(method.getName());
+      }
+      final Outcome<StorageException, Result> outcome;
+      if (appends.incrementAndGet() == failing) {
+        outcome = Failure.of(new StorageException(Result.Failure, "Append failed"));
+      } else {
+        outcome = Success.of(Result.Success);
+      }
+      ((AppendResultInterest) args[3]).appendAllResultedIn(outcome, (String) args[0], (Integer) args[1],
+              (List<Source<Object>>) args[2], Optional.empty(), args[4]);
+      return null;
+    });
+  }
+
+  private SchemaVersionData importData(final String schemaId, final String version) {
+    return SchemaVersionData.from("O1", "U1", "C1", schemaId, "", "event Spec { type t }", "description",
+            Status.Published.name(), "0.0.0", version);
+  }
+}
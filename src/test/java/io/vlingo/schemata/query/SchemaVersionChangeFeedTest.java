@@ -0,0 +1,136 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import io.vlingo.schemata.query.SchemaVersionChangeFeed.Changes;
+import io.vlingo.schemata.query.view.SchemaVersionChangeView;
+
+public class SchemaVersionChangeFeedTest {
+  @Test
+  public void testThatChangesCarryTheAncestorsOfTheirDefinition() {
+    final SchemaVersionChangeFeed feed = SchemaVersionChangeFeed.retaining(10);
+    assertFalse(feed.append(defined(11, "O1", "U1", "C1", "S1", "V1"), false));
+    assertFalse(feed.append(changed(12, "SchemaVersionPublished", "S1", "V1"), false));
+    assertTrue(feed.append(changed(13, "SchemaVersionPublished", "S2", "V2"), false));
+    assertFalse(feed.append(changed(14, "SchemaVersionDeprecated", "S2", "V2"), false));
+
+    final Changes held = feed.changesAfter(10, change -> true, 10).get();
+    assertEquals(2, held.changes.size());
+    assertEquals(12, held.through);
+    assertEquals("SchemaVersionPublished", held.changes.get(1).type);
+    assertEquals("O1", held.changes.get(1).organizationId);
+    assertEquals("C1", held.changes.get(1).contextId);
+
+    feed.resolved(changed(13, "SchemaVersionPublished", "S2", "V2").withAncestors("O2", "U2", "C2"));
+    final Changes changes = feed.changesAfter(10, change -> change.isOf("O2", null, null, null), 10).get();
+    assertEquals(2, changes.changes.size());
+    assertEquals(14, changes.through);
+    assertEquals("U2", changes.changes.get(1).unitId);
+  }
+
+  @Test
+  public void testThatRememberedAncestorsResolveWithoutQuerying() {
+    final SchemaVersionChangeFeed feed = SchemaVersionChangeFeed.retaining(10);
+    feed.append(defined(1, "O1", "U1", "C1", "S1", "V1"), false);
+
+    final AtomicReference<SchemaVersionChangeView> resolved = new AtomicReference<>();
+    feed.resolve(null, changed(7, "SchemaVersionPublished", "S1", "V1"), resolved::set);
+    assertEquals("O1", resolved.get().organizationId);
+    assertEquals(7, resolved.get().position);
+  }
+
+  @Test
+  public void testThatFilteredChangesResumeThroughEveryExaminedChange() {
+    final SchemaVersionChangeFeed feed = SchemaVersionChangeFeed.retaining(10);
+    feed.append(defined(5, "O1", "U1", "C1", "S1", "V1"), false);
+    feed.append(defined(7, "O2", "U2", "C2", "S2", "V2"), false);
+    feed.append(changed(9, "SchemaVersionDeprecated", "S2", "V2"), false);
+
+    final Changes ofO1 = feed.changesAfter(4, change -> change.isOf("O1", null, null, null), 10).get();
+    assertEquals(1, ofO1.changes.size());
+    assertEquals(9, ofO1.through);
+
+    final Changes ofS2 = feed.changesAfter(4, change -> change.isOf("", "", "", "S2"), 1).get();
+    assertEquals(1, ofS2.changes.size());
+    assertEquals("SchemaVersionDefined", ofS2.changes.get(0).type);
+    assertEquals(7, ofS2.through);
+
+    assertTrue(feed.changesAfter(9, change -> true, 10).get().changes.isEmpty());
+    assertTrue(feed.changesAfter(100, change -> true, 10).get().changes.isEmpty());
+  }
+
+  @Test
+  public void testThatChangesBelowTheFloorAreNotAnswered() {
+    final SchemaVersionChangeFeed feed = SchemaVersionChangeFeed.retaining(2, 4);
+    assertEquals(4, feed.position());
+    feed.append(defined(5, "O1", "U1", "C1", "S1", "V1"), false);
+    assertEquals(4, feed.floor());
+    assertFalse(feed.changesAfter(3, change -> true, 10).isPresent());
+
+    feed.append(changed(6, "SchemaVersionSpecified", "S1", "V1"), false);
+    feed.append(changed(8, "SchemaVersionRemoved", "S1", "V1"), true);
+    feed.append(changed(6, "SchemaVersionSpecified", "S1", "V1"), false);
+
+    assertEquals(8, feed.position());
+    assertEquals(5, feed.floor());
+    assertFalse(feed.changesAfter(4, change -> true, 10).isPresent());
+    assertEquals(2, feed.changesAfter(5, change -> true, 10).get().changes.size());
+    assertEquals("SchemaVersionRemoved", feed.changesAfter(6, change -> true, 10).get().changes.get(0).type);
+  }
+
+  @Test
+  public void testThatChangesProjectedOutOfJournalOrderAreAppendedOnce() {
+    final SchemaVersionChangeFeed feed = SchemaVersionChangeFeed.retaining(10, 20);
+    assertEquals(20, feed.position());
+    assertTrue(feed.changesAfter(20, change -> true, 10).get().changes.isEmpty());
+
+    feed.append(defined(22, "O1", "U1", "C1", "S1", "V1"), false);
+    feed.append(defined(21, "O2", "U2", "C2", "S2", "V2"), false);
+    feed.append(defined(21, "O2", "U2", "C2", "S2", "V2"), false);
+
+    final Changes changes = feed.changesAfter(20, change -> true, 10).get();
+    assertEquals(2, changes.changes.size());
+    assertEquals(21, changes.changes.get(1).position);
+    assertEquals(22, changes.through);
+    assertEquals(22, feed.position());
+  }
+
+  @Test
+  public void testThatListenersRunOnEachChangeUntilUnlistened() {
+    final SchemaVersionChangeFeed feed = SchemaVersionChangeFeed.retaining(10);
+    final AtomicInteger runs = new AtomicInteger();
+    final Runnable listener = runs::incrementAndGet;
+
+    feed.listen(listener);
+    feed.append(defined(1, "O1", "U1", "C1", "S1", "V1"), false);
+    feed.append(changed(2, "SchemaVersionPublished", "S1", "V1"), false);
+    feed.unlisten(listener);
+    feed.append(changed(3, "SchemaVersionDeprecated", "S1", "V1"), false);
+
+    assertEquals(2, runs.get());
+    assertEquals(0, feed.listenersCount());
+  }
+
+  private SchemaVersionChangeView defined(final long position, final String organizationId, final String unitId, final String contextId,
+                                          final String schemaId, final String schemaVersionId) {
+    return SchemaVersionChangeView.with(position, "SchemaVersionDefined", organizationId, unitId, contextId, schemaId, schemaVersionId);
+  }
+
+  private SchemaVersionChangeView changed(final long position, final String type, final String schemaId, final String schemaVersionId) {
+    return SchemaVersionChangeView.with(position, type, null, null, null, schemaId, schemaVersionId);
+  }
+}
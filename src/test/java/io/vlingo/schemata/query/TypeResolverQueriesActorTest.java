@@ -0,0 +1,138 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vlingo.actors.World;
+import io.vlingo.common.Completes;
+import io.vlingo.common.Outcome;
+import io.vlingo.common.Success;
+import io.vlingo.schemata.codegen.TypeDefinitionMiddleware;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.codegen.cache.TypeDefinitionCache;
+import io.vlingo.schemata.errors.SchemataBusinessException;
+import io.vlingo.schemata.model.Category;
+import io.vlingo.schemata.model.Path;
+import io.vlingo.schemata.query.view.CodeArtifactView;
+import io.vlingo.schemata.query.view.CodeView;
+import io.vlingo.schemata.query.view.SchemaVersionView;
+
+public class TypeResolverQueriesActorTest {
+  private static final long TIMEOUT = 5000L;
+  private static final String Price = "Org:Unit:Context:Schema:Price:1.0.0";
+
+  private World world;
+
+  @Before
+  public void setUp() {
+    world = World.startWithDefaults(getClass().getSimpleName());
+  }
+
+  @After
+  public void tearDown() {
+    world.terminate();
+  }
+
+  @Test
+  public void testThatResolvedTypesAreParsedOnce() throws Exception {
+    final AtomicInteger compilations = new AtomicInteger();
+    final AtomicReference<Completes<Outcome<SchemataBusinessException, Node>>> compiling = new AtomicReference<>();
+    final TypeDefinitionMiddleware middleware = new TypeDefinitionMiddleware() {
+      @Override
+      public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final InputStream typeDefinition, final String fullyQualifiedTypeName) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final String specification, final String fullyQualifiedTypeName) {
+        compilations.incrementAndGet();
+        final Completes<Outcome<SchemataBusinessException, Node>> pending = Completes.using(world.stage().scheduler());
+        compiling.set(pending);
+        return pending;
+      }
+    };
+
+    final TypeResolverQueries queries = world.actorFor(TypeResolverQueries.class, TypeResolverQueriesActor.class,
+            new FixedCodeQueries(), TypeDefinitionCache.with(10, 10));
+
+    final Completes<Optional<TypeDefinition>> first = queries.resolve(middleware, Price);
+
+    final long deadline = System.currentTimeMillis() + TIMEOUT;
+    while (compiling.get() == null && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    final TypeDefinition price = new TypeDefinition(Category.Data, Price, "Price", Collections.emptyList());
+    compiling.get().with(Success.of(price));
+    assertSame(price, first.await(TIMEOUT).get());
+
+    for (int count = 0; count < 5; ++count) {
+      assertSame(price, queries.resolve(middleware, Price).await(TIMEOUT).get());
+    }
+    assertEquals(1, compilations.get());
+  }
+
+  @Test
+  public void testThatIncompleteTypesAreNotCached() {
+    final AtomicInteger compilations = new AtomicInteger();
+    final TypeDefinition price = new TypeDefinition(Category.Data, Price, "Price", Collections.emptyList());
+    final TypeDefinitionMiddleware middleware = new TypeDefinitionMiddleware() {
+      @Override
+      public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final InputStream typeDefinition, final String fullyQualifiedTypeName) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Completes<Outcome<SchemataBusinessException, Node>> compileToAST(final String specification, final String fullyQualifiedTypeName) {
+        compilations.incrementAndGet();
+        return Completes.withSuccess(Success.of(price));
+      }
+
+      @Override
+      public boolean isComplete(final String fullyQualifiedTypeName) {
+        return false;
+      }
+    };
+
+    final TypeDefinitionCache cache = TypeDefinitionCache.with(10, 10);
+    final TypeResolverQueries queries = world.actorFor(TypeResolverQueries.class, TypeResolverQueriesActor.class,
+            new FixedCodeQueries(), cache);
+
+    assertSame(price, queries.resolve(middleware, Price).await(TIMEOUT).get());
+    assertSame(price, queries.resolve(middleware, Price).await(TIMEOUT).get());
+
+    assertEquals(2, compilations.get());
+    assertFalse(cache.definitionFor(Price).isPresent());
+  }
+
+  private static class FixedCodeQueries implements CodeQueries {
+    @Override
+    public Completes<CodeView> codeFor(final Path path) {
+      return Completes.withSuccess(CodeView.with(path.toReference(),
+              SchemaVersionView.with("o", "u", "c", "s", "sv", "", "data Price { long amount }", "Draft", "0.0.0", "1.0.0")));
+    }
+
+    @Override
+    public Completes<CodeArtifactView> codeArtifactsFor(final String schemaVersionId) {
+      return Completes.withSuccess(null);
+    }
+  }
+}
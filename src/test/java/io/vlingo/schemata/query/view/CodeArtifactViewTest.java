@@ -0,0 +1,37 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.query.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import io.vlingo.schemata.query.view.CodeArtifactView.CodeArtifact;
+
+public class CodeArtifactViewTest {
+  @Test
+  public void testThatArtifactsMatchTheirGeneratorVersion() {
+    final CodeArtifactView view = CodeArtifactView.with("V1", "O:U:C:S:1.0.0", "1.0.0", "event E { type t }", "Published")
+            .withArtifact(CodeArtifact.of("java", "hash", 1, "code"));
+
+    assertEquals("code", view.artifactFor("java", "hash", 1).code);
+    assertNull(view.artifactFor("java", "hash", 2));
+    assertNull(view.artifactFor("java", "other", 1));
+  }
+
+  @Test
+  public void testThatArtifactOfOtherGeneratorVersionIsReplaced() {
+    final CodeArtifactView view = CodeArtifactView.with("V1", "O:U:C:S:1.0.0", "1.0.0", "event E { type t }", "Published")
+            .withArtifact(CodeArtifact.of("java", "hash", 0, "stale"))
+            .withArtifact(CodeArtifact.of("java", "hash", 1, "code"));
+
+    assertEquals(1, view.artifacts().size());
+    assertEquals("code", view.artifactFor("java", "hash", 1).code);
+  }
+}
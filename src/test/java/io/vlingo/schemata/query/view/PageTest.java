@@ -0,0 +1,96 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.query.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.vlingo.schemata.query.view.OrganizationsView.OrganizationItem;
+
+public class PageTest {
+  @Test
+  public void testThatPagesCoverAllItemsOnce() {
+    final OrganizationsView view = organizations(7);
+    final List<String> seen = new ArrayList<>();
+
+    Page<OrganizationItem> page = view.page(3, "");
+    int pages = 1;
+    page.items.forEach(item -> seen.add(item.organizationId));
+    while (page.next != null) {
+      page = view.page(3, page.next);
+      page.items.forEach(item -> seen.add(item.organizationId));
+      ++pages;
+    }
+
+    assertEquals(3, pages);
+    assertEquals(Arrays.asList("O0", "O1", "O2", "O3", "O4", "O5", "O6"), seen);
+  }
+
+  @Test
+  public void testThatNoLimitAnswersEverything() {
+    final Page<OrganizationItem> page = organizations(5).page(0, null);
+
+    assertEquals(5, page.items.size());
+    assertNull(page.next);
+  }
+
+  @Test
+  public void testThatExactLastPageHasNoNext() {
+    final OrganizationsView view = organizations(4);
+    final Page<OrganizationItem> first = view.page(2, "");
+    final Page<OrganizationItem> last = view.page(2, first.next);
+
+    assertNotNull(first.next);
+    assertEquals(2, last.items.size());
+    assertNull(last.next);
+  }
+
+  @Test
+  public void testThatCursorsAreStableWhenItemsAreAdded() {
+    final OrganizationsView view = organizations(4);
+    final Page<OrganizationItem> first = view.page(2, "");
+
+    final OrganizationsView grown = view.add(OrganizationItem.of("O4", "Org4"));
+    final Page<OrganizationItem> second = grown.page(2, first.next);
+
+    assertEquals("O2", second.items.get(0).organizationId);
+    assertEquals("O3", second.items.get(1).organizationId);
+    assertEquals("O4", grown.page(2, second.next).items.get(0).organizationId);
+  }
+
+  @Test
+  public void testThatCursorsAreValidated() {
+    assertTrue(Page.isValidCursor(null));
+    assertTrue(Page.isValidCursor(""));
+    assertTrue(Page.isValidCursor(organizations(3).page(1, "").next));
+    assertFalse(Page.isValidCursor("not a cursor!"));
+    assertFalse(Page.isValidCursor("bm90LWEtY3Vyc29y"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThatInvalidCursorIsRejected() {
+    organizations(3).page(1, "not a cursor!");
+  }
+
+  private OrganizationsView organizations(final int count) {
+    OrganizationsView view = OrganizationsView.empty();
+    for (int index = 0; index < count; ++index) {
+      view = view.add(OrganizationItem.of("O" + index, "Org" + index));
+    }
+    return view;
+  }
+}
@@ -0,0 +1,121 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Test;
+
+import io.vlingo.http.Header.Headers;
+import io.vlingo.http.Response;
+import io.vlingo.http.ResponseHeader;
+import io.vlingo.schemata.resource.ContentEncoding.Coding;
+
+public class ContentEncodingTest {
+  private static final String Large = largeBody();
+
+  @Test
+  public void testThatNegotiationPrefersGzip() {
+    assertEquals(Optional.of(Coding.gzip), ContentEncoding.negotiate("gzip, deflate, br"));
+    assertEquals(Optional.of(Coding.gzip), ContentEncoding.negotiate("deflate, gzip"));
+    assertEquals(Optional.of(Coding.gzip), ContentEncoding.negotiate("*"));
+    assertEquals(Optional.of(Coding.deflate), ContentEncoding.negotiate("deflate"));
+    assertEquals(Optional.of(Coding.deflate), ContentEncoding.negotiate("gzip;q=0.5, deflate"));
+  }
+
+  @Test
+  public void testThatNegotiationHonorsRefusals() {
+    assertFalse(ContentEncoding.negotiate(null).isPresent());
+    assertFalse(ContentEncoding.negotiate("").isPresent());
+    assertFalse(ContentEncoding.negotiate("identity").isPresent());
+    assertFalse(ContentEncoding.negotiate("br").isPresent());
+    assertFalse(ContentEncoding.negotiate("gzip;q=0, deflate;q=0").isPresent());
+    assertFalse(ContentEncoding.negotiate("*;q=0").isPresent());
+    assertEquals(Optional.of(Coding.deflate), ContentEncoding.negotiate("gzip;q=0, *"));
+  }
+
+  @Test
+  public void testThatCodingsRoundTrip() throws IOException {
+    final byte[] body = Large.getBytes(StandardCharsets.UTF_8);
+
+    final byte[] gzipped = Coding.gzip.compress(body);
+    final byte[] deflated = Coding.deflate.compress(body);
+
+    assertTrue(gzipped.length < body.length);
+    assertTrue(deflated.length < body.length);
+    assertArrayEquals(body, readAll(new GZIPInputStream(new ByteArrayInputStream(gzipped))));
+    assertArrayEquals(body, readAll(new InflaterInputStream(new ByteArrayInputStream(deflated))));
+  }
+
+  @Test
+  public void testThatSmallBodiesAreNotCompressed() {
+    final Response response = ContentEncoding.response(Response.Status.Ok, Headers.empty(), "{}", "gzip");
+
+    assertNull(response.headerOf(ContentEncoding.ContentEncodingHeader));
+    assertEquals(ContentEncoding.AcceptEncoding, response.headerOf(ContentEncoding.Vary).value);
+  }
+
+  @Test
+  public void testThatLargeBodiesAreCompressedWhenAccepted() {
+    final Headers<ResponseHeader> headers = Headers.of(ResponseHeader.of(EntityTag.ETag, "\"tag\""));
+
+    final Response compressed = ContentEncoding.response(Response.Status.Ok, headers, Large, "gzip, deflate");
+    final Response plain = ContentEncoding.response(Response.Status.Ok, headers, Large, null);
+
+    assertEquals("gzip", compressed.headerOf(ContentEncoding.ContentEncodingHeader).value);
+    assertEquals("\"tag-gzip\"", compressed.headerOf(EntityTag.ETag).value);
+    assertEquals("\"tag\"", plain.headerOf(EntityTag.ETag).value);
+    assertEquals(ContentEncoding.AcceptEncoding, compressed.headerOf(ContentEncoding.Vary).value);
+    assertNull(plain.headerOf(ContentEncoding.ContentEncodingHeader));
+    assertEquals(ContentEncoding.AcceptEncoding, plain.headerOf(ContentEncoding.Vary).value);
+    assertEquals(1, headers.size());
+  }
+
+  @Test
+  public void testThatPrecompressedBodiesAreUsed() {
+    final AtomicInteger compressions = new AtomicInteger();
+    final byte[] precompressed = Coding.gzip.compress(Large.getBytes(StandardCharsets.UTF_8));
+
+    final Response response = ContentEncoding.response(Response.Status.Ok, Headers.empty(), Large, "gzip",
+            (coding, bytes) -> { compressions.incrementAndGet(); return precompressed; });
+
+    assertEquals(1, compressions.get());
+    assertEquals(String.valueOf(precompressed.length), response.headerOf(ResponseHeader.ContentLength).value);
+  }
+
+  private static byte[] readAll(final InputStream in) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[4096];
+    for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private static String largeBody() {
+    final StringBuilder builder = new StringBuilder("[");
+    for (int index = 0; index < 100; ++index) {
+      builder.append(index == 0 ? "" : ",").append("{\"schemaVersionId\":\"").append(index).append("\",\"status\":\"Published\"}");
+    }
+    return builder.append("]").toString();
+  }
+}
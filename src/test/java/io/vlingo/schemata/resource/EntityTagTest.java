@@ -0,0 +1,124 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import io.vlingo.http.Header.Headers;
+import io.vlingo.http.ResponseHeader;
+import io.vlingo.schemata.codegen.ast.FieldDefinition;
+import io.vlingo.schemata.codegen.ast.Node;
+import io.vlingo.schemata.codegen.ast.types.BasicType;
+import io.vlingo.schemata.codegen.ast.types.Type;
+import io.vlingo.schemata.codegen.ast.types.TypeDefinition;
+import io.vlingo.schemata.codegen.processor.types.TypeDependencyClosure;
+import io.vlingo.schemata.model.Category;
+import io.vlingo.schemata.query.view.CodeView;
+import io.vlingo.schemata.query.view.SchemaVersionView;
+
+public class EntityTagTest {
+  private static final String Reference = "Org:Unit:Context:Schema:1.0.0";
+
+  @Test
+  public void testThatCodeTagsFollowWhatCodeIsGeneratedFrom() {
+    final TypeDependencyClosure closure = closure(Collections.emptyList());
+    final String tag = EntityTag.ofCode(codeView("event Foo {}", "Draft", "description"), "java", closure);
+
+    assertTrue(tag.startsWith("\"") && tag.endsWith("-java-g1\""));
+    assertEquals(tag, EntityTag.ofCode(codeView("event Foo {}", "Published", "another description"), "java", closure));
+    assertNotEquals(tag, EntityTag.ofCode(codeView("event Foo {}", "Draft", "description"), "java-binary", closure));
+    assertNotEquals(tag, EntityTag.ofCode(codeView("event Foo { int i }", "Draft", "description"), "java", closure));
+  }
+
+  @Test
+  public void testThatCodeTagsFollowDependencies() {
+    final CodeView codeView = codeView("event Foo { Org:Unit:Context:Bar bar }", "Published", "description");
+    final String tag = EntityTag.ofCode(codeView, "java", closure(Collections.singletonList(field(new BasicType("int"), "i"))));
+
+    assertEquals(tag, EntityTag.ofCode(codeView, "java", closure(Collections.singletonList(field(new BasicType("int"), "i")))));
+    assertNotEquals(tag, EntityTag.ofCode(codeView, "java", closure(Arrays.asList(field(new BasicType("int"), "i"), field(new BasicType("long"), "l")))));
+  }
+
+  @Test
+  public void testThatSchemaVersionTagsFollowEveryValue() {
+    final String tag = EntityTag.ofSchemaVersion(codeView("event Foo {}", "Draft", "description").schemaVersionView());
+
+    assertEquals(tag, EntityTag.ofSchemaVersion(codeView("event Foo {}", "Draft", "description").schemaVersionView()));
+    assertNotEquals(tag, EntityTag.ofSchemaVersion(codeView("event Foo {}", "Published", "description").schemaVersionView()));
+    assertNotEquals(tag, EntityTag.ofSchemaVersion(codeView("event Foo {}", "Draft", "another description").schemaVersionView()));
+  }
+
+  @Test
+  public void testThatIfNoneMatchIsComparedWeakly() {
+    final String tag = "\"abc-java-g1\"";
+
+    assertFalse(EntityTag.isMatchedBy(null, tag));
+    assertFalse(EntityTag.isMatchedBy("\"abc-java-g0\"", tag));
+    assertTrue(EntityTag.isMatchedBy(tag, tag));
+    assertTrue(EntityTag.isMatchedBy("W/" + tag, tag));
+    assertTrue(EntityTag.isMatchedBy("\"other\", " + tag, tag));
+    assertTrue(EntityTag.isMatchedBy("*", tag));
+  }
+
+  @Test
+  public void testThatTagsOfCodingsAreMatchedAsThemselves() {
+    final String tag = "\"abc-java-g1\"";
+    final String gzipped = EntityTag.ofCoding(tag, ContentEncoding.Coding.gzip);
+
+    assertEquals("\"abc-java-g1-gzip\"", gzipped);
+    assertNotEquals(gzipped, EntityTag.ofCoding(tag, ContentEncoding.Coding.deflate));
+    assertTrue(EntityTag.isMatchedBy(gzipped, tag));
+    assertTrue(EntityTag.isMatchedBy("W/" + gzipped, tag));
+    assertEquals(gzipped, EntityTag.matchOf(gzipped, tag).get());
+    assertEquals(tag, EntityTag.matchOf(tag, tag).get());
+    assertFalse(EntityTag.isMatchedBy("\"abc-java-g1-br\"", tag));
+  }
+
+  @Test
+  public void testThatOnlyPublishedCodeIsImmutable() {
+    assertEquals(EntityTag.Immutable, cacheControlOf(EntityTag.codeHeaders("\"t\"", "Published", true)));
+    assertEquals(EntityTag.Revalidate, cacheControlOf(EntityTag.codeHeaders("\"t\"", "Draft", true)));
+    assertEquals(EntityTag.Revalidate, cacheControlOf(EntityTag.codeHeaders("\"t\"", "Deprecated", true)));
+    assertEquals(EntityTag.Revalidate, cacheControlOf(EntityTag.schemaVersionHeaders("\"t\"")));
+  }
+
+  @Test
+  public void testThatPublishedCodeOfLatestDependenciesIsRevalidated() {
+    assertEquals(EntityTag.Revalidate, cacheControlOf(EntityTag.codeHeaders("\"t\"", "Published", false)));
+  }
+
+  /**
+   * Answer the closure of a type composed of {@code Org:Unit:Context:Bar}, a type with {@code fields}.
+   */
+  private TypeDependencyClosure closure(final List<Node> fields) {
+    final TypeDefinition bar = new TypeDefinition(Category.Data, "Org:Unit:Context:Bar", "Bar", fields);
+    return TypeDependencyClosure.of(new TypeDefinition(Category.Event, Reference, "Foo", Collections.singletonList(field(bar, "bar"))));
+  }
+
+  private FieldDefinition field(final Type type, final String name) {
+    return new FieldDefinition(type, Optional.empty(), name, Optional.empty());
+  }
+
+  private String cacheControlOf(final Headers<ResponseHeader> headers) {
+    return headers.headerOf(EntityTag.CacheControl).value;
+  }
+
+  private CodeView codeView(final String specification, final String status, final String description) {
+    return CodeView.with(Reference, SchemaVersionView.with("O", "U", "C", "S", "SV", description, specification, status, "0.0.0", "1.0.0"));
+  }
+}
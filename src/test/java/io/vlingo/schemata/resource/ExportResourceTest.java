@@ -0,0 +1,58 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import static io.vlingo.http.Response.Status.BadRequest;
+import static io.vlingo.http.Response.Status.Ok;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.vlingo.http.Response;
+import io.vlingo.schemata.model.Events.OrganizationDefined;
+import io.vlingo.schemata.resource.data.OrganizationData;
+
+public class ExportResourceTest extends ResourceTest {
+  @Test
+  public void testThatEntriesAreExportedAsLinesInPages() {
+    final OrganizationResource organizations = new OrganizationResource(stage);
+    organizations.defineWith(OrganizationData.just("Org1", "First.")).await();
+    organizations.defineWith(OrganizationData.just("Org2", "Second.")).await();
+    organizations.defineWith(OrganizationData.just("Org3", "Third.")).await();
+
+    final ExportResource resource = new ExportResource(stage);
+
+    final Response first = resource.exportEntries(2, "").await();
+    assertEquals(Ok, first.status);
+    final String[] firstLines = first.entity.content().split("\n");
+    assertEquals(2, firstLines.length);
+    assertTrue(firstLines[0].contains(OrganizationDefined.class.getName()));
+    assertTrue(firstLines[0].contains("Org1"));
+    assertNotNull(first.headers.headerOf(Paging.Link));
+
+    final String link = first.headers.headerOf(Paging.Link).value;
+    final String after = link.substring(link.indexOf("after=") + 6, link.indexOf('>'));
+
+    final Response last = resource.exportEntries(2, after).await();
+    final String[] lastLines = last.entity.content().split("\n");
+    assertEquals(1, lastLines.length);
+    assertTrue(lastLines[0].contains("Org3"));
+    assertNull(last.headers.headerOf(Paging.Link));
+  }
+
+  @Test
+  public void testThatInvalidLimitIsRejected() {
+    final ExportResource resource = new ExportResource(stage);
+
+    assertEquals(BadRequest, resource.exportEntries(-1, "").await().status);
+    assertEquals(BadRequest, resource.exportEntries(ExportResource.MaximumLimit + 1, "").await().status);
+  }
+}
@@ -17,6 +17,7 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import static io.vlingo.http.Response.Status.BadRequest;
 import static io.vlingo.http.Response.Status.Ok;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -40,6 +41,38 @@ public class JavaCodeResourceTest extends ResourceTest {
             response.entity.content());
   }
 
+  @Test
+  public void testThatContextArchiveRejectsInvalidParameters() {
+    final CodeResource resource = new CodeResource(stage);
+    final String contextReference = referenceFrom(OrgName, UnitName, ContextNamespace);
+
+    assertEquals(BadRequest, resource.queryCodeForContext(reference(), "java", "", "zip").await().status);
+    assertEquals(BadRequest, resource.queryCodeForContext(contextReference, "cobol", "", "zip").await().status);
+    assertEquals(BadRequest, resource.queryCodeForContext(contextReference, "java", "", "rar").await().status);
+    assertEquals(BadRequest, resource.queryCodeForContext(contextReference, "java", "Shipped", "zip").await().status);
+  }
+
+  @Test
+  public void testThatDependenciesArchiveRejectsInvalidParameters() {
+    final CodeResource resource = new CodeResource(stage);
+
+    assertEquals(BadRequest, resource.queryCodeWithDependencies(referenceFrom(OrgName, UnitName, ContextNamespace), "java", "zip").await().status);
+    assertEquals(BadRequest, resource.queryCodeWithDependencies(reference(), "cobol", "zip").await().status);
+    assertEquals(BadRequest, resource.queryCodeWithDependencies(reference(), "java", "rar").await().status);
+  }
+
+  @Test
+  public void testThatJarRoutesRejectInvalidParameters() {
+    final CodeResource resource = new CodeResource(stage);
+    final String contextReference = referenceFrom(OrgName, UnitName, ContextNamespace);
+
+    assertEquals(BadRequest, resource.queryClassesForReference(contextReference, "java").await().status);
+    assertEquals(BadRequest, resource.queryClassesForReference(reference(), "csharp").await().status);
+    assertEquals(BadRequest, resource.queryClassesForContext(reference(), "java", "").await().status);
+    assertEquals(BadRequest, resource.queryClassesForContext(contextReference, "csharp", "").await().status);
+    assertEquals(BadRequest, resource.queryClassesForContext(contextReference, "java", "Shipped").await().status);
+  }
+
   @Before
   @Override
   public void setUp() throws Exception {
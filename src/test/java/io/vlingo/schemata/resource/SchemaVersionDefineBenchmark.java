@@ -0,0 +1,92 @@
+// Copyright © 2012-2020 VLINGO LABS. All rights reserved.
+//
+// This Source Code Form is subject to the terms of the
+// Mozilla Public License, v. 2.0. If a copy of the MPL
+// was not distributed with this file, You can obtain
+// one at https://mozilla.org/MPL/2.0/.
+
+package io.vlingo.schemata.resource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.vlingo.actors.GridAddressFactory;
+import io.vlingo.actors.Stage;
+import io.vlingo.actors.World;
+import io.vlingo.common.identity.IdentityGeneratorType;
+import io.vlingo.http.Response;
+import io.vlingo.schemata.Schemata;
+import io.vlingo.schemata.SchemataConfig;
+import io.vlingo.schemata.infra.persistence.ProjectionDispatcherProvider;
+import io.vlingo.schemata.infra.persistence.StateStoreProvider;
+import io.vlingo.schemata.infra.persistence.StorageProvider;
+import io.vlingo.schemata.resource.data.SchemaVersionData;
+
+/**
+ * Measures {@code SchemaVersionResource.defineWith} of the first version of a new
+ * schema, which looks up the versions of the schema before defining it, by several
+ * threads sharing one resource. Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class SchemaVersionDefineBenchmark {
+  private static final long Timeout = 30000;
+
+  private final AtomicLong schemas = new AtomicLong();
+
+  private World world;
+  private SchemaVersionResource resource;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    world = World.startWithDefaults("schema-version-define-benchmark");
+    world.stageNamed(Schemata.StageName, Stage.class, new GridAddressFactory(IdentityGeneratorType.RANDOM));
+    final Stage stage = world.stageNamed(Schemata.StageName);
+
+    final SchemataConfig config = SchemataConfig.forRuntime(SchemataConfig.RUNTIME_TYPE_DEV);
+    final StateStoreProvider stateStoreProvider = StateStoreProvider.using(world, config);
+    final ProjectionDispatcherProvider projectionDispatcherProvider =
+            ProjectionDispatcherProvider.using(world.stage(), stateStoreProvider.stateStore);
+    StorageProvider.newInstance(world, stateStoreProvider.stateStore, projectionDispatcherProvider.storeDispatcher, config);
+
+    resource = new SchemaVersionResource(stage);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    world.terminate();
+  }
+
+  @Benchmark
+  public Response defineFirstVersion() {
+    final long schema = schemas.incrementAndGet();
+    final SchemaVersionData data = SchemaVersionData.just("event Spec" + schema + " { type t }", "Benchmark.", "", "0.0.0", "0.0.1");
+    return resource.defineWith("O1", "U1", "C1", "S" + schema, data).await(Timeout);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(SchemaVersionDefineBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -7,15 +7,29 @@
 
 package io.vlingo.schemata.resource;
 
+import io.vlingo.common.Completes;
 import io.vlingo.common.serialization.JsonSerialization;
 import io.vlingo.http.Response;
 import io.vlingo.schemata.Schemata;
+import io.vlingo.schemata.infra.persistence.StorageProvider;
 import io.vlingo.schemata.model.*;
 import io.vlingo.schemata.model.SchemaVersion.Status;
+import io.vlingo.schemata.query.CodeQueries;
+import io.vlingo.schemata.query.SchemaVersionChangeFeed;
+import io.vlingo.schemata.query.view.CodeArtifactView;
+import io.vlingo.schemata.query.view.CodeView;
+import io.vlingo.schemata.query.view.SchemaVersionChangeView;
 import io.vlingo.schemata.resource.data.SchemaVersionData;
+import io.vlingo.schemata.resource.data.SchemaVersionLookupData;
+import io.vlingo.schemata.resource.data.SchemaVersionReferencesData;
+import io.vlingo.schemata.resource.data.SchemaVersionsImportData;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static io.vlingo.http.Response.Status.*;
 import static io.vlingo.http.ResponseHeader.Location;
 import static org.junit.Assert.*;
@@ -29,6 +43,7 @@ public class SchemaVersionResourceTest extends ResourceTest {
     private static final String SchemaVersionSpecification = "event Spec { type t }";
     private static final String SchemaVersionStatus = "Draft";
     private static final String SchemaVersionVersion000 = "0.0.0";
+    private static final String SchemaVersionVersion001 = "0.0.1";
     private static final String SchemaVersionVersion100 = "1.0.0";
     private static final String SchemaVersionVersion101 = "1.0.1";
     private static final String SchemaVersionVersion300 = "3.0.0";
@@ -47,6 +62,26 @@ public class SchemaVersionResourceTest extends ResourceTest {
         assertEquals(SchemaVersionVersion100, data.currentVersion);
     }
 
+    @Test
+    public void testThatFirstSchemaVersionOfNewSchemaIsDefined() {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        final SchemaVersionData defineData = SchemaVersionData.just(SchemaVersionSpecification, SchemaVersionDescription, "", SchemaVersionVersion000, SchemaVersionVersion001);
+        final Response response = resource.defineWith(OrgId, UnitId, ContextId, "S-new", defineData).await();
+        assertEquals(Created, response.status);
+        assertNotNull(response.headers.headerOf(Location));
+        final SchemaVersionData data = JsonSerialization.deserialized(response.entity.content(), SchemaVersionData.class);
+        assertEquals(SchemaVersionVersion000, data.previousVersion);
+        assertEquals(SchemaVersionVersion001, data.currentVersion);
+    }
+
+    @Test
+    public void testThatPatchOfMissingVersionOfNewSchemaReturns404() {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        final SchemaVersionData defineData = SchemaVersionData.just(SchemaVersionSpecification, SchemaVersionDescription, "", SchemaVersionVersion100, SchemaVersionVersion101);
+        final Response response = resource.defineWith(OrgId, UnitId, ContextId, "S-none", defineData).await();
+        assertEquals(NotFound, response.status);
+    }
+
     @Test
     public void testThatNonExistingSchemaVersionReturns404() {
         final SchemaVersionResource resource = new SchemaVersionResource(stage);
@@ -247,4 +282,202 @@ public class SchemaVersionResourceTest extends ResourceTest {
         assertTrue(response1.entity.content().toLowerCase().contains("conflicting"));
         assertNull(response1.headers.headerOf(Location));
     }
+
+    @Test
+    public void testThatLookupAnswersEveryReferenceInOrder() {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        final Response response = resource.lookupSchemaVersions(SchemaVersionReferencesData.of("invalid", "o:u:c", "invalid", "")).await();
+        assertEquals(Ok, response.status);
+
+        final SchemaVersionLookupData[] results = JsonSerialization.deserialized(response.entity.content(), SchemaVersionLookupData[].class);
+        assertEquals(4, results.length);
+        assertEquals("invalid", results[0].reference);
+        assertEquals("o:u:c", results[1].reference);
+        assertEquals("invalid", results[2].reference);
+        assertEquals("", results[3].reference);
+        for (final SchemaVersionLookupData result : results) {
+            assertEquals(BadRequest.name(), result.status);
+            assertFalse(result.isFound());
+        }
+    }
+
+    @Test
+    public void testThatLookupAnswersFoundMissingAndDuplicateReferences() throws InterruptedException {
+        final SchemaState schema = registeredSchema("lookedUp");
+        final Response defined = new SchemaVersionResource(stage).defineWith(schema.schemaId.organizationId().value, schema.schemaId.unitId().value,
+                schema.schemaId.contextId.value, schema.schemaId.value,
+                SchemaVersionData.just(SchemaVersionSpecification, SchemaVersionDescription, "", SchemaVersionVersion000, SchemaVersionVersion100)).await();
+        assertEquals(Created, defined.status);
+        final String schemaVersionId = JsonSerialization.deserialized(defined.entity.content(), SchemaVersionData.class).schemaVersionId;
+
+        final String found = "o:u:c:lookedUp:" + SchemaVersionVersion100;
+        final String missing = "o:u:c:lookedUp:" + SchemaVersionVersion300;
+        awaitLookupOf(found);
+
+        final AtomicInteger queried = new AtomicInteger();
+        final SchemaVersionResource resource = new SchemaVersionResource(stage, new CodeQueries() {
+            @Override
+            public Completes<CodeView> codeFor(final Path path) {
+                queried.incrementAndGet();
+                return codeQueries.codeFor(path);
+            }
+
+            @Override
+            public Completes<CodeArtifactView> codeArtifactsFor(final String schemaVersionId) {
+                return codeQueries.codeArtifactsFor(schemaVersionId);
+            }
+        });
+
+        final Response response = resource.lookupSchemaVersions(SchemaVersionReferencesData.of(missing, found, "invalid", found)).await();
+        assertEquals(Ok, response.status);
+        assertEquals(2, queried.get());
+
+        final SchemaVersionLookupData[] results = JsonSerialization.deserialized(response.entity.content(), SchemaVersionLookupData[].class);
+        assertEquals(4, results.length);
+        assertEquals(missing, results[0].reference);
+        assertEquals(NotFound.name(), results[0].status);
+        assertFalse(results[0].isFound());
+        assertEquals(BadRequest.name(), results[2].status);
+        for (final int index : new int[] { 1, 3 }) {
+            assertEquals(found, results[index].reference);
+            assertEquals(Ok.name(), results[index].status);
+            assertEquals(schemaVersionId, results[index].schemaVersion.schemaVersionId());
+            assertEquals(SchemaVersionVersion100, results[index].schemaVersion.currentVersion());
+        }
+    }
+
+    @Test
+    public void testThatLookupRejectsMissingAndOversizedBatches() {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        assertEquals(BadRequest, resource.lookupSchemaVersions(null).await().status);
+        assertEquals(BadRequest, resource.lookupSchemaVersions(SchemaVersionReferencesData.of((List<String>) null)).await().status);
+        assertEquals(BadRequest, resource.lookupSchemaVersions(SchemaVersionReferencesData.of(
+                Collections.nCopies(SchemaVersionResource.MaximumLookupReferences + 1, "o:u:c:s:1.0.0"))).await().status);
+
+        final Response empty = resource.lookupSchemaVersions(SchemaVersionReferencesData.of(Collections.emptyList())).await();
+        assertEquals(Ok, empty.status);
+        assertEquals("[]", empty.entity.content());
+    }
+
+    @Test
+    public void testThatImportRejectsWholeBatchWhenAnyIsInvalid() {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        final SchemaState schema = registeredSchema("s");
+        final Response response = resource.importSchemaVersions(SchemaVersionsImportData.of(
+                importData(schema, SchemaVersionSpecification, SchemaVersionVersion100),
+                importData(schema, "", SchemaVersionVersion101),
+                importData(schema, SchemaVersionSpecification, SchemaVersionVersion100))).await();
+
+        assertEquals(BadRequest, response.status);
+        assertFalse(response.entity.content().contains("0: "));
+        assertTrue(response.entity.content().contains("1: Missing specification"));
+        assertTrue(response.entity.content().contains("2: Duplicate version"));
+    }
+
+    @Test
+    public void testThatImportDefinesEverySchemaVersion() {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        final SchemaState schema = registeredSchema("s");
+        final SchemaState other = Schema.with(world.stageNamed(Schemata.StageName), schema.schemaId.contextId, Category.Event, Scope.Public, "o", "d").await();
+        final Response response = resource.importSchemaVersions(SchemaVersionsImportData.of(
+                importData(schema, SchemaVersionSpecification, SchemaVersionVersion100),
+                importData(other, "event Other { type t }", SchemaVersionVersion100))).await();
+
+        assertEquals(Created, response.status);
+        final SchemaVersionData[] imported = JsonSerialization.deserialized(response.entity.content(), SchemaVersionData[].class);
+        assertEquals(2, imported.length);
+        assertEquals(schema.schemaId.value, imported[0].schemaId);
+        assertEquals(other.schemaId.value, imported[1].schemaId);
+        assertNotEquals(imported[0].schemaVersionId, imported[1].schemaVersionId);
+        assertEquals(Status.Published.name(), imported[0].status);
+    }
+
+    @Test
+    public void testThatImportRejectsUnknownSchemasAndExistingVersions() {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        final SchemaState schema = registeredSchema("s");
+        assertEquals(Created, resource.importSchemaVersions(SchemaVersionsImportData.of(
+                importData(schema, SchemaVersionSpecification, SchemaVersionVersion100))).await().status);
+
+        final SchemaVersionData unknown = SchemaVersionData.from(schema.schemaId.contextId.unitId.organizationId.value, schema.schemaId.contextId.unitId.value,
+                schema.schemaId.contextId.value, "S-unknown", "", SchemaVersionSpecification, SchemaVersionDescription,
+                Status.Published.name(), SchemaVersionVersion000, SchemaVersionVersion100);
+        final Response response = resource.importSchemaVersions(SchemaVersionsImportData.of(
+                importData(schema, SchemaVersionSpecification, SchemaVersionVersion100),
+                importData(schema, SchemaVersionSpecification, SchemaVersionVersion101),
+                unknown)).await();
+
+        assertEquals(BadRequest, response.status);
+        assertTrue(response.entity.content().contains("0: Version " + SchemaVersionVersion100 + " of schema " + schema.schemaId.value + " already exists"));
+        assertFalse(response.entity.content().contains("1: "));
+        assertTrue(response.entity.content().contains("2: Unknown schema S-unknown"));
+    }
+
+    @Test
+    public void testThatEmptyImportIsRejected() {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        assertEquals(BadRequest, resource.importSchemaVersions(SchemaVersionsImportData.of(Collections.emptyList())).await().status);
+        assertEquals(BadRequest, resource.importSchemaVersions(null).await().status);
+    }
+
+    @Test
+    public void testThatChangesPollAnswersLinkToResumeWith() {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        final long position = StorageProvider.instance().schemaVersionChanges.position();
+
+        final Response response = resource.querySchemaVersionChanges("", OrgId, "", "", "", 0, 0).await();
+        assertEquals(Ok, response.status);
+        assertEquals("[]", response.entity.content());
+        assertTrue(response.headers.headerOf(Paging.Link).value.contains("organizationId=" + OrgId + "&"));
+        assertTrue(response.headers.headerOf(Paging.Link).value.contains("after=" + position + ">"));
+
+        assertEquals(BadRequest, resource.querySchemaVersionChanges("x", "", "", "", "", 0, 0).await().status);
+        assertEquals(BadRequest, resource.querySchemaVersionChanges("-1", "", "", "", "", 0, 0).await().status);
+        assertEquals(BadRequest, resource.querySchemaVersionChanges("", "", "", "", "", 0, SchemaVersionChanges.MaximumWait + 1).await().status);
+    }
+
+    @Test
+    public void testThatChangesPollWaitsForMatchingChange() {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        final SchemaVersionChangeFeed feed = StorageProvider.instance().schemaVersionChanges;
+        final long position = feed.position();
+
+        final Completes<Response> poll = resource.querySchemaVersionChanges(String.valueOf(position), "", "", "", SchemaId, 0, 10);
+        feed.append(SchemaVersionChangeView.with(position + 1, "SchemaVersionDefined", "O0", "U0", "C0", "S0", "V0"), false);
+        feed.append(SchemaVersionChangeView.with(position + 2, "SchemaVersionDefined", OrgId, UnitId, ContextId, SchemaId, "V1"), false);
+
+        final Response response = poll.await();
+        assertEquals(Ok, response.status);
+        assertTrue(response.entity.content().contains("\"schemaVersionId\":\"V1\""));
+        assertFalse(response.entity.content().contains("\"schemaVersionId\":\"V0\""));
+        assertEquals(0, feed.listenersCount());
+    }
+
+    /**
+     * Await the projection of the code of {@code reference}, which follows its definition.
+     */
+    private void awaitLookupOf(final String reference) throws InterruptedException {
+        final SchemaVersionResource resource = new SchemaVersionResource(stage);
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            final Response response = resource.lookupSchemaVersions(SchemaVersionReferencesData.of(reference)).await();
+            if (JsonSerialization.deserialized(response.entity.content(), SchemaVersionLookupData[].class)[0].isFound()) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Code of " + reference + " not projected");
+    }
+
+    private SchemaState registeredSchema(final String name) {
+        final OrganizationState org = Organization.with(world.stageNamed(Schemata.StageName), Organization.uniqueId(), "o", "d").await();
+        final UnitState unit = Unit.with(world.stageNamed(Schemata.StageName), org.organizationId, "u", "d").await();
+        final ContextState context = Context.with(world.stageNamed(Schemata.StageName), unit.unitId, "c", "d").await();
+        return Schema.with(world.stageNamed(Schemata.StageName), context.contextId, Category.Event, Scope.Public, name, "d").await();
+    }
+
+    private SchemaVersionData importData(final SchemaState schema, final String specification, final String version) {
+        return SchemaVersionData.from(schema.schemaId.contextId.unitId.organizationId.value, schema.schemaId.contextId.unitId.value, schema.schemaId.contextId.value,
+                schema.schemaId.value, "", specification, SchemaVersionDescription, Status.Published.name(), SchemaVersionVersion000, version);
+    }
 }